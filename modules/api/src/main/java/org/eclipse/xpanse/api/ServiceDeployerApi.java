@@ -12,6 +12,8 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -22,20 +24,34 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
+import org.eclipse.xpanse.modules.database.utils.EntityTransUtils;
 import org.eclipse.xpanse.modules.deployment.DeployService;
+import org.eclipse.xpanse.modules.deployment.async.DeploymentScheduler;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.TerraformWorkspaceJanitor;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.TerraformWorkspacePool;
+import org.eclipse.xpanse.modules.deployment.events.ServiceStateEventBroker;
+import org.eclipse.xpanse.modules.deployment.events.ServiceStateListener;
 import org.eclipse.xpanse.modules.models.response.Response;
 import org.eclipse.xpanse.modules.models.service.common.enums.Category;
 import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.BatchCreateRequest;
 import org.eclipse.xpanse.modules.models.service.deploy.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.service.deploy.query.DeployedServiceQuery;
 import org.eclipse.xpanse.modules.models.service.register.query.RegisteredServiceQuery;
+import org.eclipse.xpanse.modules.models.service.view.BatchDeployStatusVo;
 import org.eclipse.xpanse.modules.models.service.view.CategoryOclVo;
+import org.eclipse.xpanse.modules.models.service.view.DeployLogVo;
+import org.eclipse.xpanse.modules.models.service.view.DeploymentLaneStatsVo;
 import org.eclipse.xpanse.modules.models.service.view.ServiceDetailVo;
+import org.eclipse.xpanse.modules.models.service.view.ServiceStateEventVo;
 import org.eclipse.xpanse.modules.models.service.view.ServiceVo;
 import org.eclipse.xpanse.modules.models.service.view.UserAvailableServiceVo;
+import org.eclipse.xpanse.modules.models.service.view.WorkspaceJanitorStatsVo;
+import org.eclipse.xpanse.modules.models.service.view.WorkspacePoolStatsVo;
 import org.eclipse.xpanse.modules.orchestrator.deployment.DeployTask;
 import org.eclipse.xpanse.modules.orchestrator.deployment.Deployment;
 import org.eclipse.xpanse.modules.register.register.RegisterService;
-import org.springframework.beans.BeanUtils;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.http.HttpStatus;
@@ -46,10 +62,12 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
 /**
@@ -61,10 +79,22 @@ import org.springframework.web.bind.annotation.RestController;
 @CrossOrigin
 public class ServiceDeployerApi {
 
+    private static final int MAX_LOG_READ_BYTES = 1024 * 1024;
+    private static final int MAX_DEPLOYED_SERVICES_PAGE_SIZE = 1000;
+    private static final long EVENT_STREAM_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
     @Resource
     private RegisterService registerService;
     @Resource
     private DeployService deployService;
+    @Resource
+    private TerraformWorkspacePool terraformWorkspacePool;
+    @Resource
+    private TerraformWorkspaceJanitor terraformWorkspaceJanitor;
+    @Resource
+    private DeploymentScheduler deploymentScheduler;
+    @Resource
+    private ServiceStateEventBroker serviceStateEventBroker;
 
     /**
      * Get status of the managed service with name.
@@ -85,38 +115,73 @@ public class ServiceDeployerApi {
     }
 
     /**
-     * List all deployed services.
+     * List the deployed services, from the newest to the oldest. The next page is read with the
+     * id of the last service of the page as cursor.
      *
-     * @return list of all services deployed.
+     * @param category     category of the services.
+     * @param cspName      name of cloud service provider.
+     * @param serviceName  name of the services.
+     * @param serviceState state of the services.
+     * @param cursor       id of the last service of the previous page.
+     * @param limit        max number of services in the page.
+     * @return list of the services deployed.
      */
     @Tag(name = "Service", description = "APIs to manage the service instances")
-    @Operation(description = "Lists all deployed services.")
+    @Operation(description = "Lists the deployed services.")
     @GetMapping(value = "/services/deployed", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public List<ServiceVo> listDeployedServices() {
-        return this.deployService.getDeployedServices();
+    public List<ServiceVo> listDeployedServices(
+            @Parameter(name = "categoryName", description = "category of the service")
+            @RequestParam(name = "categoryName", required = false) Category category,
+            @Parameter(name = "cspName", description = "name of the service provider")
+            @RequestParam(name = "cspName", required = false) String cspName,
+            @Parameter(name = "serviceName", description = "name of the service")
+            @RequestParam(name = "serviceName", required = false) String serviceName,
+            @Parameter(name = "serviceState", description = "state of the service")
+            @RequestParam(name = "serviceState", required = false) ServiceState serviceState,
+            @Parameter(name = "cursor", description = "id of the last service of the previous page")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(name = "limit", description = "max number of services in the page")
+            @RequestParam(name = "limit", required = false, defaultValue = "100") int limit) {
+        return this.deployService.getDeployedServices(getDeployedServicesQueryModel(null,
+                category, cspName, serviceName, serviceState, cursor, limit));
     }
 
     /**
-     * List all deployed services by a user.
+     * List the deployed services of a user, from the newest to the oldest. The next page is read
+     * with the id of the last service of the page as cursor.
      *
-     * @return list of all services deployed by a user.
+     * @param userName     user who deployed the services.
+     * @param category     category of the services.
+     * @param cspName      name of cloud service provider.
+     * @param serviceName  name of the services.
+     * @param serviceState state of the services.
+     * @param cursor       id of the last service of the previous page.
+     * @param limit        max number of services in the page.
+     * @return list of the services deployed by a user.
      */
     @Tag(name = "Service", description = "APIs to manage the service instances")
-    @Operation(description = "List all deployed services by a user.")
+    @Operation(description = "List the deployed services of a user.")
     @GetMapping(value = "/services/deployed/{userName}",
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
     public List<ServiceVo> getDeployedServicesByUser(
             @Parameter(name = "userName", description = "User who deployed the service")
-            @PathVariable("userName") String userName) {
-        return this.deployService
-                .getDeployedServices()
-                .stream()
-                .filter(serviceVo -> Objects.nonNull(serviceVo.getUserName())
-                        && serviceVo.getUserName().equals(userName))
-                .collect(Collectors.toList());
-
+            @PathVariable("userName") String userName,
+            @Parameter(name = "categoryName", description = "category of the service")
+            @RequestParam(name = "categoryName", required = false) Category category,
+            @Parameter(name = "cspName", description = "name of the service provider")
+            @RequestParam(name = "cspName", required = false) String cspName,
+            @Parameter(name = "serviceName", description = "name of the service")
+            @RequestParam(name = "serviceName", required = false) String serviceName,
+            @Parameter(name = "serviceState", description = "state of the service")
+            @RequestParam(name = "serviceState", required = false) ServiceState serviceState,
+            @Parameter(name = "cursor", description = "id of the last service of the previous page")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(name = "limit", description = "max number of services in the page")
+            @RequestParam(name = "limit", required = false, defaultValue = "100") int limit) {
+        return this.deployService.getDeployedServices(getDeployedServicesQueryModel(userName,
+                category, cspName, serviceName, serviceState, cursor, limit));
     }
 
     /**
@@ -151,6 +216,134 @@ public class ServiceDeployerApi {
         return id;
     }
 
+    /**
+     * Start the tasks to deploy several instances of a registered service.
+     *
+     * @param batchRequest the template request and the overrides of each instance.
+     * @return id of the batch.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Start the tasks to deploy several instances of registered service.")
+    @PostMapping(value = "/services/deploy/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public UUID batchDeploy(@Valid @RequestBody BatchCreateRequest batchRequest) {
+        CreateRequest template = batchRequest.getTemplate();
+        log.info("Starting {} instances of managed service with name {}, version {}, csp {}",
+                batchRequest.getInstances().size(), template.getServiceName(),
+                template.getVersion(), template.getCsp());
+        UUID batchId = UUID.randomUUID();
+        DeployTask templateTask = new DeployTask();
+        templateTask.setCreateRequest(template);
+        Deployment deployment = this.deployService.getDeployHandler(templateTask);
+        List<DeployTask> deployTasks = this.deployService.getBatchDeployTasks(templateTask,
+                batchRequest.getInstances(), batchId);
+        for (DeployTask deployTask : deployTasks) {
+            CreateRequest createRequest = deployTask.getCreateRequest();
+            if (StringUtils.isBlank(createRequest.getCustomerServiceName())) {
+                createRequest.setCustomerServiceName(generateCustomerServiceName(createRequest));
+            }
+        }
+        this.deployService.asyncBatchDeployService(deployment, deployTasks,
+                batchRequest.getMaxParallel());
+        log.info("Tasks of batch {} of managed service {}-{}-{} start running.", batchId,
+                template.getServiceName(), template.getVersion(), template.getCsp());
+        return batchId;
+    }
+
+    /**
+     * Get the aggregate status of the instances of a batch deployment.
+     *
+     * @param batchId id of the batch.
+     * @return the status of the batch.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Get the aggregate status of the instances of a batch deployment.")
+    @GetMapping(value = "/services/deploy/batch/{batchId}",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public BatchDeployStatusVo getBatchDeployStatus(
+            @Parameter(name = "batchId", description = "Id of the batch")
+            @PathVariable("batchId") String batchId) {
+        return this.deployService.getBatchDeployStatus(UUID.fromString(batchId));
+    }
+
+    /**
+     * Tail or range-read the Terraform log of the deployed service.
+     *
+     * @param id       ID of deployed service.
+     * @param userName user who deployed the service.
+     * @param offset   byte offset to start reading from, the end of the log is read when empty.
+     * @param length   max number of bytes to read.
+     * @return the read range of the log.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Tail or range-read the Terraform log of the deployed service.")
+    @GetMapping(value = "/services/deploy/{id}/logs/{userName}",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public DeployLogVo getDeployLog(
+            @Parameter(name = "id", description = "Id of the deployed service")
+            @PathVariable("id") String id,
+            @Parameter(name = "userName", description = "User who deployed the service")
+            @PathVariable("userName") String userName,
+            @Parameter(name = "offset", description = "Byte offset to start reading from")
+            @RequestParam(name = "offset", required = false) Long offset,
+            @Parameter(name = "length", description = "Max number of bytes to read")
+            @RequestParam(name = "length", required = false, defaultValue = "65536")
+            int length) {
+        return this.deployService.getDeployLog(UUID.fromString(id), userName, offset,
+                Math.min(Math.max(length, 1), MAX_LOG_READ_BYTES));
+    }
+
+    /**
+     * Stream the state changes of a deployed service or of all services of a user as
+     * server-sent events. A client which reconnects with the id of the last event it received
+     * gets the events it missed first.
+     *
+     * @param serviceId   ID of deployed service.
+     * @param userName    user who deployed the services.
+     * @param lastEventId id of the last event received by the client.
+     * @return the event stream.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Stream the state changes of deployed services.")
+    @GetMapping(value = "/services/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public SseEmitter streamServiceStateEvents(
+            @Parameter(name = "serviceId", description = "Id of the deployed service")
+            @RequestParam(name = "serviceId", required = false) String serviceId,
+            @Parameter(name = "userName", description = "User who deployed the services")
+            @RequestParam(name = "userName", required = false) String userName,
+            @Parameter(name = "Last-Event-ID", description = "Id of the last event received")
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(EVENT_STREAM_TIMEOUT_MILLIS);
+        ServiceStateEventBroker.Subscription subscription =
+                this.serviceStateEventBroker.subscribe(
+                        StringUtils.isBlank(serviceId) ? null : UUID.fromString(serviceId),
+                        userName, lastEventId, new ServiceStateListener() {
+                            @Override
+                            public void onEvent(ServiceStateEventVo event) {
+                                send(emitter, SseEmitter.event()
+                                        .id(String.valueOf(event.getEventId()))
+                                        .name("state").data(event, MediaType.APPLICATION_JSON));
+                            }
+
+                            @Override
+                            public void onHeartbeat() {
+                                send(emitter, SseEmitter.event().comment("heartbeat"));
+                            }
+
+                            @Override
+                            public void onClose() {
+                                emitter.complete();
+                            }
+                        });
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return emitter;
+    }
+
     /**
      * Start a task to destroy the deployed service using id.
      *
@@ -172,6 +365,62 @@ public class ServiceDeployerApi {
         return Response.successResponse(Collections.singletonList(successMsg));
     }
 
+    /**
+     * Cancel the running deploy or destroy task of the service using id.
+     *
+     * @param id ID of deployed service.
+     * @return response
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Cancel the running deploy or destroy task of the service.")
+    @PostMapping(value = "/services/{id}/cancel", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Response cancel(@PathVariable("id") String id) {
+        log.info("Cancelling the task of managed service with id {}", id);
+        this.deployService.cancelService(UUID.fromString(id));
+        String successMsg = String.format(
+                "Task of managed service %s is being cancelled.", id);
+        return Response.successResponse(Collections.singletonList(successMsg));
+    }
+
+    /**
+     * Get the statistics of the pool of pre-initialized deployment workspaces.
+     *
+     * @return hit and miss counts of the workspace pool.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Get the statistics of the pool of pre-initialized workspaces.")
+    @GetMapping(value = "/services/workspaces/pool", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public WorkspacePoolStatsVo getWorkspacePoolStats() {
+        return this.terraformWorkspacePool.getStats();
+    }
+
+    /**
+     * Get the disk usage of the deployment workspaces.
+     *
+     * @return footprint of the workspaces and the bytes reclaimed by the janitor.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Get the disk usage of the deployment workspaces.")
+    @GetMapping(value = "/services/workspaces/usage", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public WorkspaceJanitorStatsVo getWorkspaceUsage() {
+        return this.terraformWorkspaceJanitor.getStats();
+    }
+
+    /**
+     * Get the queue depth and wait time of the deployment lane of each CSP.
+     *
+     * @return statistics of the deployment lanes.
+     */
+    @Tag(name = "Service", description = "APIs to manage the service instances")
+    @Operation(description = "Get the statistics of the deployment lane of each CSP.")
+    @GetMapping(value = "/services/deploy/lanes", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<DeploymentLaneStatsVo> getDeploymentLaneStats() {
+        return this.deploymentScheduler.getStats();
+    }
 
     /**
      * List the available services.
@@ -305,20 +554,31 @@ public class ServiceDeployerApi {
     }
 
 
+    private DeployedServiceQuery getDeployedServicesQueryModel(String userName, Category category,
+                                                               String cspName,
+                                                               String serviceName,
+                                                               ServiceState serviceState,
+                                                               String cursor, int limit) {
+        DeployedServiceQuery query = new DeployedServiceQuery();
+        query.setUserName(userName);
+        query.setCategory(category);
+        if (StringUtils.isNotBlank(cspName)) {
+            query.setCsp(Csp.getByValue(cspName));
+        }
+        query.setServiceName(serviceName);
+        query.setServiceState(serviceState);
+        if (StringUtils.isNotBlank(cursor)) {
+            query.setCursor(UUID.fromString(cursor));
+        }
+        query.setLimit(Math.min(Math.max(limit, 1), MAX_DEPLOYED_SERVICES_PAGE_SIZE));
+        return query;
+    }
+
     private UserAvailableServiceVo convertToUserAvailableServiceVo(
             RegisterServiceEntity serviceEntity) {
         if (Objects.nonNull(serviceEntity)) {
-            UserAvailableServiceVo userAvailableServiceVo = new UserAvailableServiceVo();
-            BeanUtils.copyProperties(serviceEntity, userAvailableServiceVo);
-            userAvailableServiceVo.setIcon(serviceEntity.getOcl().getIcon());
-            userAvailableServiceVo.setDescription(serviceEntity.getOcl().getDescription());
-            userAvailableServiceVo.setNamespace(serviceEntity.getOcl().getNamespace());
-            userAvailableServiceVo.setBilling(serviceEntity.getOcl().getBilling());
-            userAvailableServiceVo.setFlavors(serviceEntity.getOcl().getFlavors());
-            userAvailableServiceVo.setVariables(
-                    serviceEntity.getOcl().getDeployment().getVariables());
-            userAvailableServiceVo.setRegions(
-                    serviceEntity.getOcl().getCloudServiceProvider().getRegions());
+            UserAvailableServiceVo userAvailableServiceVo =
+                    EntityTransUtils.transToUserAvailableServiceVo(serviceEntity);
             userAvailableServiceVo.add(
                     WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ServiceDeployerApi.class)
                                     .openApi(serviceEntity.getId().toString()))
@@ -329,6 +589,14 @@ public class ServiceDeployerApi {
         }
     }
 
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private String generateCustomerServiceName(CreateRequest createRequest) {
         if (createRequest.getServiceName().length() > 5) {
             return createRequest.getServiceName().substring(0, 4) + "-"
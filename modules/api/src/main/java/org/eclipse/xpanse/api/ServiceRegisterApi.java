@@ -20,6 +20,7 @@ import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
+import org.eclipse.xpanse.modules.database.utils.EntityTransUtils;
 import org.eclipse.xpanse.modules.models.admin.SystemStatus;
 import org.eclipse.xpanse.modules.models.admin.enums.HealthStatus;
 import org.eclipse.xpanse.modules.models.response.Response;
@@ -29,7 +30,6 @@ import org.eclipse.xpanse.modules.models.service.register.Ocl;
 import org.eclipse.xpanse.modules.models.service.register.query.RegisteredServiceQuery;
 import org.eclipse.xpanse.modules.models.service.view.RegisteredServiceVo;
 import org.eclipse.xpanse.modules.register.register.RegisterService;
-import org.springframework.beans.BeanUtils;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -293,8 +293,8 @@ public class ServiceRegisterApi {
 
     private RegisteredServiceVo convertToRegisteredServiceVo(RegisterServiceEntity serviceEntity) {
         if (Objects.nonNull(serviceEntity)) {
-            RegisteredServiceVo registeredServiceVo = new RegisteredServiceVo();
-            BeanUtils.copyProperties(serviceEntity, registeredServiceVo);
+            RegisteredServiceVo registeredServiceVo =
+                    EntityTransUtils.transToRegisteredServiceVo(serviceEntity);
             registeredServiceVo.add(
                     WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(ServiceDeployerApi.class)
                             .openApi(serviceEntity.getId().toString())).withRel("openApi"));
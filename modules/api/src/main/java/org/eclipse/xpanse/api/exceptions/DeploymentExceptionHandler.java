@@ -10,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.eclipse.xpanse.modules.models.response.Response;
 import org.eclipse.xpanse.modules.models.response.ResultType;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeployerNotFoundException;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeploymentQueueFullException;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.FlavorInvalidException;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.InvalidServiceStateException;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.PluginNotFoundException;
@@ -117,4 +118,16 @@ public class DeploymentExceptionHandler {
 
     }
 
+    /**
+     * Exception handler for DeploymentQueueFullException.
+     */
+    @ExceptionHandler({DeploymentQueueFullException.class})
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ResponseBody
+    public Response handleDeploymentQueueFullException(
+            DeploymentQueueFullException ex) {
+        return Response.errorResponse(ResultType.DEPLOYMENT_QUEUE_FULL,
+                Collections.singletonList(ex.getMessage()));
+    }
+
 }
@@ -15,6 +15,7 @@ import org.eclipse.xpanse.api.exceptions.CommonExceptionHandler;
 import org.eclipse.xpanse.api.exceptions.DeploymentExceptionHandler;
 import org.eclipse.xpanse.modules.credential.CredentialCenter;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeployerNotFoundException;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeploymentQueueFullException;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.FlavorInvalidException;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.InvalidServiceStateException;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.PluginNotFoundException;
@@ -129,4 +130,16 @@ class DeploymentExceptionHandlerTests {
                 .andExpect(jsonPath("$.resultType").value("Service Deployment Not Found"))
                 .andExpect(jsonPath("$.details[0]").value("test error"));
     }
+
+    @Test
+    void testDeploymentQueueFullException() throws Exception {
+        when(credentialCenter.getCredentialsByUser(anyString())).thenThrow(
+                new DeploymentQueueFullException(
+                        "test error"));
+        this.mockMvc.perform(
+                        get("/xpanse/auth/user/credentials?userName=test"))
+                .andExpect(status().is(429))
+                .andExpect(jsonPath("$.resultType").value("Deployment Queue Full"))
+                .andExpect(jsonPath("$.details[0]").value("test error"));
+    }
 }
@@ -0,0 +1,23 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.common;
+
+import jakarta.persistence.Converter;
+import org.eclipse.xpanse.modules.models.service.deploy.CreateRequest;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Converter of the CreateRequest to a JSON column.
+ */
+@Converter
+@Immutable
+public class CreateRequestJsonConverter extends JsonColumnConverter<CreateRequest> {
+
+    public CreateRequestJsonConverter() {
+        super(CreateRequest.class);
+    }
+}
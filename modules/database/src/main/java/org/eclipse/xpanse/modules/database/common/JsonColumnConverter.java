@@ -0,0 +1,64 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.common;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.persistence.AttributeConverter;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Converter of an object to a JSON column. The object is written as compact JSON text in UTF-8,
+ * which the json columns of H2 take as they are. The reader and the writer of the type are
+ * created once and shared by all rows. The converters of the types are annotated with Immutable,
+ * so that Hibernate does not copy every loaded object through JSON to detect changes, an
+ * attribute is updated by replacing the object.
+ *
+ * @param <T> type of the object.
+ */
+public abstract class JsonColumnConverter<T> implements AttributeConverter<T, byte[]> {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final ObjectReader objectReader;
+    private final ObjectWriter objectWriter;
+
+    protected JsonColumnConverter(Class<T> type) {
+        this.objectReader = OBJECT_MAPPER.readerFor(type);
+        this.objectWriter = OBJECT_MAPPER.writerFor(type);
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(T object) {
+        if (Objects.isNull(object)) {
+            return null;
+        }
+        try {
+            return objectWriter.writeValueAsBytes(object);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Serialising object to JSON failed.", ex);
+        }
+    }
+
+    @Override
+    public T convertToEntityAttribute(byte[] json) {
+        if (Objects.isNull(json)) {
+            return null;
+        }
+        try {
+            return objectReader.readValue(json);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Deserialising JSON to object failed.", ex);
+        }
+    }
+}
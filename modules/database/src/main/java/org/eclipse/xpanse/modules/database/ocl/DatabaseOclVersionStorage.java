@@ -0,0 +1,38 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.ocl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the OclVersionStorage.
+ */
+@Component
+@Transactional
+public class DatabaseOclVersionStorage implements OclVersionStorage {
+
+    private final OclVersionRepository oclVersionRepository;
+
+    @Autowired
+    public DatabaseOclVersionStorage(OclVersionRepository oclVersionRepository) {
+        this.oclVersionRepository = oclVersionRepository;
+    }
+
+    @Override
+    public void storeIfAbsent(OclVersionEntity oclVersionEntity) {
+        if (!this.oclVersionRepository.existsById(oclVersionEntity.getContentHash())) {
+            this.oclVersionRepository.saveAndFlush(oclVersionEntity);
+        }
+    }
+
+    @Override
+    public OclVersionEntity findOclVersionByHash(String contentHash) {
+        return this.oclVersionRepository.findById(contentHash).orElse(null);
+    }
+}
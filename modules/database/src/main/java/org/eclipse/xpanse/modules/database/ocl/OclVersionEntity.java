@@ -0,0 +1,42 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.ocl;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.eclipse.xpanse.modules.database.common.CreateModifiedTime;
+
+/**
+ * OclVersionEntity for persistence. Stores each version of the Ocl of the registered services
+ * once by the hash of its content, the registered and deployed services only keep the hash.
+ * The rows are never updated.
+ */
+@Table(name = "OCL_VERSION")
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class OclVersionEntity extends CreateModifiedTime {
+
+    /**
+     * Hash of the content.
+     */
+    @Id
+    @Column(name = "CONTENT_HASH", length = 64)
+    private String contentHash;
+
+    /**
+     * The Ocl as compact JSON with sorted keys.
+     */
+    @Column(name = "CONTENT", length = Integer.MAX_VALUE, nullable = false)
+    @ToString.Exclude
+    private String content;
+}
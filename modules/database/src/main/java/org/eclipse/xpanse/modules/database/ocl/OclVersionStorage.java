@@ -0,0 +1,28 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.ocl;
+
+/**
+ * Interface for persist of the versions of the Ocl.
+ */
+public interface OclVersionStorage {
+
+    /**
+     * Add the version to database if no version with the same hash is stored.
+     *
+     * @param oclVersionEntity the model of the version.
+     */
+    void storeIfAbsent(OclVersionEntity oclVersionEntity);
+
+    /**
+     * Get the version by the hash of its content.
+     *
+     * @param contentHash hash of the content.
+     * @return the version or null when no version with the hash is stored.
+     */
+    OclVersionEntity findOclVersionByHash(String contentHash);
+}
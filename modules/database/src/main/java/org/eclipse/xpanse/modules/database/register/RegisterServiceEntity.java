@@ -6,7 +6,6 @@
 
 package org.eclipse.xpanse.modules.database.register;
 
-import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
@@ -21,12 +20,11 @@ import java.util.UUID;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.eclipse.xpanse.modules.database.common.CreateModifiedTime;
-import org.eclipse.xpanse.modules.database.common.ObjectJsonConverter;
+import org.eclipse.xpanse.modules.database.common.OclJsonConverter;
 import org.eclipse.xpanse.modules.models.service.common.enums.Category;
 import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
 import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
 import org.eclipse.xpanse.modules.models.service.register.Ocl;
-import org.hibernate.annotations.Type;
 
 /**
  * Represents the REGISTER_SERVICE table in the database.
@@ -58,11 +56,20 @@ public class RegisterServiceEntity extends CreateModifiedTime {
     @Enumerated(EnumType.STRING)
     private Category category;
 
+    /**
+     * The current Ocl of the service, the Ocl is replaced and not modified to update the column.
+     */
     @Column(name = "OCL", columnDefinition = "json", nullable = false)
-    @Type(value = JsonType.class)
-    @Convert(converter = ObjectJsonConverter.class)
+    @Convert(converter = OclJsonConverter.class)
     private Ocl ocl;
 
+    /**
+     * The hash of the current version of the Ocl, the versions are stored in the OCL_VERSION
+     * table and referenced by the deployed services.
+     */
+    @Column(name = "OCL_HASH", length = 64)
+    private String oclHash;
+
     @Column(name = "SERVICE_STATE")
     @Enumerated(EnumType.STRING)
     private ServiceState serviceState;
@@ -6,14 +6,21 @@
 
 package org.eclipse.xpanse.modules.database.resource;
 
-import jakarta.persistence.criteria.Predicate;
-import java.util.ArrayList;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -23,8 +30,34 @@ import org.springframework.util.CollectionUtils;
 @Transactional
 public class DatabaseDeployResourceStorage implements DeployResourceStorage {
 
+    private static final long MAX_CACHED_RESOURCES = 10000;
+
     private final DeployResourceRepository deployResourceRepository;
 
+    /**
+     * The ids of the cached resources of each deployed service.
+     */
+    private final Map<UUID, Set<String>> resourceIdsByServiceId = new ConcurrentHashMap<>();
+
+    /**
+     * Summaries of the resources looked up by the monitor, with the csp and the user of the
+     * deployed service which owns them. The entries are evicted once the resources of the service
+     * are rewritten or deleted through this storage and the change is committed, and expire so
+     * that changes made by other instances of xpanse are seen.
+     */
+    private final Cache<String, DeployResourceSummary> resourcesByResourceId =
+            Caffeine.newBuilder()
+                    .maximumSize(MAX_CACHED_RESOURCES)
+                    .expireAfterWrite(10, TimeUnit.MINUTES)
+                    .<String, DeployResourceSummary>evictionListener((resourceId, resource,
+                            cause) -> removeFromIndex(resource.deployServiceId(), resourceId))
+                    .build();
+
+    /**
+     * Number of the evictions, a resource loaded while an eviction happened may be stale.
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
     @Autowired
     public DatabaseDeployResourceStorage(DeployResourceRepository deployResourceRepository) {
         this.deployResourceRepository = deployResourceRepository;
@@ -33,6 +66,7 @@ public class DatabaseDeployResourceStorage implements DeployResourceStorage {
     @Override
     public void deleteByDeployServiceId(UUID id) {
         deployResourceRepository.deleteByDeployServiceId(id);
+        invalidateAfterCommit(id);
     }
 
     /**
@@ -47,29 +81,97 @@ public class DatabaseDeployResourceStorage implements DeployResourceStorage {
     }
 
     /**
-     * Get detail of deployed resource using ID.
+     * Get summary of deployed resource using ID.
      *
      * @param resourceId the RESOURCE_ID of deployed resource.
-     * @return DeployResourceEntity
+     * @return DeployResourceSummary
      */
     @Override
-    public DeployResourceEntity findDeployResourceByResourceId(String resourceId) {
-        Specification<DeployResourceEntity> specification =
-                (root, query, criteriaBuilder) -> {
-                    List<Predicate> predicateList = new ArrayList<>();
-                    predicateList.add(criteriaBuilder.equal(root.get("resourceId"),
-                            resourceId));
-                    return query.where(criteriaBuilder.and(predicateList.toArray(new Predicate[0])))
-                            .getRestriction();
-                };
+    public DeployResourceSummary findDeployResourceByResourceId(String resourceId) {
+        long evictionsBeforeLoad = evictions.get();
+        DeployResourceSummary resource = resourcesByResourceId.get(resourceId, key -> {
+            List<DeployResourceEntity> deployResources =
+                    deployResourceRepository.findByResourceIdWithService(key);
+            if (CollectionUtils.isEmpty(deployResources)) {
+                return null;
+            }
+            DeployResourceSummary loaded = DeployResourceSummary.of(deployResources.get(0));
+            resourceIdsByServiceId.compute(loaded.deployServiceId(), (id, resourceIds) -> {
+                Set<String> ids = Objects.isNull(resourceIds)
+                        ? ConcurrentHashMap.newKeySet() : resourceIds;
+                ids.add(key);
+                return ids;
+            });
+            return loaded;
+        });
+        if (evictions.get() != evictionsBeforeLoad) {
+            // the resource may have been loaded before the eviction, it is not kept.
+            resourcesByResourceId.invalidate(resourceId);
+        }
+        return resource;
+    }
 
+    /**
+     * Get deployed resource of the deployed service using its name.
+     *
+     * @param id   the ID of the deployed service.
+     * @param name the name of the deployed resource.
+     * @return DeployResourceEntity
+     */
+    @Override
+    public DeployResourceEntity findDeployResourceByServiceIdAndName(UUID id, String name) {
         List<DeployResourceEntity> deployResources =
-                deployResourceRepository.findAll(specification);
+                deployResourceRepository.findByDeployServiceIdAndName(id, name);
         if (!CollectionUtils.isEmpty(deployResources)) {
             return deployResources.get(0);
         }
         return null;
     }
 
+    /**
+     * Add or update deployed resource.
+     *
+     * @param deployResourceEntity the deployed resource.
+     * @return DeployResourceEntity
+     */
+    @Override
+    public DeployResourceEntity store(DeployResourceEntity deployResourceEntity) {
+        if (Objects.nonNull(deployResourceEntity.getDeployService())) {
+            invalidateAfterCommit(deployResourceEntity.getDeployService().getId());
+        }
+        return deployResourceRepository.save(deployResourceEntity);
+    }
 
+    /**
+     * Evicts the resources of the service once the transaction is committed, a lookup before
+     * the commit would load and cache the old rows again.
+     */
+    private void invalidateAfterCommit(UUID deployServiceId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(deployServiceId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        invalidate(deployServiceId);
+                    }
+                });
+    }
+
+    private void invalidate(UUID deployServiceId) {
+        evictions.incrementAndGet();
+        Set<String> resourceIds = resourceIdsByServiceId.remove(deployServiceId);
+        if (Objects.nonNull(resourceIds)) {
+            resourcesByResourceId.invalidateAll(resourceIds);
+        }
+    }
+
+    private void removeFromIndex(UUID deployServiceId, String resourceId) {
+        resourceIdsByServiceId.computeIfPresent(deployServiceId, (id, resourceIds) -> {
+            resourceIds.remove(resourceId);
+            return resourceIds.isEmpty() ? null : resourceIds;
+        });
+    }
 }
@@ -16,6 +16,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MapKeyColumn;
@@ -32,7 +33,8 @@ import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployResourceKind
  * DeployResourceEntity for persistence.
  */
 @Data
-@Table(name = "DEPLOY_RESOURCE")
+@Table(name = "DEPLOY_RESOURCE", indexes = {
+        @Index(name = "DEPLOY_RESOURCE_ID_IDX", columnList = "RESOURCE_ID")})
 @Entity
 @EqualsAndHashCode(callSuper = true)
 public class DeployResourceEntity extends CreateModifiedTime {
@@ -45,6 +47,10 @@ public class DeployResourceEntity extends CreateModifiedTime {
     @Column(name = "ID", nullable = false)
     private UUID id;
 
+    /**
+     * The id of the resource in the cloud.
+     */
+    @Column(name = "RESOURCE_ID")
     private String resourceId;
 
     /**
@@ -6,9 +6,12 @@
 
 package org.eclipse.xpanse.modules.database.resource;
 
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -19,4 +22,10 @@ public interface DeployResourceRepository extends JpaRepository<DeployResourceEn
         JpaSpecificationExecutor<DeployResourceEntity> {
 
     void deleteByDeployServiceId(UUID id);
-}
\ No newline at end of file
+
+    List<DeployResourceEntity> findByDeployServiceIdAndName(UUID id, String name);
+
+    @Query("select r from DeployResourceEntity r join fetch r.deployService"
+            + " left join fetch r.properties where r.resourceId = :resourceId")
+    List<DeployResourceEntity> findByResourceIdWithService(@Param("resourceId") String resourceId);
+}
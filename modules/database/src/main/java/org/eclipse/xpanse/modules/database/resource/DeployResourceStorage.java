@@ -25,10 +25,28 @@ public interface DeployResourceStorage {
 
 
     /**
-     * Get detail of deployed resource using ID.
+     * Get summary of deployed resource, together with the csp and the user of the deployed
+     * service which owns it, using the ID of the resource in the cloud.
      *
      * @param resourceId the RESOURCE_ID of deployed resource.
+     * @return DeployResourceSummary
+     */
+    DeployResourceSummary findDeployResourceByResourceId(String resourceId);
+
+    /**
+     * Get deployed resource of the deployed service using its name.
+     *
+     * @param id   the ID of the deployed service.
+     * @param name the name of the deployed resource.
+     * @return DeployResourceEntity
+     */
+    DeployResourceEntity findDeployResourceByServiceIdAndName(UUID id, String name);
+
+    /**
+     * Add or update deployed resource.
+     *
+     * @param deployResourceEntity the deployed resource.
      * @return DeployResourceEntity
      */
-    DeployResourceEntity findDeployResourceByResourceId(String resourceId);
+    DeployResourceEntity store(DeployResourceEntity deployResourceEntity);
 }
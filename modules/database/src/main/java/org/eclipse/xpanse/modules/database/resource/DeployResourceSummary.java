@@ -0,0 +1,45 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.resource;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployResourceKind;
+
+/**
+ * A deployed resource with the csp and the user of the deployed service which owns it. The
+ * summary is immutable, so that it can be cached and shared between the requests.
+ */
+public record DeployResourceSummary(UUID id, String resourceId, String name,
+                                    DeployResourceKind kind, Map<String, String> properties,
+                                    UUID deployServiceId, Csp csp, String userName) {
+
+    /**
+     * Creates the summary with a copy of the properties.
+     */
+    public DeployResourceSummary {
+        properties = Objects.isNull(properties) ? Map.of()
+                : Collections.unmodifiableMap(new HashMap<>(properties));
+    }
+
+    /**
+     * Creates the summary of the resource, the deployed service must be loaded.
+     *
+     * @param resource the deployed resource.
+     * @return the summary of the resource.
+     */
+    public static DeployResourceSummary of(DeployResourceEntity resource) {
+        return new DeployResourceSummary(resource.getId(), resource.getResourceId(),
+                resource.getName(), resource.getKind(), resource.getProperties(),
+                resource.getDeployService().getId(), resource.getDeployService().getCsp(),
+                resource.getDeployService().getUserName());
+    }
+}
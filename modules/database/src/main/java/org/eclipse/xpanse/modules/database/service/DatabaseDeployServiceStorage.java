@@ -6,10 +6,23 @@
 
 package org.eclipse.xpanse.modules.database.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.models.service.deploy.query.DeployedServiceQuery;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,10 +34,15 @@ import org.springframework.transaction.annotation.Transactional;
 public class DatabaseDeployServiceStorage implements DeployServiceStorage {
 
     private final DeployServiceRepository deployServiceRepository;
+    private final DeployServiceEventRepository deployServiceEventRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public DatabaseDeployServiceStorage(DeployServiceRepository deployServiceRepository) {
+    public DatabaseDeployServiceStorage(DeployServiceRepository deployServiceRepository,
+            DeployServiceEventRepository deployServiceEventRepository) {
         this.deployServiceRepository = deployServiceRepository;
+        this.deployServiceEventRepository = deployServiceEventRepository;
     }
 
     /**
@@ -47,9 +65,107 @@ public class DatabaseDeployServiceStorage implements DeployServiceStorage {
         this.deployServiceRepository.saveAndFlush(deployServiceEntity);
     }
 
+    /**
+     * Store the entity to the database and append the transition to its current state, both in
+     * one transaction.
+     *
+     * @param deployServiceEntity the model of deployed service.
+     */
+    @Override
+    public void storeAndRecordState(DeployServiceEntity deployServiceEntity) {
+        this.deployServiceRepository.saveAndFlush(deployServiceEntity);
+        appendStateEvent(deployServiceEntity, new Date());
+    }
+
+    /**
+     * Update the state columns of the stored service and append the transition, both in one
+     * transaction. The other columns of the service are not written.
+     *
+     * @param deployServiceEntity the model of deployed service with the new state.
+     * @return false when the deployed service is not stored.
+     */
+    @Override
+    public boolean recordState(DeployServiceEntity deployServiceEntity) {
+        Date now = new Date();
+        if (this.deployServiceRepository.updateState(deployServiceEntity.getId(),
+                deployServiceEntity.getServiceState(), deployServiceEntity.getResultMessage(),
+                now) == 0) {
+            return false;
+        }
+        deployServiceEntity.setLastModifiedTime(now);
+        appendStateEvent(deployServiceEntity, now);
+        return true;
+    }
+
+    @Override
+    public List<DeployServiceEventEntity> findStateEventsAfter(long lastEventId, int limit) {
+        return this.deployServiceEventRepository.findAfter(lastEventId,
+                PageRequest.ofSize(Math.max(limit, 1)));
+    }
+
+    @Override
+    public List<DeployServiceEventEntity> findStateEventsByServiceId(UUID id) {
+        return this.deployServiceEventRepository.findByServiceIdOrderById(id);
+    }
+
+    @Override
+    public Long findLastStateEventId() {
+        return this.deployServiceEventRepository.findLastId();
+    }
+
+    /**
+     * Get a page of the deployed services matching the query. The page is read with a keyset on
+     * the create time and the id of the services, so that reading a page does not depend on the
+     * number of the services before it. Only the columns of the summary are selected.
+     *
+     * @param query the query model, with the cursor of the page.
+     * @return the services of the page, empty when the service of the cursor does not exist.
+     */
     @Override
-    public List<DeployServiceEntity> services() {
-        return this.deployServiceRepository.findAll();
+    public List<DeployServiceSummary> listServices(DeployedServiceQuery query) {
+        CriteriaBuilder criteriaBuilder = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<DeployServiceSummary> criteriaQuery =
+                criteriaBuilder.createQuery(DeployServiceSummary.class);
+        Root<DeployServiceEntity> root = criteriaQuery.from(DeployServiceEntity.class);
+        List<Predicate> predicateList = new ArrayList<>();
+        if (StringUtils.isNotBlank(query.getUserName())) {
+            predicateList.add(criteriaBuilder.equal(root.get("userName"), query.getUserName()));
+        }
+        if (Objects.nonNull(query.getCsp())) {
+            predicateList.add(criteriaBuilder.equal(root.get("csp"), query.getCsp()));
+        }
+        if (Objects.nonNull(query.getCategory())) {
+            predicateList.add(criteriaBuilder.equal(root.get("category"), query.getCategory()));
+        }
+        if (StringUtils.isNotBlank(query.getServiceName())) {
+            predicateList.add(criteriaBuilder.equal(root.get("name"),
+                    StringUtils.lowerCase(query.getServiceName())));
+        }
+        if (Objects.nonNull(query.getServiceState())) {
+            predicateList.add(criteriaBuilder.equal(root.get("serviceState"),
+                    query.getServiceState()));
+        }
+        if (Objects.nonNull(query.getCursor())) {
+            Date cursorTime = this.deployServiceRepository.findCreateTimeById(query.getCursor());
+            if (Objects.isNull(cursorTime)) {
+                return Collections.emptyList();
+            }
+            predicateList.add(criteriaBuilder.or(
+                    criteriaBuilder.lessThan(root.<Date>get("createTime"), cursorTime),
+                    criteriaBuilder.and(criteriaBuilder.equal(root.get("createTime"), cursorTime),
+                            criteriaBuilder.lessThan(root.<UUID>get("id"), query.getCursor()))));
+        }
+        criteriaQuery.select(criteriaBuilder.construct(DeployServiceSummary.class,
+                        root.get("id"), root.get("userName"), root.get("category"),
+                        root.get("name"), root.get("customerServiceName"), root.get("version"),
+                        root.get("csp"), root.get("flavor"), root.get("serviceState"),
+                        root.get("createTime"), root.get("lastModifiedTime")))
+                .where(criteriaBuilder.and(predicateList.toArray(new Predicate[0])))
+                .orderBy(criteriaBuilder.desc(root.get("createTime")),
+                        criteriaBuilder.desc(root.get("id")));
+        return this.entityManager.createQuery(criteriaQuery)
+                .setMaxResults(Math.max(query.getLimit(), 1))
+                .getResultList();
     }
 
     /**
@@ -64,4 +180,41 @@ public class DatabaseDeployServiceStorage implements DeployServiceStorage {
                 this.deployServiceRepository.findById(id);
         return optional.orElse(null);
     }
+
+    /**
+     * Get the deployed services of the batch.
+     *
+     * @param batchId the ID of the batch.
+     * @return the deployed services of the batch.
+     */
+    @Override
+    public List<DeployServiceEntity> findDeployServicesByBatchId(UUID batchId) {
+        return this.deployServiceRepository.findByBatchId(batchId);
+    }
+
+    /**
+     * Get the ids of the deployed services which have the private property.
+     *
+     * @param key the key of the private property.
+     * @return ids of the deployed services.
+     */
+    @Override
+    public List<UUID> findDeployServiceIdsByPrivateProperty(String key) {
+        return this.deployServiceRepository.findIdsByPrivatePropertyKey(key);
+    }
+
+    @Override
+    public List<UUID> findDeployServiceIdsWithoutOclHash() {
+        return this.deployServiceRepository.findIdsWithoutOclHash();
+    }
+
+    private void appendStateEvent(DeployServiceEntity deployServiceEntity, Date time) {
+        DeployServiceEventEntity event = new DeployServiceEventEntity();
+        event.setServiceId(deployServiceEntity.getId());
+        event.setUserName(deployServiceEntity.getUserName());
+        event.setServiceState(deployServiceEntity.getServiceState());
+        event.setResultMessage(deployServiceEntity.getResultMessage());
+        event.setCreateTime(time);
+        this.deployServiceEventRepository.save(event);
+    }
 }
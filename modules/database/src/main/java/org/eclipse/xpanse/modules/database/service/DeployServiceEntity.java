@@ -6,7 +6,6 @@
 
 package org.eclipse.xpanse.modules.database.service;
 
-import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
@@ -15,6 +14,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.MapKeyColumn;
 import jakarta.persistence.OneToMany;
@@ -26,7 +26,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.eclipse.xpanse.modules.database.common.CreateModifiedTime;
-import org.eclipse.xpanse.modules.database.common.ObjectJsonConverter;
+import org.eclipse.xpanse.modules.database.common.CreateRequestJsonConverter;
 import org.eclipse.xpanse.modules.database.resource.DeployResourceEntity;
 import org.eclipse.xpanse.modules.models.service.common.enums.Category;
 import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
@@ -34,13 +34,19 @@ import org.eclipse.xpanse.modules.models.service.deploy.CreateRequest;
 import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.CascadeType;
-import org.hibernate.annotations.Type;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
- * DeployServiceEntity for persistence.
+ * DeployServiceEntity for persistence. Only the changed columns are written when the entity is
+ * updated, the transitions of the state are recorded in DEPLOY_SERVICE_EVENT.
  */
-@Table(name = "DEPLOY_SERVICE")
+@Table(name = "DEPLOY_SERVICE", indexes = {
+        @Index(name = "DEPLOY_SERVICE_BATCH_IDX", columnList = "BATCH_ID"),
+        @Index(name = "DEPLOY_SERVICE_TIME_IDX", columnList = "CREATE_TIME,ID"),
+        @Index(name = "DEPLOY_SERVICE_USER_IDX", columnList = "USER_NAME,CREATE_TIME,ID"),
+        @Index(name = "DEPLOY_SERVICE_STATE_IDX", columnList = "STATE_HASH")})
 @Entity
+@DynamicUpdate
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class DeployServiceEntity extends CreateModifiedTime {
@@ -48,9 +54,16 @@ public class DeployServiceEntity extends CreateModifiedTime {
     @Id
     private UUID id;
 
+    /**
+     * The id of the batch the service was deployed with, null for a single deployment.
+     */
+    @Column(name = "BATCH_ID")
+    private UUID batchId;
+
     /**
      * The name of the user who deployed the service.
      */
+    @Column(name = "USER_NAME")
     private String userName;
 
     /**
@@ -92,13 +105,21 @@ public class DeployServiceEntity extends CreateModifiedTime {
     private ServiceState serviceState;
 
     /**
-     * The Ocl object of the XpanseDeployTask.
+     * The request of the deployment. The Ocl of the deployment is stored in OCL_VERSION, only
+     * the services deployed before are still storing it in the request. The request is replaced
+     * and not modified to update the column.
      */
     @Column(columnDefinition = "json")
-    @Type(value = JsonType.class)
-    @Convert(converter = ObjectJsonConverter.class)
+    @Convert(converter = CreateRequestJsonConverter.class)
     private CreateRequest createRequest;
 
+    /**
+     * The hash of the Ocl the service was deployed with, the Ocl is stored in the OCL_VERSION
+     * table.
+     */
+    @Column(name = "OCL_HASH", length = 64)
+    private String oclHash;
+
     @OneToMany(mappedBy = "deployService", orphanRemoval = true)
     @Cascade({CascadeType.ALL})
     @ToString.Exclude
@@ -125,6 +146,13 @@ public class DeployServiceEntity extends CreateModifiedTime {
     private Map<String, String> privateProperties;
 
 
+    /**
+     * The hash of the Terraform state of the deployed service, the state is stored in the
+     * DEPLOY_STATE table.
+     */
+    @Column(name = "STATE_HASH", length = 64)
+    private String stateHash;
+
     @Column(name = "RESULT_MESSAGE", length = Integer.MAX_VALUE)
     private String resultMessage;
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.service;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
+
+/**
+ * DeployServiceEventEntity for persistence. A row is appended for each transition of the state
+ * of a deployed service and never changed, the rows are read in the order of their ids by the
+ * consumers of the transitions.
+ */
+@Table(name = "DEPLOY_SERVICE_EVENT", indexes = {
+        @Index(name = "DEPLOY_SERVICE_EVENT_SERVICE_IDX", columnList = "SERVICE_ID")})
+@Entity
+@Data
+public class DeployServiceEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The id of the deployed service.
+     */
+    @Column(name = "SERVICE_ID", nullable = false)
+    private UUID serviceId;
+
+    /**
+     * The name of the user who deployed the service.
+     */
+    private String userName;
+
+    /**
+     * The state of the service after the transition.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ServiceState serviceState;
+
+    @Column(name = "RESULT_MESSAGE", length = Integer.MAX_VALUE)
+    private String resultMessage;
+
+    @Column(name = "CREATE_TIME", nullable = false)
+    private Date createTime;
+}
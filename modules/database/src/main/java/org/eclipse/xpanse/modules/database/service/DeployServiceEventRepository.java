@@ -0,0 +1,31 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.service;
+
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface DeployServiceEventRepository
+        extends JpaRepository<DeployServiceEventEntity, Long> {
+
+    @Query("select e from DeployServiceEventEntity e where e.id > :id order by e.id")
+    List<DeployServiceEventEntity> findAfter(@Param("id") long id, Pageable pageable);
+
+    List<DeployServiceEventEntity> findByServiceIdOrderById(UUID serviceId);
+
+    @Query("select max(e.id) from DeployServiceEventEntity e")
+    Long findLastId();
+}
@@ -6,9 +6,15 @@
 
 package org.eclipse.xpanse.modules.database.service;
 
+import java.util.Date;
+import java.util.List;
 import java.util.UUID;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,4 +24,22 @@ import org.springframework.stereotype.Repository;
 public interface DeployServiceRepository extends JpaRepository<DeployServiceEntity, UUID>,
         JpaSpecificationExecutor<DeployServiceEntity> {
 
+    List<DeployServiceEntity> findByBatchId(UUID batchId);
+
+    @Query("select d.id from DeployServiceEntity d join d.privateProperties p"
+            + " where key(p) = :key")
+    List<UUID> findIdsByPrivatePropertyKey(@Param("key") String key);
+
+    @Query("select d.id from DeployServiceEntity d where d.oclHash is null")
+    List<UUID> findIdsWithoutOclHash();
+
+    @Query("select d.createTime from DeployServiceEntity d where d.id = :id")
+    Date findCreateTimeById(@Param("id") UUID id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update DeployServiceEntity d set d.serviceState = :state,"
+            + " d.resultMessage = :message, d.lastModifiedTime = :time where d.id = :id")
+    int updateState(@Param("id") UUID id, @Param("state") ServiceState state,
+                    @Param("message") String message, @Param("time") Date time);
+
 }
@@ -8,6 +8,7 @@ package org.eclipse.xpanse.modules.database.service;
 
 import java.util.List;
 import java.util.UUID;
+import org.eclipse.xpanse.modules.models.service.deploy.query.DeployedServiceQuery;
 
 /**
  * Interface for persist of DeployService.
@@ -29,11 +30,53 @@ public interface DeployServiceStorage {
     void storeAndFlush(DeployServiceEntity deployServiceEntity);
 
     /**
-     * Method to get all stored database entries.
+     * Add or update deployed service data to database and record the transition of the service
+     * to its current state.
      *
-     * @return Returns all rows from the service status database table.
+     * @param deployServiceEntity the model of deployed service.
+     */
+    void storeAndRecordState(DeployServiceEntity deployServiceEntity);
+
+    /**
+     * Record the transition of the deployed service to a new state. Only the state and the
+     * result message of the stored service are updated.
+     *
+     * @param deployServiceEntity the model of deployed service with the new state.
+     * @return false when the deployed service is not stored.
+     */
+    boolean recordState(DeployServiceEntity deployServiceEntity);
+
+    /**
+     * Get the recorded transitions of the states of the deployed services in their order.
+     *
+     * @param lastEventId id of the last transition already read.
+     * @param limit       max number of transitions.
+     * @return the transitions after the last one read.
+     */
+    List<DeployServiceEventEntity> findStateEventsAfter(long lastEventId, int limit);
+
+    /**
+     * Get the recorded transitions of the state of the deployed service.
+     *
+     * @param id the ID of deployed service.
+     * @return the transitions in their order.
+     */
+    List<DeployServiceEventEntity> findStateEventsByServiceId(UUID id);
+
+    /**
+     * Get the id of the last recorded transition.
+     *
+     * @return the id or null when no transition is recorded.
+     */
+    Long findLastStateEventId();
+
+    /**
+     * Get a page of the deployed services matching the query, from the newest to the oldest.
+     *
+     * @param query the query model, with the cursor of the page.
+     * @return the services of the page, empty when the service of the cursor does not exist.
      */
-    List<DeployServiceEntity> services();
+    List<DeployServiceSummary> listServices(DeployedServiceQuery query);
 
     /**
      * Get detail of deployed service using ID.
@@ -42,4 +85,27 @@ public interface DeployServiceStorage {
      * @return registerServiceEntity
      */
     DeployServiceEntity findDeployServiceById(UUID id);
+
+    /**
+     * Get the deployed services of the batch.
+     *
+     * @param batchId the ID of the batch.
+     * @return the deployed services of the batch.
+     */
+    List<DeployServiceEntity> findDeployServicesByBatchId(UUID batchId);
+
+    /**
+     * Get the ids of the deployed services which have the private property.
+     *
+     * @param key the key of the private property.
+     * @return ids of the deployed services.
+     */
+    List<UUID> findDeployServiceIdsByPrivateProperty(String key);
+
+    /**
+     * Get the ids of the deployed services which do not reference a version of the Ocl.
+     *
+     * @return ids of the deployed services.
+     */
+    List<UUID> findDeployServiceIdsWithoutOclHash();
 }
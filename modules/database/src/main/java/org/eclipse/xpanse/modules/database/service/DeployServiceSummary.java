@@ -0,0 +1,23 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.service;
+
+import java.util.Date;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.service.common.enums.Category;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
+
+/**
+ * The columns of a deployed service shown in lists, selected without the request, the properties
+ * and the resources of the service.
+ */
+public record DeployServiceSummary(UUID id, String userName, Category category, String name,
+                                   String customerServiceName, String version, Csp csp,
+                                   String flavor, ServiceState serviceState, Date createTime,
+                                   Date lastModifiedTime) {
+}
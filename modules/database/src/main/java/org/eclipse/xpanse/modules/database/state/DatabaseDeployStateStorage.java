@@ -0,0 +1,48 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.state;
+
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the DeployStateStorage.
+ */
+@Component
+@Transactional
+public class DatabaseDeployStateStorage implements DeployStateStorage {
+
+    private final DeployStateRepository deployStateRepository;
+
+    @Autowired
+    public DatabaseDeployStateStorage(DeployStateRepository deployStateRepository) {
+        this.deployStateRepository = deployStateRepository;
+    }
+
+    @Override
+    public void storeWithReference(DeployStateEntity deployStateEntity, Runnable storeReference) {
+        if (Objects.isNull(
+                this.deployStateRepository.lockByContentHash(deployStateEntity.getContentHash()))) {
+            this.deployStateRepository.saveAndFlush(deployStateEntity);
+        }
+        storeReference.run();
+    }
+
+    @Override
+    public DeployStateEntity findDeployStateByHash(String contentHash) {
+        return this.deployStateRepository.findById(contentHash).orElse(null);
+    }
+
+    @Override
+    public void deleteIfUnreferenced(String contentHash) {
+        // waits for the transactions which are storing a reference to the state.
+        this.deployStateRepository.lockByContentHash(contentHash);
+        this.deployStateRepository.deleteUnreferenced(contentHash);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.state;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.eclipse.xpanse.modules.database.common.CreateModifiedTime;
+
+/**
+ * DeployStateEntity for persistence. Stores the compressed state of the deployed services by the
+ * hash of the uncompressed state, so that services with the same state share one row.
+ */
+@Table(name = "DEPLOY_STATE")
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class DeployStateEntity extends CreateModifiedTime {
+
+    /**
+     * Hash of the uncompressed state.
+     */
+    @Id
+    @Column(name = "CONTENT_HASH", length = 64)
+    private String contentHash;
+
+    /**
+     * The compression of the content.
+     */
+    @Column(name = "COMPRESSION", length = 16)
+    private String compression;
+
+    /**
+     * Size of the uncompressed state in bytes.
+     */
+    @Column(name = "STATE_SIZE")
+    private long stateSize;
+
+    /**
+     * The compressed state.
+     */
+    @Lob
+    @Column(name = "CONTENT")
+    @ToString.Exclude
+    private byte[] content;
+}
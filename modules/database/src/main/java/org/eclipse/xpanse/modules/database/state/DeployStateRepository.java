@@ -0,0 +1,29 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.state;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods.
+ */
+@Repository
+public interface DeployStateRepository extends JpaRepository<DeployStateEntity, String> {
+
+    @Query(value = "select CONTENT_HASH from DEPLOY_STATE where CONTENT_HASH = :contentHash"
+            + " for update", nativeQuery = true)
+    String lockByContentHash(@Param("contentHash") String contentHash);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from DeployStateEntity s where s.contentHash = :contentHash and not exists"
+            + " (select d.id from DeployServiceEntity d where d.stateHash = :contentHash)")
+    int deleteUnreferenced(@Param("contentHash") String contentHash);
+}
@@ -0,0 +1,38 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.state;
+
+/**
+ * Interface for persist of the states of the deployed services.
+ */
+public interface DeployStateStorage {
+
+    /**
+     * Add the state to database if no state with the same hash is stored and store the reference
+     * to the state in the same transaction. The row of the state is locked until the reference is
+     * committed, so that a concurrent deleteIfUnreferenced can not remove it.
+     *
+     * @param deployStateEntity the model of the state.
+     * @param storeReference    stores the deployed service which references the state.
+     */
+    void storeWithReference(DeployStateEntity deployStateEntity, Runnable storeReference);
+
+    /**
+     * Get the state by the hash of its content.
+     *
+     * @param contentHash hash of the uncompressed state.
+     * @return the state or null when no state with the hash is stored.
+     */
+    DeployStateEntity findDeployStateByHash(String contentHash);
+
+    /**
+     * Remove the state if it is not used by any deployed service anymore.
+     *
+     * @param contentHash hash of the uncompressed state.
+     */
+    void deleteIfUnreferenced(String contentHash);
+}
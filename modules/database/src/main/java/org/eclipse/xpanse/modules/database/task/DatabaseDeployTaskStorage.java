@@ -0,0 +1,81 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.task;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the DeployTaskStorage.
+ */
+@Component
+@Transactional
+public class DatabaseDeployTaskStorage implements DeployTaskStorage {
+
+    private final DeployTaskRepository deployTaskRepository;
+
+    @Autowired
+    public DatabaseDeployTaskStorage(DeployTaskRepository deployTaskRepository) {
+        this.deployTaskRepository = deployTaskRepository;
+    }
+
+    @Override
+    public void insertAndFlush(DeployTaskEntity deployTaskEntity) {
+        this.deployTaskRepository.saveAndFlush(deployTaskEntity);
+    }
+
+    @Override
+    public List<DeployTaskEntity> findClaimableTasks(String owner, Date now, int limit) {
+        return this.deployTaskRepository.findClaimableTasks(owner, now, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<UUID> findDeployTaskIdsByBatchId(UUID batchId) {
+        return this.deployTaskRepository.findIdsByBatchId(batchId);
+    }
+
+    @Override
+    public boolean claim(UUID id, String owner, Date expireTime, Date now) {
+        return this.deployTaskRepository.claim(id, owner, expireTime, now) == 1;
+    }
+
+    @Override
+    public int renewLeases(List<UUID> ids, String owner, Date expireTime) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return this.deployTaskRepository.renewLeases(ids, owner, expireTime);
+    }
+
+    @Override
+    public void release(UUID id, String owner) {
+        this.deployTaskRepository.release(id, owner);
+    }
+
+    @Override
+    public boolean requestCancel(UUID id) {
+        return this.deployTaskRepository.requestCancel(id) == 1;
+    }
+
+    @Override
+    public List<UUID> findCancelRequestedIds(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return this.deployTaskRepository.findCancelRequestedIds(ids);
+    }
+
+    @Override
+    public void delete(UUID id, String owner) {
+        this.deployTaskRepository.deleteByIdAndLeaseOwner(id, owner);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.task;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.util.Date;
+import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import org.eclipse.xpanse.modules.database.common.CreateModifiedTime;
+import org.eclipse.xpanse.modules.database.common.CreateRequestJsonConverter;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployTaskType;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * DeployTaskEntity for persistence. A row exists as long as the deploy or destroy task of the
+ * deployed service is not finished. The node which runs the task holds a lease on the row and
+ * renews it while the task is running, so that the task is taken over by another node when the
+ * lease expires. A new task is always inserted, so that a second task of the same service fails
+ * on the primary key instead of overwriting the queued one.
+ */
+@Table(name = "DEPLOY_TASK", indexes = {
+        @Index(name = "DEPLOY_TASK_LEASE_IDX", columnList = "LEASE_EXPIRE_TIME"),
+        @Index(name = "DEPLOY_TASK_BATCH_IDX", columnList = "BATCH_ID")})
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class DeployTaskEntity extends CreateModifiedTime implements Persistable<UUID> {
+
+    /**
+     * The id of the deployed service.
+     */
+    @Id
+    private UUID id;
+
+    /**
+     * The type of the task.
+     */
+    @Enumerated(EnumType.STRING)
+    private DeployTaskType taskType;
+
+    /**
+     * The csp of the deployed service.
+     */
+    @Enumerated(EnumType.STRING)
+    private Csp csp;
+
+    /**
+     * The id of the batch the task belongs to, null for a single deployment.
+     */
+    @Column(name = "BATCH_ID")
+    private UUID batchId;
+
+    /**
+     * The name of the user who started the task.
+     */
+    private String userName;
+
+    /**
+     * The request of the deployed service, the request is replaced and not modified to update
+     * the column.
+     */
+    @Column(columnDefinition = "json")
+    @Convert(converter = CreateRequestJsonConverter.class)
+    private CreateRequest createRequest;
+
+    /**
+     * The id of the node which runs the task, null when the task is waiting.
+     */
+    @Column(name = "LEASE_OWNER")
+    private String leaseOwner;
+
+    /**
+     * The time the lease of the node expires if it is not renewed.
+     */
+    @Column(name = "LEASE_EXPIRE_TIME")
+    private Date leaseExpireTime;
+
+    /**
+     * The number of times the task was started.
+     */
+    private int attempts;
+
+    /**
+     * Whether the task is cancelled, the node which runs the task stops it.
+     */
+    @Column(name = "CANCEL_REQUESTED")
+    private boolean cancelRequested;
+
+    /**
+     * Whether the task is not stored yet.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private boolean newTask = true;
+
+    @Override
+    public boolean isNew() {
+        return newTask;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newTask = false;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.task;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Interface to access default JPA methods. The leases are taken with conditional updates, only
+ * one node can update the lease of a row from expired to its own.
+ */
+@Repository
+public interface DeployTaskRepository extends JpaRepository<DeployTaskEntity, UUID> {
+
+    @Query("select t from DeployTaskEntity t where t.leaseOwner is null"
+            + " or t.leaseOwner = :owner or t.leaseExpireTime < :now order by t.createTime")
+    List<DeployTaskEntity> findClaimableTasks(@Param("owner") String owner,
+                                              @Param("now") Date now, Pageable pageable);
+
+    @Query("select t.id from DeployTaskEntity t where t.batchId = :batchId")
+    List<UUID> findIdsByBatchId(@Param("batchId") UUID batchId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update DeployTaskEntity t set t.leaseOwner = :owner,"
+            + " t.leaseExpireTime = :expireTime, t.attempts = t.attempts + 1"
+            + " where t.id = :id and (t.leaseOwner is null or t.leaseOwner = :owner"
+            + " or t.leaseExpireTime < :now)")
+    int claim(@Param("id") UUID id, @Param("owner") String owner,
+              @Param("expireTime") Date expireTime, @Param("now") Date now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update DeployTaskEntity t set t.leaseExpireTime = :expireTime"
+            + " where t.id in :ids and t.leaseOwner = :owner")
+    int renewLeases(@Param("ids") List<UUID> ids, @Param("owner") String owner,
+                    @Param("expireTime") Date expireTime);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update DeployTaskEntity t set t.leaseOwner = null, t.leaseExpireTime = null,"
+            + " t.attempts = t.attempts - 1 where t.id = :id and t.leaseOwner = :owner")
+    int release(@Param("id") UUID id, @Param("owner") String owner);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update DeployTaskEntity t set t.cancelRequested = true where t.id = :id")
+    int requestCancel(@Param("id") UUID id);
+
+    @Query("select t.id from DeployTaskEntity t where t.id in :ids and t.cancelRequested = true")
+    List<UUID> findCancelRequestedIds(@Param("ids") List<UUID> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from DeployTaskEntity t where t.id = :id and t.leaseOwner = :owner")
+    int deleteByIdAndLeaseOwner(@Param("id") UUID id, @Param("owner") String owner);
+}
@@ -0,0 +1,97 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.task;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Interface for persist of the queued deploy tasks.
+ */
+public interface DeployTaskStorage {
+
+    /**
+     * Insert the new task to database.
+     *
+     * @param deployTaskEntity the model of the task.
+     * @throws org.springframework.dao.DataIntegrityViolationException when the service already
+     *         has a queued task.
+     */
+    void insertAndFlush(DeployTaskEntity deployTaskEntity);
+
+    /**
+     * Get the tasks which are waiting, leased by the node or whose lease is expired.
+     *
+     * @param owner id of the node.
+     * @param now current time.
+     * @param limit max number of tasks.
+     * @return the tasks ordered by creation time.
+     */
+    List<DeployTaskEntity> findClaimableTasks(String owner, Date now, int limit);
+
+    /**
+     * Get the ids of the queued tasks of the batch.
+     *
+     * @param batchId the ID of the batch.
+     * @return ids of the tasks which are not finished.
+     */
+    List<UUID> findDeployTaskIdsByBatchId(UUID batchId);
+
+    /**
+     * Take the lease of the task if it is not leased by another node.
+     *
+     * @param id id of the task.
+     * @param owner id of the node.
+     * @param expireTime time the lease expires.
+     * @param now current time.
+     * @return true when the node holds the lease.
+     */
+    boolean claim(UUID id, String owner, Date expireTime, Date now);
+
+    /**
+     * Extend the leases of the tasks which are held by the node.
+     *
+     * @param ids ids of the tasks.
+     * @param owner id of the node.
+     * @param expireTime time the leases expire.
+     * @return number of leases which are still held by the node.
+     */
+    int renewLeases(List<UUID> ids, String owner, Date expireTime);
+
+    /**
+     * Give up the lease of the task without counting the start of the task.
+     *
+     * @param id id of the task.
+     * @param owner id of the node.
+     */
+    void release(UUID id, String owner);
+
+    /**
+     * Mark the task as cancelled.
+     *
+     * @param id id of the task.
+     * @return true when the task is queued.
+     */
+    boolean requestCancel(UUID id);
+
+    /**
+     * Get the ids of the tasks which are cancelled.
+     *
+     * @param ids ids of the tasks.
+     * @return ids of the cancelled tasks.
+     */
+    List<UUID> findCancelRequestedIds(List<UUID> ids);
+
+    /**
+     * Remove the finished task if the lease is held by the node.
+     *
+     * @param id id of the task.
+     * @param owner id of the node.
+     */
+    void delete(UUID id, String owner);
+}
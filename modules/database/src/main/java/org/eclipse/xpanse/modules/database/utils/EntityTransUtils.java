@@ -8,22 +8,26 @@
 package org.eclipse.xpanse.modules.database.utils;
 
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
 import org.eclipse.xpanse.modules.database.resource.DeployResourceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceSummary;
 import org.eclipse.xpanse.modules.models.service.deploy.DeployResource;
 import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployResourceKind;
-import org.springframework.beans.BeanUtils;
+import org.eclipse.xpanse.modules.models.service.register.Ocl;
+import org.eclipse.xpanse.modules.models.service.utils.DeployResourceFields;
+import org.eclipse.xpanse.modules.models.service.view.RegisteredServiceVo;
+import org.eclipse.xpanse.modules.models.service.view.ServiceVo;
+import org.eclipse.xpanse.modules.models.service.view.UserAvailableServiceVo;
 import org.springframework.util.CollectionUtils;
 
 /**
  * Transform DB entity object and model object.
  */
-@Slf4j
 public class EntityTransUtils {
 
 
@@ -39,7 +43,10 @@ public class EntityTransUtils {
             for (DeployResourceEntity entity : entities) {
                 DeployResource deployResource =
                         DeployResourceKind.getInstanceByKind(entity.getKind());
-                BeanUtils.copyProperties(entity, deployResource);
+                deployResource.setResourceId(entity.getResourceId());
+                deployResource.setName(entity.getName());
+                deployResource.setKind(entity.getKind());
+                deployResource.setProperties(entity.getProperties());
                 fillChildFields(deployResource, entity.getProperties());
                 resources.add(deployResource);
             }
@@ -48,25 +55,110 @@ public class EntityTransUtils {
     }
 
 
+    /**
+     * Transform the summary of a deployed service to ServiceVo.
+     *
+     * @param summary summary of the deployed service.
+     * @return ServiceVo
+     */
+    public static ServiceVo transToServiceVo(DeployServiceSummary summary) {
+        ServiceVo serviceVo = new ServiceVo();
+        serviceVo.setId(summary.id());
+        serviceVo.setUserName(summary.userName());
+        serviceVo.setCategory(summary.category());
+        serviceVo.setName(summary.name());
+        serviceVo.setCustomerServiceName(summary.customerServiceName());
+        serviceVo.setVersion(summary.version());
+        serviceVo.setCsp(summary.csp());
+        serviceVo.setFlavor(summary.flavor());
+        serviceVo.setServiceState(summary.serviceState());
+        serviceVo.setCreateTime(summary.createTime());
+        serviceVo.setLastModifiedTime(summary.lastModifiedTime());
+        return serviceVo;
+    }
+
+    /**
+     * Transform deployServiceEntity to ServiceVo.
+     *
+     * @param entity deployServiceEntity
+     * @return ServiceVo
+     */
+    public static ServiceVo transToServiceVo(DeployServiceEntity entity) {
+        ServiceVo serviceVo = new ServiceVo();
+        serviceVo.setId(entity.getId());
+        serviceVo.setUserName(entity.getUserName());
+        serviceVo.setCategory(entity.getCategory());
+        serviceVo.setName(entity.getName());
+        serviceVo.setCustomerServiceName(entity.getCustomerServiceName());
+        serviceVo.setVersion(entity.getVersion());
+        serviceVo.setCsp(entity.getCsp());
+        serviceVo.setFlavor(entity.getFlavor());
+        serviceVo.setServiceState(entity.getServiceState());
+        serviceVo.setCreateTime(entity.getCreateTime());
+        serviceVo.setLastModifiedTime(entity.getLastModifiedTime());
+        return serviceVo;
+    }
+
+    /**
+     * Transform registerServiceEntity to RegisteredServiceVo.
+     *
+     * @param entity registerServiceEntity
+     * @return RegisteredServiceVo
+     */
+    public static RegisteredServiceVo transToRegisteredServiceVo(RegisterServiceEntity entity) {
+        RegisteredServiceVo registeredServiceVo = new RegisteredServiceVo();
+        registeredServiceVo.setId(entity.getId());
+        registeredServiceVo.setName(entity.getName());
+        registeredServiceVo.setVersion(entity.getVersion());
+        registeredServiceVo.setCsp(entity.getCsp());
+        registeredServiceVo.setCategory(entity.getCategory());
+        registeredServiceVo.setOcl(entity.getOcl());
+        registeredServiceVo.setServiceState(entity.getServiceState());
+        registeredServiceVo.setCreateTime(entity.getCreateTime());
+        registeredServiceVo.setLastModifiedTime(entity.getLastModifiedTime());
+        return registeredServiceVo;
+    }
+
+    /**
+     * Transform registerServiceEntity to UserAvailableServiceVo, the details are taken from the
+     * Ocl of the service.
+     *
+     * @param entity registerServiceEntity
+     * @return UserAvailableServiceVo
+     */
+    public static UserAvailableServiceVo transToUserAvailableServiceVo(
+            RegisterServiceEntity entity) {
+        UserAvailableServiceVo userAvailableServiceVo = new UserAvailableServiceVo();
+        userAvailableServiceVo.setId(entity.getId());
+        userAvailableServiceVo.setCategory(entity.getCategory());
+        userAvailableServiceVo.setName(entity.getName());
+        userAvailableServiceVo.setVersion(entity.getVersion());
+        userAvailableServiceVo.setCsp(entity.getCsp());
+        userAvailableServiceVo.setServiceState(entity.getServiceState());
+        userAvailableServiceVo.setCreateTime(entity.getCreateTime());
+        userAvailableServiceVo.setLastModifiedTime(entity.getLastModifiedTime());
+        Ocl ocl = entity.getOcl();
+        userAvailableServiceVo.setIcon(ocl.getIcon());
+        userAvailableServiceVo.setDescription(ocl.getDescription());
+        userAvailableServiceVo.setNamespace(ocl.getNamespace());
+        userAvailableServiceVo.setBilling(ocl.getBilling());
+        userAvailableServiceVo.setFlavors(ocl.getFlavors());
+        userAvailableServiceVo.setVariables(ocl.getDeployment().getVariables());
+        userAvailableServiceVo.setRegions(ocl.getCloudServiceProvider().getRegions());
+        return userAvailableServiceVo;
+    }
+
     private static void fillChildFields(DeployResource deployResource,
                                         Map<String, String> properties) {
-        if (Objects.isNull(deployResource) || properties.isEmpty()) {
+        if (Objects.isNull(deployResource) || CollectionUtils.isEmpty(properties)) {
             return;
         }
-        Field[] fields = deployResource.getClass().getFields();
-        try {
-            for (Field field : fields) {
-                String fieldName = field.getName();
-                if (properties.containsKey(fieldName)) {
-                    String value = properties.get(fieldName);
-                    field.setAccessible(true);
-                    field.set(deployResource, value);
-                }
+        DeployResourceFields fields = DeployResourceFields.of(deployResource.getClass());
+        for (String fieldName : fields.getFieldNames()) {
+            if (properties.containsKey(fieldName)) {
+                fields.set(deployResource, fieldName, properties.get(fieldName));
             }
-        } catch (IllegalAccessException e) {
-            log.error("IllegalAccessException:", e);
         }
-
     }
 
 }
@@ -0,0 +1,37 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.validation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the DeployValidationStorage.
+ */
+@Component
+@Transactional
+public class DatabaseDeployValidationStorage implements DeployValidationStorage {
+
+    private final DeployValidationRepository deployValidationRepository;
+
+    @Autowired
+    public DatabaseDeployValidationStorage(
+            DeployValidationRepository deployValidationRepository) {
+        this.deployValidationRepository = deployValidationRepository;
+    }
+
+    @Override
+    public void store(DeployValidationEntity deployValidationEntity) {
+        this.deployValidationRepository.save(deployValidationEntity);
+    }
+
+    @Override
+    public DeployValidationEntity findDeployValidationByHash(String contentHash) {
+        return this.deployValidationRepository.findById(contentHash).orElse(null);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.validation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.eclipse.xpanse.modules.database.common.CreateModifiedTime;
+
+/**
+ * DeployValidationEntity for persistence. Stores the result of the validation of a deployer
+ * script, so that an unchanged script is not validated again.
+ */
+@Table(name = "DEPLOY_VALIDATION")
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class DeployValidationEntity extends CreateModifiedTime {
+
+    /**
+     * Hash of the validated content.
+     */
+    @Id
+    @Column(name = "CONTENT_HASH", length = 64)
+    private String contentHash;
+
+    /**
+     * Whether the deployer script is valid.
+     */
+    private boolean valid;
+
+    /**
+     * The diagnostics of the validation as JSON.
+     */
+    @Column(name = "DIAGNOSTICS", length = Integer.MAX_VALUE)
+    private String diagnostics;
+}
@@ -0,0 +1,28 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.validation;
+
+/**
+ * Interface for persist of the validation results of deployer scripts.
+ */
+public interface DeployValidationStorage {
+
+    /**
+     * Add or update the validation result to database.
+     *
+     * @param deployValidationEntity the model of the validation result.
+     */
+    void store(DeployValidationEntity deployValidationEntity);
+
+    /**
+     * Get the validation result of the content.
+     *
+     * @param contentHash hash of the validated content.
+     * @return the validation result or null when the content was not validated.
+     */
+    DeployValidationEntity findDeployValidationByHash(String contentHash);
+}
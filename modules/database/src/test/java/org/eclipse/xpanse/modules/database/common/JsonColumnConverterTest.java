@@ -0,0 +1,123 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.common;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.service.DatabaseDeployServiceStorage;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceStorage;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.register.Ocl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Test of the JSON columns written by the JsonColumnConverter.
+ */
+@DataJpaTest
+class JsonColumnConverterTest {
+
+    @Autowired
+    private DeployServiceStorage deployServiceStorage;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void requestIsStoredAsCompactJson() {
+        DeployServiceEntity service = getService();
+        service.setCreateRequest(getCreateRequest("small"));
+        deployServiceStorage.storeAndFlush(service);
+        entityManager.clear();
+
+        Assertions.assertFalse(getStoredRequest(service.getId()).contains("\n"));
+        DeployServiceEntity stored = deployServiceStorage.findDeployServiceById(service.getId());
+        Assertions.assertEquals(getCreateRequest("small"), stored.getCreateRequest());
+
+        // the request of a detached service is modified and merged.
+        entityManager.clear();
+        stored.getCreateRequest().setFlavor("large");
+        deployServiceStorage.storeAndFlush(stored);
+        entityManager.clear();
+        Assertions.assertEquals("large", deployServiceStorage.findDeployServiceById(
+                service.getId()).getCreateRequest().getFlavor());
+    }
+
+    @Test
+    void requestStoredBeforeIsRead() {
+        DeployServiceEntity service = getService();
+        deployServiceStorage.storeAndFlush(service);
+        entityManager.createNativeQuery("update DEPLOY_SERVICE set CREATE_REQUEST = ? FORMAT JSON"
+                        + " where ID = ?")
+                .setParameter(1, """
+                        {
+                          "id" : null,
+                          "userName" : "bob",
+                          "csp" : "huawei",
+                          "flavor" : "small",
+                          "ocl" : {"name" : "kafka"},
+                          "serviceRequestProperties" : {"name" : "kafka"},
+                          "removedField" : "value"
+                        }""")
+                .setParameter(2, service.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        CreateRequest createRequest =
+                deployServiceStorage.findDeployServiceById(service.getId()).getCreateRequest();
+        Assertions.assertEquals("bob", createRequest.getUserName());
+        Assertions.assertEquals(Csp.HUAWEI, createRequest.getCsp());
+        Assertions.assertEquals("kafka", createRequest.getOcl().getName());
+        Assertions.assertEquals(Map.of("name", "kafka"),
+                createRequest.getServiceRequestProperties());
+    }
+
+    private String getStoredRequest(UUID id) {
+        return (String) entityManager.createNativeQuery(
+                        "select CAST(CREATE_REQUEST AS VARCHAR) from DEPLOY_SERVICE where ID = ?")
+                .setParameter(1, id)
+                .getSingleResult();
+    }
+
+    private DeployServiceEntity getService() {
+        DeployServiceEntity service = new DeployServiceEntity();
+        service.setId(UUID.randomUUID());
+        service.setUserName("bob");
+        service.setDeployResourceList(new ArrayList<>());
+        return service;
+    }
+
+    private CreateRequest getCreateRequest(String flavor) {
+        Ocl ocl = new Ocl();
+        ocl.setName("kafka");
+        CreateRequest createRequest = new CreateRequest();
+        createRequest.setUserName("bob");
+        createRequest.setCsp(Csp.HUAWEI);
+        createRequest.setFlavor(flavor);
+        createRequest.setOcl(ocl);
+        createRequest.setServiceRequestProperties(Map.of("name", "kafka"));
+        return createRequest;
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackages = "org.eclipse.xpanse.modules.database")
+    @EnableJpaRepositories(basePackages = "org.eclipse.xpanse.modules.database")
+    @Import(DatabaseDeployServiceStorage.class)
+    static class TestConfiguration {
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.resource;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.service.DatabaseDeployServiceStorage;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceStorage;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployResourceKind;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Test of the lookup of DatabaseDeployResourceStorage by the id of the resource in the cloud.
+ * The test runs without a transaction, so that each call of the storages is committed.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeployResourceQueryTest {
+
+    @Autowired
+    private DeployServiceStorage deployServiceStorage;
+
+    @Autowired
+    private DeployResourceStorage deployResourceStorage;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void resourceIsFoundWithItsService() {
+        DeployServiceEntity service = getService();
+        service.getDeployResourceList().add(getResource(service, "vm-1"));
+        deployServiceStorage.storeAndFlush(service);
+
+        DeployResourceSummary resource =
+                deployResourceStorage.findDeployResourceByResourceId("vm-1");
+        Assertions.assertEquals(service.getId(), resource.deployServiceId());
+        Assertions.assertEquals("alice", resource.userName());
+        Assertions.assertEquals(Csp.HUAWEI, resource.csp());
+        Assertions.assertEquals(Map.of("ip", "10.0.0.1"), resource.properties());
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> resource.properties().put("ip", "10.0.0.2"));
+        Assertions.assertSame(resource,
+                deployResourceStorage.findDeployResourceByResourceId("vm-1"));
+        Assertions.assertNull(deployResourceStorage.findDeployResourceByResourceId("vm-2"));
+    }
+
+    @Test
+    void rewrittenResourcesAreEvicted() {
+        DeployServiceEntity service = getService();
+        service.getDeployResourceList().add(getResource(service, "vm-3"));
+        deployServiceStorage.storeAndFlush(service);
+        Assertions.assertNotNull(deployResourceStorage.findDeployResourceByResourceId("vm-3"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            deployResourceStorage.deleteByDeployServiceId(service.getId());
+            // the resource is evicted when the delete is committed.
+            Assertions.assertNotNull(
+                    deployResourceStorage.findDeployResourceByResourceId("vm-3"));
+        });
+        Assertions.assertNull(deployResourceStorage.findDeployResourceByResourceId("vm-3"));
+
+        deployResourceStorage.store(getResource(service, "vm-3"));
+        DeployResourceSummary resource =
+                deployResourceStorage.findDeployResourceByResourceId("vm-3");
+        Assertions.assertEquals("vm-3", resource.name());
+
+        DeployResourceEntity renamed = getResource(service, "vm-4");
+        renamed.setId(resource.id());
+        deployResourceStorage.store(renamed);
+        Assertions.assertNull(deployResourceStorage.findDeployResourceByResourceId("vm-3"));
+    }
+
+    private DeployServiceEntity getService() {
+        DeployServiceEntity service = new DeployServiceEntity();
+        service.setId(UUID.randomUUID());
+        service.setUserName("alice");
+        service.setName("kafka");
+        service.setCsp(Csp.HUAWEI);
+        service.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        service.setCreateTime(new Date());
+        service.setDeployResourceList(new ArrayList<>());
+        return service;
+    }
+
+    private DeployResourceEntity getResource(DeployServiceEntity service, String resourceId) {
+        DeployResourceEntity resource = new DeployResourceEntity();
+        resource.setResourceId(resourceId);
+        resource.setName(resourceId);
+        resource.setKind(DeployResourceKind.VM);
+        resource.setDeployService(service);
+        resource.setProperties(new HashMap<>(Map.of("ip", "10.0.0.1")));
+        return resource;
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackages = "org.eclipse.xpanse.modules.database")
+    @EnableJpaRepositories(basePackages = "org.eclipse.xpanse.modules.database")
+    @Import({DatabaseDeployServiceStorage.class, DatabaseDeployResourceStorage.class})
+    static class TestConfiguration {
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.service.deploy.query.DeployedServiceQuery;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Test of the queries of DatabaseDeployServiceStorage.
+ */
+@DataJpaTest
+class DeployServiceQueryTest {
+
+    @Autowired
+    private DeployServiceStorage deployServiceStorage;
+
+    @Test
+    void servicesAreListedInPages() {
+        Date time = new Date();
+        List<DeployServiceEntity> services = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // two services share a create time, the id decides their order.
+            DeployServiceEntity service = getService(i % 2 == 0 ? "alice" : "bob",
+                    new Date(time.getTime() - (i / 2) * 1000L));
+            deployServiceStorage.storeAndFlush(service);
+            services.add(service);
+        }
+
+        DeployedServiceQuery query = new DeployedServiceQuery();
+        query.setLimit(2);
+        List<UUID> ids = new ArrayList<>();
+        List<DeployServiceSummary> page = deployServiceStorage.listServices(query);
+        while (!page.isEmpty()) {
+            page.forEach(service -> ids.add(service.id()));
+            query.setCursor(page.get(page.size() - 1).id());
+            page = deployServiceStorage.listServices(query);
+        }
+        Assertions.assertEquals(5, ids.size());
+        Assertions.assertEquals(services.get(4).getId(), ids.get(4));
+
+        query.setCursor(null);
+        query.setLimit(10);
+        query.setUserName("bob");
+        Assertions.assertEquals(2, deployServiceStorage.listServices(query).size());
+        query.setCursor(UUID.randomUUID());
+        Assertions.assertTrue(deployServiceStorage.listServices(query).isEmpty());
+    }
+
+    @Test
+    void stateTransitionIsRecorded() {
+        DeployServiceEntity service = getService("alice", new Date());
+        deployServiceStorage.storeAndRecordState(service);
+        service.setServiceState(ServiceState.DEPLOY_FAILED);
+        service.setResultMessage("failed");
+
+        Assertions.assertTrue(deployServiceStorage.recordState(service));
+
+        DeployServiceEntity stored = deployServiceStorage.findDeployServiceById(service.getId());
+        Assertions.assertEquals(ServiceState.DEPLOY_FAILED, stored.getServiceState());
+        Assertions.assertEquals("failed", stored.getResultMessage());
+        List<DeployServiceEventEntity> events =
+                deployServiceStorage.findStateEventsByServiceId(service.getId());
+        Assertions.assertEquals(List.of(ServiceState.DEPLOYING, ServiceState.DEPLOY_FAILED),
+                events.stream().map(DeployServiceEventEntity::getServiceState).toList());
+        Assertions.assertEquals(events.get(1).getId(),
+                deployServiceStorage.findStateEventsAfter(events.get(0).getId(), 10).get(0)
+                        .getId());
+        Assertions.assertEquals(events.get(1).getId(),
+                deployServiceStorage.findLastStateEventId());
+        service.setId(UUID.randomUUID());
+        Assertions.assertFalse(deployServiceStorage.recordState(service));
+    }
+
+    private DeployServiceEntity getService(String userName, Date createTime) {
+        DeployServiceEntity service = new DeployServiceEntity();
+        service.setId(UUID.randomUUID());
+        service.setUserName(userName);
+        service.setName("kafka");
+        service.setCsp(Csp.HUAWEI);
+        service.setServiceState(ServiceState.DEPLOYING);
+        service.setCreateTime(createTime);
+        service.setDeployResourceList(new ArrayList<>());
+        return service;
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackages = "org.eclipse.xpanse.modules.database")
+    @Import(DatabaseDeployServiceStorage.class)
+    static class TestConfiguration {
+    }
+}
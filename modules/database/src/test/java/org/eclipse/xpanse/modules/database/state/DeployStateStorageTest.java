@@ -0,0 +1,91 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.state;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.service.DatabaseDeployServiceStorage;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceStorage;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Test of the shared states of DatabaseDeployStateStorage.
+ */
+@DataJpaTest
+class DeployStateStorageTest {
+
+    private static final String CONTENT_HASH = "a".repeat(64);
+
+    @Autowired
+    private DeployStateStorage deployStateStorage;
+
+    @Autowired
+    private DeployServiceStorage deployServiceStorage;
+
+    @Test
+    void referencedStateIsNotDeleted() {
+        DeployServiceEntity first = getService();
+        DeployServiceEntity second = getService();
+        deployStateStorage.storeWithReference(getState(),
+                () -> deployServiceStorage.storeAndFlush(first));
+        // the second service shares the stored state.
+        deployStateStorage.storeWithReference(getState(),
+                () -> deployServiceStorage.storeAndFlush(second));
+
+        second.setStateHash(null);
+        deployServiceStorage.storeAndFlush(second);
+        deployStateStorage.deleteIfUnreferenced(CONTENT_HASH);
+        Assertions.assertNotNull(deployStateStorage.findDeployStateByHash(CONTENT_HASH));
+
+        first.setStateHash(null);
+        deployServiceStorage.storeAndFlush(first);
+        deployStateStorage.deleteIfUnreferenced(CONTENT_HASH);
+        Assertions.assertNull(deployStateStorage.findDeployStateByHash(CONTENT_HASH));
+    }
+
+    private DeployStateEntity getState() {
+        DeployStateEntity state = new DeployStateEntity();
+        state.setContentHash(CONTENT_HASH);
+        state.setCompression("gzip");
+        state.setStateSize(2);
+        state.setContent(new byte[] {1, 2});
+        return state;
+    }
+
+    private DeployServiceEntity getService() {
+        DeployServiceEntity service = new DeployServiceEntity();
+        service.setId(UUID.randomUUID());
+        service.setUserName("alice");
+        service.setName("kafka");
+        service.setCsp(Csp.HUAWEI);
+        service.setServiceState(ServiceState.DEPLOY_SUCCESS);
+        service.setCreateTime(new Date());
+        service.setDeployResourceList(new ArrayList<>());
+        service.setStateHash(CONTENT_HASH);
+        return service;
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackages = "org.eclipse.xpanse.modules.database")
+    @EnableJpaRepositories(basePackages = "org.eclipse.xpanse.modules.database")
+    @Import({DatabaseDeployStateStorage.class, DatabaseDeployServiceStorage.class})
+    static class TestConfiguration {
+    }
+}
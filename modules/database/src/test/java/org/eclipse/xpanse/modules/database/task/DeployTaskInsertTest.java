@@ -0,0 +1,66 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.database.task;
+
+import java.util.Date;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployTaskType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Test of the insert of the queued tasks by DatabaseDeployTaskStorage.
+ */
+@DataJpaTest
+class DeployTaskInsertTest {
+
+    @Autowired
+    private DeployTaskStorage deployTaskStorage;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void secondTaskOfServiceIsNotInserted() {
+        UUID id = UUID.randomUUID();
+        deployTaskStorage.insertAndFlush(getTask(id, DeployTaskType.DEPLOY));
+        // the task is inserted by another node.
+        entityManager.clear();
+
+        Assertions.assertThrows(DataIntegrityViolationException.class,
+                () -> deployTaskStorage.insertAndFlush(getTask(id, DeployTaskType.DESTROY)));
+    }
+
+    private DeployTaskEntity getTask(UUID id, DeployTaskType taskType) {
+        DeployTaskEntity task = new DeployTaskEntity();
+        task.setId(id);
+        task.setTaskType(taskType);
+        task.setCsp(Csp.HUAWEI);
+        task.setCreateTime(new Date());
+        task.setLeaseOwner("node-1");
+        task.setAttempts(1);
+        return task;
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackages = "org.eclipse.xpanse.modules.database")
+    @EnableJpaRepositories(basePackages = "org.eclipse.xpanse.modules.database")
+    @Import(DatabaseDeployTaskStorage.class)
+    static class TestConfiguration {
+    }
+}
@@ -7,13 +7,25 @@
 package org.eclipse.xpanse.modules.deployment;
 
 import jakarta.annotation.Resource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -23,19 +35,40 @@ import org.eclipse.xpanse.modules.database.resource.DeployResourceEntity;
 import org.eclipse.xpanse.modules.database.resource.DeployResourceStorage;
 import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
 import org.eclipse.xpanse.modules.database.service.DeployServiceStorage;
+import org.eclipse.xpanse.modules.database.service.DeployServiceSummary;
+import org.eclipse.xpanse.modules.database.task.DeployTaskEntity;
+import org.eclipse.xpanse.modules.database.task.DeployTaskStorage;
 import org.eclipse.xpanse.modules.database.utils.EntityTransUtils;
+import org.eclipse.xpanse.modules.deployment.async.DeployTaskQueue;
+import org.eclipse.xpanse.modules.deployment.async.DeploymentScheduler;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.events.TerraformEvent;
+import org.eclipse.xpanse.modules.deployment.events.ServiceStateEventBroker;
+import org.eclipse.xpanse.modules.deployment.ocl.OclVersionStore;
+import org.eclipse.xpanse.modules.deployment.state.DeployStateMigration;
+import org.eclipse.xpanse.modules.deployment.state.DeployStateStore;
+import org.eclipse.xpanse.modules.deployment.utils.DeployEnvironments;
+import org.eclipse.xpanse.modules.models.service.deploy.BatchInstanceRequest;
+import org.eclipse.xpanse.modules.models.service.deploy.CreateRequest;
 import org.eclipse.xpanse.modules.models.service.deploy.DeployResource;
 import org.eclipse.xpanse.modules.models.service.deploy.DeployResult;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployResourceKind;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployTaskType;
 import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
 import org.eclipse.xpanse.modules.models.service.deploy.enums.TerraformExecState;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeployerNotFoundException;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeploymentCancelledException;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeploymentQueueFullException;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.InvalidServiceStateException;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.PluginNotFoundException;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.ServiceNotDeployedException;
+import org.eclipse.xpanse.modules.models.service.deploy.query.DeployedServiceQuery;
 import org.eclipse.xpanse.modules.models.service.register.DeployVariable;
+import org.eclipse.xpanse.modules.models.service.register.Ocl;
 import org.eclipse.xpanse.modules.models.service.register.enums.DeployerKind;
 import org.eclipse.xpanse.modules.models.service.register.exceptions.ServiceNotRegisteredException;
 import org.eclipse.xpanse.modules.models.service.utils.DeployVariableValidator;
+import org.eclipse.xpanse.modules.models.service.view.BatchDeployStatusVo;
+import org.eclipse.xpanse.modules.models.service.view.DeployLogVo;
 import org.eclipse.xpanse.modules.models.service.view.ServiceDetailVo;
 import org.eclipse.xpanse.modules.models.service.view.ServiceVo;
 import org.eclipse.xpanse.modules.orchestrator.OrchestratorPlugin;
@@ -44,9 +77,11 @@ import org.eclipse.xpanse.modules.orchestrator.deployment.DeployTask;
 import org.eclipse.xpanse.modules.orchestrator.deployment.Deployment;
 import org.slf4j.MDC;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
@@ -56,11 +91,16 @@ import org.springframework.util.CollectionUtils;
  */
 @Slf4j
 @Component
-public class DeployService {
+public class DeployService implements DeployTaskQueue.TaskHandler {
 
     private static final String TASK_ID = "TASK_ID";
+    private static final String CREATE_ACTION = "create";
+    private static final String RESOURCE_TYPE_PROPERTY = "type";
+    private static final String RESOURCE_STATE_PROPERTY = "state";
 
     private final Map<DeployerKind, Deployment> deploymentMap = new ConcurrentHashMap<>();
+    private final Map<UUID, DeployTask> runningTasks = new ConcurrentHashMap<>();
+    private final Map<UUID, ResourceProgress> resourceProgress = new ConcurrentHashMap<>();
 
     @Resource
     private ApplicationContext applicationContext;
@@ -74,6 +114,24 @@ public class DeployService {
     private DeployVariableValidator deployVariableValidator;
     @Resource
     private PluginManager pluginManager;
+    @Resource
+    private DeploymentScheduler deploymentScheduler;
+    @Resource
+    private DeployTaskQueue deployTaskQueue;
+    @Resource
+    private DeployTaskStorage deployTaskStorage;
+    @Resource
+    private DeployStateStore deployStateStore;
+    @Resource
+    private OclVersionStore oclVersionStore;
+    @Resource
+    private DeployEnvironments deployEnvironments;
+    @Resource
+    private ServiceStateEventBroker serviceStateEventBroker;
+    @Resource(name = "resourceProgressExecutor")
+    private Executor resourceProgressExecutor;
+    @Value("${deployment.batch.max-parallel:5}")
+    private int batchMaxParallel;
 
     /**
      * Get all Deployment group by DeployerKind.
@@ -95,6 +153,7 @@ public class DeployService {
     public DeployServiceEntity getNewDeployServiceTask(DeployTask deployTask) {
         DeployServiceEntity entity = new DeployServiceEntity();
         entity.setId(deployTask.getId());
+        entity.setBatchId(deployTask.getCreateRequest().getBatchId());
         entity.setCreateTime(new Date());
         entity.setVersion(StringUtils.lowerCase(deployTask.getCreateRequest().getVersion()));
         entity.setName(StringUtils.lowerCase(deployTask.getCreateRequest().getServiceName()));
@@ -104,10 +163,21 @@ public class DeployService {
         entity.setFlavor(deployTask.getCreateRequest().getFlavor());
         entity.setUserName(deployTask.getCreateRequest().getUserName());
         entity.setCreateRequest(deployTask.getCreateRequest());
+        entity.setOclHash(deployTask.getOclHash());
         entity.setDeployResourceList(new ArrayList<>());
         return entity;
     }
 
+    /**
+     * Drops the state derived from the Ocl of the registered service, called when the Ocl is
+     * updated or the service is unregistered.
+     *
+     * @param registeredServiceId id of the registered service.
+     */
+    public void invalidateRegisteredService(UUID registeredServiceId) {
+        deployEnvironments.invalidate(registeredServiceId);
+    }
+
     /**
      * Get deployment and fill deployTask for deploy service task.
      *
@@ -127,16 +197,14 @@ public class DeployService {
             throw new ServiceNotRegisteredException("Registered service not found");
         }
         // Check context validation
-        if (Objects.nonNull(serviceEntity.getOcl().getDeployment()) && Objects.nonNull(
-                deployTask.getCreateRequest().getServiceRequestProperties())) {
-            List<DeployVariable> deployVariables = serviceEntity.getOcl().getDeployment()
-                    .getVariables();
-            deployVariableValidator.isVariableValid(deployVariables,
-                    deployTask.getCreateRequest().getServiceRequestProperties());
-        }
-        // Set Ocl and CreateRequest
+        validateServiceRequestProperties(serviceEntity.getOcl(), deployTask.getCreateRequest());
+        // Set Ocl and CreateRequest, the request references the stored version of the Ocl.
+        deployTask.setRegisteredServiceId(serviceEntity.getId());
         deployTask.setOcl(serviceEntity.getOcl());
-        deployTask.getCreateRequest().setOcl(serviceEntity.getOcl());
+        deployTask.setOclHash(Objects.nonNull(serviceEntity.getOclHash())
+                ? serviceEntity.getOclHash() : oclVersionStore.store(serviceEntity.getOcl()));
+        // requests queued before the versions were stored still carry a copy of the Ocl.
+        deployTask.getCreateRequest().setOcl(null);
         // Fill the handler
         fillHandler(deployTask);
         // get the deployment.
@@ -144,34 +212,301 @@ public class DeployService {
     }
 
     /**
-     * Async method to deploy service.
+     * Get the tasks of the instances of a batch deployment. The registered service, the Ocl and
+     * the resource handler are taken from the template task filled by getDeployHandler, so that
+     * they are only looked up once for the batch.
+     *
+     * @param templateTask the task of the template request filled by getDeployHandler.
+     * @param instances overrides of the template request for each instance.
+     * @param batchId id of the batch.
+     * @return the tasks of the instances.
+     */
+    public List<DeployTask> getBatchDeployTasks(DeployTask templateTask,
+                                                List<BatchInstanceRequest> instances,
+                                                UUID batchId) {
+        CreateRequest template = templateTask.getCreateRequest();
+        List<DeployTask> deployTasks = new ArrayList<>();
+        for (BatchInstanceRequest instance : instances) {
+            CreateRequest createRequest = new CreateRequest();
+            BeanUtils.copyProperties(template, createRequest);
+            createRequest.setId(UUID.randomUUID());
+            createRequest.setBatchId(batchId);
+            createRequest.setCustomerServiceName(instance.getCustomerServiceName());
+            if (StringUtils.isNotBlank(instance.getFlavor())) {
+                createRequest.setFlavor(instance.getFlavor());
+            }
+            if (Objects.nonNull(instance.getServiceRequestProperties())) {
+                Map<String, String> properties = new HashMap<>();
+                if (Objects.nonNull(template.getServiceRequestProperties())) {
+                    properties.putAll(template.getServiceRequestProperties());
+                }
+                properties.putAll(instance.getServiceRequestProperties());
+                createRequest.setServiceRequestProperties(properties);
+                validateServiceRequestProperties(templateTask.getOcl(), createRequest);
+            }
+            DeployTask deployTask = new DeployTask();
+            BeanUtils.copyProperties(templateTask, deployTask);
+            deployTask.setId(createRequest.getId());
+            deployTask.setCreateRequest(createRequest);
+            deployTasks.add(deployTask);
+        }
+        return deployTasks;
+    }
+
+    /**
+     * Async method to deploy the instances of a batch. All instances are queued at once, but
+     * only the given number of instances is deployed at the same time, the next instance is
+     * started when one is finished.
+     *
+     * @param deployment deployment
+     * @param deployTasks tasks of the instances.
+     * @param maxParallel max number of instances deployed at the same time, the server limit
+     *                    is used when null.
+     * @throws DeploymentQueueFullException when too many deployments are waiting for the CSP.
+     */
+    public void asyncBatchDeployService(Deployment deployment, List<DeployTask> deployTasks,
+                                        Integer maxParallel) {
+        int parallel = Objects.isNull(maxParallel) ? batchMaxParallel
+                : Math.min(maxParallel, batchMaxParallel);
+        List<UUID> queuedIds = new ArrayList<>();
+        Queue<DeployTask> waitingTasks = new ConcurrentLinkedQueue<>(deployTasks);
+        try {
+            for (DeployTask deployTask : deployTasks) {
+                deployTaskQueue.add(deployTask.getId(), DeployTaskType.DEPLOY,
+                        deployTask.getCreateRequest());
+                queuedIds.add(deployTask.getId());
+            }
+            submitBatchTask(deployment, waitingTasks.poll(), waitingTasks);
+        } catch (RuntimeException e) {
+            // nothing of the batch is started.
+            queuedIds.forEach(deployTaskQueue::complete);
+            throw e;
+        }
+        for (int i = 1; i < parallel; i++) {
+            startNextBatchTask(deployment, waitingTasks);
+        }
+    }
+
+    private void startNextBatchTask(Deployment deployment, Queue<DeployTask> waitingTasks) {
+        DeployTask deployTask = waitingTasks.poll();
+        if (Objects.isNull(deployTask)) {
+            return;
+        }
+        try {
+            submitBatchTask(deployment, deployTask, waitingTasks);
+        } catch (RuntimeException e) {
+            // the remaining instances are started by the nodes polling the queue.
+            log.warn("Starting instance {} of batch {} failed, releasing the waiting instances.",
+                    deployTask.getId(), deployTask.getCreateRequest().getBatchId(), e);
+            deployTaskQueue.release(deployTask.getId());
+            DeployTask waitingTask;
+            while ((waitingTask = waitingTasks.poll()) != null) {
+                deployTaskQueue.release(waitingTask.getId());
+            }
+        }
+    }
+
+    private void submitBatchTask(Deployment deployment, DeployTask deployTask,
+                                 Queue<DeployTask> waitingTasks) {
+        submitQueuedTask(deployTask, false, () -> {
+            try {
+                deployService(deployment, deployTask);
+            } finally {
+                startNextBatchTask(deployment, waitingTasks);
+            }
+        });
+    }
+
+    /**
+     * Get the aggregate status of the instances of a batch.
+     *
+     * @param batchId id of the batch.
+     * @return the number of queued instances and of the started instances by state.
+     */
+    public BatchDeployStatusVo getBatchDeployStatus(UUID batchId) {
+        List<DeployServiceEntity> deployServices =
+                deployServiceStorage.findDeployServicesByBatchId(batchId);
+        Set<UUID> startedIds = deployServices.stream().map(DeployServiceEntity::getId)
+                .collect(Collectors.toSet());
+        int queuedInstances = (int) deployTaskStorage.findDeployTaskIdsByBatchId(batchId)
+                .stream().filter(id -> !startedIds.contains(id)).count();
+        if (deployServices.isEmpty() && queuedInstances == 0) {
+            throw new ServiceNotDeployedException(
+                    String.format("Batch with id %s not found", batchId));
+        }
+        Map<ServiceState, Integer> serviceStates = deployServices.stream().collect(
+                Collectors.groupingBy(DeployServiceEntity::getServiceState,
+                        () -> new EnumMap<>(ServiceState.class), Collectors.summingInt(s -> 1)));
+        BatchDeployStatusVo batchDeployStatusVo = new BatchDeployStatusVo();
+        batchDeployStatusVo.setBatchId(batchId);
+        batchDeployStatusVo.setTotalInstances(deployServices.size() + queuedInstances);
+        batchDeployStatusVo.setQueuedInstances(queuedInstances);
+        batchDeployStatusVo.setServiceStates(serviceStates);
+        batchDeployStatusVo.setFinished(queuedInstances == 0
+                && !serviceStates.containsKey(ServiceState.DEPLOYING));
+        batchDeployStatusVo.setServices(
+                deployServices.stream().map(EntityTransUtils::transToServiceVo).toList());
+        return batchDeployStatusVo;
+    }
+
+    /**
+     * Async method to deploy service. The task is started by the DeploymentScheduler in the
+     * lane of the CSP.
      *
      * @param deployment deployment
      * @param deployTask deployTask
+     * @throws DeploymentQueueFullException when too many deployments are waiting for the CSP.
      */
-    @Async("taskExecutor")
     public void asyncDeployService(Deployment deployment, DeployTask deployTask) {
+        addQueuedTask(deployTask, DeployTaskType.DEPLOY,
+                () -> deployService(deployment, deployTask));
+    }
+
+    private void deployService(Deployment deployment, DeployTask deployTask) {
         MDC.put(TASK_ID, deployTask.getId().toString());
         DeployServiceEntity deployServiceEntity = getNewDeployServiceTask(deployTask);
+        if (deployTask.getCancellation().isCancelled()) {
+            deployServiceEntity.setServiceState(ServiceState.DEPLOY_CANCELLED);
+            deployServiceEntity.setResultMessage("The deployment was cancelled before it started.");
+            storeServiceState(deployServiceEntity);
+            return;
+        }
         try {
             deployServiceEntity.setServiceState(ServiceState.DEPLOYING);
-            deployServiceStorage.storeAndFlush(deployServiceEntity);
-            DeployResult deployResult = deployment.deploy(deployTask);
+            storeServiceState(deployServiceEntity);
+            DeployResult deployResult;
+            try {
+                deployResult = deployment.deploy(deployTask);
+            } finally {
+                awaitResourceProgress(deployTask.getId());
+            }
+            // replaces the resources recorded while the deployment was running.
+            deployResourceStorage.deleteByDeployServiceId(deployServiceEntity.getId());
             deployServiceEntity.setServiceState(ServiceState.DEPLOY_SUCCESS);
             deployServiceEntity.setProperties(deployResult.getProperties());
+            // the state is kept in the DeployStateStore, only its hash is stored with the service.
+            String tfState = deployResult.getPrivateProperties()
+                    .remove(DeployStateMigration.STATE_FILE_PROPERTY);
             deployServiceEntity.setPrivateProperties(deployResult.getPrivateProperties());
             deployServiceEntity.setDeployResourceList(
                     getDeployResourceEntityList(deployResult.getResources(), deployServiceEntity));
-            deployServiceStorage.storeAndFlush(deployServiceEntity);
+            if (Objects.nonNull(tfState)) {
+                // the service is stored with the state, so that the state is not released by
+                // the destroy of another service with the same state in the meantime.
+                deployStateStore.store(tfState, stateHash -> {
+                    deployServiceEntity.setStateHash(stateHash);
+                    deployServiceStorage.storeAndRecordState(deployServiceEntity);
+                });
+                serviceStateEventBroker.notifyStateRecorded();
+            } else {
+                storeServiceState(deployServiceEntity);
+            }
+        } catch (DeploymentCancelledException e) {
+            log.info("Deployment of service {} was cancelled.", deployTask.getId());
+            updateServiceState(deployServiceEntity, ServiceState.DEPLOY_CANCELLED,
+                    e.getMessage());
         } catch (RuntimeException e) {
             log.error("asyncDeployService failed.", e);
-            deployServiceEntity.setServiceState(ServiceState.DEPLOY_FAILED);
-            deployServiceEntity.setResultMessage(e.getMessage());
-            deployServiceStorage.storeAndFlush(deployServiceEntity);
+            updateServiceState(deployServiceEntity, ServiceState.DEPLOY_FAILED, e.getMessage());
         }
 
     }
 
+    /**
+     * Records the progress of each resource while the deployment is running, so that the
+     * resources which are already created are known before the deployment is finished. The
+     * events are published by the thread which reads the output of Terraform, so they are only
+     * queued here and recorded in order on the resourceProgressExecutor.
+     *
+     * @param event progress event of the Terraform command.
+     */
+    @EventListener
+    public void onTerraformEvent(TerraformEvent event) {
+        if (Objects.isNull(event.getTaskId()) || StringUtils.isBlank(event.getResourceAddress())
+                || !CREATE_ACTION.equals(event.getAction())
+                || Objects.isNull(getResourceState(event))) {
+            return;
+        }
+        ResourceProgress progress = resourceProgress.computeIfAbsent(event.getTaskId(),
+                taskId -> new ResourceProgress());
+        progress.events.add(event);
+        scheduleResourceProgress(progress);
+    }
+
+    private void scheduleResourceProgress(ResourceProgress progress) {
+        if (!progress.events.isEmpty() && progress.isScheduled.compareAndSet(false, true)) {
+            try {
+                resourceProgressExecutor.execute(() -> {
+                    recordResourceProgress(progress);
+                    progress.isScheduled.set(false);
+                    // an event queued after the last poll is recorded by another run.
+                    scheduleResourceProgress(progress);
+                });
+            } catch (RejectedExecutionException e) {
+                // the events stay queued and are recorded by the next run or the deployment.
+                progress.isScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Records the queued progress of the resources of the task. The progress still queued when
+     * the deployment is completed is recorded by the deployment thread itself.
+     */
+    private void awaitResourceProgress(UUID taskId) {
+        ResourceProgress progress = resourceProgress.remove(taskId);
+        if (Objects.nonNull(progress)) {
+            recordResourceProgress(progress);
+        }
+    }
+
+    private void recordResourceProgress(ResourceProgress progress) {
+        synchronized (progress) {
+            TerraformEvent event;
+            while ((event = progress.events.poll()) != null) {
+                try {
+                    recordResourceProgress(event);
+                } catch (RuntimeException e) {
+                    log.error("Record progress of resource {} failed.",
+                            event.getResourceAddress(), e);
+                }
+            }
+        }
+    }
+
+    private void recordResourceProgress(TerraformEvent event) {
+        DeployResourceEntity deployResource = deployResourceStorage
+                .findDeployResourceByServiceIdAndName(event.getTaskId(),
+                        event.getResourceAddress());
+        if (Objects.isNull(deployResource)) {
+            DeployServiceEntity deployServiceEntity =
+                    deployServiceStorage.findDeployServiceById(event.getTaskId());
+            if (Objects.isNull(deployServiceEntity)) {
+                return;
+            }
+            deployResource = new DeployResourceEntity();
+            deployResource.setName(event.getResourceAddress());
+            deployResource.setKind(DeployResourceKind.UNKNOWN);
+            deployResource.setDeployService(deployServiceEntity);
+            deployResource.setProperties(new HashMap<>());
+        }
+        deployResource.getProperties().put(RESOURCE_TYPE_PROPERTY, event.getResourceType());
+        deployResource.getProperties().put(RESOURCE_STATE_PROPERTY, getResourceState(event));
+        if (StringUtils.isNotBlank(event.getResourceId())) {
+            deployResource.setResourceId(event.getResourceId());
+        }
+        deployResourceStorage.store(deployResource);
+    }
+
+    private static String getResourceState(TerraformEvent event) {
+        return switch (event.getType()) {
+            case APPLY_START -> "creating";
+            case APPLY_COMPLETE -> "created";
+            case APPLY_ERRORED -> "failed";
+            default -> null;
+        };
+    }
+
     private List<DeployResourceEntity> getDeployResourceEntityList(
             List<DeployResource> deployResources, DeployServiceEntity deployServiceEntity) {
         List<DeployResourceEntity> deployResourceEntities = new ArrayList<>();
@@ -208,9 +543,15 @@ public class DeployService {
             throw new InvalidServiceStateException(String.format("Service with id %s is %s.",
                     deployTask.getId(), state));
         }
-        // Set Ocl and CreateRequest
+        return getDestroyHandler(deployTask, deployServiceEntity);
+    }
+
+    private Deployment getDestroyHandler(DeployTask deployTask,
+                                         DeployServiceEntity deployServiceEntity) {
+        // Set the Ocl the service was deployed with and the CreateRequest
         deployTask.setCreateRequest(deployServiceEntity.getCreateRequest());
-        deployTask.setOcl(deployServiceEntity.getCreateRequest().getOcl());
+        deployTask.setOclHash(deployServiceEntity.getOclHash());
+        deployTask.setOcl(getDeployedOcl(deployServiceEntity));
         // Fill the handler
         fillHandler(deployTask);
         // get the deployment.
@@ -218,14 +559,177 @@ public class DeployService {
 
     }
 
+    private Ocl getDeployedOcl(DeployServiceEntity deployServiceEntity) {
+        // the services deployed before the versions were stored keep the Ocl in the request.
+        Ocl ocl = Objects.nonNull(deployServiceEntity.getOclHash())
+                ? oclVersionStore.get(deployServiceEntity.getOclHash())
+                : deployServiceEntity.getCreateRequest().getOcl();
+        if (Objects.isNull(ocl)) {
+            throw new ServiceNotDeployedException(
+                    String.format("Ocl of deployed service with id %s not found",
+                            deployServiceEntity.getId()));
+        }
+        return ocl;
+    }
+
     /**
-     * Async method to deploy service.
+     * Async method to destroy service. The task is started by the DeploymentScheduler in the
+     * lane of the CSP.
      *
      * @param deployment deployment
      * @param deployTask deployTask
      */
-    @Async("taskExecutor")
     public void asyncDestroyService(Deployment deployment, DeployTask deployTask) {
+        addQueuedTask(deployTask, DeployTaskType.DESTROY,
+                () -> destroyService(deployment, deployTask));
+    }
+
+    /**
+     * Starts polling the queue of the deploy tasks, once the deployments are available.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startDeployTaskQueue() {
+        deployTaskQueue.start(this);
+    }
+
+    /**
+     * Starts a queued task again which was interrupted on this or another node. A deployment is
+     * only started again when Terraform was not run yet, an interrupted deployment has no state
+     * to continue from and is marked as failed, so that its resources are removed by a destroy.
+     *
+     * @param task the task taken over by this node.
+     */
+    @Override
+    public void resume(DeployTaskEntity task) {
+        DeployTask deployTask = new DeployTask();
+        deployTask.setId(task.getId());
+        if (task.isCancelRequested()) {
+            deployTask.getCancellation().cancel();
+        }
+        if (task.getTaskType() == DeployTaskType.DEPLOY) {
+            DeployServiceEntity deployServiceEntity =
+                    deployServiceStorage.findDeployServiceById(task.getId());
+            if (Objects.nonNull(deployServiceEntity)) {
+                if (deployServiceEntity.getServiceState() == ServiceState.DEPLOYING) {
+                    updateServiceState(deployServiceEntity, ServiceState.DEPLOY_FAILED,
+                            "The deployment was interrupted, the resources created so far "
+                                    + "must be destroyed.");
+                }
+                deployTaskQueue.complete(task.getId());
+                return;
+            }
+            deployTask.setCreateRequest(task.getCreateRequest());
+            Deployment deployment = getDeployHandler(deployTask);
+            submitQueuedTask(deployTask, false, () -> deployService(deployment, deployTask));
+        } else {
+            DeployServiceEntity deployServiceEntity =
+                    deployServiceStorage.findDeployServiceById(task.getId());
+            if (Objects.isNull(deployServiceEntity)) {
+                throw new ServiceNotDeployedException(
+                        String.format("Deployed service with id %s not found", task.getId()));
+            }
+            Deployment deployment = getDestroyHandler(deployTask, deployServiceEntity);
+            submitQueuedTask(deployTask, true, () -> destroyService(deployment, deployTask));
+        }
+    }
+
+    /**
+     * Marks the service of a queued task as failed which is not started again.
+     *
+     * @param task the task which is given up.
+     */
+    @Override
+    public void abandon(DeployTaskEntity task) {
+        DeployServiceEntity deployServiceEntity =
+                deployServiceStorage.findDeployServiceById(task.getId());
+        String resultMessage = String.format("The %s task was interrupted %d times.",
+                task.getTaskType().toValue(), task.getAttempts() - 1);
+        if (task.getTaskType() == DeployTaskType.DEPLOY) {
+            if (Objects.isNull(deployServiceEntity)) {
+                DeployTask deployTask = new DeployTask();
+                deployTask.setId(task.getId());
+                deployTask.setCreateRequest(task.getCreateRequest());
+                deployServiceEntity = getNewDeployServiceTask(deployTask);
+                deployServiceEntity.setServiceState(ServiceState.DEPLOY_FAILED);
+                deployServiceEntity.setResultMessage(resultMessage);
+                storeServiceState(deployServiceEntity);
+            } else {
+                updateServiceState(deployServiceEntity, ServiceState.DEPLOY_FAILED,
+                        resultMessage);
+            }
+        } else if (Objects.nonNull(deployServiceEntity)) {
+            updateServiceState(deployServiceEntity, ServiceState.DESTROY_FAILED, resultMessage);
+        }
+    }
+
+    /**
+     * Stops the task of the service running on this node.
+     *
+     * @param id id of the deployed service.
+     */
+    @Override
+    public void cancel(UUID id) {
+        DeployTask deployTask = runningTasks.get(id);
+        if (Objects.nonNull(deployTask) && !deployTask.getCancellation().isCancelled()) {
+            log.info("Cancelling the task of service {}.", id);
+            deployTask.getCancellation().cancel();
+        }
+    }
+
+    /**
+     * Cancel the queued or running deploy or destroy task of the service. The task is stopped
+     * on the node running it, a cancelled deployment ends in the state DEPLOY_CANCELLED and a
+     * cancelled destroy in the state DESTROY_CANCELLED.
+     *
+     * @param id id of the deployed service.
+     * @throws ServiceNotDeployedException when the service is not found.
+     * @throws InvalidServiceStateException when no task of the service is running.
+     */
+    public void cancelService(UUID id) {
+        if (!deployTaskStorage.requestCancel(id)) {
+            if (Objects.isNull(deployServiceStorage.findDeployServiceById(id))) {
+                throw new ServiceNotDeployedException(
+                        String.format("Deployed service with id %s not found", id));
+            }
+            throw new InvalidServiceStateException(
+                    String.format("Service with id %s has no running task.", id));
+        }
+        // the task running on another node is cancelled when that node polls the queue.
+        cancel(id);
+    }
+
+    private void addQueuedTask(DeployTask deployTask, DeployTaskType taskType, Runnable task) {
+        deployTaskQueue.add(deployTask.getId(), taskType, deployTask.getCreateRequest());
+        try {
+            submitQueuedTask(deployTask, taskType == DeployTaskType.DESTROY, task);
+        } catch (RuntimeException e) {
+            // the lane of the CSP is full, the task is not started.
+            deployTaskQueue.complete(deployTask.getId());
+            throw e;
+        }
+    }
+
+    private void submitQueuedTask(DeployTask deployTask, boolean isDestroy, Runnable task) {
+        CreateRequest createRequest = deployTask.getCreateRequest();
+        // known before it is started, so that a task waiting in the lane can be cancelled.
+        runningTasks.put(deployTask.getId(), deployTask);
+        try {
+            deploymentScheduler.submit(createRequest.getCsp(), createRequest.getUserName(),
+                    isDestroy, () -> {
+                        try {
+                            task.run();
+                        } finally {
+                            runningTasks.remove(deployTask.getId());
+                            deployTaskQueue.complete(deployTask.getId());
+                        }
+                    });
+        } catch (RuntimeException e) {
+            runningTasks.remove(deployTask.getId());
+            throw e;
+        }
+    }
+
+    private void destroyService(Deployment deployment, DeployTask deployTask) {
         MDC.put(TASK_ID, deployTask.getId().toString());
         DeployServiceEntity deployServiceEntity =
                 deployServiceStorage.findDeployServiceById(deployTask.getId());
@@ -234,49 +738,100 @@ public class DeployService {
                     String.format("Deployed service with id %s not found",
                             deployTask.getId()));
         }
+        if (deployTask.getCancellation().isCancelled()) {
+            // nothing is destroyed yet, the service is left in its state.
+            log.info("Destroy of service {} was cancelled before it started.",
+                    deployTask.getId());
+            return;
+        }
         try {
-            deployServiceEntity.setServiceState(ServiceState.DESTROYING);
-            deployServiceStorage.storeAndFlush(deployServiceEntity);
-            DeployResult deployResult = deployment.destroy(deployTask,
-                    deployServiceEntity.getPrivateProperties().get("stateFile"));
+            updateServiceState(deployServiceEntity, ServiceState.DESTROYING,
+                    deployServiceEntity.getResultMessage());
+            DeployResult deployResult;
+            deployTask.setStateHash(deployServiceEntity.getStateHash());
+            try (InputStream tfState = openDeployState(deployServiceEntity)) {
+                deployResult = deployment.destroy(deployTask, tfState);
+            }
             if (deployResult.getState() == TerraformExecState.DESTROY_SUCCESS) {
+                final String stateHash = deployServiceEntity.getStateHash();
                 deployServiceEntity.setServiceState(ServiceState.DESTROY_SUCCESS);
                 deployServiceEntity.setProperties(deployResult.getProperties());
                 deployServiceEntity.setPrivateProperties(deployResult.getPrivateProperties());
+                deployServiceEntity.setStateHash(null);
                 List<DeployResource> resources = deployResult.getResources();
-                if (CollectionUtils.isEmpty(resources)) {
-                    deployResourceStorage.deleteByDeployServiceId(deployServiceEntity.getId());
-                } else {
+                // the resources are always rewritten through the storage, which evicts them
+                // from the lookup of the monitor.
+                deployResourceStorage.deleteByDeployServiceId(deployServiceEntity.getId());
+                if (!CollectionUtils.isEmpty(resources)) {
                     deployServiceEntity.setDeployResourceList(
                             getDeployResourceEntityList(resources, deployServiceEntity));
                 }
-                deployServiceStorage.storeAndFlush(deployServiceEntity);
+                storeServiceState(deployServiceEntity);
+                deployStateStore.release(stateHash);
             } else {
-                deployServiceEntity.setServiceState(ServiceState.DESTROY_FAILED);
-                deployServiceStorage.storeAndFlush(deployServiceEntity);
+                updateServiceState(deployServiceEntity, ServiceState.DESTROY_FAILED,
+                        deployServiceEntity.getResultMessage());
             }
+        } catch (DeploymentCancelledException e) {
+            // a later destroy starts again from the stored state of the service.
+            log.info("Destroy of service {} was cancelled.", deployTask.getId());
+            updateServiceState(deployServiceEntity, ServiceState.DESTROY_CANCELLED,
+                    e.getMessage());
         } catch (Exception e) {
             log.error("asyncDestroyService failed", e);
-            deployServiceEntity.setResultMessage(e.getMessage());
-            deployServiceEntity.setServiceState(ServiceState.DESTROY_FAILED);
-            deployServiceStorage.storeAndFlush(deployServiceEntity);
+            updateServiceState(deployServiceEntity, ServiceState.DESTROY_FAILED, e.getMessage());
         }
 
     }
 
     /**
-     * List deploy services.
+     * Stores the service with its changed content, records the transition to its state and
+     * pushes the change to the subscribers.
+     */
+    private void storeServiceState(DeployServiceEntity deployServiceEntity) {
+        deployServiceStorage.storeAndRecordState(deployServiceEntity);
+        serviceStateEventBroker.notifyStateRecorded();
+    }
+
+    /**
+     * Records the transition of the service to a new state without writing its content again
+     * and pushes the change to the subscribers.
+     */
+    private void updateServiceState(DeployServiceEntity deployServiceEntity,
+                                    ServiceState serviceState, String resultMessage) {
+        deployServiceEntity.setServiceState(serviceState);
+        deployServiceEntity.setResultMessage(resultMessage);
+        if (!deployServiceStorage.recordState(deployServiceEntity)) {
+            // the service was not stored yet.
+            deployServiceStorage.storeAndRecordState(deployServiceEntity);
+        }
+        serviceStateEventBroker.notifyStateRecorded();
+    }
+
+    private InputStream openDeployState(DeployServiceEntity deployServiceEntity)
+            throws IOException {
+        if (Objects.nonNull(deployServiceEntity.getStateHash())) {
+            return deployStateStore.open(deployServiceEntity.getStateHash());
+        }
+        // the state of the service is not migrated yet.
+        String tfState = Objects.isNull(deployServiceEntity.getPrivateProperties()) ? null
+                : deployServiceEntity.getPrivateProperties()
+                .get(DeployStateMigration.STATE_FILE_PROPERTY);
+        return Objects.isNull(tfState) ? null
+                : new ByteArrayInputStream(tfState.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * List a page of the deployed services matching the query.
      *
+     * @param query the query model, with the cursor of the page.
      * @return serviceVos
      */
-    public List<ServiceVo> getDeployedServices() {
-        List<DeployServiceEntity> deployServices =
-                deployServiceStorage.services();
-        return deployServices.stream().map(service -> {
-            ServiceVo serviceVo = new ServiceVo();
-            BeanUtils.copyProperties(service, serviceVo);
-            return serviceVo;
-        }).collect(Collectors.toList());
+    public List<ServiceVo> getDeployedServices(DeployedServiceQuery query) {
+        List<DeployServiceSummary> deployServices =
+                deployServiceStorage.listServices(query);
+        return deployServices.stream().map(EntityTransUtils::transToServiceVo)
+                .collect(Collectors.toList());
 
     }
 
@@ -287,11 +842,7 @@ public class DeployService {
      * @return serviceDetailVo
      */
     public ServiceDetailVo getDeployServiceDetails(UUID id, String user) {
-        DeployServiceEntity deployServiceEntity = deployServiceStorage.findDeployServiceById(id);
-        if (Objects.isNull(deployServiceEntity)
-                || !deployServiceEntity.getUserName().equals(user)) {
-            throw new ServiceNotDeployedException("Service not found.");
-        }
+        DeployServiceEntity deployServiceEntity = getOwnedDeployService(id, user);
         ServiceDetailVo serviceDetailVo = new ServiceDetailVo();
         BeanUtils.copyProperties(deployServiceEntity, serviceDetailVo);
         if (!CollectionUtils.isEmpty(deployServiceEntity.getDeployResourceList())) {
@@ -306,6 +857,40 @@ public class DeployService {
         return serviceDetailVo;
     }
 
+    /**
+     * Reads a range of the log of the deployer of the deployed service of the user.
+     *
+     * @param id       ID of deploy service.
+     * @param user     user who deployed the service.
+     * @param offset   byte offset to start reading from, the end of the log is read when null.
+     * @param maxBytes max number of bytes to read.
+     * @return the read range of the log.
+     */
+    public DeployLogVo getDeployLog(UUID id, String user, Long offset, int maxBytes) {
+        DeployServiceEntity deployServiceEntity = getOwnedDeployService(id, user);
+        Deployment deployment =
+                getDeployment(getDeployedOcl(deployServiceEntity).getDeployment().getKind());
+        return deployment.getDeployLog(id, offset, maxBytes);
+    }
+
+    private DeployServiceEntity getOwnedDeployService(UUID id, String user) {
+        DeployServiceEntity deployServiceEntity = deployServiceStorage.findDeployServiceById(id);
+        if (Objects.isNull(deployServiceEntity)
+                || !deployServiceEntity.getUserName().equals(user)) {
+            throw new ServiceNotDeployedException("Service not found.");
+        }
+        return deployServiceEntity;
+    }
+
+
+    private void validateServiceRequestProperties(Ocl ocl, CreateRequest createRequest) {
+        if (Objects.nonNull(ocl.getDeployment())
+                && Objects.nonNull(createRequest.getServiceRequestProperties())) {
+            List<DeployVariable> deployVariables = ocl.getDeployment().getVariables();
+            deployVariableValidator.isVariableValid(deployVariables,
+                    createRequest.getServiceRequestProperties());
+        }
+    }
 
     private void fillHandler(DeployTask deployTask) {
         // Find the deployment plugin and resource handler
@@ -333,4 +918,12 @@ public class DeployService {
         return deployment;
     }
 
+    /**
+     * Progress events of the resources of a task which are not recorded yet.
+     */
+    private static class ResourceProgress {
+
+        private final Queue<TerraformEvent> events = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean isScheduled = new AtomicBoolean();
+    }
 }
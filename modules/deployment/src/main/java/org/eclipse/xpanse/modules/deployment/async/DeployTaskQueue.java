@@ -0,0 +1,277 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.async;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.database.task.DeployTaskEntity;
+import org.eclipse.xpanse.modules.database.task.DeployTaskStorage;
+import org.eclipse.xpanse.modules.models.service.deploy.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployTaskType;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeploymentQueueFullException;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.InvalidServiceStateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Durable queue of the deploy and destroy tasks, shared by all xpanse nodes using the same
+ * database. A task is leased by the node which runs it, and the lease is renewed while the task
+ * is running. The tasks whose lease expired, because the node was stopped or crashed, are taken
+ * over by the next node which polls the queue.
+ */
+@Slf4j
+@Component
+public class DeployTaskQueue {
+
+    private static final int CLAIM_BATCH_SIZE = 10;
+
+    private final DeployTaskStorage deployTaskStorage;
+    @Getter
+    private final String nodeId;
+    private final long leaseMillis;
+    private final long pollIntervalSeconds;
+    @Getter
+    private final int maxAttempts;
+    private final Set<UUID> leasedTasks = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService poller;
+
+    /**
+     * Constructor of DeployTaskQueue.
+     *
+     * @param deployTaskStorage storage of the tasks.
+     * @param nodeId id of this node, a random id is used when empty.
+     * @param leaseSeconds seconds a task stays leased without renewal.
+     * @param pollIntervalSeconds seconds between renewing the leases and polling the queue.
+     * @param maxAttempts max number of times a task is started.
+     */
+    public DeployTaskQueue(DeployTaskStorage deployTaskStorage,
+                           @Value("${deployment.queue.node-id:}") String nodeId,
+                           @Value("${deployment.queue.lease-seconds:60}") long leaseSeconds,
+                           @Value("${deployment.queue.poll-interval-seconds:10}")
+                           long pollIntervalSeconds,
+                           @Value("${deployment.queue.max-attempts:3}") int maxAttempts) {
+        if (pollIntervalSeconds < 1 || leaseSeconds <= pollIntervalSeconds || maxAttempts < 1) {
+            throw new IllegalArgumentException(String.format("Invalid deployment queue settings,"
+                            + " lease %d s, poll interval %d s, max attempts %d.", leaseSeconds,
+                    pollIntervalSeconds, maxAttempts));
+        }
+        this.deployTaskStorage = deployTaskStorage;
+        this.nodeId = StringUtils.isBlank(nodeId) ? UUID.randomUUID().toString() : nodeId;
+        this.leaseMillis = TimeUnit.SECONDS.toMillis(leaseSeconds);
+        this.pollIntervalSeconds = pollIntervalSeconds;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Starts polling the queue for tasks which are not running on any node.
+     *
+     * @param handler handler which runs the tasks taken over by this node.
+     */
+    public synchronized void start(TaskHandler handler) {
+        if (Objects.nonNull(poller)) {
+            return;
+        }
+        log.info("Polling deploy tasks as node {}.", nodeId);
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deploy-task-queue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(() -> poll(handler), pollIntervalSeconds,
+                pollIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops polling the queue. The leases of the running tasks expire and the tasks are taken
+     * over by another node.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (Objects.nonNull(poller)) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    /**
+     * Adds a new task which is leased by this node.
+     *
+     * @param id id of the deployed service.
+     * @param taskType type of the task.
+     * @param createRequest request of the deployed service.
+     * @throws InvalidServiceStateException when a task of the service is already queued.
+     */
+    public void add(UUID id, DeployTaskType taskType, CreateRequest createRequest) {
+        DeployTaskEntity task = new DeployTaskEntity();
+        task.setId(id);
+        task.setTaskType(taskType);
+        task.setCsp(createRequest.getCsp());
+        task.setUserName(createRequest.getUserName());
+        task.setBatchId(createRequest.getBatchId());
+        task.setCreateRequest(createRequest);
+        task.setCreateTime(new Date());
+        task.setLeaseOwner(nodeId);
+        task.setLeaseExpireTime(new Date(System.currentTimeMillis() + leaseMillis));
+        task.setAttempts(1);
+        // must be known as running before the poller can see the row.
+        if (!leasedTasks.add(id)) {
+            throw getQueuedTaskException(id);
+        }
+        try {
+            deployTaskStorage.insertAndFlush(task);
+        } catch (DataIntegrityViolationException e) {
+            leasedTasks.remove(id);
+            throw getQueuedTaskException(id);
+        } catch (RuntimeException e) {
+            leasedTasks.remove(id);
+            throw e;
+        }
+    }
+
+    private InvalidServiceStateException getQueuedTaskException(UUID id) {
+        return new InvalidServiceStateException(
+                String.format("Service with id %s has a queued task.", id));
+    }
+
+    /**
+     * Removes the finished task from the queue.
+     *
+     * @param id id of the deployed service.
+     */
+    public void complete(UUID id) {
+        try {
+            deployTaskStorage.delete(id, nodeId);
+        } finally {
+            leasedTasks.remove(id);
+        }
+    }
+
+    /**
+     * Gives up the lease of a task which is not started, so that the task is started by the next
+     * node which polls the queue.
+     *
+     * @param id id of the deployed service.
+     */
+    public void release(UUID id) {
+        try {
+            deployTaskStorage.release(id, nodeId);
+        } finally {
+            leasedTasks.remove(id);
+        }
+    }
+
+    /**
+     * Get the number of the tasks which are leased by this node.
+     *
+     * @return number of the leased tasks.
+     */
+    public int getLeasedTasks() {
+        return leasedTasks.size();
+    }
+
+    void poll(TaskHandler handler) {
+        try {
+            renewLeases();
+            cancelTasks(handler);
+            claimTasks(handler);
+        } catch (RuntimeException e) {
+            log.error("Polling deploy tasks failed.", e);
+        }
+    }
+
+    private void renewLeases() {
+        List<UUID> ids = new ArrayList<>(leasedTasks);
+        int renewed = deployTaskStorage.renewLeases(ids, nodeId,
+                new Date(System.currentTimeMillis() + leaseMillis));
+        if (renewed < ids.size()) {
+            log.warn("{} deploy tasks running on node {} were taken over by other nodes.",
+                    ids.size() - renewed, nodeId);
+        }
+    }
+
+    private void cancelTasks(TaskHandler handler) {
+        // cancellation may be requested on any node, the flag is seen by the node running it.
+        for (UUID id : deployTaskStorage.findCancelRequestedIds(new ArrayList<>(leasedTasks))) {
+            handler.cancel(id);
+        }
+    }
+
+    private void claimTasks(TaskHandler handler) {
+        Date now = new Date();
+        for (DeployTaskEntity task : deployTaskStorage.findClaimableTasks(nodeId, now,
+                CLAIM_BATCH_SIZE + leasedTasks.size())) {
+            if (leasedTasks.contains(task.getId()) || !deployTaskStorage.claim(task.getId(),
+                    nodeId, new Date(now.getTime() + leaseMillis), now)) {
+                continue;
+            }
+            leasedTasks.add(task.getId());
+            task.setAttempts(task.getAttempts() + 1);
+            task.setLeaseOwner(nodeId);
+            try {
+                if (task.getAttempts() > maxAttempts) {
+                    log.warn("Deploy task {} was started {} times, giving up.", task.getId(),
+                            maxAttempts);
+                    handler.abandon(task);
+                    complete(task.getId());
+                } else {
+                    log.info("Node {} takes over the {} task {}.", nodeId,
+                            task.getTaskType().toValue(), task.getId());
+                    handler.resume(task);
+                }
+            } catch (DeploymentQueueFullException e) {
+                // no capacity on this node, leave the task to the next poll or another node.
+                release(task.getId());
+                return;
+            } catch (RuntimeException e) {
+                log.error("Take over of the deploy task {} failed.", task.getId(), e);
+                handler.abandon(task);
+                complete(task.getId());
+            }
+        }
+    }
+
+    /**
+     * Runs the tasks which are taken over by this node.
+     */
+    public interface TaskHandler {
+
+        /**
+         * Starts the task again. The task must be completed when it is finished.
+         *
+         * @param task the task taken over by this node.
+         * @throws DeploymentQueueFullException when the task can not be started now.
+         */
+        void resume(DeployTaskEntity task);
+
+        /**
+         * Marks the deployed service as failed, the task is not started again.
+         *
+         * @param task the task which is given up.
+         */
+        void abandon(DeployTaskEntity task);
+
+        /**
+         * Stops the running task whose cancellation was requested.
+         *
+         * @param id id of the deployed service.
+         */
+        void cancel(UUID id);
+    }
+}
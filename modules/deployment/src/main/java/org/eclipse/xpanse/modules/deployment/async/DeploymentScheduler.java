@@ -0,0 +1,279 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.async;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeploymentQueueFullException;
+import org.eclipse.xpanse.modules.models.service.view.DeploymentLaneStatsVo;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schedules the deploy and destroy tasks on the taskExecutor. Each CSP has its own lane with a
+ * bounded queue and a max number of running tasks, so that an outage of one CSP can not occupy
+ * all the threads. Inside a lane the tasks of the users are started by weighted fair queueing,
+ * so that one user with many deployments does not starve the others.
+ */
+@Slf4j
+@Component
+public class DeploymentScheduler {
+
+    private static final double DEFAULT_USER_WEIGHT = 1.0;
+
+    private final Executor taskExecutor;
+    private final int maxRunningPerCsp;
+    private final int queueCapacityPerCsp;
+    private final boolean isDestroyPrioritized;
+    private final Map<String, Double> userWeights;
+    private final Map<Csp, Lane> lanes = new EnumMap<>(Csp.class);
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Constructor of DeploymentScheduler.
+     *
+     * @param taskExecutor executor which runs the tasks.
+     * @param maxRunningPerCsp max number of running tasks of each CSP.
+     * @param queueCapacityPerCsp max number of waiting deploy tasks of each CSP.
+     * @param isDestroyPrioritized whether destroy tasks are started before deploy tasks.
+     * @param userWeights weights of the users as 'user:weight' separated by comma.
+     */
+    public DeploymentScheduler(
+            @Qualifier("taskExecutor") Executor taskExecutor,
+            @Value("${deployment.scheduler.max-running-per-csp:10}") int maxRunningPerCsp,
+            @Value("${deployment.scheduler.queue-capacity-per-csp:200}")
+            int queueCapacityPerCsp,
+            @Value("${deployment.scheduler.destroy-priority:true}") boolean isDestroyPrioritized,
+            @Value("${deployment.scheduler.user-weights:}") String userWeights) {
+        if (maxRunningPerCsp < 1 || queueCapacityPerCsp < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid deployment scheduler limits, max running %d, queue capacity %d.",
+                    maxRunningPerCsp, queueCapacityPerCsp));
+        }
+        this.taskExecutor = taskExecutor;
+        this.maxRunningPerCsp = maxRunningPerCsp;
+        this.queueCapacityPerCsp = queueCapacityPerCsp;
+        this.isDestroyPrioritized = isDestroyPrioritized;
+        this.userWeights = parseUserWeights(userWeights);
+        for (Csp csp : Csp.values()) {
+            lanes.put(csp, new Lane(csp));
+        }
+    }
+
+    /**
+     * Adds the task to the lane of the CSP. It is started as soon as the lane has capacity and
+     * it is the turn of the user.
+     *
+     * @param csp CSP the task is running against.
+     * @param userName user who started the task.
+     * @param isDestroy whether it is a destroy task.
+     * @param task the task.
+     * @throws DeploymentQueueFullException when a deploy task is added to a full lane.
+     */
+    public void submit(Csp csp, String userName, boolean isDestroy, Runnable task) {
+        Lane lane = lanes.get(Objects.requireNonNull(csp, "CSP of the task is required."));
+        Runnable submittedTask = ThreadMdcUtil.wrap(task, MDC.getCopyOfContextMap());
+        lane.add(StringUtils.defaultString(userName), isDestroy, submittedTask);
+        dispatch(lane, submittedTask);
+    }
+
+    /**
+     * Get the statistics of all lanes.
+     *
+     * @return statistics of the lanes.
+     */
+    public List<DeploymentLaneStatsVo> getStats() {
+        List<DeploymentLaneStatsVo> stats = new ArrayList<>();
+        for (Lane lane : lanes.values()) {
+            stats.add(lane.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Starts the tasks of the lane which can be started. When the executor rejects a task, the
+     * tasks which are not started wait in the lane for the next dispatch, except the task of the
+     * caller, which is removed from the lane so that the caller can report it as not started.
+     *
+     * @param lane the lane of the CSP.
+     * @param submittedTask the task submitted by the caller, null when a finished task dispatches.
+     */
+    private void dispatch(Lane lane, Runnable submittedTask) {
+        List<ScheduledTask> startable = lane.pollStartable();
+        for (int i = 0; i < startable.size(); i++) {
+            ScheduledTask scheduledTask = startable.get(i);
+            try {
+                taskExecutor.execute(() -> {
+                    try {
+                        scheduledTask.task().run();
+                    } finally {
+                        lane.finished();
+                        dispatch(lane, null);
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.error("Start of the task in the lane of CSP {} failed.",
+                        lane.csp.toValue(), e);
+                List<ScheduledTask> notStarted =
+                        new ArrayList<>(startable.subList(i, startable.size()));
+                boolean isSubmittedTaskRejected = Objects.nonNull(submittedTask)
+                        && notStarted.removeIf(task -> task.task() == submittedTask);
+                lane.requeue(notStarted);
+                if (isSubmittedTaskRejected) {
+                    lane.finished();
+                    if (e instanceof RejectedExecutionException) {
+                        throw new DeploymentQueueFullException(
+                                "Too many tasks are running, please retry later.");
+                    }
+                    throw e;
+                }
+                return;
+            }
+            lane.started(scheduledTask);
+        }
+    }
+
+    private double getUserWeight(String userName) {
+        return userWeights.getOrDefault(userName, DEFAULT_USER_WEIGHT);
+    }
+
+    private static Map<String, Double> parseUserWeights(String userWeights) {
+        Map<String, Double> weights = new HashMap<>();
+        for (String userWeight : StringUtils.split(StringUtils.defaultString(userWeights), ',')) {
+            String userName = StringUtils.substringBeforeLast(userWeight, ":").trim();
+            double weight = Double.parseDouble(StringUtils.substringAfterLast(userWeight, ":"));
+            if (StringUtils.isBlank(userName) || weight <= 0) {
+                throw new IllegalArgumentException("Invalid user weight: " + userWeight);
+            }
+            weights.put(userName, weight);
+        }
+        return weights;
+    }
+
+    /**
+     * Task waiting in a lane.
+     */
+    private record ScheduledTask(boolean isDestroy, boolean isPrioritized, double startTime,
+                                 double finishTime, long sequence, long queuedNanos,
+                                 Runnable task) {
+    }
+
+    /**
+     * Lane of a CSP. The waiting tasks are ordered by start-time fair queueing: each task gets a
+     * virtual finish time which grows with the number of queued tasks of its user divided by the
+     * weight of the user, and the task with the smallest finish time is started first.
+     */
+    private final class Lane {
+
+        private final Csp csp;
+        private final PriorityQueue<ScheduledTask> queue = new PriorityQueue<>(
+                Comparator.comparing((ScheduledTask task) -> !task.isPrioritized())
+                        .thenComparingDouble(ScheduledTask::finishTime)
+                        .thenComparingLong(ScheduledTask::sequence));
+        private final Map<String, Double> userFinishTimes = new HashMap<>();
+        private double virtualTime;
+        private int queuedDeployTasks;
+        private int running;
+        private long startedTasks;
+        private long totalWaitNanos;
+
+        private Lane(Csp csp) {
+            this.csp = csp;
+        }
+
+        private synchronized void add(String userName, boolean isDestroy, Runnable task) {
+            // destroy tasks stop the cost of the services, they are always accepted.
+            if (!isDestroy && queuedDeployTasks >= queueCapacityPerCsp) {
+                throw new DeploymentQueueFullException(String.format(
+                        "Too many deployments are waiting for CSP %s, please retry later.",
+                        csp.toValue()));
+            }
+            double startTime = Math.max(virtualTime,
+                    userFinishTimes.getOrDefault(userName, 0.0));
+            double finishTime = startTime + 1 / getUserWeight(userName);
+            userFinishTimes.put(userName, finishTime);
+            queue.add(new ScheduledTask(isDestroy, isDestroy && isDestroyPrioritized, startTime,
+                    finishTime, sequence.incrementAndGet(), System.nanoTime(), task));
+            if (!isDestroy) {
+                queuedDeployTasks++;
+            }
+        }
+
+        /**
+         * Takes the tasks which can be started from the queue, they are counted as running.
+         */
+        private synchronized List<ScheduledTask> pollStartable() {
+            List<ScheduledTask> startable = new ArrayList<>();
+            while (running < maxRunningPerCsp && !queue.isEmpty()) {
+                ScheduledTask task = queue.poll();
+                virtualTime = Math.max(virtualTime, task.startTime());
+                if (!task.isDestroy()) {
+                    queuedDeployTasks--;
+                }
+                running++;
+                startable.add(task);
+            }
+            if (queue.isEmpty()) {
+                userFinishTimes.clear();
+            }
+            return startable;
+        }
+
+        /**
+         * Puts the polled tasks which could not be started back into the queue.
+         */
+        private synchronized void requeue(List<ScheduledTask> tasks) {
+            for (ScheduledTask task : tasks) {
+                queue.add(task);
+                if (!task.isDestroy()) {
+                    queuedDeployTasks++;
+                }
+                running--;
+            }
+        }
+
+        private synchronized void started(ScheduledTask task) {
+            startedTasks++;
+            totalWaitNanos += System.nanoTime() - task.queuedNanos();
+        }
+
+        private synchronized void finished() {
+            running--;
+        }
+
+        private synchronized DeploymentLaneStatsVo getStats() {
+            DeploymentLaneStatsVo stats = new DeploymentLaneStatsVo();
+            stats.setCsp(csp);
+            stats.setQueuedTasks(queue.size());
+            stats.setRunningTasks(running);
+            stats.setMaxRunningTasks(maxRunningPerCsp);
+            stats.setQueueCapacity(queueCapacityPerCsp);
+            stats.setAverageWaitMillis(startedTasks == 0 ? 0
+                    : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / startedTasks));
+            long oldestQueuedNanos = queue.stream().mapToLong(ScheduledTask::queuedNanos)
+                    .min().orElse(System.nanoTime());
+            stats.setLongestQueuedWaitMillis(
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldestQueuedNanos));
+            return stats;
+        }
+    }
+}
@@ -6,19 +6,53 @@
 
 package org.eclipse.xpanse.modules.deployment.async;
 
+import java.util.Objects;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 
 /**
  * Customize the thread pool. Define ThreadPoolTaskExecutor named taskExecutor to replace @Async's
- * default thread pool.
+ * default thread pool. With the mode 'virtual' each task runs on its own virtual thread instead
+ * and the running deployments are only limited per CSP by the DeploymentScheduler. Virtual
+ * threads need a Java 21 runtime, the project is built with Java 17 and on a Java 17 runtime the
+ * mode 'virtual' runs the tasks on a fixed thread pool.
  */
+@Slf4j
 @Configuration
 public class TaskConfiguration {
 
+    public static final String POOL_MODE = "pool";
+    public static final String VIRTUAL_MODE = "virtual";
     private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+    private static final int MAX_POOL_SIZE = 20;
+    private static final int RESOURCE_PROGRESS_POOL_SIZE = 2;
+    private static final int RESOURCE_PROGRESS_QUEUE_CAPACITY = 1000;
+
+    private final boolean isVirtualMode;
+    private final ThreadFactory virtualThreadFactory;
+
+    /**
+     * Constructor of TaskConfiguration.
+     *
+     * @param executorMode mode of the taskExecutor, 'pool' or 'virtual' which falls back to a
+     *                     fixed thread pool when the runtime is older than Java 21.
+     */
+    public TaskConfiguration(
+            @Value("${deployment.executor.mode:pool}") String executorMode) {
+        if (!POOL_MODE.equals(executorMode) && !VIRTUAL_MODE.equals(executorMode)) {
+            throw new IllegalArgumentException("Unknown deployment executor mode: "
+                    + executorMode);
+        }
+        this.isVirtualMode = VIRTUAL_MODE.equals(executorMode);
+        this.virtualThreadFactory = isVirtualMode ? getVirtualThreadFactory() : null;
+    }
 
     /**
      * Define ThreadPoolTaskExecutor named taskExecutor.
@@ -27,14 +61,70 @@ public class TaskConfiguration {
      */
     @Bean("taskExecutor")
     public Executor taskExecutor() {
+        if (Objects.nonNull(virtualThreadFactory)) {
+            log.info("Tasks are executed on virtual threads.");
+            TaskExecutorAdapter executor = new TaskExecutorAdapter(
+                    task -> virtualThreadFactory.newThread(task).start());
+            executor.setTaskDecorator(
+                    task -> ThreadMdcUtil.wrap(task, MDC.getCopyOfContextMap()));
+            return executor;
+        }
         ServiceThreadPoolTaskExecutor executor = new ServiceThreadPoolTaskExecutor();
+        if (isVirtualMode) {
+            // the tasks are never executed by the calling request thread, they wait in the queue.
+            log.warn("Virtual threads are not supported by Java {}. Tasks are executed on a"
+                    + " fixed thread pool.", Runtime.version().feature());
+            executor.setCorePoolSize(MAX_POOL_SIZE);
+            executor.setMaxPoolSize(MAX_POOL_SIZE);
+            executor.setThreadNamePrefix("thread-pool-");
+            executor.initialize();
+            return executor;
+        }
         executor.setCorePoolSize(CPU_COUNT * 2);
-        executor.setMaxPoolSize(20);
+        executor.setMaxPoolSize(MAX_POOL_SIZE);
         executor.setQueueCapacity(200);
         executor.setKeepAliveSeconds(300);
         executor.setThreadNamePrefix("thread-pool-");
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // a full pool is reported to the caller, the task never runs on the calling thread.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Define the executor which records the progress of the resources of the running
+     * deployments, so that the recording never runs on the deployment or output pump threads.
+     *
+     * @return executor
+     */
+    @Bean("resourceProgressExecutor")
+    public Executor resourceProgressExecutor() {
+        ServiceThreadPoolTaskExecutor executor = new ServiceThreadPoolTaskExecutor();
+        executor.setCorePoolSize(RESOURCE_PROGRESS_POOL_SIZE);
+        executor.setMaxPoolSize(RESOURCE_PROGRESS_POOL_SIZE);
+        executor.setQueueCapacity(RESOURCE_PROGRESS_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("resource-progress-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Creates the factory of virtual threads by reflection, the project is built with Java 17
+     * where virtual threads do not exist yet.
+     *
+     * @return factory of virtual threads or null when not supported by the running JVM.
+     */
+    static ThreadFactory getVirtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, "virtual-task-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // virtual threads are not available or still a preview feature of the running JVM.
+            return null;
+        }
+    }
 }
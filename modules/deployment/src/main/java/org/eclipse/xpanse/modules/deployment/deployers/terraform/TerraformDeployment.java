@@ -9,27 +9,38 @@ package org.eclipse.xpanse.modules.deployment.deployers.terraform;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.events.TerraformEvent;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.CommandOutputLog;
+import org.eclipse.xpanse.modules.deployment.state.DeployStateStore;
 import org.eclipse.xpanse.modules.deployment.utils.DeployEnvironments;
 import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
 import org.eclipse.xpanse.modules.models.service.deploy.DeployResult;
 import org.eclipse.xpanse.modules.models.service.deploy.enums.TerraformExecState;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.ServiceNotDeployedException;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.TerraformExecutorException;
 import org.eclipse.xpanse.modules.models.service.register.Ocl;
 import org.eclipse.xpanse.modules.models.service.register.enums.DeployerKind;
+import org.eclipse.xpanse.modules.models.service.view.DeployLogVo;
 import org.eclipse.xpanse.modules.orchestrator.deployment.DeployTask;
 import org.eclipse.xpanse.modules.orchestrator.deployment.DeployValidationResult;
 import org.eclipse.xpanse.modules.orchestrator.deployment.Deployment;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 /**
@@ -42,29 +53,64 @@ public class TerraformDeployment implements Deployment {
     public static final String VERSION_FILE_NAME = "version.tf";
     public static final String SCRIPT_FILE_NAME = "resources.tf";
     public static final String STATE_FILE_NAME = "terraform.tfstate";
+    public static final String TERRAFORM_DIRECTORY = ".terraform";
     public static final String TF_DEBUG_FLAG = "TF_LOG";
+    public static final String PLAN_SUMMARY_PROPERTY_NAME = "planSummary";
+    public static final String OUTPUT_LOG_FILE_NAME = "terraform.log";
+    private final String terraformExecutable;
     private final String workspaceDirectory;
     private final String debugLogLevel;
     private final boolean isDebugEnabled;
+    private final int maxOutputChars;
     private final DeployEnvironments deployEnvironments;
+    private final TerraformProviderMirror providerMirror;
+    private final TerraformWorkspacePool workspacePool;
+    private final TerraformValidationCache validationCache;
+    private final TerraformTimeouts timeouts;
+    private final TerraformWorkspaceJanitor workspaceJanitor;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Initializes the Terraform deployer.
      *
-     * @param workspaceDirectory workspace directory from where Terraform CLI is executed.
-     * @param isDebugEnabled     Runs Terraform CLI with debug if enabled.
-     * @param debugLogLevel      Level of debug level logs when debug is enabled.
+     * @param terraformExecutable Terraform executable on the path or absolute path to it.
+     * @param workspaceDirectory  workspace directory from where Terraform CLI is executed.
+     * @param isDebugEnabled      Runs Terraform CLI with debug if enabled.
+     * @param debugLogLevel       Level of debug level logs when debug is enabled.
+     * @param maxOutputKb         KB of each output stream of Terraform CLI kept in memory.
+     * @param providerMirror      Local mirror of the Terraform providers.
+     * @param workspacePool       Pool of pre-initialized workspaces.
+     * @param validationCache     Cache of the validation results of the scripts.
+     * @param timeouts            Timeouts of the phases of the deployments.
+     * @param workspaceJanitor    Janitor which removes the workspaces of the deployments.
+     * @param eventPublisher      Publisher of the progress events of Terraform.
      */
     @Autowired
     public TerraformDeployment(
+            @Value("${terraform.executable:terraform}") String terraformExecutable,
             @Value("${terraform.workspace.directory:xpanse_deploy_ws}") String workspaceDirectory,
             @Value("${terraform.debug.enabled:false}") boolean isDebugEnabled,
             @Value("${terraform.debug.level:DEBUG}") String debugLogLevel,
-            DeployEnvironments deployEnvironments) {
+            @Value("${terraform.output.max-kb:64}") int maxOutputKb,
+            DeployEnvironments deployEnvironments,
+            TerraformProviderMirror providerMirror,
+            TerraformWorkspacePool workspacePool,
+            TerraformValidationCache validationCache,
+            TerraformTimeouts timeouts,
+            TerraformWorkspaceJanitor workspaceJanitor,
+            ApplicationEventPublisher eventPublisher) {
+        this.terraformExecutable = terraformExecutable;
         this.workspaceDirectory = workspaceDirectory;
         this.isDebugEnabled = isDebugEnabled;
         this.debugLogLevel = debugLogLevel;
+        this.maxOutputChars = Math.max(maxOutputKb, 0) * 1024;
         this.deployEnvironments = deployEnvironments;
+        this.providerMirror = providerMirror;
+        this.workspacePool = workspacePool;
+        this.validationCache = validationCache;
+        this.timeouts = timeouts;
+        this.workspaceJanitor = workspaceJanitor;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -75,13 +121,32 @@ public class TerraformDeployment implements Deployment {
     @Override
     public DeployResult deploy(DeployTask task) {
         String workspace = getWorkspacePath(task.getId().toString());
-        // Create the workspace.
-        buildWorkspace(workspace);
-        createScriptFile(task.getCreateRequest().getCsp(), task.getCreateRequest().getRegion(),
-                workspace, task.getOcl().getDeployment().getDeployer());
+        this.workspaceJanitor.acquire(workspace);
+        try {
+            return deploy(task, workspace);
+        } finally {
+            task.getCancellation().setListener(null);
+            this.workspaceJanitor.release(workspace);
+        }
+    }
+
+    private DeployResult deploy(DeployTask task, String workspace) {
+        // Check out an initialized workspace or create the workspace.
+        boolean isWorkspaceInitialized = this.workspacePool.checkout(
+                task.getRegisteredServiceId(), task.getCreateRequest().getCsp(),
+                task.getCreateRequest().getRegion(), task.getOcl().getDeployment().getDeployer(),
+                workspace);
+        if (isWorkspaceInitialized) {
+            this.workspaceJanitor.track(workspace);
+        } else {
+            buildWorkspace(workspace);
+            createScriptFile(task.getCreateRequest().getCsp(),
+                    task.getCreateRequest().getRegion(), workspace,
+                    task.getOcl().getDeployment().getDeployer());
+        }
         // Execute the terraform command.
         TerraformExecutor executor = getExecutorForDeployTask(task, workspace);
-        executor.deploy();
+        executor.deploy(isWorkspaceInitialized);
         String tfState = executor.getTerraformState();
 
         DeployResult deployResult = new DeployResult();
@@ -91,6 +156,10 @@ public class TerraformDeployment implements Deployment {
             deployResult.setState(TerraformExecState.DEPLOY_SUCCESS);
             deployResult.getPrivateProperties().put("stateFile", tfState);
         }
+        String planSummary = executor.getPlanSummary();
+        if (StringUtils.isNotBlank(planSummary)) {
+            deployResult.getPrivateProperties().put(PLAN_SUMMARY_PROPERTY_NAME, planSummary);
+        }
 
         if (task.getDeployResourceHandler() != null) {
             task.getDeployResourceHandler().handler(deployResult);
@@ -100,14 +169,15 @@ public class TerraformDeployment implements Deployment {
 
 
     /**
-     * Destroy the DeployTask.
+     * Destroy the DeployTask. The workspace of the deployment is reused when it is still
+     * initialized and holds the stored state, otherwise it is created again from the stored state.
      *
      * @param task the task for the deployment.
      */
     @Override
-    public DeployResult destroy(DeployTask task, String tfState) throws IOException {
+    public DeployResult destroy(DeployTask task, InputStream tfState) throws IOException {
         DeployResult result = new DeployResult();
-        if (StringUtils.isBlank(tfState)) {
+        if (Objects.isNull(tfState)) {
             log.error("Deployed service with tfState not found, id:{}", task.getId());
             result.setId(task.getId());
             result.setState(TerraformExecState.DESTROY_FAILED);
@@ -115,26 +185,71 @@ public class TerraformDeployment implements Deployment {
         }
         String taskId = task.getId().toString();
         String workspace = getWorkspacePath(taskId);
-        createDestroyScriptFile(task.getCreateRequest().getCsp(),
-                task.getCreateRequest().getRegion(), workspace, tfState);
-        TerraformExecutor executor = getExecutorForDeployTask(task, workspace);
-        executor.destroy();
-        deleteWorkSpace(workspace);
+        this.workspaceJanitor.acquire(workspace);
+        TerraformExecutor executor;
+        try {
+            boolean isWorkspaceReusable = isWorkspaceReusable(workspace, task.getStateHash());
+            if (isWorkspaceReusable) {
+                log.info("Reuse the initialized workspace {} to destroy.", workspace);
+            } else {
+                deleteWorkSpace(workspace);
+                createDestroyScriptFile(task.getCreateRequest().getCsp(),
+                        task.getCreateRequest().getRegion(), workspace, tfState);
+            }
+            executor = getExecutorForDeployTask(task, workspace);
+            executor.destroy(isWorkspaceReusable);
+        } finally {
+            task.getCancellation().setListener(null);
+            this.workspaceJanitor.release(workspace);
+        }
+        this.workspaceJanitor.delete(workspace);
         result.setId(task.getId());
         result.setState(TerraformExecState.DESTROY_SUCCESS);
+        if (StringUtils.isNotBlank(executor.getPlanSummary())) {
+            result.getPrivateProperties().put(PLAN_SUMMARY_PROPERTY_NAME,
+                    executor.getPlanSummary());
+        }
         return result;
     }
 
     /**
-     * delete workspace.
+     * Checks if the workspace left by the deployment is initialized and holds the stored state.
+     *
+     * @param workspace the workspace of the deployment.
+     * @param stateHash the hash of the stored state.
+     */
+    private boolean isWorkspaceReusable(String workspace, String stateHash) {
+        Path path = Paths.get(workspace);
+        Path stateFile = path.resolve(STATE_FILE_NAME);
+        if (Objects.isNull(stateHash) || !Files.isDirectory(path.resolve(TERRAFORM_DIRECTORY))
+                || !Files.isRegularFile(path.resolve(VERSION_FILE_NAME))
+                || !Files.isRegularFile(stateFile)) {
+            return false;
+        }
+        try (InputStream workspaceState = Files.newInputStream(stateFile)) {
+            if (stateHash.equals(DeployStateStore.getContentHash(workspaceState))) {
+                return true;
+            }
+            log.info("State in workspace {} differs from the stored state.", workspace);
+            return false;
+        } catch (IOException ex) {
+            log.warn("Read state in workspace {} failed.", workspace, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Delete the stale content of the workspace before it is created again.
      */
     private void deleteWorkSpace(String workspace) {
         Path path = Paths.get(workspace);
-        try {
-            Files.walk(path).sorted(Comparator.reverseOrder()).map(Path::toFile)
-                    .forEach(File::delete);
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException ex) {
+            log.error("Delete workspace {} failed.", workspace, ex);
         }
     }
 
@@ -151,16 +266,33 @@ public class TerraformDeployment implements Deployment {
         inputVariables.putAll(this.deployEnvironments.getFlavorVariables(task));
         // load credential variables also as env variables for terraform executor.
         envVariables.putAll(this.deployEnvironments.getCredentialVariables(task));
-        return getExecutor(envVariables, inputVariables, workspace);
+        Consumer<TerraformEvent> eventListener = event -> {
+            event.setTaskId(task.getId());
+            this.eventPublisher.publishEvent(event);
+        };
+        TerraformExecutor executor = getExecutor(task.getCreateRequest().getCsp(),
+                envVariables, inputVariables, workspace, eventListener);
+        executor.setOutputLogFile(Paths.get(workspace, OUTPUT_LOG_FILE_NAME));
+        executor.setTimeouts(this.timeouts.getTimeouts(task.getCreateRequest().getCsp(),
+                Objects.isNull(task.getOcl()) ? null
+                        : task.getOcl().getDeployment().getTimeouts()));
+        // the running command is stopped when the task is cancelled.
+        task.getCancellation().setListener(executor::cancel);
+        return executor;
     }
 
-    private TerraformExecutor getExecutor(Map<String, String> envVariables,
-                                          Map<String, String> inputVariables, String workspace) {
+    private TerraformExecutor getExecutor(Csp csp, Map<String, String> envVariables,
+                                          Map<String, String> inputVariables, String workspace,
+                                          Consumer<TerraformEvent> eventListener) {
         if (this.isDebugEnabled) {
             log.info("Debug enabled for Terraform CLI with level {}", this.debugLogLevel);
             envVariables.put(TF_DEBUG_FLAG, this.debugLogLevel);
         }
-        return new TerraformExecutor(envVariables, inputVariables, workspace);
+        envVariables.putAll(this.providerMirror.getEnv(csp));
+        TerraformExecutor executor = new TerraformExecutor(this.terraformExecutable, envVariables,
+                inputVariables, workspace, this.providerMirror, eventListener);
+        executor.setMaxOutputChars(this.maxOutputChars);
+        return executor;
     }
 
     /**
@@ -192,10 +324,10 @@ public class TerraformDeployment implements Deployment {
      *
      * @param csp       the cloud service provider.
      * @param workspace the workspace for terraform.
-     * @param tfState   the terraform scripts of the tfstate.
+     * @param tfState   the terraform state, which is copied to the workspace.
      */
-    private void createDestroyScriptFile(Csp csp, String region, String workspace, String tfState)
-            throws IOException {
+    private void createDestroyScriptFile(Csp csp, String region, String workspace,
+                                         InputStream tfState) throws IOException {
         log.info("start create terraform destroy workspace and script");
         File parentPath = new File(workspace);
         if (!parentPath.exists() || !parentPath.isDirectory()) {
@@ -203,11 +335,10 @@ public class TerraformDeployment implements Deployment {
         }
         String verScriptPath = workspace + File.separator + VERSION_FILE_NAME;
         String scriptPath = workspace + File.separator + STATE_FILE_NAME;
-        try (FileWriter verWriter = new FileWriter(verScriptPath);
-                FileWriter scriptWriter = new FileWriter(scriptPath)) {
+        try (FileWriter verWriter = new FileWriter(verScriptPath)) {
             verWriter.write(TerraformProviders.getProvider(csp).getProvider(region));
-            scriptWriter.write(tfState);
         }
+        Files.copy(tfState, Paths.get(scriptPath), StandardCopyOption.REPLACE_EXISTING);
         log.info("terraform workspace and script create success");
     }
 
@@ -223,6 +354,7 @@ public class TerraformDeployment implements Deployment {
             throw new TerraformExecutorException(
                     "Create workspace failed, File path not created: " + ws.getAbsolutePath());
         }
+        this.workspaceJanitor.track(workspace);
         log.info("workspace create success,Working directory is " + ws.getAbsolutePath());
     }
 
@@ -237,6 +369,29 @@ public class TerraformDeployment implements Deployment {
     }
 
 
+    /**
+     * Reads a range of the Terraform log of the deployed service without loading the whole log.
+     *
+     * @param id       id of the deployed service.
+     * @param offset   byte offset to start reading from, the end of the log is read when null.
+     * @param maxBytes max number of bytes to read.
+     * @return the read range of the log.
+     * @throws ServiceNotDeployedException when the service has no log.
+     */
+    @Override
+    public DeployLogVo getDeployLog(UUID id, Long offset, int maxBytes) {
+        Path logFile = Paths.get(getWorkspacePath(id.toString()), OUTPUT_LOG_FILE_NAME);
+        if (!Files.isRegularFile(logFile)) {
+            throw new ServiceNotDeployedException(
+                    String.format("Terraform log of service with id %s not found.", id));
+        }
+        try {
+            return CommandOutputLog.read(logFile, offset, maxBytes);
+        } catch (IOException ex) {
+            throw new TerraformExecutorException("Read terraform log failed.", ex);
+        }
+    }
+
     /**
      * Get the deployer kind.
      */
@@ -246,16 +401,34 @@ public class TerraformDeployment implements Deployment {
     }
 
     /**
-     * Validates the Terraform script.
+     * Removes the pooled workspaces of the registered service.
+     */
+    @Override
+    public void invalidateServiceCache(UUID registeredServiceId) {
+        this.workspacePool.invalidate(registeredServiceId);
+    }
+
+    /**
+     * Validates the Terraform script. The result is cached, an unchanged script is not validated
+     * again.
      */
     public DeployValidationResult validate(Ocl ocl) {
-        String workspace = getWorkspacePath(UUID.randomUUID().toString());
-        // Create the workspace.
-        buildWorkspace(workspace);
-        createScriptFile(ocl.getCloudServiceProvider().getName(),
-                ocl.getCloudServiceProvider().getRegions().get(0).getName(), workspace,
-                ocl.getDeployment().getDeployer());
-        TerraformExecutor executor = getExecutor(new HashMap<>(), new HashMap<>(), workspace);
-        return executor.tfValidate();
+        Csp csp = ocl.getCloudServiceProvider().getName();
+        String region = ocl.getCloudServiceProvider().getRegions().get(0).getName();
+        String script = ocl.getDeployment().getDeployer();
+        return this.validationCache.get(csp,
+                TerraformProviders.getProvider(csp).getProvider(region), script, () -> {
+                    String workspace = getWorkspacePath(UUID.randomUUID().toString());
+                    try {
+                        // Create the workspace.
+                        buildWorkspace(workspace);
+                        createScriptFile(csp, region, workspace, script);
+                        TerraformExecutor executor = getExecutor(csp, new HashMap<>(),
+                                new HashMap<>(), workspace, null);
+                        return executor.tfValidate();
+                    } finally {
+                        this.workspaceJanitor.delete(workspace);
+                    }
+                });
     }
 }
@@ -11,11 +11,22 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.events.TerraformEvent;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.events.TerraformEventParser;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.events.TerraformEventType;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.CommandOutputLog;
 import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.SystemCmd;
 import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.SystemCmdResult;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeploymentCancelledException;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.TerraformExecutorException;
 import org.eclipse.xpanse.modules.orchestrator.deployment.DeployValidationResult;
 
@@ -25,68 +36,146 @@ import org.eclipse.xpanse.modules.orchestrator.deployment.DeployValidationResult
 @Slf4j
 public class TerraformExecutor {
 
+    public static final String PLAN_FILE_NAME = "tfplan";
+    private static final Pattern VARIABLE_VALUE_PATTERN = Pattern.compile("(-var=[^=\\s]+=)\\S*");
+    private final String terraformExecutable;
     private final Map<String, String> env;
     private final Map<String, String> variables;
     private final String workspace;
+    private final TerraformProviderMirror providerMirror;
+    private final Consumer<TerraformEvent> eventListener;
+    private String planSummary;
+    private int maxOutputChars;
+    private Path outputLogFile;
+    private Map<TerraformPhase, Duration> timeouts = new EnumMap<>(TerraformPhase.class);
+    private SystemCmd runningCmd;
+    private boolean isCancelled;
 
     /**
      * Constructor for terraformExecutor.
      *
-     * @param env       environment for the terraform command line.
-     * @param variables variables for the terraform command line.
-     * @param workspace workspace for the terraform command line.
+     * @param terraformExecutable terraform executable on the path or absolute path to it.
+     * @param env                 environment for the terraform command line.
+     * @param variables           variables for the terraform command line.
+     * @param workspace           workspace for the terraform command line.
+     * @param providerMirror      mirror from which the providers are installed.
+     * @param eventListener       listener for the progress of plan and apply, may be null.
      */
-    TerraformExecutor(Map<String, String> env, Map<String, String> variables,
-                      String workspace) {
+    TerraformExecutor(String terraformExecutable, Map<String, String> env,
+                      Map<String, String> variables, String workspace,
+                      TerraformProviderMirror providerMirror,
+                      Consumer<TerraformEvent> eventListener) {
+        this.terraformExecutable = terraformExecutable;
         this.env = env;
         this.variables = variables;
         this.workspace = workspace;
+        this.providerMirror = providerMirror;
+        this.eventListener = eventListener;
     }
 
     /**
-     * Executes terraform init command.
+     * Limits the output of the commands kept in memory, only the end of a longer output is kept.
      *
-     * @return Returns result of SystemCmd executes.
+     * @param maxOutputChars max number of characters of each output stream, 0 for no limit.
      */
-    public SystemCmdResult tfInit() {
-        return execute("terraform init -no-color");
+    public void setMaxOutputChars(int maxOutputChars) {
+        this.maxOutputChars = maxOutputChars;
     }
 
     /**
-     * Executes terraform plan command.
+     * Sets the log file which receives the full output of the commands.
      *
-     * @return Returns result of SystemCmd executes.
+     * @param outputLogFile path of the log file, null to not log the output.
+     */
+    public void setOutputLogFile(Path outputLogFile) {
+        this.outputLogFile = outputLogFile;
+    }
+
+    /**
+     * Sets the timeouts of the phases, a command which is not completed in time is stopped.
+     *
+     * @param timeouts the timeouts of the phases, Duration.ZERO for no timeout.
+     */
+    public void setTimeouts(Map<TerraformPhase, Duration> timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * Stops the running command and the commands which are executed afterwards.
      */
-    public SystemCmdResult tfPlan() {
-        return executeWithVariables(new StringBuilder("terraform plan -input=false -no-color "));
+    public void cancel() {
+        SystemCmd systemCmd;
+        synchronized (this) {
+            this.isCancelled = true;
+            systemCmd = this.runningCmd;
+        }
+        if (Objects.nonNull(systemCmd)) {
+            systemCmd.cancel();
+        }
     }
 
     /**
-     * Executes terraform apply command.
+     * Executes terraform init command.
      *
      * @return Returns result of SystemCmd executes.
      */
-    public SystemCmdResult tfApply() {
-        return executeWithVariables(
-                new StringBuilder("terraform apply -auto-approve -input=false -no-color "));
+    public SystemCmdResult tfInit() {
+        if (Objects.isNull(this.providerMirror)) {
+            return execute(getCommand("init -no-color"), TerraformPhase.INIT);
+        }
+        return this.providerMirror.runWithMirror(
+                () -> execute(getCommand("init -no-color"), TerraformPhase.INIT));
     }
 
     /**
-     * Executes terraform destroy command.
+     * Executes terraform plan command and saves the plan to the plan file.
      *
+     * @param isDestroy creates a plan which destroys all resources if true.
      * @return Returns result of SystemCmd executes.
      */
-    public SystemCmdResult tfDestroy() {
-        return executeWithVariables(
-                new StringBuilder("terraform destroy -auto-approve -input=false -no-color "));
+    public SystemCmdResult tfPlanToFile(boolean isDestroy) {
+        StringBuilder command = new StringBuilder(
+                getCommand("plan -input=false -no-color -json -out=" + PLAN_FILE_NAME + " "));
+        if (isDestroy) {
+            command.append("-destroy ");
+        }
+        return executeWithEvents(appendVariables(command), TerraformPhase.PLAN,
+                this::onPlanEvent);
     }
 
     /**
-     * Executes terraform commands with parameters.
+     * Executes terraform apply command with the saved plan file. Variables are already part of
+     * the plan and the resources are not refreshed again.
      *
      * @return Returns result of SystemCmd executes.
      */
-    private SystemCmdResult executeWithVariables(StringBuilder command) {
+    public SystemCmdResult tfApplyPlanFile() {
+        return applyPlanFile(TerraformPhase.APPLY);
+    }
+
+    private SystemCmdResult applyPlanFile(TerraformPhase phase) {
+        return executeWithEvents(
+                getCommand("apply -auto-approve -input=false -no-color -json " + PLAN_FILE_NAME),
+                phase, this.eventListener);
+    }
+
+    /**
+     * Keeps the summary of the changes of the plan and passes the event to the listener.
+     */
+    private void onPlanEvent(TerraformEvent event) {
+        if (event.getType() == TerraformEventType.CHANGE_SUMMARY) {
+            this.planSummary = event.getMessage();
+        }
+        if (Objects.nonNull(this.eventListener)) {
+            this.eventListener.accept(event);
+        }
+    }
+
+    private String getCommand(String arguments) {
+        return this.terraformExecutable + " " + arguments;
+    }
+
+    private String appendVariables(StringBuilder command) {
         for (Map.Entry<String, String> entry : this.variables.entrySet()) {
             if (Objects.nonNull(entry.getKey()) && Objects.nonNull(entry.getValue())) {
                 command.append("-var=")
@@ -96,7 +185,7 @@ public class TerraformExecutor {
                         .append(" ");
             }
         }
-        return execute(command.toString());
+        return command.toString();
     }
 
     /**
@@ -104,30 +193,145 @@ public class TerraformExecutor {
      *
      * @return SystemCmdResult
      */
-    private SystemCmdResult execute(String cmd) {
+    private SystemCmdResult execute(String cmd, TerraformPhase phase) {
+        return execute(cmd, phase, null);
+    }
+
+    /**
+     * Executes terraform commands. The output is kept in the output log and only the end of the
+     * output is kept in the result when the output is limited.
+     *
+     * @return SystemCmdResult
+     */
+    private SystemCmdResult execute(String cmd, TerraformPhase phase,
+                                    Consumer<String> stdOutLineConsumer) {
+        SystemCmd systemCmd = new SystemCmd();
+        systemCmd.setEnv(env);
+        systemCmd.setWorkDir(workspace);
+        systemCmd.setStdOutLineConsumer(stdOutLineConsumer);
+        systemCmd.setMaxOutputChars(this.maxOutputChars);
+        CommandOutputLog outputLog = openOutputLog(cmd);
+        systemCmd.setOutputLog(outputLog);
+        try {
+            return run(systemCmd, cmd, phase);
+        } finally {
+            if (Objects.nonNull(outputLog)) {
+                try {
+                    outputLog.close();
+                } catch (IOException ex) {
+                    log.warn("Close output log {} failed.", this.outputLogFile, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes terraform commands whose stdout is the result of the command. The stdout is kept
+     * completely and not written to the output log.
+     *
+     * @return SystemCmdResult
+     */
+    private SystemCmdResult executeForOutput(String cmd, TerraformPhase phase) {
         SystemCmd systemCmd = new SystemCmd();
         systemCmd.setEnv(env);
         systemCmd.setWorkDir(workspace);
-        return systemCmd.execute(cmd);
+        return run(systemCmd, cmd, phase);
+    }
+
+    /**
+     * Runs the command with the timeout of the phase. The command can be stopped by cancel.
+     *
+     * @throws DeploymentCancelledException when the command was cancelled.
+     */
+    private SystemCmdResult run(SystemCmd systemCmd, String cmd, TerraformPhase phase) {
+        synchronized (this) {
+            this.runningCmd = systemCmd;
+            if (this.isCancelled) {
+                systemCmd.cancel();
+            }
+        }
+        SystemCmdResult result;
+        try {
+            result = systemCmd.execute(cmd,
+                    (int) this.timeouts.getOrDefault(phase, Duration.ZERO).toSeconds());
+        } finally {
+            synchronized (this) {
+                this.runningCmd = null;
+            }
+        }
+        if (result.isCommandCancelled()) {
+            throw new DeploymentCancelledException(String.format(
+                    "Terraform %s was cancelled.", phase.toValue()));
+        }
+        if (result.isCommandTimedOut()) {
+            log.error("Terraform {} timed out after {}.", phase.toValue(),
+                    this.timeouts.get(phase));
+        }
+        return result;
+    }
+
+    private CommandOutputLog openOutputLog(String cmd) {
+        if (Objects.isNull(this.outputLogFile)) {
+            return null;
+        }
+        try {
+            CommandOutputLog outputLog = new CommandOutputLog(this.outputLogFile);
+            outputLog.appendLine("$ " + getLoggedCommand(cmd));
+            return outputLog;
+        } catch (IOException ex) {
+            log.warn("Output log {} of the command is not available.", this.outputLogFile, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Get the command as written to the output log, the values of the variables are masked.
+     */
+    private static String getLoggedCommand(String cmd) {
+        return VARIABLE_VALUE_PATTERN.matcher(cmd).replaceAll("$1***");
+    }
+
+    /**
+     * Executes terraform commands in -json mode. The output is parsed while the command is
+     * running and passed to the event listener instead of being kept in the result.
+     *
+     * @return SystemCmdResult with the error diagnostics of terraform as error output.
+     */
+    private SystemCmdResult executeWithEvents(String cmd, TerraformPhase phase,
+                                              Consumer<TerraformEvent> listener) {
+        TerraformEventParser eventParser = new TerraformEventParser(listener);
+        SystemCmdResult result = execute(cmd, phase, eventParser);
+        String errors = eventParser.getErrors();
+        if (!result.isCommandSuccessful() && StringUtils.isNotBlank(errors)) {
+            result.setCommandStdError(StringUtils.isBlank(result.getCommandStdError()) ? errors
+                    : errors + System.lineSeparator() + result.getCommandStdError());
+        }
+        return result;
     }
 
     /**
      * Deploy source by terraform.
      */
     public void deploy() {
-        SystemCmdResult initResult = tfInit();
-        if (!initResult.isCommandSuccessful()) {
-            log.error("TFExecutor.tfInit failed.");
-            throw new TerraformExecutorException("TFExecutor.tfInit failed.",
-                    initResult.getCommandStdError());
-        }
-        SystemCmdResult planResult = tfPlan();
-        if (!planResult.isCommandSuccessful()) {
-            log.error("TFExecutor.tfPlan failed.");
-            throw new TerraformExecutorException("TFExecutor.tfPlan failed.",
-                    planResult.getCommandStdError());
+        deploy(false);
+    }
+
+    /**
+     * Deploy source by terraform.
+     *
+     * @param isWorkspaceInitialized skips terraform init for an already initialized workspace.
+     */
+    public void deploy(boolean isWorkspaceInitialized) {
+        if (!isWorkspaceInitialized) {
+            SystemCmdResult initResult = tfInit();
+            if (!initResult.isCommandSuccessful()) {
+                log.error("TFExecutor.tfInit failed.");
+                throw new TerraformExecutorException("TFExecutor.tfInit failed.",
+                        initResult.getCommandStdError());
+            }
         }
-        SystemCmdResult applyResult = tfApply();
+        planToFile(false);
+        SystemCmdResult applyResult = tfApplyPlanFile();
         if (!applyResult.isCommandSuccessful()) {
             log.error("TFExecutor.tfApply failed.");
             throw new TerraformExecutorException("TFExecutor.tfApply failed.",
@@ -139,19 +343,25 @@ public class TerraformExecutor {
      * Destroy resource of the service.
      */
     public void destroy() {
-        SystemCmdResult initResult = tfInit();
-        if (!initResult.isCommandSuccessful()) {
-            log.error("TFExecutor.tfInit failed.");
-            throw new TerraformExecutorException("TFExecutor.tfInit failed.",
-                    initResult.getCommandStdError());
-        }
-        SystemCmdResult planResult = tfPlan();
-        if (!planResult.isCommandSuccessful()) {
-            log.error("TFExecutor.tfPlan failed.");
-            throw new TerraformExecutorException("TFExecutor.tfPlan failed.",
-                    planResult.getCommandStdError());
+        destroy(false);
+    }
+
+    /**
+     * Destroy resource of the service.
+     *
+     * @param isWorkspaceInitialized skips terraform init for an already initialized workspace.
+     */
+    public void destroy(boolean isWorkspaceInitialized) {
+        if (!isWorkspaceInitialized) {
+            SystemCmdResult initResult = tfInit();
+            if (!initResult.isCommandSuccessful()) {
+                log.error("TFExecutor.tfInit failed.");
+                throw new TerraformExecutorException("TFExecutor.tfInit failed.",
+                        initResult.getCommandStdError());
+            }
         }
-        SystemCmdResult destroyResult = tfDestroy();
+        planToFile(true);
+        SystemCmdResult destroyResult = applyPlanFile(TerraformPhase.DESTROY);
         if (!destroyResult.isCommandSuccessful()) {
             log.error("TFExecutor.tfDestroy failed.");
             throw new TerraformExecutorException("TFExecutor.tfDestroy failed.",
@@ -159,6 +369,30 @@ public class TerraformExecutor {
         }
     }
 
+    /**
+     * Creates the plan file which is applied afterwards and keeps the summary of its changes.
+     */
+    private void planToFile(boolean isDestroy) {
+        this.planSummary = null;
+        SystemCmdResult planResult = tfPlanToFile(isDestroy);
+        if (!planResult.isCommandSuccessful()) {
+            log.error("TFExecutor.tfPlan failed.");
+            throw new TerraformExecutorException("TFExecutor.tfPlan failed.",
+                    planResult.getCommandStdError());
+        }
+    }
+
+    /**
+     * Get the summary of the changes of the plan which was applied by the last deploy or destroy,
+     * like `Plan: 2 to add, 0 to change, 0 to destroy.`. The plan itself contains the state and
+     * the values of the variables, so it is not kept.
+     *
+     * @return summary of the plan or null if no plan was created.
+     */
+    public String getPlanSummary() {
+        return this.planSummary;
+    }
+
     /**
      * Reads the contents of the "terraform.tfstate" file from the terraform workspace.
      *
@@ -189,7 +423,8 @@ public class TerraformExecutor {
             throw new TerraformExecutorException("TFExecutor.tfInit failed.",
                     initResult.getCommandStdError());
         }
-        SystemCmdResult systemCmdResult = execute("terraform validate -json -no-color");
+        SystemCmdResult systemCmdResult =
+                executeForOutput(getCommand("validate -json -no-color"), TerraformPhase.INIT);
         try {
             return new ObjectMapper().readValue(systemCmdResult.getCommandStdOutput(),
                     DeployValidationResult.class);
@@ -0,0 +1,39 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+/**
+ * Phases of a Terraform deployment, each phase has its own timeout.
+ */
+public enum TerraformPhase {
+    INIT("init", 10),
+    PLAN("plan", 30),
+    APPLY("apply", 120),
+    DESTROY("destroy", 120);
+
+    private final String value;
+    private final int defaultTimeoutMinutes;
+
+    TerraformPhase(String value, int defaultTimeoutMinutes) {
+        this.value = value;
+        this.defaultTimeoutMinutes = defaultTimeoutMinutes;
+    }
+
+    /**
+     * Get the name of the phase used in the properties.
+     */
+    public String toValue() {
+        return this.value;
+    }
+
+    /**
+     * Get the timeout of the phase when no timeout is configured.
+     */
+    public int getDefaultTimeoutMinutes() {
+        return this.defaultTimeoutMinutes;
+    }
+}
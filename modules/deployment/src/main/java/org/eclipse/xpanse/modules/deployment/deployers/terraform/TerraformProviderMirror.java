@@ -0,0 +1,340 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.SystemCmd;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.SystemCmdResult;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local filesystem mirror of the Terraform providers required by the CSPs in
+ * {@link TerraformProviders}. The mirror is populated once per provider, either at startup or on
+ * first use, and all Terraform commands are pointed to it with a generated CLI configuration so
+ * that `terraform init` no longer downloads the providers for every workspace.
+ */
+@Slf4j
+@Component
+public class TerraformProviderMirror {
+
+    public static final String TF_CLI_CONFIG_FILE = "TF_CLI_CONFIG_FILE";
+    private static final String DEFAULT_REGISTRY = "registry.terraform.io";
+    private static final String PROVIDERS_DIRECTORY = "providers";
+    private static final String CLI_CONFIG_FILE_NAME = "terraform.rc";
+    private static final String MIRROR_REGION = "xpanse-mirror";
+    private static final long RETRY_INTERVAL_MILLISECONDS = 10 * 60 * 1000;
+    private static final Pattern SOURCE_PATTERN =
+            Pattern.compile("source\\s*=\\s*\"([^\"]+)\"");
+
+    private final String terraformExecutable;
+    private final boolean isMirrorEnabled;
+    private final boolean isPrewarmEnabled;
+    private final long maxMirrorSizeInBytes;
+    private final Path mirrorRoot;
+    private final Path providersDirectory;
+    private final Path cliConfigFile;
+    /**
+     * Held by `terraform init` while it reads the mirror, and exclusively while the mirror is
+     * cleaned up and the CLI configuration is written.
+     */
+    private final ReadWriteLock mirrorLock = new ReentrantReadWriteLock();
+    /**
+     * Serializes the mirroring of the providers of a CSP.
+     */
+    private final Map<Csp, Lock> cspMirrorLocks = new ConcurrentHashMap<>();
+    private final Map<String, Long> mirroredSources = new ConcurrentHashMap<>();
+    private final Map<Csp, Long> failedMirrorTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes the Terraform provider mirror.
+     *
+     * @param terraformExecutable Terraform executable on the path or absolute path to it.
+     * @param mirrorDirectory     directory of the mirror. Relative paths are resolved against
+     *                            the temporary directory of the system.
+     * @param isMirrorEnabled     uses the mirror for all Terraform commands if enabled.
+     * @param isPrewarmEnabled    mirrors the providers of all CSPs at startup if enabled.
+     * @param maxMirrorSizeMb     size of the mirror after which the least recently used
+     *                            providers are removed.
+     */
+    @Autowired
+    public TerraformProviderMirror(
+            @Value("${terraform.executable:terraform}") String terraformExecutable,
+            @Value("${terraform.provider.mirror.directory:xpanse_provider_mirror}")
+            String mirrorDirectory,
+            @Value("${terraform.provider.mirror.enabled:true}") boolean isMirrorEnabled,
+            @Value("${terraform.provider.mirror.prewarm:false}") boolean isPrewarmEnabled,
+            @Value("${terraform.provider.mirror.max-size-mb:4096}") long maxMirrorSizeMb) {
+        this.terraformExecutable = terraformExecutable;
+        this.isMirrorEnabled = isMirrorEnabled;
+        this.isPrewarmEnabled = isPrewarmEnabled;
+        this.maxMirrorSizeInBytes = maxMirrorSizeMb * 1024 * 1024;
+        Path path = Paths.get(mirrorDirectory);
+        this.mirrorRoot = path.isAbsolute() ? path
+                : Paths.get(System.getProperty("java.io.tmpdir"), mirrorDirectory);
+        this.providersDirectory = this.mirrorRoot.resolve(PROVIDERS_DIRECTORY);
+        this.cliConfigFile = this.mirrorRoot.resolve(CLI_CONFIG_FILE_NAME);
+    }
+
+    /**
+     * Mirrors the providers of all CSPs in the background once the application is started.
+     */
+    @Async("taskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        if (!this.isMirrorEnabled || !this.isPrewarmEnabled) {
+            return;
+        }
+        for (TerraformProviders terraformProvider : TerraformProviders.values()) {
+            mirrorProviders(terraformProvider.csp);
+        }
+    }
+
+    /**
+     * Get the environment variables which point Terraform to the mirror. The providers of the CSP
+     * are mirrored first if this was not done before.
+     *
+     * @param csp the cloud service provider of the workspace.
+     * @return environment variables for the Terraform command line.
+     */
+    public Map<String, String> getEnv(Csp csp) {
+        Map<String, String> env = new HashMap<>();
+        if (!this.isMirrorEnabled || Objects.isNull(csp)) {
+            return env;
+        }
+        List<String> sources = mirrorProviders(csp);
+        long now = System.currentTimeMillis();
+        sources.forEach(source -> this.mirroredSources.computeIfPresent(source, (k, v) -> now));
+        if (Files.exists(this.cliConfigFile) && !this.mirroredSources.isEmpty()) {
+            env.put(TF_CLI_CONFIG_FILE, this.cliConfigFile.toString());
+        }
+        return env;
+    }
+
+    /**
+     * Runs Terraform init while holding the mirror, so that the cleanup does not remove providers
+     * which are being installed into a workspace.
+     *
+     * @param init the init command.
+     * @return the result of the init command.
+     */
+    public SystemCmdResult runWithMirror(Supplier<SystemCmdResult> init) {
+        this.mirrorLock.readLock().lock();
+        try {
+            return init.get();
+        } finally {
+            this.mirrorLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mirrors the providers required by the CSP.
+     *
+     * @param csp the cloud service provider.
+     * @return sources of the providers which are available in the mirror.
+     */
+    private List<String> mirrorProviders(Csp csp) {
+        List<String> sources = getProviderSources(csp);
+        if (sources.isEmpty() || this.mirroredSources.keySet().containsAll(sources)
+                || isRecentlyFailed(csp)) {
+            return sources;
+        }
+        Lock cspLock = this.cspMirrorLocks.computeIfAbsent(csp, key -> new ReentrantLock());
+        cspLock.lock();
+        try {
+            if (this.mirroredSources.keySet().containsAll(sources) || isRecentlyFailed(csp)) {
+                return sources;
+            }
+            // providers copied to the mirror directory upfront are used as they are, which
+            // allows nodes without access to the registry to deploy services. The providers
+            // being mirrored are not in the CLI configuration yet, so the download does not
+            // hold up `terraform init` of the workspaces.
+            if (!isProviderDirectoryPresent(sources) && !runMirrorCommand(csp)) {
+                // falls back to direct installation until the next retry.
+                this.failedMirrorTimes.put(csp, System.currentTimeMillis());
+                return sources;
+            }
+            this.failedMirrorTimes.remove(csp);
+            this.mirrorLock.writeLock().lock();
+            try {
+                long now = System.currentTimeMillis();
+                sources.forEach(source -> this.mirroredSources.put(source, now));
+                cleanUp(sources);
+                writeCliConfig();
+            } finally {
+                this.mirrorLock.writeLock().unlock();
+            }
+        } finally {
+            cspLock.unlock();
+        }
+        return sources;
+    }
+
+    private boolean isRecentlyFailed(Csp csp) {
+        Long failedTime = this.failedMirrorTimes.get(csp);
+        return Objects.nonNull(failedTime)
+                && System.currentTimeMillis() - failedTime < RETRY_INTERVAL_MILLISECONDS;
+    }
+
+    private boolean runMirrorCommand(Csp csp) {
+        log.info("Start mirroring terraform providers of csp {}.", csp);
+        Path workspace = null;
+        try {
+            Files.createDirectories(this.providersDirectory);
+            workspace = Files.createTempDirectory(this.mirrorRoot, "mirror-");
+            Files.writeString(workspace.resolve(TerraformDeployment.VERSION_FILE_NAME),
+                    TerraformProviders.getProvider(csp).getProvider(MIRROR_REGION));
+            SystemCmd systemCmd = new SystemCmd();
+            systemCmd.setWorkDir(workspace.toString());
+            SystemCmdResult result = systemCmd.execute(
+                    this.terraformExecutable + " providers mirror " + this.providersDirectory);
+            if (!result.isCommandSuccessful()) {
+                log.error("Mirroring terraform providers of csp {} failed. {}", csp,
+                        result.getCommandStdError());
+                return false;
+            }
+            log.info("Terraform providers of csp {} mirrored to {}.", csp,
+                    this.providersDirectory);
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            log.error("Mirroring terraform providers of csp {} failed.", csp, ex);
+            return false;
+        } finally {
+            deleteDirectory(workspace);
+        }
+    }
+
+    /**
+     * Removes the least recently used providers until the mirror fits into the size limit. The
+     * providers which were just mirrored are always kept.
+     */
+    private void cleanUp(List<String> keptSources) {
+        long mirrorSize = getSize(this.providersDirectory);
+        if (mirrorSize <= this.maxMirrorSizeInBytes) {
+            return;
+        }
+        List<Map.Entry<String, Long>> candidates = this.mirroredSources.entrySet().stream()
+                .filter(entry -> !keptSources.contains(entry.getKey()))
+                .sorted(Map.Entry.comparingByValue())
+                .collect(Collectors.toList());
+        for (Map.Entry<String, Long> candidate : candidates) {
+            if (mirrorSize <= this.maxMirrorSizeInBytes) {
+                break;
+            }
+            Path providerDirectory = getProviderDirectory(candidate.getKey());
+            long providerSize = getSize(providerDirectory);
+            deleteDirectory(providerDirectory);
+            this.mirroredSources.remove(candidate.getKey());
+            mirrorSize -= providerSize;
+            log.info("Removed provider {} with {} bytes from the terraform provider mirror.",
+                    candidate.getKey(), providerSize);
+        }
+    }
+
+    private void writeCliConfig() {
+        String sources = this.mirroredSources.keySet().stream().sorted()
+                .map(source -> "\"" + source + "\"")
+                .collect(Collectors.joining(", "));
+        String cliConfig = String.format("""
+                provider_installation {
+                  filesystem_mirror {
+                    path    = "%s"
+                    include = [%s]
+                  }
+                  direct {
+                    exclude = [%s]
+                  }
+                }
+                """, this.providersDirectory.toString().replace(File.separator, "/"), sources,
+                sources);
+        try {
+            Path tmpFile = Files.createTempFile(this.mirrorRoot, CLI_CONFIG_FILE_NAME, ".tmp");
+            Files.writeString(tmpFile, cliConfig);
+            Files.move(tmpFile, this.cliConfigFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.error("Write terraform cli configuration of the provider mirror failed.", ex);
+        }
+    }
+
+    private List<String> getProviderSources(Csp csp) {
+        List<String> sources = new ArrayList<>();
+        Matcher matcher = SOURCE_PATTERN.matcher(
+                TerraformProviders.getProvider(csp).getProvider(MIRROR_REGION));
+        while (matcher.find()) {
+            String source = matcher.group(1).toLowerCase(Locale.ROOT);
+            sources.add(source.split("/").length == 2 ? DEFAULT_REGISTRY + "/" + source : source);
+        }
+        return sources;
+    }
+
+    private boolean isProviderDirectoryPresent(List<String> sources) {
+        for (String source : sources) {
+            File providerDirectory = getProviderDirectory(source).toFile();
+            String[] files = providerDirectory.list();
+            if (!providerDirectory.isDirectory() || Objects.isNull(files) || files.length == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Path getProviderDirectory(String source) {
+        return this.providersDirectory.resolve(source.replace("/", File.separator));
+    }
+
+    private long getSize(Path directory) {
+        if (!Files.exists(directory)) {
+            return 0;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.map(Path::toFile).filter(File::isFile).mapToLong(File::length).sum();
+        } catch (IOException ex) {
+            log.error("Calculate size of directory {} failed.", directory, ex);
+            return 0;
+        }
+    }
+
+    private void deleteDirectory(Path directory) {
+        if (Objects.isNull(directory) || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException ex) {
+            log.error("Delete directory {} failed.", directory, ex);
+        }
+    }
+}
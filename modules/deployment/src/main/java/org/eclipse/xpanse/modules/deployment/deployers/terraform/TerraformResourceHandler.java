@@ -0,0 +1,209 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.resource.TfResourceMapping;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.resource.TfResourceTable;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.resource.TfStateResourceInstance;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.TfResourceTransUtils;
+import org.eclipse.xpanse.modules.models.service.deploy.DeployResource;
+import org.eclipse.xpanse.modules.models.service.deploy.DeployResult;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.TerraformExecutorException;
+import org.eclipse.xpanse.modules.orchestrator.deployment.DeployResourceHandler;
+
+/**
+ * Resource handler which reads the deployed resources from the Terraform state. The state is
+ * streamed, only the attributes of the resource types registered in the table of the CSP are
+ * read and the resources of the other types are skipped without being parsed into objects.
+ */
+@Slf4j
+public abstract class TerraformResourceHandler implements DeployResourceHandler {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String STATE_FILE = "stateFile";
+
+    private final TfResourceTable resourceTable;
+
+    protected TerraformResourceHandler(TfResourceTable resourceTable) {
+        this.resourceTable = resourceTable;
+    }
+
+    /**
+     * Fill the outputs and the deployed resources of the DeployResult from its state.
+     *
+     * @param deployResult the result of the deployment.
+     */
+    @Override
+    public void handler(DeployResult deployResult) {
+        String stateFile = deployResult.getPrivateProperties().get(STATE_FILE);
+        List<DeployResource> deployResources = new ArrayList<>();
+        try {
+            if (Objects.isNull(stateFile)) {
+                throw new IOException("No terraform state in the result.");
+            }
+            try (JsonParser parser = OBJECT_MAPPER.createParser(stateFile)) {
+                readState(parser, deployResult.getProperties(), deployResources);
+            }
+        } catch (IOException ex) {
+            log.error("Parse terraform state content failed.");
+            throw new TerraformExecutorException("Parse terraform state content failed.", ex);
+        }
+        deployResult.setResources(deployResources);
+    }
+
+    private void readState(JsonParser parser, Map<String, String> outputs,
+                           List<DeployResource> deployResources) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("The terraform state is not a JSON object.");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            token = parser.nextToken();
+            if ("outputs".equals(field) && token == JsonToken.START_OBJECT) {
+                readOutputs(parser, outputs);
+            } else if ("resources".equals(field) && token == JsonToken.START_ARRAY) {
+                readResources(parser, deployResources);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readOutputs(JsonParser parser, Map<String, String> outputs) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String outputName = parser.currentName();
+            String value = null;
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken token = parser.nextToken();
+                    if ("value".equals(field)) {
+                        value = readValueAsText(parser, token);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+            outputs.put(outputName, value);
+        }
+    }
+
+    private String readValueAsText(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getText();
+        }
+        // lists and maps are kept as JSON.
+        return OBJECT_MAPPER.writeValueAsString(parser.readValueAsTree());
+    }
+
+    private void readResources(JsonParser parser, List<DeployResource> deployResources)
+            throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && Objects.nonNull(token)) {
+            if (token == JsonToken.START_OBJECT) {
+                readResource(parser, deployResources);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readResource(JsonParser parser, List<DeployResource> deployResources)
+            throws IOException {
+        String type = null;
+        TreeNode bufferedInstances = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("type".equals(field)) {
+                type = parser.getValueAsString();
+            } else if ("instances".equals(field) && token == JsonToken.START_ARRAY) {
+                if (Objects.isNull(type)) {
+                    // Terraform writes the type first, the instances are only kept otherwise.
+                    bufferedInstances = parser.readValueAsTree();
+                } else {
+                    readInstances(parser, resourceTable.get(type), deployResources);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        TfResourceMapping mapping = Objects.isNull(type) ? null : resourceTable.get(type);
+        if (Objects.nonNull(bufferedInstances) && Objects.nonNull(mapping)) {
+            try (JsonParser instancesParser = bufferedInstances.traverse(OBJECT_MAPPER)) {
+                instancesParser.nextToken();
+                readInstances(instancesParser, mapping, deployResources);
+            }
+        }
+    }
+
+    private void readInstances(JsonParser parser, TfResourceMapping mapping,
+                               List<DeployResource> deployResources) throws IOException {
+        if (Objects.isNull(mapping)) {
+            parser.skipChildren();
+            return;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && Objects.nonNull(token)) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            TfStateResourceInstance instance = new TfStateResourceInstance();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && "attributes".equals(field)) {
+                    instance.setAttributes(readAttributes(parser, mapping));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            DeployResource deployResource = mapping.newDeployResource();
+            TfResourceTransUtils.fillDeployResource(instance, deployResource,
+                    mapping.getProperties());
+            deployResources.add(deployResource);
+        }
+    }
+
+    private Map<String, Object> readAttributes(JsonParser parser, TfResourceMapping mapping)
+            throws IOException {
+        Map<String, Object> attributes = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String attributeName = parser.currentName();
+            parser.nextToken();
+            if (mapping.getAttributeNames().contains(attributeName)) {
+                Object value = parser.readValueAs(Object.class);
+                if (Objects.nonNull(value)) {
+                    attributes.put(attributeName, value);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return attributes;
+    }
+}
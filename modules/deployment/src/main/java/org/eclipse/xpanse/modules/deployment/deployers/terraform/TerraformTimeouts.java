@@ -0,0 +1,80 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.register.DeploymentTimeouts;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timeouts of the phases of the Terraform deployments. The timeout of a phase is taken from the
+ * Ocl of the service, then from 'terraform.timeout.[csp].[phase]-minutes' and then from
+ * 'terraform.timeout.[phase]-minutes'. A timeout of 0 minutes does not limit the phase.
+ */
+@Component
+public class TerraformTimeouts {
+
+    private static final String PROPERTY_PREFIX = "terraform.timeout.";
+    private static final String PROPERTY_SUFFIX = "-minutes";
+
+    private final Map<Csp, Map<TerraformPhase, Duration>> timeouts = new EnumMap<>(Csp.class);
+
+    /**
+     * Constructor of TerraformTimeouts.
+     *
+     * @param environment environment with the configured timeouts.
+     */
+    public TerraformTimeouts(Environment environment) {
+        for (Csp csp : Csp.values()) {
+            Map<TerraformPhase, Duration> cspTimeouts = new EnumMap<>(TerraformPhase.class);
+            for (TerraformPhase phase : TerraformPhase.values()) {
+                int defaultMinutes = environment.getProperty(
+                        PROPERTY_PREFIX + phase.toValue() + PROPERTY_SUFFIX, Integer.class,
+                        phase.getDefaultTimeoutMinutes());
+                int minutes = environment.getProperty(PROPERTY_PREFIX + csp.toValue() + "."
+                        + phase.toValue() + PROPERTY_SUFFIX, Integer.class, defaultMinutes);
+                cspTimeouts.put(phase, toDuration(minutes));
+            }
+            this.timeouts.put(csp, cspTimeouts);
+        }
+    }
+
+    /**
+     * Get the timeouts of the phases of a deployment.
+     *
+     * @param csp         the cloud service provider.
+     * @param oclTimeouts the timeouts defined in the Ocl of the service, may be null.
+     * @return the timeouts of the phases, Duration.ZERO for no timeout.
+     */
+    public Map<TerraformPhase, Duration> getTimeouts(Csp csp, DeploymentTimeouts oclTimeouts) {
+        Map<TerraformPhase, Duration> phaseTimeouts = new EnumMap<>(this.timeouts.get(csp));
+        if (Objects.nonNull(oclTimeouts)) {
+            putIfNotNull(phaseTimeouts, TerraformPhase.INIT, oclTimeouts.getInitMinutes());
+            putIfNotNull(phaseTimeouts, TerraformPhase.PLAN, oclTimeouts.getPlanMinutes());
+            putIfNotNull(phaseTimeouts, TerraformPhase.APPLY, oclTimeouts.getApplyMinutes());
+            putIfNotNull(phaseTimeouts, TerraformPhase.DESTROY,
+                    oclTimeouts.getDestroyMinutes());
+        }
+        return phaseTimeouts;
+    }
+
+    private static void putIfNotNull(Map<TerraformPhase, Duration> phaseTimeouts,
+                                     TerraformPhase phase, Integer minutes) {
+        if (Objects.nonNull(minutes)) {
+            phaseTimeouts.put(phase, toDuration(minutes));
+        }
+    }
+
+    private static Duration toDuration(int minutes) {
+        return Duration.ofMinutes(Math.max(minutes, 0));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.validation.DeployValidationEntity;
+import org.eclipse.xpanse.modules.database.validation.DeployValidationStorage;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.orchestrator.deployment.DeployValidateDiagnostics;
+import org.eclipse.xpanse.modules.orchestrator.deployment.DeployValidationResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the validation results of Terraform scripts. The results are keyed by the hash of the
+ * CSP, the provider block and the deployer script, so that registering or updating a service with
+ * an unchanged script does not run terraform init and validate again.
+ */
+@Slf4j
+@Component
+public class TerraformValidationCache {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<DeployValidateDiagnostics>> DIAGNOSTICS_TYPE =
+            new TypeReference<>() {
+            };
+
+    private final Cache<String, DeployValidationResult> results;
+    private final DeployValidationStorage deployValidationStorage;
+
+    /**
+     * Constructor of TerraformValidationCache.
+     *
+     * @param maxSize max number of validation results kept in memory.
+     * @param isPersistenceEnabled whether the validation results are stored in the database.
+     * @param deployValidationStorage storage of the validation results.
+     */
+    public TerraformValidationCache(
+            @Value("${terraform.validation.cache.max-size:1000}") long maxSize,
+            @Value("${terraform.validation.cache.persistence.enabled:false}")
+            boolean isPersistenceEnabled,
+            @Nullable DeployValidationStorage deployValidationStorage) {
+        this.results = Caffeine.newBuilder().maximumSize(maxSize).build();
+        this.deployValidationStorage = isPersistenceEnabled ? deployValidationStorage : null;
+    }
+
+    /**
+     * Get the validation result of the script, the script is only validated when the same
+     * content was not validated before.
+     *
+     * @param csp the cloud service provider.
+     * @param providerBlock provider block which is validated with the script.
+     * @param script the deployer script.
+     * @param validator validates the script when no result is cached.
+     * @return the validation result.
+     */
+    public DeployValidationResult get(Csp csp, String providerBlock, String script,
+                                      Supplier<DeployValidationResult> validator) {
+        return results.get(getContentHash(csp, providerBlock, script),
+                contentHash -> load(contentHash, validator));
+    }
+
+    /**
+     * Get the number of the validation results kept in memory.
+     *
+     * @return number of the validation results.
+     */
+    public long size() {
+        return results.estimatedSize();
+    }
+
+    private DeployValidationResult load(String contentHash,
+                                        Supplier<DeployValidationResult> validator) {
+        if (Objects.nonNull(deployValidationStorage)) {
+            DeployValidationEntity entity =
+                    deployValidationStorage.findDeployValidationByHash(contentHash);
+            if (Objects.nonNull(entity)) {
+                return toResult(entity);
+            }
+        }
+        DeployValidationResult result = validator.get();
+        if (Objects.nonNull(deployValidationStorage)) {
+            try {
+                deployValidationStorage.store(toEntity(contentHash, result));
+            } catch (RuntimeException e) {
+                log.warn("Storing the validation result {} failed.", contentHash, e);
+            }
+        }
+        return result;
+    }
+
+    private DeployValidationResult toResult(DeployValidationEntity entity) {
+        DeployValidationResult result = new DeployValidationResult();
+        result.setValid(entity.isValid());
+        try {
+            result.setDiagnostics(Objects.isNull(entity.getDiagnostics()) ? null
+                    : OBJECT_MAPPER.readValue(entity.getDiagnostics(), DIAGNOSTICS_TYPE));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Serialising string to object failed.", ex);
+        }
+        return result;
+    }
+
+    private DeployValidationEntity toEntity(String contentHash, DeployValidationResult result) {
+        DeployValidationEntity entity = new DeployValidationEntity();
+        entity.setContentHash(contentHash);
+        entity.setValid(result.isValid());
+        try {
+            entity.setDiagnostics(Objects.isNull(result.getDiagnostics()) ? null
+                    : OBJECT_MAPPER.writeValueAsString(result.getDiagnostics()));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Serialising object to string failed.", ex);
+        }
+        return entity;
+    }
+
+    private static String getContentHash(Csp csp, String providerBlock, String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String content : new String[]{csp.toValue(), providerBlock, script}) {
+                digest.update(String.valueOf(content).getBytes(StandardCharsets.UTF_8));
+                // separates the contents, so that moving text between them changes the hash.
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported.", ex);
+        }
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.TerraformExecutorException;
+import org.eclipse.xpanse.modules.models.service.view.WorkspaceJanitorStatsVo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Janitor of the workspaces of the deployments. All workspaces are removed in the background.
+ *
+ * <p>The workspace of a deployed service is kept after the deployment, so that destroying the
+ * service can reuse the initialized workspace. The workspaces which were not used for the
+ * retention time are removed. When the workspaces use more disk space than the quota, the least
+ * recently used workspaces are removed until the quota is met. A workspace used by a running
+ * deployment is never removed, and a deployment waits for a workspace which is being removed
+ * before it uses the path again. Files hard linked between workspaces are counted once for each
+ * workspace.
+ */
+@Slf4j
+@Component
+public class TerraformWorkspaceJanitor {
+
+    private static final String LOCK_FILE_NAME = ".terraform.tfstate.lock.info";
+
+    private final Path workspaceRoot;
+    private final Duration retention;
+    private final long quotaBytes;
+    private final Map<Path, WorkspaceUsage> workspaces = new HashMap<>();
+    private final AtomicLong removedWorkspaces = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+    private final ScheduledExecutorService cleaner;
+
+    /**
+     * Initializes the janitor of the workspaces.
+     *
+     * @param workspaceDirectory   workspace directory from where Terraform CLI is executed.
+     * @param retentionHours       hours an unused workspace is kept, 0 keeps the workspaces.
+     * @param checkIntervalMinutes minutes between the checks of the workspaces.
+     * @param maxSizeMb            max size of all workspaces in MB, 0 does not limit the size.
+     */
+    @Autowired
+    public TerraformWorkspaceJanitor(
+            @Value("${terraform.workspace.directory:xpanse_deploy_ws}") String workspaceDirectory,
+            @Value("${terraform.workspace.janitor.retention-hours:24}") long retentionHours,
+            @Value("${terraform.workspace.janitor.check-interval-minutes:30}")
+            long checkIntervalMinutes,
+            @Value("${terraform.workspace.janitor.max-size-mb:0}") long maxSizeMb) {
+        this.workspaceRoot = Paths.get(System.getProperty("java.io.tmpdir"), workspaceDirectory);
+        this.retention = Duration.ofHours(Math.max(retentionHours, 0));
+        this.quotaBytes = Math.max(maxSizeMb, 0) * 1024 * 1024;
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "terraform-workspace-janitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (checkIntervalMinutes > 0) {
+            this.cleaner.scheduleWithFixedDelay(this::cleanUp, 0, checkIntervalMinutes,
+                    TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Starts tracking a new workspace.
+     *
+     * @param workspace path of the workspace.
+     */
+    public synchronized void track(String workspace) {
+        getUsage(Paths.get(workspace)).lastUsedTime = Instant.now();
+    }
+
+    /**
+     * Marks the workspace as used by a running deployment, so that it is not removed. Waits while
+     * the workspace is being removed.
+     *
+     * @param workspace path of the workspace.
+     */
+    public synchronized void acquire(String workspace) {
+        Path path = Paths.get(workspace);
+        while (getUsage(path).isDeleting) {
+            try {
+                wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new TerraformExecutorException(
+                        "Waiting for the removal of workspace " + workspace + " interrupted.");
+            }
+        }
+        WorkspaceUsage usage = getUsage(path);
+        usage.activeCount++;
+        usage.lastUsedTime = Instant.now();
+    }
+
+    /**
+     * Marks the workspace as not used anymore, the retention time starts again. The size of the
+     * workspace is measured in the background.
+     *
+     * @param workspace path of the workspace.
+     */
+    public void release(String workspace) {
+        Path path = Paths.get(workspace);
+        synchronized (this) {
+            WorkspaceUsage usage = this.workspaces.get(path);
+            if (Objects.isNull(usage)) {
+                return;
+            }
+            usage.activeCount = Math.max(usage.activeCount - 1, 0);
+            usage.lastUsedTime = Instant.now();
+        }
+        this.cleaner.submit(() -> {
+            measure(path);
+            enforceQuota();
+        });
+    }
+
+    /**
+     * Removes the workspace in the background, unless it is used by a running deployment.
+     *
+     * @param workspace path of the workspace.
+     * @return completes when the workspace is removed.
+     */
+    public Future<?> delete(String workspace) {
+        Path path = Paths.get(workspace);
+        return this.cleaner.submit(() -> {
+            synchronized (this) {
+                WorkspaceUsage usage = this.workspaces.get(path);
+                if (Objects.nonNull(usage) && usage.activeCount > 0) {
+                    return;
+                }
+            }
+            remove(path);
+        });
+    }
+
+    /**
+     * Get the disk usage of the workspaces.
+     *
+     * @return size of the workspaces and the reclaimed bytes.
+     */
+    public synchronized WorkspaceJanitorStatsVo getStats() {
+        WorkspaceJanitorStatsVo stats = new WorkspaceJanitorStatsVo();
+        stats.setWorkspaces(this.workspaces.size());
+        stats.setActiveWorkspaces((int) this.workspaces.values().stream()
+                .filter(usage -> usage.activeCount > 0).count());
+        stats.setFootprintBytes(getFootprintBytes());
+        stats.setQuotaBytes(this.quotaBytes);
+        stats.setRemovedWorkspaces(this.removedWorkspaces.get());
+        stats.setReclaimedBytes(this.reclaimedBytes.get());
+        return stats;
+    }
+
+    /**
+     * Stops the janitor.
+     */
+    @PreDestroy
+    public void stop() {
+        this.cleaner.shutdownNow();
+    }
+
+    /**
+     * Tracks the workspaces found on disk and removes the expired workspaces.
+     */
+    void cleanUp() {
+        try {
+            scanWorkspaceRoot();
+            removeExpiredWorkspaces(Instant.now());
+            enforceQuota();
+        } catch (RuntimeException e) {
+            log.error("Clean up workspaces in {} failed.", this.workspaceRoot, e);
+        }
+    }
+
+    /**
+     * Removes the workspaces which were not used since the retention time.
+     *
+     * @param now the current time.
+     * @return number of the removed workspaces.
+     */
+    int removeExpiredWorkspaces(Instant now) {
+        if (this.retention.isZero()) {
+            return 0;
+        }
+        Instant expireTime = now.minus(this.retention);
+        List<Path> expiredWorkspaces;
+        synchronized (this) {
+            expiredWorkspaces = this.workspaces.entrySet().stream()
+                    .filter(entry -> entry.getValue().activeCount == 0
+                            && entry.getValue().lastUsedTime.isBefore(expireTime))
+                    .map(Map.Entry::getKey).toList();
+        }
+        int removed = 0;
+        for (Path workspace : expiredWorkspaces) {
+            if (remove(workspace)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed {} workspaces which were not used for {} hours.", removed,
+                    this.retention.toHours());
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the least recently used workspaces until the workspaces fit in the quota.
+     *
+     * @return number of the removed workspaces.
+     */
+    int enforceQuota() {
+        if (this.quotaBytes == 0) {
+            return 0;
+        }
+        List<Path> leastRecentlyUsed;
+        synchronized (this) {
+            if (getFootprintBytes() <= this.quotaBytes) {
+                return 0;
+            }
+            leastRecentlyUsed = this.workspaces.entrySet().stream()
+                    .filter(entry -> entry.getValue().activeCount == 0)
+                    .sorted(Comparator.comparing(entry -> entry.getValue().lastUsedTime))
+                    .map(Map.Entry::getKey).toList();
+        }
+        int removed = 0;
+        for (Path workspace : leastRecentlyUsed) {
+            synchronized (this) {
+                if (getFootprintBytes() <= this.quotaBytes) {
+                    break;
+                }
+            }
+            if (remove(workspace)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed {} least recently used workspaces to meet the quota of {} bytes.",
+                    removed, this.quotaBytes);
+        }
+        return removed;
+    }
+
+    /**
+     * Tracks the workspaces on disk which are not known yet, for example after a restart, and
+     * forgets the workspaces which do not exist anymore.
+     */
+    void scanWorkspaceRoot() {
+        if (!Files.isDirectory(this.workspaceRoot)) {
+            return;
+        }
+        Set<Path> workspacesOnDisk;
+        try (Stream<Path> paths = Files.list(this.workspaceRoot)) {
+            workspacesOnDisk = paths.filter(path -> Files.isDirectory(path,
+                    LinkOption.NOFOLLOW_LINKS)).collect(Collectors.toSet());
+        } catch (IOException ex) {
+            log.error("List workspaces in {} failed.", this.workspaceRoot, ex);
+            return;
+        }
+        for (Path workspace : workspacesOnDisk) {
+            boolean isKnown;
+            synchronized (this) {
+                isKnown = this.workspaces.containsKey(workspace);
+            }
+            if (!isKnown) {
+                Instant lastUsedTime = getLastUsedTime(workspace);
+                synchronized (this) {
+                    getUsage(workspace).lastUsedTime = lastUsedTime;
+                }
+                measure(workspace);
+            }
+        }
+        synchronized (this) {
+            this.workspaces.entrySet().removeIf(entry -> entry.getValue().activeCount == 0
+                    && !entry.getValue().isDeleting && !workspacesOnDisk.contains(entry.getKey()));
+        }
+    }
+
+    private boolean remove(Path workspace) {
+        synchronized (this) {
+            WorkspaceUsage usage = this.workspaces.get(workspace);
+            if (Objects.nonNull(usage) && (usage.activeCount > 0 || usage.isDeleting)) {
+                return false;
+            }
+            if (Files.exists(workspace.resolve(LOCK_FILE_NAME))) {
+                // a Terraform command started outside the tracked deployments still runs.
+                return false;
+            }
+            // the entry is kept until the directory is deleted, so that acquire waits for it.
+            getUsage(workspace).isDeleting = true;
+        }
+        long deletedBytes;
+        try {
+            if (!Files.exists(workspace, LinkOption.NOFOLLOW_LINKS)) {
+                return false;
+            }
+            deletedBytes = deleteTree(workspace);
+        } finally {
+            synchronized (this) {
+                this.workspaces.remove(workspace);
+                notifyAll();
+            }
+        }
+        this.removedWorkspaces.incrementAndGet();
+        this.reclaimedBytes.addAndGet(deletedBytes);
+        log.debug("Removed workspace {}, reclaimed {} bytes.", workspace, deletedBytes);
+        return true;
+    }
+
+    private void measure(Path workspace) {
+        long sizeBytes = getSizeBytes(workspace);
+        synchronized (this) {
+            WorkspaceUsage usage = this.workspaces.get(workspace);
+            if (Objects.nonNull(usage)) {
+                usage.sizeBytes = sizeBytes;
+            }
+        }
+    }
+
+    private WorkspaceUsage getUsage(Path workspace) {
+        return this.workspaces.computeIfAbsent(workspace, path -> new WorkspaceUsage());
+    }
+
+    private long getFootprintBytes() {
+        return this.workspaces.values().stream().mapToLong(usage -> usage.sizeBytes).sum();
+    }
+
+    private Instant getLastUsedTime(Path workspace) {
+        try {
+            Instant lastUsedTime = Files.getLastModifiedTime(workspace).toInstant();
+            Path stateFile = workspace.resolve(TerraformDeployment.STATE_FILE_NAME);
+            if (Files.exists(stateFile)) {
+                Instant stateModifiedTime = Files.getLastModifiedTime(stateFile).toInstant();
+                if (stateModifiedTime.isAfter(lastUsedTime)) {
+                    return stateModifiedTime;
+                }
+            }
+            return lastUsedTime;
+        } catch (IOException ex) {
+            return Instant.now();
+        }
+    }
+
+    private static long getSizeBytes(Path workspace) {
+        AtomicLong sizeBytes = new AtomicLong();
+        try {
+            Files.walkFileTree(workspace, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    sizeBytes.addAndGet(attributes.size());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException ex) {
+            log.warn("Measure workspace {} failed.", workspace, ex);
+        }
+        return sizeBytes.get();
+    }
+
+    private static long deleteTree(Path workspace) {
+        AtomicLong deletedBytes = new AtomicLong();
+        try {
+            Files.walkFileTree(workspace, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+                        throws IOException {
+                    Files.deleteIfExists(file);
+                    deletedBytes.addAndGet(attributes.size());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException ex)
+                        throws IOException {
+                    Files.deleteIfExists(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException ex) {
+            log.error("Remove workspace {} failed.", workspace, ex);
+        }
+        return deletedBytes.get();
+    }
+
+    private static class WorkspaceUsage {
+
+        private int activeCount;
+        private Instant lastUsedTime = Instant.now();
+        private long sizeBytes;
+        private boolean isDeleting;
+    }
+}
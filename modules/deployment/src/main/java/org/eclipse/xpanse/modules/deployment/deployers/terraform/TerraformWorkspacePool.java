@@ -0,0 +1,328 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.SystemCmdResult;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.view.WorkspacePoolStatsVo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Pool of already initialized Terraform workspaces per registered service, CSP and region.
+ *
+ * <p>For each key one template workspace is initialized with `terraform init`. The pool keeps
+ * up to the configured number of clones of the template, in which the provider binaries are hard
+ * linked, so that a deployment only has to move a ready workspace to its own path. The pool is
+ * refilled in the background after each checkout. When more deployments of the same key run at
+ * once than the pool holds, for example a batch deployment, the template is cloned directly to
+ * the workspace of the deployment, so that the initialization is still shared.
+ */
+@Slf4j
+@Component
+public class TerraformWorkspacePool {
+
+    private static final String POOL_DIRECTORY_SUFFIX = "_pool";
+    private static final String TEMPLATE_DIRECTORY = "template";
+    private static final String PROVIDERS_DIRECTORY =
+            ".terraform" + File.separator + "providers";
+
+    private final String terraformExecutable;
+    private final boolean isPoolEnabled;
+    private final int poolSize;
+    private final Path poolRoot;
+    private final TerraformProviderMirror providerMirror;
+    private final Map<PoolKey, ServicePool> pools = new ConcurrentHashMap<>();
+    private final Set<PoolKey> refillingKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final ExecutorService refillExecutor =
+            Executors.newSingleThreadExecutor(new RefillThreadFactory());
+
+    /**
+     * Initializes the pool of Terraform workspaces.
+     *
+     * @param terraformExecutable Terraform executable on the path or absolute path to it.
+     * @param workspaceDirectory  workspace directory from where Terraform CLI is executed.
+     * @param isPoolEnabled       checks out pre-initialized workspaces for deployments if enabled.
+     * @param poolSize            number of ready workspaces kept per registered service.
+     * @param providerMirror      Local mirror of the Terraform providers.
+     */
+    @Autowired
+    public TerraformWorkspacePool(
+            @Value("${terraform.executable:terraform}") String terraformExecutable,
+            @Value("${terraform.workspace.directory:xpanse_deploy_ws}") String workspaceDirectory,
+            @Value("${terraform.workspace.pool.enabled:true}") boolean isPoolEnabled,
+            @Value("${terraform.workspace.pool.size:2}") int poolSize,
+            TerraformProviderMirror providerMirror) {
+        this.terraformExecutable = terraformExecutable;
+        this.isPoolEnabled = isPoolEnabled && poolSize > 0;
+        this.poolSize = poolSize;
+        this.poolRoot = Paths.get(System.getProperty("java.io.tmpdir"),
+                workspaceDirectory + POOL_DIRECTORY_SUFFIX);
+        this.providerMirror = providerMirror;
+        // workspaces left over from a previous run are not tracked by the pool anymore.
+        this.refillExecutor.submit(() -> deleteDirectory(this.poolRoot));
+    }
+
+    /**
+     * Moves a pre-initialized workspace to the given path and refills the pool in the background.
+     *
+     * @param registeredServiceId id of the registered service which is deployed.
+     * @param csp                 the cloud service provider.
+     * @param region              the region of the deployment.
+     * @param script              the terraform script of the registered service.
+     * @param workspace           path of the workspace for the deployment.
+     * @return true if the workspace was checked out from the pool and needs no init anymore.
+     */
+    public boolean checkout(UUID registeredServiceId, Csp csp, String region, String script,
+                            String workspace) {
+        if (!this.isPoolEnabled || Objects.isNull(registeredServiceId)) {
+            return false;
+        }
+        PoolKey key = new PoolKey(registeredServiceId, csp, region);
+        String versionScript = TerraformProviders.getProvider(csp).getProvider(region);
+        String scriptHash = DigestUtils.md5DigestAsHex(
+                (versionScript + script).getBytes(StandardCharsets.UTF_8));
+        ServicePool pool = this.pools.compute(key, (k, existing) -> {
+            if (Objects.nonNull(existing) && existing.scriptHash.equals(scriptHash)) {
+                return existing;
+            }
+            if (Objects.nonNull(existing)) {
+                removePool(existing);
+            }
+            return new ServicePool(this.poolRoot.resolve(UUID.randomUUID().toString()),
+                    scriptHash, versionScript, script);
+        });
+        boolean isCheckedOut = moveReadyWorkspace(pool, Paths.get(workspace))
+                || cloneTemplate(pool, Paths.get(workspace));
+        if (isCheckedOut) {
+            this.hits.incrementAndGet();
+            log.info("Checked out pre-initialized workspace {} for registered service {}.",
+                    workspace, registeredServiceId);
+        } else {
+            this.misses.incrementAndGet();
+        }
+        refill(key, pool);
+        return isCheckedOut;
+    }
+
+    /**
+     * Removes all workspaces of the registered service from the pool.
+     *
+     * @param registeredServiceId id of the registered service.
+     */
+    public void invalidate(UUID registeredServiceId) {
+        this.pools.keySet().stream()
+                .filter(key -> key.registeredServiceId().equals(registeredServiceId))
+                .forEach(key -> {
+                    ServicePool pool = this.pools.remove(key);
+                    if (Objects.nonNull(pool)) {
+                        log.info("Invalidated workspace pool of registered service {}.",
+                                registeredServiceId);
+                        removePool(pool);
+                    }
+                });
+    }
+
+    /**
+     * Get the statistics of the pool.
+     *
+     * @return hit and miss counts of the pool.
+     */
+    public WorkspacePoolStatsVo getStats() {
+        WorkspacePoolStatsVo stats = new WorkspacePoolStatsVo();
+        stats.setHits(this.hits.get());
+        stats.setMisses(this.misses.get());
+        stats.setTemplates((int) this.pools.values().stream()
+                .filter(pool -> pool.isTemplateInitialized).count());
+        stats.setReadyWorkspaces(this.pools.values().stream()
+                .mapToInt(pool -> pool.readyWorkspaces.size()).sum());
+        return stats;
+    }
+
+    private boolean moveReadyWorkspace(ServicePool pool, Path workspace) {
+        Path readyWorkspace = pool.readyWorkspaces.poll();
+        if (Objects.isNull(readyWorkspace)) {
+            return false;
+        }
+        try {
+            Files.createDirectories(workspace.getParent());
+            Files.move(readyWorkspace, workspace, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            log.error("Check out workspace {} from the pool failed.", readyWorkspace, ex);
+            this.refillExecutor.submit(() -> deleteDirectory(readyWorkspace));
+            return false;
+        }
+    }
+
+    private boolean cloneTemplate(ServicePool pool, Path workspace) {
+        if (!pool.isTemplateInitialized) {
+            return false;
+        }
+        try {
+            cloneWorkspace(pool.directory.resolve(TEMPLATE_DIRECTORY), workspace);
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            // the template was removed in the meantime, the workspace is initialized by itself.
+            log.warn("Clone workspace template to {} failed.", workspace, ex);
+            deleteDirectory(workspace);
+            return false;
+        }
+    }
+
+    private void refill(PoolKey key, ServicePool pool) {
+        if (!this.refillingKeys.add(key)) {
+            return;
+        }
+        this.refillExecutor.submit(() -> {
+            this.refillingKeys.remove(key);
+            try {
+                while (this.pools.get(key) == pool && pool.readyWorkspaces.size() < this.poolSize) {
+                    if (!pool.isTemplateInitialized && !initTemplate(key, pool)) {
+                        this.pools.remove(key, pool);
+                        removePool(pool);
+                        return;
+                    }
+                    Path readyWorkspace = pool.directory.resolve(UUID.randomUUID().toString());
+                    cloneWorkspace(pool.directory.resolve(TEMPLATE_DIRECTORY), readyWorkspace);
+                    pool.readyWorkspaces.add(readyWorkspace);
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.error("Refill workspace pool of registered service {} failed.",
+                        key.registeredServiceId(), ex);
+            }
+        });
+    }
+
+    private boolean initTemplate(PoolKey key, ServicePool pool) throws IOException {
+        Path template = pool.directory.resolve(TEMPLATE_DIRECTORY);
+        Files.createDirectories(template);
+        Files.writeString(template.resolve(TerraformDeployment.VERSION_FILE_NAME),
+                pool.versionScript);
+        Files.writeString(template.resolve(TerraformDeployment.SCRIPT_FILE_NAME), pool.script);
+        TerraformExecutor executor = new TerraformExecutor(this.terraformExecutable,
+                new HashMap<>(this.providerMirror.getEnv(key.csp())), new HashMap<>(),
+                template.toString(), this.providerMirror, null);
+        SystemCmdResult initResult = executor.tfInit();
+        if (!initResult.isCommandSuccessful()) {
+            log.error("Init workspace template of registered service {} failed. {}",
+                    key.registeredServiceId(), initResult.getCommandStdError());
+            return false;
+        }
+        pool.isTemplateInitialized = true;
+        log.info("Workspace template of registered service {} with csp {} and region {} "
+                + "initialized.", key.registeredServiceId(), key.csp(), key.region());
+        return true;
+    }
+
+    /**
+     * Clones the template. Provider binaries are never modified by Terraform and are hard linked,
+     * all other files are copied.
+     */
+    private void cloneWorkspace(Path template, Path target) throws IOException {
+        Path providers = template.resolve(PROVIDERS_DIRECTORY);
+        try (Stream<Path> paths = Files.walk(template)) {
+            for (Path source : (Iterable<Path>) paths::iterator) {
+                Path destination = target.resolve(template.relativize(source).toString());
+                if (Files.isDirectory(source, LinkOption.NOFOLLOW_LINKS)) {
+                    Files.createDirectories(destination);
+                } else if (source.startsWith(providers)
+                        && Files.isRegularFile(source, LinkOption.NOFOLLOW_LINKS)) {
+                    linkOrCopy(source, destination);
+                } else {
+                    Files.copy(source, destination, LinkOption.NOFOLLOW_LINKS,
+                            StandardCopyOption.COPY_ATTRIBUTES);
+                }
+            }
+        }
+    }
+
+    private void linkOrCopy(Path source, Path destination) throws IOException {
+        try {
+            Files.createLink(destination, source);
+        } catch (IOException | UnsupportedOperationException ex) {
+            Files.copy(source, destination, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+    }
+
+    private void removePool(ServicePool pool) {
+        pool.readyWorkspaces.clear();
+        this.refillExecutor.submit(() -> deleteDirectory(pool.directory));
+    }
+
+    private void deleteDirectory(Path directory) {
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException ex) {
+            log.error("Delete directory {} failed.", directory, ex);
+        }
+    }
+
+    private record PoolKey(UUID registeredServiceId, Csp csp, String region) {
+    }
+
+    private static class ServicePool {
+
+        private final Path directory;
+        private final String scriptHash;
+        private final String versionScript;
+        private final String script;
+        private final Deque<Path> readyWorkspaces = new ConcurrentLinkedDeque<>();
+        private volatile boolean isTemplateInitialized;
+
+        ServicePool(Path directory, String scriptHash, String versionScript, String script) {
+            this.directory = directory;
+            this.scriptHash = scriptHash;
+            this.versionScript = versionScript;
+            this.script = script;
+        }
+    }
+
+    private static class RefillThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable,
+                    "terraform-workspace-pool-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
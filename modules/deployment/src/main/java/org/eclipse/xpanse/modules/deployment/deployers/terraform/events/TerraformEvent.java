@@ -0,0 +1,82 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform.events;
+
+import java.util.UUID;
+import lombok.Data;
+
+/**
+ * Progress of a running Terraform command, parsed from one message of its -json output.
+ */
+@Data
+public class TerraformEvent {
+
+    /**
+     * The id of the task which runs the Terraform command.
+     */
+    private UUID taskId;
+
+    /**
+     * The type of the message.
+     */
+    private TerraformEventType type;
+
+    /**
+     * The log level of the message.
+     */
+    private String level;
+
+    /**
+     * The human readable message.
+     */
+    private String message;
+
+    /**
+     * The address of the resource, for example `huaweicloud_vpc.vpc`.
+     */
+    private String resourceAddress;
+
+    /**
+     * The type of the resource, for example `huaweicloud_vpc`.
+     */
+    private String resourceType;
+
+    /**
+     * The name of the resource.
+     */
+    private String resourceName;
+
+    /**
+     * The action applied to the resource, like create, update or delete.
+     */
+    private String action;
+
+    /**
+     * The id of the resource in the cloud, available once the resource is created.
+     */
+    private String resourceId;
+
+    /**
+     * Seconds elapsed since the action was started.
+     */
+    private Long elapsedSeconds;
+
+    /**
+     * The severity of a diagnostic, error or warning.
+     */
+    private String severity;
+
+    /**
+     * The summary of a diagnostic.
+     */
+    private String summary;
+
+    /**
+     * The detail of a diagnostic.
+     */
+    private String detail;
+}
@@ -0,0 +1,109 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Parses the -json output of a Terraform command line by line and passes each message as a typed
+ * event to the listener. Only the error diagnostics are kept, to report why the command failed.
+ */
+@Slf4j
+public class TerraformEventParser implements Consumer<String> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int MAX_ERRORS = 20;
+    private static final String ERROR_SEVERITY = "error";
+
+    private final Consumer<TerraformEvent> eventListener;
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * Constructor for TerraformEventParser.
+     *
+     * @param eventListener listener for the parsed events, may be null.
+     */
+    public TerraformEventParser(Consumer<TerraformEvent> eventListener) {
+        this.eventListener = eventListener;
+    }
+
+    /**
+     * Parses one line of the output.
+     *
+     * @param line line written by Terraform.
+     */
+    @Override
+    public void accept(String line) {
+        if (StringUtils.isBlank(line)) {
+            return;
+        }
+        TerraformEvent event;
+        try {
+            event = parse(OBJECT_MAPPER.readTree(line));
+        } catch (JsonProcessingException ex) {
+            // lines which are no json messages are only logged.
+            log.debug(line);
+            return;
+        }
+        log.debug(event.getMessage());
+        if (event.getType() == TerraformEventType.DIAGNOSTIC
+                && ERROR_SEVERITY.equals(event.getSeverity()) && this.errors.size() < MAX_ERRORS) {
+            this.errors.add(StringUtils.isBlank(event.getDetail()) ? event.getSummary()
+                    : event.getSummary() + ": " + event.getDetail());
+        }
+        if (Objects.nonNull(this.eventListener)) {
+            try {
+                this.eventListener.accept(event);
+            } catch (RuntimeException ex) {
+                log.error("Handle terraform event {} failed.", event.getType(), ex);
+            }
+        }
+    }
+
+    /**
+     * Get the error diagnostics written by Terraform.
+     *
+     * @return the errors separated by new lines.
+     */
+    public String getErrors() {
+        return String.join(System.lineSeparator(), this.errors);
+    }
+
+    private TerraformEvent parse(JsonNode message) {
+        TerraformEvent event = new TerraformEvent();
+        event.setType(TerraformEventType.getByValue(message.path("type").asText()));
+        event.setLevel(getText(message.path("@level")));
+        event.setMessage(getText(message.path("@message")));
+        JsonNode hook = message.has("hook") ? message.path("hook") : message.path("change");
+        JsonNode resource = hook.path("resource");
+        event.setResourceAddress(getText(resource.path("addr")));
+        event.setResourceType(getText(resource.path("resource_type")));
+        event.setResourceName(getText(resource.path("resource_name")));
+        event.setAction(getText(hook.path("action")));
+        event.setResourceId(getText(hook.path("id_value")));
+        if (hook.path("elapsed_seconds").isNumber()) {
+            event.setElapsedSeconds(hook.path("elapsed_seconds").asLong());
+        }
+        JsonNode diagnostic = message.path("diagnostic");
+        event.setSeverity(getText(diagnostic.path("severity")));
+        event.setSummary(getText(diagnostic.path("summary")));
+        event.setDetail(getText(diagnostic.path("detail")));
+        return event;
+    }
+
+    private String getText(JsonNode node) {
+        return node.isValueNode() && !node.isNull() ? node.asText() : null;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform.events;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Types of the messages written by Terraform in machine readable (-json) mode.
+ */
+public enum TerraformEventType {
+    VERSION("version"),
+    LOG("log"),
+    DIAGNOSTIC("diagnostic"),
+    REFRESH_START("refresh_start"),
+    REFRESH_COMPLETE("refresh_complete"),
+    PLANNED_CHANGE("planned_change"),
+    CHANGE_SUMMARY("change_summary"),
+    APPLY_START("apply_start"),
+    APPLY_PROGRESS("apply_progress"),
+    APPLY_COMPLETE("apply_complete"),
+    APPLY_ERRORED("apply_errored"),
+    OUTPUTS("outputs"),
+    UNKNOWN("unknown");
+
+    private final String type;
+
+    TerraformEventType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Get the event type by the type field of the Terraform message.
+     *
+     * @param type type of the Terraform message.
+     * @return event type or UNKNOWN for messages which are not handled.
+     */
+    public static TerraformEventType getByValue(String type) {
+        for (TerraformEventType eventType : values()) {
+            if (eventType.type.equals(StringUtils.lowerCase(type))) {
+                return eventType;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    public String toValue() {
+        return this.type;
+    }
+}
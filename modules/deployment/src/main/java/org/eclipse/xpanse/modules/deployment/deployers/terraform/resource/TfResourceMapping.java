@@ -0,0 +1,69 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform.resource;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+import org.eclipse.xpanse.modules.models.service.deploy.DeployResource;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployResourceKind;
+
+/**
+ * Mapping of a Terraform resource type to the deployed resource.
+ */
+@Getter
+public class TfResourceMapping {
+
+    private static final String ID_ATTRIBUTE = "id";
+    private static final String NAME_ATTRIBUTE = "name";
+
+    /**
+     * Kind of the deployed resource.
+     */
+    private final DeployResourceKind kind;
+
+    /**
+     * Properties of the deployed resource mapped to the attributes of the Terraform resource.
+     */
+    private final Map<String, String> properties;
+
+    /**
+     * Attributes of the Terraform resource which are read from the state.
+     */
+    private final Set<String> attributeNames;
+
+    /**
+     * Constructor of TfResourceMapping.
+     *
+     * @param kind       kind of the deployed resource.
+     * @param properties properties of the deployed resource mapped to the attributes.
+     */
+    public TfResourceMapping(DeployResourceKind kind, Map<String, String> properties) {
+        this.kind = kind;
+        this.properties = properties;
+        Set<String> names = new HashSet<>();
+        names.add(ID_ATTRIBUTE);
+        names.add(NAME_ATTRIBUTE);
+        // a property which is not a field of the resource is read from the attribute of the
+        // same name.
+        names.addAll(properties.keySet());
+        names.addAll(properties.values());
+        this.attributeNames = Set.copyOf(names);
+    }
+
+    /**
+     * Create the deployed resource of the kind.
+     *
+     * @return the new deployed resource.
+     */
+    public DeployResource newDeployResource() {
+        DeployResource deployResource = DeployResourceKind.getInstanceByKind(kind);
+        deployResource.setKind(kind);
+        return deployResource;
+    }
+}
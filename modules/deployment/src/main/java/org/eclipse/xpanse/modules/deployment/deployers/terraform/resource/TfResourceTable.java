@@ -0,0 +1,44 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform.resource;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployResourceKind;
+
+/**
+ * Table of the Terraform resource types of a CSP which are returned as deployed resources. The
+ * resources of the other types are skipped when the state is read.
+ */
+public class TfResourceTable {
+
+    private final Map<String, TfResourceMapping> mappings = new HashMap<>();
+
+    /**
+     * Register a Terraform resource type.
+     *
+     * @param type       type of the Terraform resource.
+     * @param kind       kind of the deployed resource.
+     * @param properties properties of the deployed resource mapped to the attributes.
+     * @return this table.
+     */
+    public TfResourceTable register(String type, DeployResourceKind kind,
+                                    Map<String, String> properties) {
+        mappings.put(type, new TfResourceMapping(kind, properties));
+        return this;
+    }
+
+    /**
+     * Get the mapping of a Terraform resource type.
+     *
+     * @param type type of the Terraform resource.
+     * @return the mapping, null when the type is not registered.
+     */
+    public TfResourceMapping get(String type) {
+        return mappings.get(type);
+    }
+}
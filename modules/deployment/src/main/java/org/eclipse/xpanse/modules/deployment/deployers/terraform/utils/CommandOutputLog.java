@@ -0,0 +1,129 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform.utils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.models.service.view.DeployLogVo;
+
+/**
+ * Log file which receives the full output of the commands. The lines are appended through a
+ * buffered channel, the output of all commands of a task is kept in the same file. The buffer is
+ * flushed every second while the command writes output and whenever the command pauses, so that
+ * the log can be read while the command is running.
+ */
+@Slf4j
+public class CommandOutputLog implements Closeable {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Path logFile;
+    private final BufferedWriter writer;
+    private boolean isFailed;
+    private long lastFlushNanos = System.nanoTime();
+
+    /**
+     * Opens the log file for appending, the file is created if it does not exist.
+     *
+     * @param logFile path of the log file.
+     * @throws IOException when the file can not be opened.
+     */
+    public CommandOutputLog(Path logFile) throws IOException {
+        this.logFile = logFile;
+        FileChannel channel = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE);
+    }
+
+    /**
+     * Appends a line to the log file. Lines of the stdout and stderr of a command are written
+     * from different threads, a line is never split. A failed write does not fail the command,
+     * the remaining output is then not logged.
+     *
+     * @param line the line without line separator.
+     */
+    public synchronized void appendLine(String line) {
+        if (this.isFailed) {
+            return;
+        }
+        try {
+            this.writer.write(line);
+            this.writer.newLine();
+            long now = System.nanoTime();
+            if (now - this.lastFlushNanos >= FLUSH_INTERVAL_NANOS) {
+                this.writer.flush();
+                this.lastFlushNanos = now;
+            }
+        } catch (IOException ex) {
+            this.isFailed = true;
+            log.warn("Writing command output to {} failed.", this.logFile, ex);
+        }
+    }
+
+    /**
+     * Writes the buffered lines to the log file, called when the command has no more pending
+     * output.
+     */
+    public synchronized void flush() {
+        if (this.isFailed) {
+            return;
+        }
+        try {
+            this.writer.flush();
+            this.lastFlushNanos = System.nanoTime();
+        } catch (IOException ex) {
+            this.isFailed = true;
+            log.warn("Writing command output to {} failed.", this.logFile, ex);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.writer.close();
+    }
+
+    /**
+     * Reads a range of the log file. Only the read range is loaded into memory.
+     *
+     * @param logFile  path of the log file.
+     * @param offset   byte offset to start reading from, the end of the file is read when null.
+     * @param maxBytes max number of bytes to read.
+     * @return the read range of the log file.
+     * @throws IOException when the file can not be read.
+     */
+    public static DeployLogVo read(Path logFile, Long offset, int maxBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = Math.min(size,
+                    offset == null ? Math.max(size - maxBytes, 0) : Math.max(offset, 0));
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(maxBytes, size - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            DeployLogVo deployLogVo = new DeployLogVo();
+            deployLogVo.setOffset(start);
+            deployLogVo.setNextOffset(start + buffer.limit());
+            deployLogVo.setSize(size);
+            deployLogVo.setContent(StandardCharsets.UTF_8.decode(buffer).toString());
+            return deployLogVo;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform.utils;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the last characters of the output of a command. The buffer grows with the output up to
+ * its capacity and then overwrites the oldest characters, so that a command with a huge output
+ * never holds more than the capacity in memory.
+ */
+class OutputRingBuffer {
+
+    private static final int INITIAL_SIZE = 256;
+
+    private final int capacity;
+    private char[] buffer;
+    private long written;
+
+    /**
+     * Constructor of OutputRingBuffer.
+     *
+     * @param capacity max number of characters kept.
+     */
+    OutputRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity of the output buffer must be positive.");
+        }
+        this.capacity = capacity;
+        this.buffer = new char[Math.min(capacity, INITIAL_SIZE)];
+    }
+
+    /**
+     * Appends a line to the output, lines are separated by the line separator.
+     *
+     * @param line the line without line separator.
+     */
+    void appendLine(String line) {
+        if (this.written > 0) {
+            append(System.lineSeparator());
+        }
+        append(line);
+    }
+
+    /**
+     * Get the number of the characters which were dropped from the output.
+     *
+     * @return number of the dropped characters.
+     */
+    long getDroppedChars() {
+        return Math.max(this.written - this.capacity, 0);
+    }
+
+    /**
+     * Get the output kept in the buffer. When the start of the output was dropped, the output
+     * starts with a note of the number of dropped characters.
+     *
+     * @return the kept output.
+     */
+    @Override
+    public String toString() {
+        if (this.written <= this.capacity) {
+            return new String(this.buffer, 0, (int) this.written);
+        }
+        int start = (int) (this.written % this.capacity);
+        return new StringBuilder(this.capacity + 64)
+                .append("...[").append(getDroppedChars()).append(" characters truncated]")
+                .append(System.lineSeparator())
+                .append(this.buffer, start, this.capacity - start)
+                .append(this.buffer, 0, start)
+                .toString();
+    }
+
+    private void append(String text) {
+        int length = text.length();
+        int offset = 0;
+        if (length > this.capacity) {
+            // only the end of the text is kept.
+            offset = length - this.capacity;
+            this.written += offset;
+        }
+        ensureCapacity(this.written + length - offset);
+        while (offset < length) {
+            int position = (int) (this.written % this.capacity);
+            int count = Math.min(length - offset, this.capacity - position);
+            text.getChars(offset, offset + count, this.buffer, position);
+            offset += count;
+            this.written += count;
+        }
+    }
+
+    private void ensureCapacity(long requiredSize) {
+        if (this.buffer.length == this.capacity || requiredSize <= this.buffer.length) {
+            return;
+        }
+        int newSize = (int) Math.min(Math.max(requiredSize, (long) this.buffer.length * 2),
+                this.capacity);
+        this.buffer = Arrays.copyOf(this.buffer, newSize);
+    }
+}
@@ -9,18 +9,26 @@ package org.eclipse.xpanse.modules.deployment.deployers.terraform.utils;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.deployment.async.ThreadMdcUtil;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.TerraformExecutorException;
 import org.slf4j.MDC;
 
@@ -30,6 +38,31 @@ import org.slf4j.MDC;
 @Slf4j
 public class SystemCmd {
 
+    /**
+     * Max number of threads of the output pump, two threads are used by each running command.
+     */
+    private static final int MAX_OUTPUT_PUMP_THREADS = 256;
+
+    /**
+     * Shared pool of threads which drain the stdout and stderr streams of the started processes.
+     * Threads are reused across commands and idle threads are released after a minute. The
+     * streams must be drained while the process runs, so the tasks are not queued: a command
+     * started when all threads are busy is rejected and stopped.
+     */
+    private static final ThreadPoolExecutor OUTPUT_PUMP = getOutputPump();
+
+    /**
+     * Kills the stopped commands which are still running after the grace period.
+     */
+    private static final ScheduledExecutorService PROCESS_KILLER =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "system-cmd-killer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private static final int DEFAULT_GRACE_PERIOD_SECONDS = 30;
+
     @Setter
     @Getter
     private Map<String, String> env;
@@ -38,12 +71,46 @@ public class SystemCmd {
     @Getter
     private String workDir = "";
 
+    /**
+     * Receives the stdout of the command line by line while the command is running. The stdout is
+     * then not kept in the result of the command.
+     */
+    @Setter
+    @Getter
+    private Consumer<String> stdOutLineConsumer;
+
+    /**
+     * Max number of characters of the stdout and the stderr kept in the result of the command.
+     * Only the end of a longer output is kept. The output is not limited when 0.
+     */
+    @Setter
+    @Getter
+    private int maxOutputChars;
+
+    /**
+     * Receives the full stdout and stderr of the command, may be null.
+     */
+    @Setter
+    @Getter
+    private CommandOutputLog outputLog;
+
+    /**
+     * Seconds a stopped command may take to exit before it is killed.
+     */
+    @Setter
+    @Getter
+    private int gracePeriodSeconds = DEFAULT_GRACE_PERIOD_SECONDS;
+
+    private Process process;
+    private boolean isCancelled;
+
     public SystemCmdResult execute(String cmd) {
         return execute(cmd, 0);
     }
 
     /**
-     * Executes operating system command.
+     * Executes operating system command. When the command is not completed in time, it is
+     * stopped like a cancelled command.
      *
      * @param cmd        command to be executed.
      * @param waitSecond time to wait for the command to be completed.
@@ -62,20 +129,56 @@ public class SystemCmd {
             if (!Objects.equals(workDir, "")) {
                 processBuilder.directory(new File(workDir));
             }
-            Process process = processBuilder.start();
-            readProcessOutput(process, systemCmdResult);
+            Process process;
+            synchronized (this) {
+                if (this.isCancelled) {
+                    systemCmdResult.setCommandSuccessful(false);
+                    systemCmdResult.setCommandCancelled(true);
+                    return systemCmdResult;
+                }
+                process = processBuilder.start();
+                this.process = process;
+            }
+            Future<String> stdOutFuture;
+            Future<String> stdErrFuture;
+            try {
+                stdOutFuture = pumpStream(process.getInputStream(), this.stdOutLineConsumer);
+                stdErrFuture = pumpStream(process.getErrorStream(), null);
+            } catch (RejectedExecutionException e) {
+                log.error("SystemCmd output pump is saturated, stopping the command.");
+                // the stream of a pump already started is closed when the process exits.
+                process.destroyForcibly();
+                systemCmdResult.setCommandSuccessful(false);
+                systemCmdResult.setCommandStdError(String.format("Too many commands running,"
+                        + " at most %d commands can run at the same time.",
+                        MAX_OUTPUT_PUMP_THREADS / 2));
+                return systemCmdResult;
+            }
 
+            boolean isFinished = true;
             if (waitSecond <= 0) {
                 process.waitFor();
-            } else {
-                if (!process.waitFor(waitSecond, TimeUnit.SECONDS)) {
-                    log.error("SystemCmd wait process failed");
-                    systemCmdResult.setCommandSuccessful(false);
-                }
+            } else if (!process.waitFor(waitSecond, TimeUnit.SECONDS)) {
+                log.error("SystemCmd wait process failed, stopping the command.");
+                // closes the process streams so that the pump threads are released.
+                terminate(process);
+                process.waitFor();
+                isFinished = false;
             }
-            if (process.exitValue() != 0) {
+            // the streams are closed once the process exits, so this only waits for the
+            // pump threads to hand over the remaining buffered output.
+            systemCmdResult.setCommandStdOutput(stdOutFuture.get());
+            systemCmdResult.setCommandStdError(stdErrFuture.get());
+            if (!isFinished || process.exitValue() != 0) {
                 log.error("SystemCmd process finished with abnormal value.");
                 systemCmdResult.setCommandSuccessful(false);
+                systemCmdResult.setCommandCancelled(isCancelled());
+                if (!isFinished) {
+                    systemCmdResult.setCommandTimedOut(true);
+                    systemCmdResult.setCommandStdError(String.format(
+                            "Command timed out after %d seconds.%s%s", waitSecond,
+                            System.lineSeparator(), systemCmdResult.getCommandStdError()));
+                }
             } else {
                 systemCmdResult.setCommandSuccessful(true);
             }
@@ -93,62 +196,143 @@ public class SystemCmd {
             systemCmdResult.setCommandSuccessful(false);
             systemCmdResult.setCommandStdError(e.getMessage());
             throw new TerraformExecutorException(e.getMessage());
+        } finally {
+            synchronized (this) {
+                this.process = null;
+            }
         }
         return systemCmdResult;
     }
 
-    private String readStream(BufferedReader bufferedReader, Map<String, String> contextMap) {
-        //copying MDC context of the main deployment thread to the stream reader thread.
-        MDC.setContextMap(contextMap);
-        StringBuilder stringBuilder = new StringBuilder();
-        bufferedReader.lines().forEach(line -> {
-            log.info(line);
-            // skip adding new line for the first line.
-            if (stringBuilder.length() > 0) {
-                stringBuilder.append(System.lineSeparator());
+    /**
+     * Stops the running command. The command is asked to stop and it is killed when it is still
+     * running after the grace period. A command executed afterwards is not started.
+     */
+    public void cancel() {
+        Process runningProcess;
+        synchronized (this) {
+            this.isCancelled = true;
+            runningProcess = this.process;
+        }
+        if (Objects.nonNull(runningProcess) && runningProcess.isAlive()) {
+            log.info("SystemCmd cancelling the running command.");
+            terminate(runningProcess);
+        }
+    }
+
+    private synchronized boolean isCancelled() {
+        return this.isCancelled;
+    }
+
+    /**
+     * Asks the process to stop and kills it with its child processes when it is still running
+     * after the grace period.
+     */
+    private void terminate(Process runningProcess) {
+        List<ProcessHandle> descendants = runningProcess.descendants().toList();
+        runningProcess.destroy();
+        PROCESS_KILLER.schedule(() -> {
+            if (runningProcess.isAlive()) {
+                log.warn("SystemCmd process did not stop in {} seconds, killing it.",
+                        this.gracePeriodSeconds);
+                runningProcess.destroyForcibly();
             }
-            stringBuilder.append(line);
-        });
-        return stringBuilder.toString();
+            descendants.stream().filter(ProcessHandle::isAlive)
+                    .forEach(ProcessHandle::destroyForcibly);
+        }, this.gracePeriodSeconds, TimeUnit.SECONDS);
     }
 
-    private void readProcessOutput(Process process, SystemCmdResult systemCmdResult)
-            throws IOException, ExecutionException, InterruptedException {
-        if (Objects.isNull(process)) {
-            return;
+    private static ThreadPoolExecutor getOutputPump() {
+        ThreadPoolExecutor outputPump = new ThreadPoolExecutor(MAX_OUTPUT_PUMP_THREADS,
+                MAX_OUTPUT_PUMP_THREADS, 1, TimeUnit.MINUTES, new SynchronousQueue<>(),
+                new OutputPumpThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        outputPump.allowCoreThreadTimeOut(true);
+        return outputPump;
+    }
+
+    private Future<String> pumpStream(InputStream inputStream, Consumer<String> lineConsumer) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
+        // copying MDC context of the main deployment thread to the stream reader thread.
+        return OUTPUT_PUMP.submit(ThreadMdcUtil.wrap(() -> Objects.isNull(lineConsumer)
+                ? readStream(reader) : consumeStream(reader, lineConsumer),
+                MDC.getCopyOfContextMap()));
+    }
+
+    private String consumeStream(BufferedReader bufferedReader, Consumer<String> lineConsumer)
+            throws IOException {
+        try (bufferedReader) {
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                appendToOutputLog(bufferedReader, line);
+                lineConsumer.accept(line);
+            }
         }
-        final Map<String, String> contextMap = new HashMap<>(
-                Objects.nonNull(MDC.getCopyOfContextMap()) ? MDC.getCopyOfContextMap()
-                        : new HashMap<>());
-
-
-        // Starting threads in parallel to read stdout and stderr. This is needed because in
-        // some cases reading stdout first works and in some cases reading stderr first works.
-        // we now let both stdout and stderr streams to be fully read in parallel and then read
-        // the output after the buffers are fully read.
-        BufferedReader stdoutReader =
-                new BufferedReader(new InputStreamReader(process.getInputStream()));
-        ExecutorService threadToReadStdout = Executors.newSingleThreadExecutor();
-        Future<String> stdOutFuture =
-                threadToReadStdout.submit(() -> readStream(stdoutReader, contextMap));
-
-        BufferedReader stdErrorReader =
-                new BufferedReader(new InputStreamReader(process.getErrorStream()));
-        ExecutorService threadToReadStdErr = Executors.newSingleThreadExecutor();
-        Future<String> stdErrFuture =
-                threadToReadStdErr.submit(() -> readStream(stdErrorReader, contextMap));
-
-        int count = 0;
-        while (!stdOutFuture.isDone() || !stdErrFuture.isDone()) {
-            if (count++ < 10 || count % 100000 == 0) {
-                log.debug("Command output and error streams are still being read.");
+        return "";
+    }
+
+    private String readStream(BufferedReader bufferedReader) throws IOException {
+        if (this.maxOutputChars <= 0) {
+            StringBuilder stringBuilder = new StringBuilder();
+            readStream(bufferedReader, line -> {
+                // skip adding new line for the first line.
+                if (stringBuilder.length() > 0) {
+                    stringBuilder.append(System.lineSeparator());
+                }
+                stringBuilder.append(line);
+            });
+            return stringBuilder.toString();
+        }
+        OutputRingBuffer ringBuffer = new OutputRingBuffer(this.maxOutputChars);
+        readStream(bufferedReader, ringBuffer::appendLine);
+        if (ringBuffer.getDroppedChars() > 0) {
+            log.debug("{} characters of the command output are only kept in the output log.",
+                    ringBuffer.getDroppedChars());
+        }
+        return ringBuffer.toString();
+    }
+
+    private void readStream(BufferedReader bufferedReader, Consumer<String> output)
+            throws IOException {
+        try (bufferedReader) {
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                if (Objects.nonNull(this.outputLog)) {
+                    appendToOutputLog(bufferedReader, line);
+                } else {
+                    log.info(line);
+                }
+                output.accept(line);
             }
         }
+    }
 
-        systemCmdResult.setCommandStdError(stdErrFuture.get());
-        systemCmdResult.setCommandStdOutput(stdOutFuture.get());
-        threadToReadStdout.shutdown();
-        threadToReadStdErr.shutdown();
+    private void appendToOutputLog(BufferedReader bufferedReader, String line)
+            throws IOException {
+        if (Objects.isNull(this.outputLog)) {
+            return;
+        }
+        this.outputLog.appendLine(line);
+        // the command pauses, the lines written so far can be read from the log already.
+        if (!bufferedReader.ready()) {
+            this.outputLog.flush();
+        }
+    }
+
+    /**
+     * Creates named daemon threads for the output pump so that a hanging child process can never
+     * keep the JVM alive.
+     */
+    private static class OutputPumpThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable,
+                    "system-cmd-output-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 
 }
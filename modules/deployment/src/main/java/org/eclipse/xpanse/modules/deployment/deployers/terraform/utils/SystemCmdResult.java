@@ -17,5 +17,7 @@ public class SystemCmdResult {
     private boolean isCommandSuccessful;
     private String commandStdOutput;
     private String commandStdError;
+    private boolean isCommandCancelled;
+    private boolean isCommandTimedOut;
 
 }
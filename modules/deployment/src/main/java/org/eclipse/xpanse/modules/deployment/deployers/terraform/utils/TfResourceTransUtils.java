@@ -6,22 +6,17 @@
 
 package org.eclipse.xpanse.modules.deployment.deployers.terraform.utils;
 
-import java.lang.reflect.Field;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
-import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.xpanse.modules.deployment.deployers.terraform.resource.TfStateResourceInstance;
 import org.eclipse.xpanse.modules.models.service.deploy.DeployResource;
+import org.eclipse.xpanse.modules.models.service.utils.DeployResourceFields;
 
 /**
  * Utils Define methods to transform TfResource into DeployResource.
  */
-@Slf4j
 public class TfResourceTransUtils {
 
     /**
@@ -44,29 +39,16 @@ public class TfResourceTransUtils {
             return;
         }
         deployResource.setProperties(new HashMap<>());
-        Field[] fields = deployResource.getClass().getFields();
-        Set<String> fieldSet =
-                Arrays.stream(fields).map(Field::getName).collect(Collectors.toSet());
-        try {
-            for (Field field : fields) {
-                String fieldName = field.getName();
-                if (keyProperty.containsKey(fieldName)) {
-                    String key = keyProperty.get(fieldName);
-                    String value = getValue(instanceAttributes, key);
-                    field.setAccessible(true);
-                    field.set(deployResource, value);
-                    deployResource.getProperties().put(fieldName, value);
-                }
+        DeployResourceFields fields = DeployResourceFields.of(deployResource.getClass());
+        for (Map.Entry<String, String> property : keyProperty.entrySet()) {
+            String key = property.getKey();
+            if (fields.hasField(key)) {
+                String value = getValue(instanceAttributes, property.getValue());
+                fields.set(deployResource, key, value);
+                deployResource.getProperties().put(key, value);
+            } else {
+                deployResource.getProperties().put(key, getValue(instanceAttributes, key));
             }
-            for (String key : keyProperty.keySet()) {
-                if (!fieldSet.contains(key)) {
-                    String value = instanceAttributes.getOrDefault(key, StringUtils.EMPTY)
-                            .toString();
-                    deployResource.getProperties().put(key, value);
-                }
-            }
-        } catch (IllegalAccessException e) {
-            log.error("IllegalAccessException:", e);
         }
     }
 
@@ -0,0 +1,386 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.events;
+
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEventEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceStorage;
+import org.eclipse.xpanse.modules.models.service.view.ServiceStateEventVo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes the state changes of deployed services to the subscribed clients, so that clients do
+ * not have to poll the details of the services.
+ *
+ * <p>The changes are read from the transitions recorded by the DeployServiceStorage, so that the
+ * clients receive the changes of the tasks run by all nodes, and the ids of the transitions are
+ * the ids of the events. A client which reconnects receives the events after the last event it
+ * has seen, also after a restart. Each subscriber has a bounded queue of the events which are
+ * sent to it in their order, so that a slow client neither blocks the deployments nor the other
+ * clients. A subscriber whose queue is full is unsubscribed, the client resumes the stream after
+ * the last event it received when it reconnects.
+ */
+@Slf4j
+@Component
+public class ServiceStateEventBroker {
+
+    /**
+     * Queued to send a heartbeat instead of an event.
+     */
+    private static final ServiceStateEventVo HEARTBEAT = new ServiceStateEventVo();
+    private static final int READ_BATCH_SIZE = 100;
+    /**
+     * Time to wait for a transition with a lower id which is not committed yet, before the later
+     * transitions are sent without it.
+     */
+    private static final long MISSING_EVENT_WAIT_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final DeployServiceStorage deployServiceStorage;
+    private final int queueSize;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService sender;
+    private final AtomicBoolean isReadRequested = new AtomicBoolean();
+    private long lastDispatchedId = -1;
+    private long missingEventSince;
+    private boolean isEventMissing;
+
+    /**
+     * Initializes the broker of the state changes.
+     *
+     * @param deployServiceStorage storage of the recorded transitions.
+     * @param pollMillis           milliseconds between the reads of the recorded transitions.
+     * @param heartbeatSeconds     seconds between the heartbeats sent to the clients, 0 sends
+     *                             none.
+     * @param queueSize            max number of events queued for a subscriber.
+     */
+    @Autowired
+    public ServiceStateEventBroker(
+            DeployServiceStorage deployServiceStorage,
+            @Value("${deployment.events.poll-millis:1000}") long pollMillis,
+            @Value("${deployment.events.heartbeat-seconds:15}") long heartbeatSeconds,
+            @Value("${deployment.events.queue-size:100}") int queueSize) {
+        this.deployServiceStorage = deployServiceStorage;
+        this.queueSize = Math.max(queueSize, 1);
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "service-state-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // a subscriber is served by at most one thread at a time, idle threads are released.
+        this.sender = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "service-state-events-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long pollDelay = Math.max(pollMillis, 1);
+        this.dispatcher.scheduleWithFixedDelay(this::readRecordedEvents, pollDelay, pollDelay,
+                TimeUnit.MILLISECONDS);
+        if (heartbeatSeconds > 0) {
+            this.dispatcher.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatSeconds,
+                    heartbeatSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Reads the recorded transitions without waiting for the next poll, called after a
+     * transition was recorded by this node.
+     */
+    public void notifyStateRecorded() {
+        if (isReadRequested.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> {
+                    isReadRequested.set(false);
+                    readRecordedEvents();
+                });
+            } catch (RejectedExecutionException e) {
+                // the broker is shut down.
+                isReadRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Subscribes to the state changes of a service or of all services of a user.
+     *
+     * @param serviceId   id of the service, all services of the user when null.
+     * @param userName    name of the user, any user when null.
+     * @param lastEventId id of the last event received, the later recorded events are sent
+     *                    first. Only new events are sent when null.
+     * @param listener    receiver of the events.
+     * @return the subscription.
+     */
+    public Subscription subscribe(UUID serviceId, String userName, Long lastEventId,
+                                  ServiceStateListener listener) {
+        if (Objects.isNull(serviceId) && StringUtils.isBlank(userName)) {
+            throw new IllegalArgumentException("Id of the service or name of the user required.");
+        }
+        Subscription subscription = new Subscription(serviceId, userName, listener);
+        synchronized (this) {
+            long dispatchedId = getLastDispatchedId();
+            subscriptions.add(subscription);
+            if (Objects.nonNull(lastEventId) && lastEventId < dispatchedId) {
+                // the later events are queued for the subscription and sent after the missed.
+                subscription.replay(lastEventId, dispatchedId);
+            }
+        }
+        return subscription;
+    }
+
+    /**
+     * Get the number of the subscriptions.
+     *
+     * @return number of the subscriptions.
+     */
+    public int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Stops sending the events.
+     */
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        sender.shutdownNow();
+        subscriptions.clear();
+    }
+
+    private synchronized long getLastDispatchedId() {
+        if (lastDispatchedId < 0) {
+            // only the transitions recorded from now on are pushed to the subscribers.
+            Long lastEventId = deployServiceStorage.findLastStateEventId();
+            lastDispatchedId = Objects.isNull(lastEventId) ? 0 : lastEventId;
+        }
+        return lastDispatchedId;
+    }
+
+    private void readRecordedEvents() {
+        try {
+            List<DeployServiceEventEntity> events;
+            do {
+                events = deployServiceStorage.findStateEventsAfter(getLastDispatchedId(),
+                        READ_BATCH_SIZE);
+            } while (dispatch(events) == READ_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            log.error("Read recorded state changes of the services failed.", e);
+        }
+    }
+
+    private synchronized int dispatch(List<DeployServiceEventEntity> events) {
+        int dispatched = 0;
+        for (DeployServiceEventEntity eventEntity : events) {
+            if (isMissingEventAwaited(eventEntity.getId())) {
+                break;
+            }
+            ServiceStateEventVo event = getEvent(eventEntity);
+            subscriptions.forEach(subscription -> subscription.offer(event));
+            lastDispatchedId = eventEntity.getId();
+            dispatched++;
+        }
+        return dispatched;
+    }
+
+    /**
+     * The ids of the transitions are assigned when they are inserted, a transition with a lower
+     * id may be committed by another transaction after a transition with a higher id. The later
+     * transitions are held back for a short time, so that the missing one is not skipped.
+     */
+    private boolean isMissingEventAwaited(long eventId) {
+        if (eventId == lastDispatchedId + 1) {
+            isEventMissing = false;
+            return false;
+        }
+        long now = System.nanoTime();
+        if (!isEventMissing) {
+            isEventMissing = true;
+            missingEventSince = now;
+        }
+        if (now - missingEventSince < MISSING_EVENT_WAIT_NANOS) {
+            return true;
+        }
+        // the id was not used by a committed transition.
+        isEventMissing = false;
+        return false;
+    }
+
+    private void sendHeartbeats() {
+        subscriptions.forEach(subscription -> subscription.offer(HEARTBEAT));
+    }
+
+    private static ServiceStateEventVo getEvent(DeployServiceEventEntity eventEntity) {
+        ServiceStateEventVo event = new ServiceStateEventVo();
+        event.setEventId(eventEntity.getId());
+        event.setServiceId(eventEntity.getServiceId());
+        event.setUserName(eventEntity.getUserName());
+        event.setServiceState(eventEntity.getServiceState());
+        event.setResultMessage(eventEntity.getResultMessage());
+        event.setTime(eventEntity.getCreateTime());
+        return event;
+    }
+
+    /**
+     * Subscription of a client to the state changes.
+     */
+    public final class Subscription {
+
+        private final UUID serviceId;
+        private final String userName;
+        private final ServiceStateListener listener;
+        private final BlockingQueue<ServiceStateEventVo> events;
+        private final AtomicBoolean isScheduled = new AtomicBoolean();
+        private Long replayAfterId;
+        private long replayUntilId;
+
+        private Subscription(UUID serviceId, String userName, ServiceStateListener listener) {
+            this.serviceId = serviceId;
+            this.userName = StringUtils.isBlank(userName) ? null : userName;
+            this.listener = listener;
+            this.events = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        /**
+         * Stops sending events to the listener.
+         */
+        public void close() {
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Unsubscribes the listener which can not receive the events anymore.
+         */
+        private void drop() {
+            if (subscriptions.remove(this)) {
+                events.clear();
+                try {
+                    listener.onClose();
+                } catch (RuntimeException e) {
+                    log.debug("Closing subscriber failed.", e);
+                }
+            }
+        }
+
+        private boolean matches(ServiceStateEventVo event) {
+            return (Objects.isNull(serviceId) || serviceId.equals(event.getServiceId()))
+                    && (Objects.isNull(userName) || userName.equals(event.getUserName()));
+        }
+
+        private void replay(long afterId, long untilId) {
+            this.replayAfterId = afterId;
+            this.replayUntilId = untilId;
+            schedule();
+        }
+
+        private void offer(ServiceStateEventVo event) {
+            if (event != HEARTBEAT && !matches(event)) {
+                return;
+            }
+            if (!events.offer(event)) {
+                // a heartbeat is not needed while events are waiting to be sent.
+                if (event != HEARTBEAT) {
+                    log.debug("Subscriber fell behind the state changes, unsubscribing.");
+                    drop();
+                }
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (subscriptions.contains(this) && isScheduled.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::sendQueued);
+                } catch (RejectedExecutionException e) {
+                    isScheduled.set(false);
+                    drop();
+                }
+            }
+        }
+
+        private void sendQueued() {
+            try {
+                if (Objects.nonNull(replayAfterId)) {
+                    sendMissed(replayAfterId);
+                    replayAfterId = null;
+                }
+                ServiceStateEventVo event;
+                while (subscriptions.contains(this) && Objects.nonNull(event = events.poll())) {
+                    send(event);
+                }
+            } catch (RuntimeException e) {
+                log.error("Read missed state changes of the services failed.", e);
+                drop();
+            } finally {
+                isScheduled.set(false);
+            }
+            // an event queued after the last poll was not scheduled.
+            if (!events.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void sendMissed(long afterId) {
+            if (Objects.nonNull(serviceId)) {
+                for (DeployServiceEventEntity eventEntity
+                        : deployServiceStorage.findStateEventsByServiceId(serviceId)) {
+                    sendMissed(eventEntity, afterId);
+                }
+                return;
+            }
+            long readId = afterId;
+            List<DeployServiceEventEntity> missedEvents;
+            do {
+                missedEvents = deployServiceStorage.findStateEventsAfter(readId, READ_BATCH_SIZE);
+                for (DeployServiceEventEntity eventEntity : missedEvents) {
+                    sendMissed(eventEntity, afterId);
+                    readId = eventEntity.getId();
+                }
+            } while (missedEvents.size() == READ_BATCH_SIZE && readId < replayUntilId
+                    && subscriptions.contains(this));
+        }
+
+        private void sendMissed(DeployServiceEventEntity eventEntity, long afterId) {
+            if (eventEntity.getId() <= afterId || eventEntity.getId() > replayUntilId) {
+                return;
+            }
+            ServiceStateEventVo event = getEvent(eventEntity);
+            if (matches(event) && subscriptions.contains(this)) {
+                send(event);
+            }
+        }
+
+        private void send(ServiceStateEventVo event) {
+            try {
+                if (event == HEARTBEAT) {
+                    listener.onHeartbeat();
+                } else {
+                    listener.onEvent(event);
+                }
+            } catch (RuntimeException e) {
+                log.debug("Sending state change to subscriber failed, unsubscribing.", e);
+                drop();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.events;
+
+import org.eclipse.xpanse.modules.models.service.view.ServiceStateEventVo;
+
+/**
+ * Receiver of the state changes of deployed services. A listener which throws a
+ * RuntimeException or falls behind the state changes is unsubscribed.
+ */
+public interface ServiceStateListener {
+
+    /**
+     * Called for each state change matching the subscription.
+     *
+     * @param event the state change.
+     */
+    void onEvent(ServiceStateEventVo event);
+
+    /**
+     * Called periodically to keep the connection of the listener open.
+     */
+    default void onHeartbeat() {
+    }
+
+    /**
+     * Called when the listener is unsubscribed by the broker because it failed or fell behind
+     * the state changes.
+     */
+    default void onClose() {
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.ocl;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
+import org.eclipse.xpanse.modules.database.register.RegisterServiceStorage;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceStorage;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the Ocl which is still copied into the request of the deployed services to the
+ * OclVersionStore, and records the version of the registered services which were registered
+ * before the versions were stored.
+ */
+@Slf4j
+@Component
+public class OclVersionMigration {
+
+    private final RegisterServiceStorage registerServiceStorage;
+    private final DeployServiceStorage deployServiceStorage;
+    private final OclVersionStore oclVersionStore;
+
+    /**
+     * Constructor of OclVersionMigration.
+     */
+    public OclVersionMigration(RegisterServiceStorage registerServiceStorage,
+                               DeployServiceStorage deployServiceStorage,
+                               OclVersionStore oclVersionStore) {
+        this.registerServiceStorage = registerServiceStorage;
+        this.deployServiceStorage = deployServiceStorage;
+        this.oclVersionStore = oclVersionStore;
+    }
+
+    /**
+     * Migrates the registered services and then the deployed services, one service at a time.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        for (RegisterServiceEntity registerServiceEntity : registerServiceStorage.services()) {
+            if (Objects.isNull(registerServiceEntity.getOclHash())
+                    && Objects.nonNull(registerServiceEntity.getOcl())) {
+                registerServiceEntity.setOclHash(
+                        oclVersionStore.store(registerServiceEntity.getOcl()));
+                registerServiceStorage.store(registerServiceEntity);
+            }
+        }
+        List<UUID> ids = deployServiceStorage.findDeployServiceIdsWithoutOclHash();
+        int migrated = 0;
+        for (UUID id : ids) {
+            try {
+                if (migrate(deployServiceStorage.findDeployServiceById(id))) {
+                    migrated++;
+                }
+            } catch (RuntimeException e) {
+                log.error("Migrate Ocl of deployed service {} failed.", id, e);
+            }
+        }
+        if (migrated > 0) {
+            log.info("Migrated Ocl of {} deployed services.", migrated);
+        }
+    }
+
+    private boolean migrate(DeployServiceEntity deployServiceEntity) {
+        if (Objects.isNull(deployServiceEntity)
+                || Objects.isNull(deployServiceEntity.getCreateRequest())
+                || Objects.isNull(deployServiceEntity.getCreateRequest().getOcl())) {
+            return false;
+        }
+        deployServiceEntity.setOclHash(
+                oclVersionStore.store(deployServiceEntity.getCreateRequest().getOcl()));
+        deployServiceEntity.getCreateRequest().setOcl(null);
+        deployServiceStorage.storeAndFlush(deployServiceEntity);
+        return true;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.ocl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.ocl.OclVersionEntity;
+import org.eclipse.xpanse.modules.database.ocl.OclVersionStorage;
+import org.eclipse.xpanse.modules.models.service.register.Ocl;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Store of the versions of the Ocl. Each version is stored once by the hash of its content, so
+ * that the deployed services of a registered service share the row of the Ocl they were deployed
+ * with. A version is never changed, so the parsed Ocl is cached by its hash without expiry.
+ */
+@Slf4j
+@Component
+public class OclVersionStore {
+
+    private static final long MAX_CACHED_VERSIONS = 1000;
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    private final OclVersionStorage oclVersionStorage;
+    private final Cache<String, Ocl> oclVersions =
+            Caffeine.newBuilder().maximumSize(MAX_CACHED_VERSIONS).build();
+
+    public OclVersionStore(OclVersionStorage oclVersionStorage) {
+        this.oclVersionStorage = oclVersionStorage;
+    }
+
+    /**
+     * Stores the Ocl if no version with the same content is stored.
+     *
+     * @param ocl the Ocl.
+     * @return hash of the version.
+     */
+    public String store(Ocl ocl) {
+        String content = serialize(ocl);
+        OclVersionEntity oclVersionEntity = new OclVersionEntity();
+        oclVersionEntity.setContentHash(getContentHash(content));
+        oclVersionEntity.setContent(content);
+        try {
+            oclVersionStorage.storeIfAbsent(oclVersionEntity);
+        } catch (DataIntegrityViolationException e) {
+            // the same version was stored by another node in the meantime.
+            if (Objects.isNull(
+                    oclVersionStorage.findOclVersionByHash(oclVersionEntity.getContentHash()))) {
+                throw e;
+            }
+        }
+        return oclVersionEntity.getContentHash();
+    }
+
+    /**
+     * Get the version of the Ocl. The returned Ocl is shared by all callers and must not be
+     * modified.
+     *
+     * @param contentHash hash of the version.
+     * @return the Ocl or null when the version is not stored.
+     */
+    public Ocl get(String contentHash) {
+        if (Objects.isNull(contentHash)) {
+            return null;
+        }
+        return oclVersions.get(contentHash, this::load);
+    }
+
+    private Ocl load(String contentHash) {
+        OclVersionEntity oclVersionEntity = oclVersionStorage.findOclVersionByHash(contentHash);
+        if (Objects.isNull(oclVersionEntity)) {
+            log.error("Ocl version {} not found.", contentHash);
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(oclVersionEntity.getContent(), Ocl.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Deserialising Ocl version failed.", ex);
+        }
+    }
+
+    private static String serialize(Ocl ocl) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(ocl);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Serialising Ocl failed.", ex);
+        }
+    }
+
+    private static String getContentHash(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported.", ex);
+        }
+    }
+}
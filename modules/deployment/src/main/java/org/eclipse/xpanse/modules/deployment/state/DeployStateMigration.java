@@ -0,0 +1,82 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.state;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceStorage;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the Terraform states which are still stored in the private properties of the deployed
+ * services to the DeployStateStore.
+ */
+@Slf4j
+@Component
+public class DeployStateMigration {
+
+    /**
+     * Key of the state in the private properties of the deployed services.
+     */
+    public static final String STATE_FILE_PROPERTY = "stateFile";
+
+    private final DeployServiceStorage deployServiceStorage;
+    private final DeployStateStore deployStateStore;
+
+    public DeployStateMigration(DeployServiceStorage deployServiceStorage,
+                                DeployStateStore deployStateStore) {
+        this.deployServiceStorage = deployServiceStorage;
+        this.deployStateStore = deployStateStore;
+    }
+
+    /**
+     * Migrates the states of all deployed services, one service at a time.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        List<UUID> ids =
+                deployServiceStorage.findDeployServiceIdsByPrivateProperty(STATE_FILE_PROPERTY);
+        int migrated = 0;
+        for (UUID id : ids) {
+            try {
+                if (migrate(deployServiceStorage.findDeployServiceById(id))) {
+                    migrated++;
+                }
+            } catch (RuntimeException e) {
+                log.error("Migrate Terraform state of deployed service {} failed.", id, e);
+            }
+        }
+        if (migrated > 0) {
+            log.info("Migrated Terraform states of {} deployed services.", migrated);
+        }
+    }
+
+    private boolean migrate(DeployServiceEntity deployServiceEntity) {
+        if (Objects.isNull(deployServiceEntity)
+                || Objects.isNull(deployServiceEntity.getPrivateProperties())) {
+            return false;
+        }
+        String state = deployServiceEntity.getPrivateProperties().remove(STATE_FILE_PROPERTY);
+        if (Objects.isNull(state)) {
+            return false;
+        }
+        if (Objects.isNull(deployServiceEntity.getStateHash())) {
+            deployStateStore.store(state, stateHash -> {
+                deployServiceEntity.setStateHash(stateHash);
+                deployServiceStorage.storeAndFlush(deployServiceEntity);
+            });
+        } else {
+            deployServiceStorage.storeAndFlush(deployServiceEntity);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.state;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.xpanse.modules.database.state.DeployStateEntity;
+import org.eclipse.xpanse.modules.database.state.DeployStateStorage;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Store of the Terraform states of the deployed services. The states are compressed and stored
+ * by the hash of their content, so that the deployed services only keep the hash and the states
+ * are not loaded when the services are listed.
+ */
+@Slf4j
+@Component
+public class DeployStateStore {
+
+    private static final String GZIP_COMPRESSION = "gzip";
+
+    private final DeployStateStorage deployStateStorage;
+
+    public DeployStateStore(DeployStateStorage deployStateStorage) {
+        this.deployStateStorage = deployStateStorage;
+    }
+
+    /**
+     * Stores the state if no state with the same content is stored and stores the reference to
+     * the state in the same transaction, so that the state is not released by the destroy of
+     * another service with the same state before the reference is committed.
+     *
+     * @param state          the Terraform state.
+     * @param storeReference stores the deployed service with the hash of the state.
+     * @return hash of the state.
+     */
+    public String store(String state, Consumer<String> storeReference) {
+        byte[] content = state.getBytes(StandardCharsets.UTF_8);
+        DeployStateEntity deployStateEntity = new DeployStateEntity();
+        deployStateEntity.setContentHash(getContentHash(content));
+        deployStateEntity.setCompression(GZIP_COMPRESSION);
+        deployStateEntity.setStateSize(content.length);
+        deployStateEntity.setContent(compress(content));
+        String contentHash = deployStateEntity.getContentHash();
+        try {
+            deployStateStorage.storeWithReference(deployStateEntity,
+                    () -> storeReference.accept(contentHash));
+        } catch (DataIntegrityViolationException e) {
+            // the same state was stored by another deployment in the meantime, the stored state
+            // is locked and referenced when it is tried again.
+            if (Objects.isNull(deployStateStorage.findDeployStateByHash(contentHash))) {
+                throw e;
+            }
+            deployStateStorage.storeWithReference(deployStateEntity,
+                    () -> storeReference.accept(contentHash));
+        }
+        return contentHash;
+    }
+
+    /**
+     * Opens the uncompressed state, the state is decompressed while it is read.
+     *
+     * @param contentHash hash of the state.
+     * @return stream of the state or null when the state is not stored.
+     */
+    public InputStream open(String contentHash) throws IOException {
+        if (Objects.isNull(contentHash)) {
+            return null;
+        }
+        DeployStateEntity deployStateEntity = deployStateStorage.findDeployStateByHash(contentHash);
+        if (Objects.isNull(deployStateEntity)) {
+            log.error("Terraform state {} not found.", contentHash);
+            return null;
+        }
+        if (!GZIP_COMPRESSION.equals(deployStateEntity.getCompression())) {
+            throw new IOException("Unsupported compression of the Terraform state: "
+                    + deployStateEntity.getCompression());
+        }
+        return new GZIPInputStream(new ByteArrayInputStream(deployStateEntity.getContent()));
+    }
+
+    /**
+     * Removes the state if no deployed service uses it anymore.
+     *
+     * @param contentHash hash of the state.
+     */
+    public void release(String contentHash) {
+        if (Objects.nonNull(contentHash)) {
+            deployStateStorage.deleteIfUnreferenced(contentHash);
+        }
+    }
+
+    private static byte[] compress(byte[] content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 8 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Compress Terraform state failed.", ex);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Get the hash of a state, which is equal to the hash of the state when it was stored.
+     *
+     * @param tfState stream of the uncompressed state.
+     * @return hash of the state.
+     */
+    public static String getContentHash(InputStream tfState) throws IOException {
+        MessageDigest digest = getDigest();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = tfState.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String getContentHash(byte[] content) {
+        return HexFormat.of().formatHex(getDigest().digest(content));
+    }
+
+    private static MessageDigest getDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported.", ex);
+        }
+    }
+}
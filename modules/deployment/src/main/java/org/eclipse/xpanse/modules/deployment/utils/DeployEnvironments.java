@@ -6,8 +6,13 @@
 
 package org.eclipse.xpanse.modules.deployment.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 import org.eclipse.xpanse.modules.credential.CredentialCenter;
 import org.eclipse.xpanse.modules.models.credential.AbstractCredentialInfo;
 import org.eclipse.xpanse.modules.models.credential.CredentialVariable;
@@ -15,20 +20,25 @@ import org.eclipse.xpanse.modules.models.credential.CredentialVariables;
 import org.eclipse.xpanse.modules.models.credential.enums.CredentialType;
 import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.FlavorInvalidException;
-import org.eclipse.xpanse.modules.models.service.register.DeployVariable;
-import org.eclipse.xpanse.modules.models.service.register.Flavor;
-import org.eclipse.xpanse.modules.models.service.register.enums.DeployVariableKind;
 import org.eclipse.xpanse.modules.orchestrator.deployment.DeployTask;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
- * Environment variables utils for deployment.
+ * Environment variables utils for deployment. The variables of a registered service are
+ * classified once into a DeployVariablePlan, which is reused by the tasks of the service until the
+ * Ocl of the service is updated.
  */
 @Component
 public class DeployEnvironments {
 
+    private static final long MAX_PLANS = 1000;
+    // bounds the use of a plan of an Ocl which was updated on another node.
+    private static final Duration PLAN_EXPIRE_TIME = Duration.ofMinutes(10);
+
     private final CredentialCenter credentialCenter;
+    private final Cache<UUID, DeployVariablePlan> plans = Caffeine.newBuilder()
+            .maximumSize(MAX_PLANS).expireAfterWrite(PLAN_EXPIRE_TIME).build();
 
     @Autowired
     public DeployEnvironments(CredentialCenter credentialCenter) {
@@ -41,28 +51,7 @@ public class DeployEnvironments {
      * @param task the context of the task.
      */
     public Map<String, String> getEnv(DeployTask task) {
-        Map<String, String> variables = new HashMap<>();
-        Map<String, String> request = task.getCreateRequest().getServiceRequestProperties();
-        for (DeployVariable variable : task.getOcl().getDeployment().getVariables()) {
-            if (variable.getKind() == DeployVariableKind.ENV) {
-                if (request.containsKey(variable.getName())
-                        && request.get(variable.getName()) != null) {
-                    variables.put(variable.getName(), request.get(variable.getName()));
-                } else {
-                    variables.put(variable.getName(), System.getenv(variable.getName()));
-                }
-            }
-
-            if (variable.getKind() == DeployVariableKind.ENV_ENV) {
-                variables.put(variable.getName(), System.getenv(variable.getName()));
-            }
-
-            if (variable.getKind() == DeployVariableKind.FIX_ENV) {
-                variables.put(variable.getName(), variable.getValue());
-            }
-        }
-
-        return variables;
+        return getPlan(task).getEnv(task.getCreateRequest().getServiceRequestProperties());
     }
 
     /**
@@ -71,12 +60,12 @@ public class DeployEnvironments {
      * @param task the DeployTask.
      */
     public Map<String, String> getFlavorVariables(DeployTask task) {
-        for (Flavor flavor : task.getOcl().getFlavors()) {
-            if (flavor.getName().equals(task.getCreateRequest().getFlavor())) {
-                return flavor.getProperties();
-            }
+        Map<String, String> properties =
+                getPlan(task).getFlavorProperties(task.getCreateRequest().getFlavor());
+        if (Objects.isNull(properties)) {
+            throw new FlavorInvalidException("Can not get an available flavor.");
         }
-        throw new FlavorInvalidException("Can not get an available flavor.");
+        return properties;
     }
 
     /**
@@ -85,29 +74,26 @@ public class DeployEnvironments {
      * @param task the DeployTask.
      */
     public Map<String, String> getVariables(DeployTask task) {
-        Map<String, String> variables = new HashMap<>();
-        Map<String, String> request = task.getCreateRequest().getServiceRequestProperties();
-        for (DeployVariable variable : task.getOcl().getDeployment().getVariables()) {
-            if (variable.getKind() == DeployVariableKind.VARIABLE) {
-                if (request.containsKey(variable.getName())
-                        && request.get(variable.getName()) != null) {
-                    variables.put(variable.getName(), request.get(variable.getName()));
-                } else {
-                    variables.put(variable.getName(), System.getenv(variable.getName()));
-                }
-            }
+        return getPlan(task).getVariables(task.getCreateRequest().getServiceRequestProperties());
+    }
 
-            if (variable.getKind() == DeployVariableKind.ENV_VARIABLE) {
-                variables.put(variable.getName(), System.getenv(variable.getName()));
-            }
+    /**
+     * Removes the variable plan of the registered service, so that the updated Ocl is used by
+     * the next task.
+     *
+     * @param registeredServiceId id of the registered service.
+     */
+    public void invalidate(UUID registeredServiceId) {
+        this.plans.invalidate(registeredServiceId);
+    }
 
-            if (variable.getKind() == DeployVariableKind.FIX_VARIABLE
-                    && request.containsKey(variable.getName())) {
-                variables.put(variable.getName(), variable.getValue());
-            }
+    private DeployVariablePlan getPlan(DeployTask task) {
+        // the Ocl of a destroy task is the one of the deployment, which may not be current.
+        if (Objects.isNull(task.getRegisteredServiceId())) {
+            return new DeployVariablePlan(task.getOcl());
         }
-
-        return variables;
+        return this.plans.get(task.getRegisteredServiceId(),
+                id -> new DeployVariablePlan(task.getOcl()));
     }
 
     /**
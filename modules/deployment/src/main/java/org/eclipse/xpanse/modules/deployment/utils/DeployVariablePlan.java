@@ -0,0 +1,108 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.eclipse.xpanse.modules.models.service.register.DeployVariable;
+import org.eclipse.xpanse.modules.models.service.register.Flavor;
+import org.eclipse.xpanse.modules.models.service.register.Ocl;
+
+/**
+ * Variables of the deployment of a registered service, classified once from the Ocl. The values
+ * which do not depend on the request, fixed values and values of the environment of xpanse, are
+ * resolved when the plan is created.
+ */
+final class DeployVariablePlan {
+
+    private final List<Slot> envSlots = new ArrayList<>();
+    private final List<Slot> variableSlots = new ArrayList<>();
+    private final Map<String, Map<String, String>> flavors = new HashMap<>();
+
+    DeployVariablePlan(Ocl ocl) {
+        for (DeployVariable variable : ocl.getDeployment().getVariables()) {
+            String name = variable.getName();
+            switch (variable.getKind()) {
+                case ENV -> envSlots.add(new Slot(name, SlotKind.REQUEST, System.getenv(name)));
+                case ENV_ENV -> envSlots.add(new Slot(name, SlotKind.FIXED, System.getenv(name)));
+                case FIX_ENV -> envSlots.add(new Slot(name, SlotKind.FIXED, variable.getValue()));
+                case VARIABLE -> variableSlots.add(
+                        new Slot(name, SlotKind.REQUEST, System.getenv(name)));
+                case ENV_VARIABLE -> variableSlots.add(
+                        new Slot(name, SlotKind.FIXED, System.getenv(name)));
+                case FIX_VARIABLE -> variableSlots.add(
+                        new Slot(name, SlotKind.REQUESTED_FIXED, variable.getValue()));
+                default -> {
+                }
+            }
+        }
+        if (Objects.nonNull(ocl.getFlavors())) {
+            for (Flavor flavor : ocl.getFlavors()) {
+                flavors.putIfAbsent(flavor.getName(), flavor.getProperties());
+            }
+        }
+    }
+
+    Map<String, String> getEnv(Map<String, String> request) {
+        return resolve(envSlots, request);
+    }
+
+    Map<String, String> getVariables(Map<String, String> request) {
+        return resolve(variableSlots, request);
+    }
+
+    /**
+     * Get the properties of the flavor.
+     *
+     * @return the properties, null when the flavor does not exist.
+     */
+    Map<String, String> getFlavorProperties(String flavorName) {
+        return flavors.get(flavorName);
+    }
+
+    private static Map<String, String> resolve(List<Slot> slots, Map<String, String> request) {
+        Map<String, String> variables = new HashMap<>();
+        for (Slot slot : slots) {
+            String requestValue = Objects.isNull(request) ? null : request.get(slot.name());
+            switch (slot.kind()) {
+                case REQUEST -> variables.put(slot.name(),
+                        Objects.nonNull(requestValue) ? requestValue : slot.value());
+                case REQUESTED_FIXED -> {
+                    if (Objects.nonNull(request) && request.containsKey(slot.name())) {
+                        variables.put(slot.name(), slot.value());
+                    }
+                }
+                default -> variables.put(slot.name(), slot.value());
+            }
+        }
+        return variables;
+    }
+
+    /**
+     * How the value of a variable is resolved.
+     */
+    private enum SlotKind {
+        /**
+         * Value of the request, the fallback value when not in the request.
+         */
+        REQUEST,
+        /**
+         * Value of the Ocl or of the environment of xpanse.
+         */
+        FIXED,
+        /**
+         * Value of the Ocl, only when the variable is in the request.
+         */
+        REQUESTED_FIXED
+    }
+
+    private record Slot(String name, SlotKind kind, String value) {
+    }
+}
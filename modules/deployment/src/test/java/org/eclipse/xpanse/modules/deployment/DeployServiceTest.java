@@ -0,0 +1,292 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import org.eclipse.xpanse.modules.database.resource.DeployResourceEntity;
+import org.eclipse.xpanse.modules.database.resource.DeployResourceStorage;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceStorage;
+import org.eclipse.xpanse.modules.database.task.DeployTaskEntity;
+import org.eclipse.xpanse.modules.database.task.DeployTaskStorage;
+import org.eclipse.xpanse.modules.deployment.async.DeployTaskQueue;
+import org.eclipse.xpanse.modules.deployment.async.DeploymentScheduler;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.events.TerraformEvent;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.events.TerraformEventType;
+import org.eclipse.xpanse.modules.deployment.events.ServiceStateEventBroker;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.BatchInstanceRequest;
+import org.eclipse.xpanse.modules.models.service.deploy.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.deploy.DeployResult;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployTaskType;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeploymentCancelledException;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.ServiceNotDeployedException;
+import org.eclipse.xpanse.modules.models.service.register.Ocl;
+import org.eclipse.xpanse.modules.models.service.register.enums.DeployerKind;
+import org.eclipse.xpanse.modules.models.service.view.BatchDeployStatusVo;
+import org.eclipse.xpanse.modules.orchestrator.deployment.DeployTask;
+import org.eclipse.xpanse.modules.orchestrator.deployment.Deployment;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Test for the batch deployment of DeployService. The tasks are held back by a manual executor
+ * of the scheduler, so that the number of running instances can be checked.
+ */
+@ExtendWith(MockitoExtension.class)
+class DeployServiceTest {
+
+    private final Queue<Runnable> startedTasks = new ConcurrentLinkedQueue<>();
+
+    @Mock
+    private DeployServiceStorage deployServiceStorage;
+    @Mock
+    private DeployResourceStorage deployResourceStorage;
+    @Mock
+    private DeployTaskStorage deployTaskStorage;
+    @Mock
+    private DeployTaskQueue deployTaskQueue;
+    @Mock
+    private ServiceStateEventBroker serviceStateEventBroker;
+    @InjectMocks
+    private DeployService deployService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(deployService, "deploymentScheduler",
+                new DeploymentScheduler(startedTasks::add, 10, 200, true, ""));
+        ReflectionTestUtils.setField(deployService, "batchMaxParallel", 2);
+    }
+
+    @Test
+    void batchInstancesAreDeployedWithBoundedParallelism() {
+        Deployment deployment = mock(Deployment.class);
+        when(deployment.deploy(any())).thenReturn(new DeployResult());
+        List<DeployTask> deployTasks = deployService.getBatchDeployTasks(getTemplateTask(),
+                List.of(getInstance("a"), getInstance("b"), getInstance("c")), UUID.randomUUID());
+
+        deployService.asyncBatchDeployService(deployment, deployTasks, 5);
+
+        verify(deployTaskQueue, times(3)).add(any(), eq(DeployTaskType.DEPLOY), any());
+        Assertions.assertEquals(2, startedTasks.size());
+        startedTasks.poll().run();
+        Assertions.assertEquals(2, startedTasks.size());
+        while (!startedTasks.isEmpty()) {
+            startedTasks.poll().run();
+        }
+        verify(deployment, times(3)).deploy(any());
+        verify(serviceStateEventBroker, times(6)).notifyStateRecorded();
+        deployTasks.forEach(deployTask -> verify(deployTaskQueue).complete(deployTask.getId()));
+    }
+
+    @Test
+    void failedDeploymentOnlyRecordsStateTransition() {
+        Deployment deployment = mock(Deployment.class);
+        when(deployment.deploy(any())).thenThrow(new IllegalStateException("apply failed"));
+        when(deployServiceStorage.recordState(any())).thenReturn(true);
+        DeployTask deployTask = getTemplateTask();
+        deployTask.setId(UUID.randomUUID());
+
+        deployService.asyncDeployService(deployment, deployTask);
+        startedTasks.poll().run();
+
+        ArgumentCaptor<DeployServiceEntity> stored =
+                ArgumentCaptor.forClass(DeployServiceEntity.class);
+        verify(deployServiceStorage).storeAndRecordState(stored.capture());
+        verify(deployServiceStorage).recordState(stored.getValue());
+        Assertions.assertEquals(ServiceState.DEPLOY_FAILED, stored.getValue().getServiceState());
+        Assertions.assertEquals("apply failed", stored.getValue().getResultMessage());
+        verify(serviceStateEventBroker, times(2)).notifyStateRecorded();
+    }
+
+    @Test
+    void cancelledDestroyIsNotRecordedAsFailed() throws Exception {
+        Deployment deployment = mock(Deployment.class);
+        when(deployment.destroy(any(), any())).thenThrow(
+                new DeploymentCancelledException("Terraform destroy was cancelled."));
+        when(deployServiceStorage.recordState(any())).thenReturn(true);
+        DeployServiceEntity deployServiceEntity = getDeployService(ServiceState.DEPLOY_SUCCESS);
+        when(deployServiceStorage.findDeployServiceById(deployServiceEntity.getId()))
+                .thenReturn(deployServiceEntity);
+        DeployTask deployTask = getTemplateTask();
+        deployTask.setId(deployServiceEntity.getId());
+
+        deployService.asyncDestroyService(deployment, deployTask);
+        startedTasks.poll().run();
+
+        Assertions.assertEquals(ServiceState.DESTROY_CANCELLED,
+                deployServiceEntity.getServiceState());
+        verify(deployServiceStorage, times(2)).recordState(deployServiceEntity);
+        verify(serviceStateEventBroker, times(2)).notifyStateRecorded();
+    }
+
+    @Test
+    void instanceOverridesAreMergedWithTemplate() {
+        UUID batchId = UUID.randomUUID();
+        BatchInstanceRequest instance = getInstance("a");
+        instance.setFlavor("2vCPUs-4GB");
+
+        DeployTask deployTask = deployService.getBatchDeployTasks(getTemplateTask(),
+                List.of(instance), batchId).get(0);
+
+        CreateRequest createRequest = deployTask.getCreateRequest();
+        Assertions.assertEquals(deployTask.getId(), createRequest.getId());
+        Assertions.assertEquals(batchId, createRequest.getBatchId());
+        Assertions.assertEquals("a", createRequest.getCustomerServiceName());
+        Assertions.assertEquals("2vCPUs-4GB", createRequest.getFlavor());
+        Assertions.assertEquals(Map.of("admin_passwd", "secret", "name", "a"),
+                createRequest.getServiceRequestProperties());
+    }
+
+    @Test
+    void batchStatusCountsQueuedAndStartedInstances() {
+        UUID batchId = UUID.randomUUID();
+        DeployServiceEntity deploying = getDeployService(ServiceState.DEPLOYING);
+        DeployServiceEntity deployed = getDeployService(ServiceState.DEPLOY_SUCCESS);
+        when(deployServiceStorage.findDeployServicesByBatchId(batchId))
+                .thenReturn(List.of(deploying, deployed));
+        when(deployTaskStorage.findDeployTaskIdsByBatchId(batchId))
+                .thenReturn(List.of(deploying.getId(), UUID.randomUUID()));
+
+        BatchDeployStatusVo status = deployService.getBatchDeployStatus(batchId);
+
+        Assertions.assertEquals(3, status.getTotalInstances());
+        Assertions.assertEquals(1, status.getQueuedInstances());
+        Assertions.assertEquals(Map.of(ServiceState.DEPLOYING, 1, ServiceState.DEPLOY_SUCCESS, 1),
+                status.getServiceStates());
+        Assertions.assertFalse(status.isFinished());
+        Assertions.assertEquals(2, status.getServices().size());
+
+        Assertions.assertThrows(ServiceNotDeployedException.class,
+                () -> deployService.getBatchDeployStatus(UUID.randomUUID()));
+    }
+
+    @Test
+    void resourceProgressIsRecordedInOrderOnItsOwnExecutor() {
+        Queue<Runnable> recordTasks = new ConcurrentLinkedQueue<>();
+        ReflectionTestUtils.setField(deployService, "resourceProgressExecutor",
+                (Executor) recordTasks::add);
+        DeployServiceEntity deployServiceEntity = getDeployService(ServiceState.DEPLOYING);
+        when(deployServiceStorage.findDeployServiceById(deployServiceEntity.getId()))
+                .thenReturn(deployServiceEntity);
+
+        deployService.onTerraformEvent(
+                getResourceEvent(deployServiceEntity.getId(), TerraformEventType.APPLY_START));
+        deployService.onTerraformEvent(
+                getResourceEvent(deployServiceEntity.getId(), TerraformEventType.APPLY_COMPLETE));
+
+        verifyNoInteractions(deployResourceStorage);
+        Assertions.assertEquals(1, recordTasks.size());
+        recordTasks.poll().run();
+        ArgumentCaptor<DeployResourceEntity> stored =
+                ArgumentCaptor.forClass(DeployResourceEntity.class);
+        verify(deployResourceStorage, times(2)).store(stored.capture());
+        Assertions.assertEquals(List.of("creating", "created"), stored.getAllValues().stream()
+                .map(resource -> resource.getProperties().get("state")).toList());
+        Assertions.assertTrue(recordTasks.isEmpty());
+    }
+
+    @Test
+    void interruptedDeploymentIsNotStartedAgain() {
+        DeployServiceEntity deployServiceEntity = getDeployService(ServiceState.DEPLOYING);
+        when(deployServiceStorage.findDeployServiceById(deployServiceEntity.getId()))
+                .thenReturn(deployServiceEntity);
+        when(deployServiceStorage.recordState(deployServiceEntity)).thenReturn(true);
+        DeployTaskEntity task = new DeployTaskEntity();
+        task.setId(deployServiceEntity.getId());
+        task.setTaskType(DeployTaskType.DEPLOY);
+        task.setCreateRequest(getTemplateTask().getCreateRequest());
+
+        deployService.resume(task);
+
+        Assertions.assertEquals(ServiceState.DEPLOY_FAILED, deployServiceEntity.getServiceState());
+        verify(deployTaskQueue).complete(deployServiceEntity.getId());
+        Assertions.assertTrue(startedTasks.isEmpty());
+    }
+
+    @Test
+    void deployLogIsOnlyReadByOwner() {
+        DeployServiceEntity deployServiceEntity = getDeployService(ServiceState.DEPLOYING);
+        deployServiceEntity.setUserName("bob");
+        deployServiceEntity.setCreateRequest(getTemplateTask().getCreateRequest());
+        Ocl ocl = new Ocl();
+        ocl.setDeployment(new org.eclipse.xpanse.modules.models.service.register.Deployment());
+        ocl.getDeployment().setKind(DeployerKind.TERRAFORM);
+        deployServiceEntity.getCreateRequest().setOcl(ocl);
+        when(deployServiceStorage.findDeployServiceById(deployServiceEntity.getId()))
+                .thenReturn(deployServiceEntity);
+        Deployment deployment = mock(Deployment.class);
+        ReflectionTestUtils.setField(deployService, "deploymentMap",
+                new ConcurrentHashMap<>(Map.of(DeployerKind.TERRAFORM, deployment)));
+
+        Assertions.assertThrows(ServiceNotDeployedException.class,
+                () -> deployService.getDeployLog(deployServiceEntity.getId(), "alice", null, 10));
+        verifyNoInteractions(deployment);
+        deployService.getDeployLog(deployServiceEntity.getId(), "bob", null, 10);
+        verify(deployment).getDeployLog(deployServiceEntity.getId(), null, 10);
+    }
+
+    private TerraformEvent getResourceEvent(UUID taskId, TerraformEventType type) {
+        TerraformEvent event = new TerraformEvent();
+        event.setTaskId(taskId);
+        event.setType(type);
+        event.setResourceAddress("huaweicloud_vpc.vpc");
+        event.setResourceType("huaweicloud_vpc");
+        event.setAction("create");
+        return event;
+    }
+
+    private DeployTask getTemplateTask() {
+        CreateRequest template = new CreateRequest();
+        template.setUserName("bob");
+        template.setServiceName("kafka");
+        template.setCsp(Csp.HUAWEI);
+        template.setFlavor("1vCPUs-2GB");
+        template.setServiceRequestProperties(Map.of("admin_passwd", "secret", "name", "kafka"));
+        DeployTask templateTask = new DeployTask();
+        templateTask.setRegisteredServiceId(UUID.randomUUID());
+        templateTask.setOcl(new Ocl());
+        templateTask.setCreateRequest(template);
+        return templateTask;
+    }
+
+    private BatchInstanceRequest getInstance(String name) {
+        BatchInstanceRequest instance = new BatchInstanceRequest();
+        instance.setCustomerServiceName(name);
+        instance.setServiceRequestProperties(Map.of("name", name));
+        return instance;
+    }
+
+    private DeployServiceEntity getDeployService(ServiceState serviceState) {
+        DeployServiceEntity deployServiceEntity = new DeployServiceEntity();
+        deployServiceEntity.setId(UUID.randomUUID());
+        deployServiceEntity.setServiceState(serviceState);
+        return deployServiceEntity;
+    }
+}
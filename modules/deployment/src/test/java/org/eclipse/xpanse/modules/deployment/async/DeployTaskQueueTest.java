@@ -0,0 +1,192 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.async;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.task.DeployTaskEntity;
+import org.eclipse.xpanse.modules.database.task.DeployTaskStorage;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployTaskType;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeploymentQueueFullException;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.InvalidServiceStateException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+class DeployTaskQueueTest {
+
+    private static final String NODE_ID = "node-1";
+
+    private DeployTaskStorage deployTaskStorage;
+    private DeployTaskQueue.TaskHandler handler;
+    private DeployTaskQueue deployTaskQueue;
+
+    @BeforeEach
+    void setUp() {
+        deployTaskStorage = mock(DeployTaskStorage.class);
+        handler = mock(DeployTaskQueue.TaskHandler.class);
+        deployTaskQueue = new DeployTaskQueue(deployTaskStorage, NODE_ID, 60, 10, 3);
+    }
+
+    @Test
+    void expiredTaskIsTakenOver() {
+        DeployTaskEntity task = getTask(1);
+        when(deployTaskStorage.findClaimableTasks(eq(NODE_ID), any(), anyInt()))
+                .thenReturn(List.of(task));
+        when(deployTaskStorage.claim(eq(task.getId()), eq(NODE_ID), any(), any()))
+                .thenReturn(true);
+
+        deployTaskQueue.poll(handler);
+
+        verify(handler).resume(task);
+        Assertions.assertEquals(2, task.getAttempts());
+        Assertions.assertEquals(1, deployTaskQueue.getLeasedTasks());
+
+        // the lease of the resumed task is renewed by the next poll.
+        deployTaskQueue.poll(handler);
+        verify(deployTaskStorage).renewLeases(eq(List.of(task.getId())), eq(NODE_ID), any());
+
+        deployTaskQueue.complete(task.getId());
+        verify(deployTaskStorage).delete(task.getId(), NODE_ID);
+        Assertions.assertEquals(0, deployTaskQueue.getLeasedTasks());
+    }
+
+    @Test
+    void taskClaimedByOtherNodeIsSkipped() {
+        DeployTaskEntity task = getTask(1);
+        when(deployTaskStorage.findClaimableTasks(eq(NODE_ID), any(), anyInt()))
+                .thenReturn(List.of(task));
+
+        deployTaskQueue.poll(handler);
+
+        verify(handler, never()).resume(any());
+        Assertions.assertEquals(0, deployTaskQueue.getLeasedTasks());
+    }
+
+    @Test
+    void taskIsAbandonedAfterMaxAttempts() {
+        DeployTaskEntity task = getTask(3);
+        when(deployTaskStorage.findClaimableTasks(eq(NODE_ID), any(), anyInt()))
+                .thenReturn(List.of(task));
+        when(deployTaskStorage.claim(eq(task.getId()), eq(NODE_ID), any(), any()))
+                .thenReturn(true);
+
+        deployTaskQueue.poll(handler);
+
+        verify(handler, never()).resume(any());
+        verify(handler).abandon(task);
+        verify(deployTaskStorage).delete(task.getId(), NODE_ID);
+    }
+
+    @Test
+    void taskIsReleasedWhenLaneIsFull() {
+        DeployTaskEntity task = getTask(1);
+        when(deployTaskStorage.findClaimableTasks(eq(NODE_ID), any(), anyInt()))
+                .thenReturn(List.of(task));
+        when(deployTaskStorage.claim(eq(task.getId()), eq(NODE_ID), any(), any()))
+                .thenReturn(true);
+        doThrow(new DeploymentQueueFullException("full")).when(handler).resume(task);
+
+        deployTaskQueue.poll(handler);
+
+        verify(deployTaskStorage).release(task.getId(), NODE_ID);
+        verify(deployTaskStorage, never()).delete(any(), any());
+        Assertions.assertEquals(0, deployTaskQueue.getLeasedTasks());
+    }
+
+    @Test
+    void addedTaskIsLeasedByNode() {
+        CreateRequest createRequest = new CreateRequest();
+        createRequest.setCsp(Csp.HUAWEI);
+        createRequest.setUserName("bob");
+        UUID id = UUID.randomUUID();
+
+        deployTaskQueue.add(id, DeployTaskType.DEPLOY, createRequest);
+
+        verify(deployTaskStorage).insertAndFlush(any());
+        Assertions.assertEquals(1, deployTaskQueue.getLeasedTasks());
+        deployTaskQueue.poll(handler);
+        verify(deployTaskStorage).renewLeases(eq(List.of(id)), eq(NODE_ID), any());
+
+        Assertions.assertThrows(InvalidServiceStateException.class,
+                () -> deployTaskQueue.add(id, DeployTaskType.DESTROY, createRequest));
+        verify(deployTaskStorage).insertAndFlush(any());
+    }
+
+    @Test
+    void taskQueuedOnOtherNodeIsRejected() {
+        CreateRequest createRequest = new CreateRequest();
+        createRequest.setCsp(Csp.HUAWEI);
+        UUID id = UUID.randomUUID();
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(deployTaskStorage).insertAndFlush(any());
+
+        Assertions.assertThrows(InvalidServiceStateException.class,
+                () -> deployTaskQueue.add(id, DeployTaskType.DEPLOY, createRequest));
+        Assertions.assertEquals(0, deployTaskQueue.getLeasedTasks());
+    }
+
+    @Test
+    void releasedTaskIsLeftToPoll() {
+        CreateRequest createRequest = new CreateRequest();
+        createRequest.setCsp(Csp.HUAWEI);
+        createRequest.setBatchId(UUID.randomUUID());
+        UUID id = UUID.randomUUID();
+        deployTaskQueue.add(id, DeployTaskType.DEPLOY, createRequest);
+
+        deployTaskQueue.release(id);
+
+        verify(deployTaskStorage).insertAndFlush(argThat(
+                task -> createRequest.getBatchId().equals(task.getBatchId())));
+        verify(deployTaskStorage).release(id, NODE_ID);
+        Assertions.assertEquals(0, deployTaskQueue.getLeasedTasks());
+    }
+
+    @Test
+    void cancelRequestedOnOtherNodeIsPassedToHandler() {
+        CreateRequest createRequest = new CreateRequest();
+        createRequest.setCsp(Csp.HUAWEI);
+        UUID id = UUID.randomUUID();
+        deployTaskQueue.add(id, DeployTaskType.DEPLOY, createRequest);
+        when(deployTaskStorage.findCancelRequestedIds(List.of(id))).thenReturn(List.of(id));
+
+        deployTaskQueue.poll(handler);
+
+        verify(handler).cancel(id);
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new DeployTaskQueue(deployTaskStorage, NODE_ID, 10, 10, 3));
+        verify(deployTaskStorage, never()).renewLeases(anyList(), any(), any());
+    }
+
+    private DeployTaskEntity getTask(int attempts) {
+        DeployTaskEntity task = new DeployTaskEntity();
+        task.setId(UUID.randomUUID());
+        task.setTaskType(DeployTaskType.DEPLOY);
+        task.setCsp(Csp.HUAWEI);
+        task.setLeaseOwner("node-2");
+        task.setAttempts(attempts);
+        return task;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.async;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.DeploymentQueueFullException;
+import org.eclipse.xpanse.modules.models.service.view.DeploymentLaneStatsVo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for DeploymentScheduler. The tasks are held back by a manual executor, so that the order
+ * in which they are started can be checked.
+ */
+class DeploymentSchedulerTest {
+
+    private final Queue<Runnable> startedTasks = new ConcurrentLinkedQueue<>();
+    private final List<String> finishedTasks = new ArrayList<>();
+
+    @Test
+    void usersAreStartedInTurnsByWeight() {
+        DeploymentScheduler scheduler = getScheduler(1, 10, "alice:2");
+        // keeps the lane busy, so that the following tasks are queued.
+        scheduler.submit(Csp.HUAWEI, "admin", false, () -> finishedTasks.add("admin"));
+        for (int i = 0; i < 4; i++) {
+            scheduler.submit(Csp.HUAWEI, "bob", false, () -> finishedTasks.add("bob"));
+        }
+        for (int i = 0; i < 4; i++) {
+            scheduler.submit(Csp.HUAWEI, "alice", false, () -> finishedTasks.add("alice"));
+        }
+
+        runAll();
+
+        Assertions.assertEquals(List.of("admin", "alice", "bob", "alice", "alice", "bob",
+                "alice", "bob", "bob"), finishedTasks);
+    }
+
+    @Test
+    void destroyIsStartedBeforeDeploy() {
+        DeploymentScheduler scheduler = getScheduler(1, 10, "");
+        scheduler.submit(Csp.HUAWEI, "bob", false, () -> finishedTasks.add("deploy"));
+        scheduler.submit(Csp.HUAWEI, "bob", false, () -> finishedTasks.add("deploy"));
+        scheduler.submit(Csp.HUAWEI, "bob", true, () -> finishedTasks.add("destroy"));
+
+        runAll();
+
+        Assertions.assertEquals(List.of("deploy", "destroy", "deploy"), finishedTasks);
+    }
+
+    @Test
+    void fullLaneRejectsOnlyDeployOfSameCsp() {
+        DeploymentScheduler scheduler = getScheduler(1, 1, "");
+        scheduler.submit(Csp.HUAWEI, "bob", false, () -> { });
+        scheduler.submit(Csp.HUAWEI, "bob", false, () -> { });
+
+        Assertions.assertThrows(DeploymentQueueFullException.class,
+                () -> scheduler.submit(Csp.HUAWEI, "alice", false, () -> { }));
+        scheduler.submit(Csp.HUAWEI, "alice", true, () -> { });
+        scheduler.submit(Csp.AWS, "alice", false, () -> { });
+
+        DeploymentLaneStatsVo huawei = getStats(scheduler, Csp.HUAWEI);
+        Assertions.assertEquals(1, huawei.getRunningTasks());
+        Assertions.assertEquals(2, huawei.getQueuedTasks());
+        Assertions.assertEquals(1, getStats(scheduler, Csp.AWS).getRunningTasks());
+
+        runAll();
+
+        huawei = getStats(scheduler, Csp.HUAWEI);
+        Assertions.assertEquals(0, huawei.getRunningTasks());
+        Assertions.assertEquals(0, huawei.getQueuedTasks());
+        Assertions.assertEquals(0, huawei.getLongestQueuedWaitMillis());
+    }
+
+    @Test
+    void tasksNotStartedAreRequeued() {
+        List<Runnable> executedTasks = new ArrayList<>();
+        boolean[] isRejecting = {false};
+        DeploymentScheduler scheduler = new DeploymentScheduler(task -> {
+            if (isRejecting[0]) {
+                throw new IllegalStateException("executor is shut down");
+            }
+            executedTasks.add(task);
+        }, 2, 10, true, "");
+        scheduler.submit(Csp.HUAWEI, "bob", false, () -> finishedTasks.add("first"));
+        scheduler.submit(Csp.HUAWEI, "bob", false, () -> finishedTasks.add("second"));
+        scheduler.submit(Csp.HUAWEI, "bob", false, () -> finishedTasks.add("third"));
+        scheduler.submit(Csp.HUAWEI, "bob", false, () -> finishedTasks.add("fourth"));
+
+        isRejecting[0] = true;
+        // the third task can not be started when the first one is finished.
+        executedTasks.remove(0).run();
+        // the task of the caller waits in the lane, as the third task was rejected.
+        scheduler.submit(Csp.HUAWEI, "bob", false, () -> finishedTasks.add("fifth"));
+        DeploymentLaneStatsVo huawei = getStats(scheduler, Csp.HUAWEI);
+        Assertions.assertEquals(1, huawei.getRunningTasks());
+        Assertions.assertEquals(3, huawei.getQueuedTasks());
+
+        isRejecting[0] = false;
+        while (!executedTasks.isEmpty()) {
+            executedTasks.remove(0).run();
+        }
+        Assertions.assertEquals(List.of("first", "second", "third", "fourth", "fifth"),
+                finishedTasks);
+        Assertions.assertEquals(0, getStats(scheduler, Csp.HUAWEI).getRunningTasks());
+    }
+
+    @Test
+    void rejectedTaskOfCallerIsRemovedFromLane() {
+        DeploymentScheduler scheduler = new DeploymentScheduler(task -> {
+            throw new IllegalStateException("executor is shut down");
+        }, 2, 10, true, "");
+
+        Assertions.assertThrows(IllegalStateException.class, () -> scheduler.submit(Csp.HUAWEI,
+                "bob", false, () -> finishedTasks.add("rejected")));
+
+        DeploymentLaneStatsVo huawei = getStats(scheduler, Csp.HUAWEI);
+        Assertions.assertEquals(0, huawei.getRunningTasks());
+        Assertions.assertEquals(0, huawei.getQueuedTasks());
+    }
+
+    @Test
+    void fullExecutorIsReportedAsFullQueue() {
+        DeploymentScheduler scheduler = new DeploymentScheduler(task -> {
+            throw new RejectedExecutionException("pool is full");
+        }, 2, 10, true, "");
+
+        Assertions.assertThrows(DeploymentQueueFullException.class,
+                () -> scheduler.submit(Csp.HUAWEI, "bob", false, () -> { }));
+    }
+
+    @Test
+    void invalidUserWeightIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> getScheduler(1, 1, "alice:0"));
+    }
+
+    private DeploymentScheduler getScheduler(int maxRunning, int queueCapacity,
+                                             String userWeights) {
+        return new DeploymentScheduler(startedTasks::add, maxRunning, queueCapacity, true,
+                userWeights);
+    }
+
+    private void runAll() {
+        Runnable task;
+        while ((task = startedTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private DeploymentLaneStatsVo getStats(DeploymentScheduler scheduler, Csp csp) {
+        return scheduler.getStats().stream().filter(stats -> stats.getCsp() == csp)
+                .findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.async;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class TaskConfigurationTest {
+
+    @Test
+    void virtualModeNeverRunsTasksOnCallingThread() throws InterruptedException {
+        Executor executor = new TaskConfiguration(TaskConfiguration.VIRTUAL_MODE).taskExecutor();
+        int tasks = 500;
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(tasks);
+        List<Thread> threads = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+        MDC.put("TASK_ID", "task");
+        try {
+            for (int i = 0; i < tasks; i++) {
+                executor.execute(() -> {
+                    synchronized (threads) {
+                        threads.add(Thread.currentThread());
+                    }
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    Assertions.assertEquals("task", MDC.get("TASK_ID"));
+                    finished.countDown();
+                });
+            }
+        } finally {
+            MDC.remove("TASK_ID");
+        }
+        release.countDown();
+
+        Assertions.assertTrue(finished.await(30, TimeUnit.SECONDS));
+        Assertions.assertFalse(threads.contains(caller));
+        if (executor instanceof ThreadPoolTaskExecutor threadPool) {
+            threadPool.shutdown();
+        }
+    }
+
+    @Test
+    void poolModeRejectsTasksWhenFull() {
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor)
+                new TaskConfiguration(TaskConfiguration.POOL_MODE).taskExecutor();
+        try {
+            Assertions.assertInstanceOf(ThreadPoolExecutor.AbortPolicy.class,
+                    executor.getThreadPoolExecutor().getRejectedExecutionHandler());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void virtualThreadsOnlySupportedFromJava21() {
+        Assertions.assertEquals(Runtime.version().feature() >= 21,
+                TaskConfiguration.getVirtualThreadFactory() != null);
+    }
+
+    @Test
+    void unknownModeIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new TaskConfiguration("fork-join"));
+    }
+}
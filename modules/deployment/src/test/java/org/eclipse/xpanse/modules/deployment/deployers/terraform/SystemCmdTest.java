@@ -5,11 +5,24 @@
 
 package org.eclipse.xpanse.modules.deployment.deployers.terraform;
 
+import com.sun.management.OperatingSystemMXBean;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.SystemUtils;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.CommandOutputLog;
 import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.SystemCmd;
 import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.SystemCmdResult;
+import org.eclipse.xpanse.modules.models.service.view.DeployLogVo;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
 
 public class SystemCmdTest {
 
@@ -27,4 +40,117 @@ public class SystemCmdTest {
         Assertions.assertEquals("hello", systemCmdResult.getCommandStdOutput());
         Assertions.assertEquals("", systemCmdResult.getCommandStdError());
     }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void cpuStaysIdleWhileWaitingForLongRunningCommand() {
+        OperatingSystemMXBean osBean =
+                (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        SystemCmd systemCmd = new SystemCmd();
+        long cpuTimeBefore = osBean.getProcessCpuTime();
+        long wallTimeBefore = System.nanoTime();
+
+        SystemCmdResult systemCmdResult = systemCmd.execute("sleep 3");
+
+        long cpuTimeUsed = osBean.getProcessCpuTime() - cpuTimeBefore;
+        long wallTimeUsed = System.nanoTime() - wallTimeBefore;
+        Assertions.assertTrue(systemCmdResult.isCommandSuccessful());
+        Assertions.assertTrue(wallTimeUsed >= TimeUnit.SECONDS.toNanos(3));
+        // a busy waiting caller would burn a full core for the whole duration of the command.
+        Assertions.assertTrue(cpuTimeUsed < wallTimeUsed / 4,
+                String.format("CPU time %d ms used while waiting %d ms for the command.",
+                        TimeUnit.NANOSECONDS.toMillis(cpuTimeUsed),
+                        TimeUnit.NANOSECONDS.toMillis(wallTimeUsed)));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void systemCommandFailsWhenWaitTimeExceeded() {
+        SystemCmd systemCmd = new SystemCmd();
+        SystemCmdResult systemCmdResult = systemCmd.execute("sleep 30", 1);
+        Assertions.assertFalse(systemCmdResult.isCommandSuccessful());
+        Assertions.assertTrue(systemCmdResult.isCommandTimedOut());
+        Assertions.assertFalse(systemCmdResult.isCommandCancelled());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void cancelledCommandIsStopped() throws Exception {
+        SystemCmd systemCmd = new SystemCmd();
+        systemCmd.setGracePeriodSeconds(1);
+        long startTime = System.nanoTime();
+        CompletableFuture<SystemCmdResult> result =
+                CompletableFuture.supplyAsync(() -> systemCmd.execute("sleep 30"));
+        TimeUnit.MILLISECONDS.sleep(500);
+
+        systemCmd.cancel();
+
+        SystemCmdResult systemCmdResult = result.get(10, TimeUnit.SECONDS);
+        Assertions.assertFalse(systemCmdResult.isCommandSuccessful());
+        Assertions.assertTrue(systemCmdResult.isCommandCancelled());
+        Assertions.assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(10));
+        // a command executed after the cancellation is not started.
+        Assertions.assertTrue(systemCmd.execute("echo hello").isCommandCancelled());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void stdOutIsPassedToConsumerInsteadOfResult() {
+        List<String> lines = new ArrayList<>();
+        SystemCmd systemCmd = new SystemCmd();
+        systemCmd.setStdOutLineConsumer(lines::add);
+        SystemCmdResult systemCmdResult = systemCmd.execute("seq 3");
+        Assertions.assertTrue(systemCmdResult.isCommandSuccessful());
+        Assertions.assertEquals(List.of("1", "2", "3"), lines);
+        Assertions.assertEquals("", systemCmdResult.getCommandStdOutput());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void onlyEndOfOutputIsKeptAndFullOutputIsLogged() throws IOException {
+        Path logFile = Files.createTempFile("system-cmd", ".log");
+        try {
+            SystemCmd systemCmd = new SystemCmd();
+            systemCmd.setMaxOutputChars(20);
+            SystemCmdResult systemCmdResult;
+            try (CommandOutputLog outputLog = new CommandOutputLog(logFile)) {
+                systemCmd.setOutputLog(outputLog);
+                systemCmdResult = systemCmd.execute("seq 10000");
+            }
+
+            Assertions.assertTrue(systemCmdResult.isCommandSuccessful());
+            String output = systemCmdResult.getCommandStdOutput();
+            Assertions.assertTrue(output.startsWith("...["), output);
+            Assertions.assertTrue(output.endsWith("9998\n9999\n10000"), output);
+            String fullOutput = Files.readString(logFile);
+            Assertions.assertTrue(fullOutput.startsWith("1\n2\n3\n"));
+            Assertions.assertTrue(fullOutput.endsWith("9999\n10000\n"));
+
+            DeployLogVo tail = CommandOutputLog.read(logFile, null, 6);
+            Assertions.assertEquals("10000\n", tail.getContent());
+            Assertions.assertEquals(fullOutput.length(), tail.getNextOffset());
+            DeployLogVo range = CommandOutputLog.read(logFile, 2L, 4);
+            Assertions.assertEquals("2\n3\n", range.getContent());
+            Assertions.assertEquals(6, range.getNextOffset());
+            Assertions.assertEquals(fullOutput.length(), range.getSize());
+        } finally {
+            Files.deleteIfExists(logFile);
+        }
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void outputIsReadableBeforeLogIsClosed() throws IOException {
+        Path logFile = Files.createTempFile("system-cmd", ".log");
+        try (CommandOutputLog outputLog = new CommandOutputLog(logFile)) {
+            SystemCmd systemCmd = new SystemCmd();
+            systemCmd.setOutputLog(outputLog);
+            systemCmd.execute("echo started");
+
+            Assertions.assertEquals("started\n",
+                    CommandOutputLog.read(logFile, 0L, 100).getContent());
+        } finally {
+            Files.deleteIfExists(logFile);
+        }
+    }
 }
@@ -6,11 +6,14 @@
 
 package org.eclipse.xpanse.modules.deployment.deployers.terraform;
 
+import static org.instancio.Select.all;
 import static org.instancio.Select.field;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -21,6 +24,7 @@ import org.eclipse.xpanse.modules.models.service.deploy.DeployResult;
 import org.eclipse.xpanse.modules.models.service.deploy.exceptions.TerraformExecutorException;
 import org.eclipse.xpanse.modules.models.service.register.Ocl;
 import org.eclipse.xpanse.modules.models.service.utils.OclLoader;
+import org.eclipse.xpanse.modules.orchestrator.deployment.CancellationSignal;
 import org.eclipse.xpanse.modules.orchestrator.deployment.DeployTask;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.Assertions;
@@ -29,6 +33,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.env.StandardEnvironment;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -37,7 +42,10 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
  */
 
 @ExtendWith({SpringExtension.class})
-@ContextConfiguration(classes = {TerraformDeployment.class, DeployEnvironments.class})
+@ContextConfiguration(classes = {TerraformDeployment.class, DeployEnvironments.class,
+        TerraformProviderMirror.class, TerraformWorkspacePool.class,
+        TerraformValidationCache.class, TerraformWorkspaceJanitor.class,
+        TerraformTimeouts.class})
 public class TerraformDeploymentTest {
 
     @Autowired
@@ -70,7 +78,15 @@ public class TerraformDeploymentTest {
         xpanseDeployTask.setDeployResourceHandler(null);
         xpanseDeployTask.setCreateRequest(deployRequest);
         TerraformDeployment terraformDeployment =
-                new TerraformDeployment("test", false, "DEBUG", new DeployEnvironments(null));
+                new TerraformDeployment("terraform", "test", false, "DEBUG", 64,
+                        new DeployEnvironments(null),
+                        new TerraformProviderMirror("terraform", "test_mirror", true, false, 4096),
+                        new TerraformWorkspacePool("terraform", "test", false, 2, null),
+                        new TerraformValidationCache(1000, false, null),
+                        new TerraformTimeouts(new StandardEnvironment()),
+                        new TerraformWorkspaceJanitor("test", 0, 0, 0),
+                        event -> {
+                        });
 
         DeployResult deployResult = terraformDeployment.deploy(xpanseDeployTask);
 
@@ -84,10 +100,12 @@ public class TerraformDeploymentTest {
                 Instancio.of(CreateRequest.class).set(field(CreateRequest::getCsp),
                         Csp.OPENSTACK).create();
         DeployTask deployTask = Instancio.of(DeployTask.class)
-                .set(field(DeployTask::getCreateRequest), createRequest).create();
+                .set(field(DeployTask::getCreateRequest), createRequest)
+                .ignore(all(CancellationSignal.class)).create();
         when(this.deployEnvironments.getFlavorVariables(any(DeployTask.class))).thenReturn(
                 new HashMap<>());
         Assertions.assertThrows(TerraformExecutorException.class,
-                () -> this.terraformDeployment.destroy(deployTask, "test"));
+                () -> this.terraformDeployment.destroy(deployTask,
+                        new ByteArrayInputStream("test".getBytes(StandardCharsets.UTF_8))));
     }
 }
@@ -0,0 +1,179 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.events.TerraformEvent;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.events.TerraformEventType;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.SystemCmd;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.TerraformExecutorException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for TerraformExecutor with a stub terraform binary. Every command of the stub which
+ * refreshes the resources against the CSP sleeps for {@link #REFRESH_SECONDS}.
+ */
+@DisabledOnOs(OS.WINDOWS)
+class TerraformExecutorTest {
+
+    private static final int REFRESH_SECONDS = 1;
+    private static final String STUB_TERRAFORM = """
+            #!/bin/sh
+            echo "$*" >> calls.log
+            case "$1" in
+              plan)
+                sleep %1$d
+                for arg in "$@"; do
+                  case "$arg" in -out=*) echo "plan" > "${arg#-out=}";; esac
+                done
+                echo '{"@level":"info","@message":"Plan: 1 to add, 0 to change, 0 to destroy.",\
+            "type":"change_summary","changes":{"add":1,"change":0,"remove":0}}'
+                ;;
+              apply|destroy)
+                last=$(eval echo "\\$$#")
+                if [ ! -f "$last" ]; then sleep %1$d; fi
+                if [ -f fail ]; then
+                  echo '{"@level":"error","@message":"Error: quota exceeded","type":"diagnostic",\
+            "diagnostic":{"severity":"error","summary":"quota exceeded","detail":"no vpc left"}}'
+                  exit 1
+                fi
+                echo '{"@level":"info","@message":"huaweicloud_vpc.vpc: Creating...",\
+            "type":"apply_start","hook":{"resource":{"addr":"huaweicloud_vpc.vpc",\
+            "resource_type":"huaweicloud_vpc","resource_name":"vpc"},"action":"create"}}'
+                echo 'not a json line'
+                echo '{"@level":"info","@message":"huaweicloud_vpc.vpc: Creation complete",\
+            "type":"apply_complete","hook":{"resource":{"addr":"huaweicloud_vpc.vpc",\
+            "resource_type":"huaweicloud_vpc","resource_name":"vpc"},"action":"create",\
+            "id_key":"id","id_value":"vpc-1234","elapsed_seconds":2}}'
+                echo '{"version":4}' > terraform.tfstate
+                ;;
+            esac
+            """.formatted(REFRESH_SECONDS);
+
+    @TempDir
+    Path tempDirectory;
+
+    private final List<TerraformEvent> events = new ArrayList<>();
+    private Path workspace;
+    private String terraformExecutable;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path stub = tempDirectory.resolve("terraform");
+        Files.writeString(stub, STUB_TERRAFORM);
+        Files.setPosixFilePermissions(stub, PosixFilePermissions.fromString("rwxr-xr-x"));
+        this.terraformExecutable = stub.toString();
+        this.workspace = Files.createDirectory(tempDirectory.resolve("workspace"));
+    }
+
+    @Test
+    void deployAppliesSavedPlan() throws IOException {
+        TerraformExecutor executor = getExecutor();
+
+        executor.deploy(true);
+
+        List<String> calls = Files.readAllLines(workspace.resolve("calls.log"));
+        Assertions.assertEquals(2, calls.size());
+        Assertions.assertTrue(calls.get(0).startsWith("plan"));
+        Assertions.assertTrue(calls.get(0).contains("-out=" + TerraformExecutor.PLAN_FILE_NAME));
+        Assertions.assertTrue(calls.get(0).contains("-var=region=eu-west-1"));
+        Assertions.assertEquals("apply -auto-approve -input=false -no-color -json "
+                + TerraformExecutor.PLAN_FILE_NAME, calls.get(1));
+        Assertions.assertEquals("Plan: 1 to add, 0 to change, 0 to destroy.",
+                executor.getPlanSummary());
+        Assertions.assertNotNull(executor.getTerraformState());
+    }
+
+    @Test
+    void destroyAppliesSavedDestroyPlan() throws IOException {
+        TerraformExecutor executor = getExecutor();
+
+        executor.destroy();
+
+        List<String> calls = Files.readAllLines(workspace.resolve("calls.log"));
+        Assertions.assertTrue(calls.get(0).startsWith("init"));
+        Assertions.assertTrue(calls.get(1).startsWith("plan"));
+        Assertions.assertTrue(calls.get(1).contains("-destroy"));
+        Assertions.assertEquals("apply -auto-approve -input=false -no-color -json "
+                + TerraformExecutor.PLAN_FILE_NAME, calls.get(2));
+    }
+
+    @Test
+    void applyPublishesResourceProgress() {
+        getExecutor().deploy(true);
+
+        Assertions.assertEquals(3, events.size());
+        Assertions.assertEquals(TerraformEventType.CHANGE_SUMMARY, events.get(0).getType());
+        TerraformEvent started = events.get(1);
+        Assertions.assertEquals(TerraformEventType.APPLY_START, started.getType());
+        Assertions.assertEquals("huaweicloud_vpc.vpc", started.getResourceAddress());
+        Assertions.assertEquals("create", started.getAction());
+        TerraformEvent completed = events.get(2);
+        Assertions.assertEquals(TerraformEventType.APPLY_COMPLETE, completed.getType());
+        Assertions.assertEquals("huaweicloud_vpc", completed.getResourceType());
+        Assertions.assertEquals("vpc-1234", completed.getResourceId());
+        Assertions.assertEquals(2L, completed.getElapsedSeconds());
+    }
+
+    @Test
+    void applyFailsWithErrorDiagnostics() throws IOException {
+        Files.createFile(workspace.resolve("fail"));
+        TerraformExecutor executor = getExecutor();
+
+        TerraformExecutorException exception =
+                Assertions.assertThrows(TerraformExecutorException.class,
+                        () -> executor.deploy(true));
+
+        Assertions.assertTrue(exception.getMessage().contains("quota exceeded: no vpc left"));
+        Assertions.assertEquals("error", events.get(1).getSeverity());
+    }
+
+    @Test
+    void savedPlanRefreshesOnlyOnce() {
+        // the previous pipeline, plan followed by apply which plans and refreshes again.
+        SystemCmd systemCmd = new SystemCmd();
+        systemCmd.setWorkDir(workspace.toString());
+        long start = System.nanoTime();
+        Assertions.assertTrue(systemCmd.execute(terraformExecutable
+                + " plan -input=false -no-color -var=region=eu-west-1").isCommandSuccessful());
+        Assertions.assertTrue(systemCmd.execute(terraformExecutable
+                + " apply -auto-approve -input=false -no-color -var=region=eu-west-1")
+                .isCommandSuccessful());
+        long planAndApplyNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        getExecutor().deploy(true);
+        long savedPlanNanos = System.nanoTime() - start;
+
+        long refreshNanos = TimeUnit.SECONDS.toNanos(REFRESH_SECONDS);
+        Assertions.assertTrue(planAndApplyNanos >= 2 * refreshNanos);
+        Assertions.assertTrue(savedPlanNanos >= refreshNanos);
+        Assertions.assertTrue(savedPlanNanos < planAndApplyNanos - refreshNanos / 2,
+                String.format("Saved plan took %d ms, plan and apply took %d ms.",
+                        TimeUnit.NANOSECONDS.toMillis(savedPlanNanos),
+                        TimeUnit.NANOSECONDS.toMillis(planAndApplyNanos)));
+    }
+
+    private TerraformExecutor getExecutor() {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("region", "eu-west-1");
+        return new TerraformExecutor(terraformExecutable, new HashMap<>(), variables,
+                workspace.toString(), null, events::add);
+    }
+}
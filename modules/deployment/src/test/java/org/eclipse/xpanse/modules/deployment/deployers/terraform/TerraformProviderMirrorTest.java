@@ -0,0 +1,52 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TerraformProviderMirrorTest {
+
+    @TempDir
+    Path mirrorDirectory;
+
+    @Test
+    void noEnvironmentWhenMirrorDisabled() {
+        TerraformProviderMirror mirror =
+                new TerraformProviderMirror("terraform", mirrorDirectory.toString(), false, false,
+                        4096);
+
+        Assertions.assertTrue(mirror.getEnv(Csp.HUAWEI).isEmpty());
+        Assertions.assertFalse(Files.exists(mirrorDirectory.resolve("terraform.rc")));
+    }
+
+    @Test
+    void preloadedProvidersAreUsedWithoutMirroring() throws IOException {
+        Path providerDirectory = mirrorDirectory.resolve(
+                "providers/registry.terraform.io/huaweicloud/huaweicloud");
+        Files.createDirectories(providerDirectory);
+        Files.writeString(providerDirectory.resolve("1.44.0.json"), "{}");
+        TerraformProviderMirror mirror =
+                new TerraformProviderMirror("terraform", mirrorDirectory.toString(), true, false,
+                        4096);
+
+        Map<String, String> env = mirror.getEnv(Csp.HUAWEI);
+
+        Path cliConfigFile = mirrorDirectory.resolve("terraform.rc");
+        Assertions.assertEquals(cliConfigFile.toString(),
+                env.get(TerraformProviderMirror.TF_CLI_CONFIG_FILE));
+        String cliConfig = Files.readString(cliConfigFile);
+        Assertions.assertTrue(cliConfig.contains("filesystem_mirror"));
+        Assertions.assertTrue(
+                cliConfig.contains("\"registry.terraform.io/huaweicloud/huaweicloud\""));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import java.util.List;
+import java.util.Map;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.resource.TfResourceTable;
+import org.eclipse.xpanse.modules.models.service.deploy.DeployResource;
+import org.eclipse.xpanse.modules.models.service.deploy.DeployResult;
+import org.eclipse.xpanse.modules.models.service.deploy.Vm;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployResourceKind;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.TerraformExecutorException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TerraformResourceHandlerTest {
+
+    private final TerraformResourceHandler handler = new TerraformResourceHandler(
+            new TfResourceTable()
+                    .register("test_instance", DeployResourceKind.VM,
+                            Map.of("ip", "access_ip_v4", "region", "region"))
+                    .register("test_volume", DeployResourceKind.VOLUME, Map.of())) {
+    };
+
+    @Test
+    void onlyRegisteredResourceTypesAreRead() {
+        String state = """
+                {
+                  "version": 4,
+                  "outputs": {
+                    "address": {"value": "192.168.0.1", "type": "string"},
+                    "ports": {"value": [80, 443], "type": ["list", "number"]}
+                  },
+                  "resources": [
+                    {"mode": "managed", "type": "test_network", "name": "net",
+                     "instances": [{"attributes": {"id": "n1", "tags": {"a": "b"}}}]},
+                    {"instances": [{"schema_version": 0,
+                       "attributes": {"id": "v1", "name": "data", "size": 10}}],
+                     "type": "test_volume", "name": "volume"},
+                    {"mode": "managed", "type": "test_instance", "name": "vm",
+                     "instances": [
+                       {"attributes": {"id": "i1", "name": "vm-1", "access_ip_v4": "10.0.0.1",
+                         "region": "eu", "network": [{"uuid": "n1"}], "image_name": null}},
+                       {"attributes": {"id": "i2", "name": "vm-2", "access_ip_v4": "10.0.0.2",
+                         "region": "eu"}}]}
+                  ]
+                }""";
+        DeployResult deployResult = new DeployResult();
+        deployResult.getPrivateProperties().put("stateFile", state);
+
+        handler.handler(deployResult);
+
+        Assertions.assertEquals("192.168.0.1", deployResult.getProperties().get("address"));
+        Assertions.assertEquals("[80,443]", deployResult.getProperties().get("ports"));
+        List<DeployResource> resources = deployResult.getResources();
+        Assertions.assertEquals(3, resources.size());
+        Assertions.assertEquals(DeployResourceKind.VOLUME, resources.get(0).getKind());
+        Assertions.assertEquals("v1", resources.get(0).getResourceId());
+        Assertions.assertEquals("data", resources.get(0).getName());
+        Vm vm = (Vm) resources.get(2);
+        Assertions.assertEquals("i2", vm.getResourceId());
+        Assertions.assertEquals("10.0.0.2", vm.getIp());
+        Assertions.assertEquals(Map.of("ip", "10.0.0.2", "region", "eu"), vm.getProperties());
+    }
+
+    @Test
+    void largeStateIsRead() {
+        StringBuilder state = new StringBuilder("{\"resources\": [");
+        for (int i = 0; i < 5000; i++) {
+            state.append(i == 0 ? "" : ",").append(String.format(
+                    "{\"type\": \"%s\", \"instances\": [{\"attributes\": {\"id\": \"%d\","
+                            + " \"rules\": [{\"port\": %d, \"cidr\": \"0.0.0.0/0\"}]}}]}",
+                    i % 10 == 0 ? "test_instance" : "test_rule", i, i));
+        }
+        state.append("]}");
+        DeployResult deployResult = new DeployResult();
+        deployResult.getPrivateProperties().put("stateFile", state.toString());
+
+        handler.handler(deployResult);
+
+        Assertions.assertEquals(500, deployResult.getResources().size());
+        Assertions.assertEquals("4990",
+                deployResult.getResources().get(499).getResourceId());
+    }
+
+    @Test
+    void invalidStateIsRejected() {
+        DeployResult deployResult = new DeployResult();
+        deployResult.getPrivateProperties().put("stateFile", "{\"resources\": [");
+
+        Assertions.assertThrows(TerraformExecutorException.class,
+                () -> handler.handler(deployResult));
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import java.time.Duration;
+import java.util.Map;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.register.DeploymentTimeouts;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+class TerraformTimeoutsTest {
+
+    @Test
+    void timeoutsOfOclOverrideTimeoutsOfCsp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("terraform.timeout.apply-minutes", "60")
+                .withProperty("terraform.timeout.huawei.apply-minutes", "90")
+                .withProperty("terraform.timeout.huawei.destroy-minutes", "0");
+        TerraformTimeouts timeouts = new TerraformTimeouts(environment);
+
+        Map<TerraformPhase, Duration> awsTimeouts = timeouts.getTimeouts(Csp.AWS, null);
+        Assertions.assertEquals(Duration.ofMinutes(10), awsTimeouts.get(TerraformPhase.INIT));
+        Assertions.assertEquals(Duration.ofMinutes(60), awsTimeouts.get(TerraformPhase.APPLY));
+        Assertions.assertEquals(Duration.ofMinutes(120),
+                awsTimeouts.get(TerraformPhase.DESTROY));
+
+        DeploymentTimeouts oclTimeouts = new DeploymentTimeouts();
+        oclTimeouts.setPlanMinutes(5);
+        Map<TerraformPhase, Duration> huaweiTimeouts =
+                timeouts.getTimeouts(Csp.HUAWEI, oclTimeouts);
+        Assertions.assertEquals(Duration.ofMinutes(5), huaweiTimeouts.get(TerraformPhase.PLAN));
+        Assertions.assertEquals(Duration.ofMinutes(90),
+                huaweiTimeouts.get(TerraformPhase.APPLY));
+        Assertions.assertEquals(Duration.ZERO, huaweiTimeouts.get(TerraformPhase.DESTROY));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.eclipse.xpanse.modules.database.validation.DeployValidationEntity;
+import org.eclipse.xpanse.modules.database.validation.DeployValidationStorage;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.TerraformExecutorException;
+import org.eclipse.xpanse.modules.orchestrator.deployment.DeployValidateDiagnostics;
+import org.eclipse.xpanse.modules.orchestrator.deployment.DeployValidationResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class TerraformValidationCacheTest {
+
+    private static final String PROVIDER = "provider \"huaweicloud\" {}";
+    private static final String SCRIPT = "resource \"huaweicloud_vpc\" \"vpc\" {}";
+
+    private final AtomicInteger validations = new AtomicInteger();
+
+    @Test
+    void unchangedScriptIsValidatedOnce() {
+        TerraformValidationCache cache = new TerraformValidationCache(10, false, null);
+
+        DeployValidationResult first = cache.get(Csp.HUAWEI, PROVIDER, SCRIPT, validator(true));
+        DeployValidationResult second = cache.get(Csp.HUAWEI, PROVIDER, SCRIPT, validator(true));
+        cache.get(Csp.HUAWEI, PROVIDER, SCRIPT + " ", validator(true));
+        cache.get(Csp.OPENSTACK, PROVIDER, SCRIPT, validator(true));
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(3, validations.get());
+        Assertions.assertEquals(3, cache.size());
+    }
+
+    @Test
+    void failedValidationIsNotCached() {
+        TerraformValidationCache cache = new TerraformValidationCache(10, false, null);
+
+        Assertions.assertThrows(TerraformExecutorException.class,
+                () -> cache.get(Csp.HUAWEI, PROVIDER, SCRIPT, () -> {
+                    throw new TerraformExecutorException("TFExecutor.tfInit failed.");
+                }));
+        cache.get(Csp.HUAWEI, PROVIDER, SCRIPT, validator(false));
+
+        Assertions.assertEquals(1, validations.get());
+    }
+
+    @Test
+    void persistedResultIsUsedAfterRestart() {
+        DeployValidationStorage storage = mock(DeployValidationStorage.class);
+        new TerraformValidationCache(10, true, storage)
+                .get(Csp.HUAWEI, PROVIDER, SCRIPT, validator(false));
+        ArgumentCaptor<DeployValidationEntity> stored =
+                ArgumentCaptor.forClass(DeployValidationEntity.class);
+        verify(storage).store(stored.capture());
+        when(storage.findDeployValidationByHash(any())).thenReturn(stored.getValue());
+
+        DeployValidationResult result = new TerraformValidationCache(10, true, storage)
+                .get(Csp.HUAWEI, PROVIDER, SCRIPT, validator(true));
+
+        Assertions.assertEquals(1, validations.get());
+        Assertions.assertFalse(result.isValid());
+        Assertions.assertEquals("Unsupported argument",
+                result.getDiagnostics().get(0).getDetail());
+    }
+
+    private Supplier<DeployValidationResult> validator(boolean isValid) {
+        return () -> {
+            validations.incrementAndGet();
+            DeployValidationResult result = new DeployValidationResult();
+            result.setValid(isValid);
+            if (!isValid) {
+                DeployValidateDiagnostics diagnostics = new DeployValidateDiagnostics();
+                diagnostics.setDetail("Unsupported argument");
+                result.setDiagnostics(List.of(diagnostics));
+            }
+            return result;
+        };
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.modules.models.service.view.WorkspaceJanitorStatsVo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+class TerraformWorkspaceJanitorTest {
+
+    private static final int MB = 1024 * 1024;
+
+    private final String workspaceDirectory = "test_janitor_" + UUID.randomUUID();
+    private final Path workspaceRoot =
+            Paths.get(System.getProperty("java.io.tmpdir"), workspaceDirectory);
+    private TerraformWorkspaceJanitor janitor;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        janitor.stop();
+        FileSystemUtils.deleteRecursively(workspaceRoot);
+    }
+
+    @Test
+    void onlyUnusedWorkspacesAreRemovedAfterRetention() throws Exception {
+        janitor = new TerraformWorkspaceJanitor(workspaceDirectory, 24, 0, 0);
+        Instant now = Instant.now();
+        Path expired = createWorkspace("expired", now.minus(Duration.ofHours(25)), 0);
+        Path recent = createWorkspace("recent", now.minus(Duration.ofHours(1)), 0);
+        Path active = createWorkspace("active", now.minus(Duration.ofHours(25)), 0);
+        Path locked = createWorkspace("locked", now.minus(Duration.ofHours(25)), 0);
+        Files.createFile(locked.resolve(".terraform.tfstate.lock.info"));
+        Files.setLastModifiedTime(locked, FileTime.from(now.minus(Duration.ofHours(25))));
+        janitor.scanWorkspaceRoot();
+        janitor.acquire(active.toString());
+
+        Assertions.assertEquals(1, janitor.removeExpiredWorkspaces(now));
+        Assertions.assertFalse(Files.exists(expired));
+        Assertions.assertTrue(Files.exists(recent));
+        Assertions.assertTrue(Files.exists(active));
+        Assertions.assertTrue(Files.exists(locked));
+
+        // the retention time starts again when the workspace is released.
+        janitor.release(active.toString());
+        Assertions.assertEquals(0, janitor.removeExpiredWorkspaces(now));
+        Assertions.assertEquals(2,
+                janitor.removeExpiredWorkspaces(now.plus(Duration.ofHours(25))));
+        Assertions.assertFalse(Files.exists(recent));
+        Assertions.assertFalse(Files.exists(active));
+        Assertions.assertTrue(Files.exists(locked));
+    }
+
+    @Test
+    void workspacesAreKeptWithoutRetention() throws Exception {
+        janitor = new TerraformWorkspaceJanitor(workspaceDirectory, 0, 30, 0);
+        Path workspace = createWorkspace("old", Instant.now().minus(Duration.ofDays(30)), 0);
+        janitor.scanWorkspaceRoot();
+
+        Assertions.assertEquals(0, janitor.removeExpiredWorkspaces(Instant.now()));
+        Assertions.assertTrue(Files.exists(workspace));
+    }
+
+    @Test
+    void leastRecentlyUsedWorkspacesAreRemovedOverQuota() throws Exception {
+        janitor = new TerraformWorkspaceJanitor(workspaceDirectory, 0, 0, 3);
+        Instant now = Instant.now();
+        Path oldest = createWorkspace("oldest", now.minus(Duration.ofHours(3)), MB);
+        Path active = createWorkspace("active", now.minus(Duration.ofHours(4)), MB);
+        Path older = createWorkspace("older", now.minus(Duration.ofHours(2)), MB);
+        Path newest = createWorkspace("newest", now.minus(Duration.ofHours(1)), MB);
+        janitor.scanWorkspaceRoot();
+        janitor.acquire(active.toString());
+
+        Assertions.assertEquals(2, janitor.enforceQuota());
+        Assertions.assertFalse(Files.exists(oldest));
+        Assertions.assertFalse(Files.exists(older));
+        Assertions.assertTrue(Files.exists(active));
+        Assertions.assertTrue(Files.exists(newest));
+
+        WorkspaceJanitorStatsVo stats = janitor.getStats();
+        Assertions.assertEquals(2, stats.getWorkspaces());
+        Assertions.assertEquals(1, stats.getActiveWorkspaces());
+        Assertions.assertEquals(3L * MB, stats.getQuotaBytes());
+        Assertions.assertTrue(stats.getFootprintBytes() <= stats.getQuotaBytes());
+        Assertions.assertEquals(2, stats.getRemovedWorkspaces());
+        Assertions.assertTrue(stats.getReclaimedBytes() >= 2L * MB);
+    }
+
+    @Test
+    void workspaceIsDeletedInBackground() throws Exception {
+        janitor = new TerraformWorkspaceJanitor(workspaceDirectory, 0, 0, 0);
+        Path workspace = createWorkspace("destroyed", Instant.now(), MB);
+        Path active = createWorkspace("active", Instant.now(), MB);
+        janitor.track(workspace.toString());
+        janitor.acquire(active.toString());
+
+        janitor.delete(workspace.toString()).get(10, TimeUnit.SECONDS);
+        janitor.delete(active.toString()).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertFalse(Files.exists(workspace));
+        Assertions.assertTrue(Files.exists(active));
+        Assertions.assertEquals(1, janitor.getStats().getRemovedWorkspaces());
+        Assertions.assertTrue(janitor.getStats().getReclaimedBytes() >= MB);
+    }
+
+    @Test
+    void workspaceAcquiredWhileDeletedIsKept() throws Exception {
+        janitor = new TerraformWorkspaceJanitor(workspaceDirectory, 0, 0, 0);
+        Path workspace = createWorkspace("redeployed", Instant.now(), MB);
+        for (int i = 0; i < 500; i++) {
+            Files.writeString(workspace.resolve("module_" + i + ".tf"), "");
+        }
+        janitor.track(workspace.toString());
+
+        Future<?> deleted = janitor.delete(workspace.toString());
+        // the deployment waits for the removal or the removal is skipped.
+        janitor.acquire(workspace.toString());
+        Path scriptFile = Files.createDirectories(workspace).resolve("deployer.tf");
+        Files.writeString(scriptFile, "");
+        deleted.get(10, TimeUnit.SECONDS);
+
+        Assertions.assertTrue(Files.exists(scriptFile));
+        Assertions.assertEquals(1, janitor.getStats().getActiveWorkspaces());
+    }
+
+    private Path createWorkspace(String name, Instant lastUsedTime, int sizeBytes)
+            throws Exception {
+        Path workspace = Files.createDirectories(workspaceRoot.resolve(name));
+        Path providers = Files.createDirectories(workspace.resolve(".terraform")
+                .resolve("providers"));
+        Files.write(providers.resolve("provider"), new byte[sizeBytes]);
+        Path stateFile = Files.writeString(workspace.resolve("terraform.tfstate"), "{}");
+        Files.setLastModifiedTime(stateFile, FileTime.from(lastUsedTime));
+        Files.setLastModifiedTime(workspace, FileTime.from(lastUsedTime));
+        return workspace;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.deployment.deployers.terraform;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.view.WorkspacePoolStatsVo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TerraformWorkspacePoolTest {
+
+    private static final String SCRIPT = "resource \"huaweicloud_vpc\" \"vpc\" {}";
+
+    @TempDir
+    Path workspaceDirectory;
+
+    @Test
+    void noCheckoutWhenPoolDisabled() {
+        TerraformWorkspacePool pool = new TerraformWorkspacePool("terraform", "test_ws", false, 2,
+                new TerraformProviderMirror("terraform", "test_mirror", false, false, 4096));
+        Path workspace = workspaceDirectory.resolve(UUID.randomUUID().toString());
+
+        Assertions.assertFalse(pool.checkout(UUID.randomUUID(), Csp.HUAWEI, "cn-southwest-2",
+                SCRIPT, workspace.toString()));
+
+        WorkspacePoolStatsVo stats = pool.getStats();
+        Assertions.assertEquals(0, stats.getHits());
+        Assertions.assertEquals(0, stats.getMisses());
+        Assertions.assertFalse(Files.exists(workspace));
+    }
+
+    @Test
+    void firstCheckoutIsCountedAsMiss() {
+        TerraformWorkspacePool pool = new TerraformWorkspacePool("terraform", "test_ws", true, 2,
+                new TerraformProviderMirror("terraform", "test_mirror", false, false, 4096));
+        UUID registeredServiceId = UUID.randomUUID();
+        Path workspace = workspaceDirectory.resolve(UUID.randomUUID().toString());
+
+        Assertions.assertFalse(pool.checkout(registeredServiceId, Csp.HUAWEI, "cn-southwest-2",
+                SCRIPT, workspace.toString()));
+        Assertions.assertFalse(pool.checkout(null, Csp.HUAWEI, "cn-southwest-2",
+                SCRIPT, workspace.toString()));
+        pool.invalidate(registeredServiceId);
+
+        WorkspacePoolStatsVo stats = pool.getStats();
+        Assertions.assertEquals(0, stats.getHits());
+        Assertions.assertEquals(1, stats.getMisses());
+        Assertions.assertEquals(0, stats.getReadyWorkspaces());
+        Assertions.assertFalse(Files.exists(workspace));
+    }
+}
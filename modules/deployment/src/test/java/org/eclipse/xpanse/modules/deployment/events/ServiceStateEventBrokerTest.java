@@ -0,0 +1,251 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.events;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEventEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceStorage;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
+import org.eclipse.xpanse.modules.models.service.view.ServiceStateEventVo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of ServiceStateEventBroker. The recorded transitions are kept in a list of the mocked
+ * storage.
+ */
+class ServiceStateEventBrokerTest {
+
+    private final List<DeployServiceEventEntity> recordedEvents = new CopyOnWriteArrayList<>();
+    private final DeployServiceStorage deployServiceStorage = mock(DeployServiceStorage.class);
+    private ServiceStateEventBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        // transitions recorded before the start are not pushed.
+        record(UUID.randomUUID(), "bob", ServiceState.DEPLOYING, null);
+        when(deployServiceStorage.findLastStateEventId()).thenAnswer(invocation ->
+                recordedEvents.stream().map(DeployServiceEventEntity::getId)
+                        .max(Long::compare).orElse(null));
+        when(deployServiceStorage.findStateEventsAfter(anyLong(), anyInt())).thenAnswer(
+                invocation -> recordedEvents.stream()
+                        .filter(event -> event.getId() > invocation.getArgument(0, Long.class))
+                        .sorted((first, second) -> Long.compare(first.getId(), second.getId()))
+                        .limit(invocation.getArgument(1, Integer.class)).toList());
+        when(deployServiceStorage.findStateEventsByServiceId(any())).thenAnswer(
+                invocation -> recordedEvents.stream()
+                        .filter(event -> event.getServiceId().equals(invocation.getArgument(0)))
+                        .toList());
+        broker = new ServiceStateEventBroker(deployServiceStorage, 60000, 0, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.shutdown();
+    }
+
+    @Test
+    void eventsAreFilteredBySubscription() throws InterruptedException {
+        UUID serviceId = UUID.randomUUID();
+        BlockingQueue<ServiceStateEventVo> serviceEvents = new LinkedBlockingQueue<>();
+        BlockingQueue<ServiceStateEventVo> userEvents = new LinkedBlockingQueue<>();
+        broker.subscribe(serviceId, null, null, serviceEvents::add);
+        broker.subscribe(null, "bob", null, userEvents::add);
+
+        publish(serviceId, "alice", ServiceState.DEPLOYING, null);
+        publish(UUID.randomUUID(), "bob", ServiceState.DEPLOYING, null);
+        long failedId = publish(serviceId, "alice", ServiceState.DEPLOY_FAILED, "failed");
+
+        Assertions.assertEquals(ServiceState.DEPLOYING, poll(serviceEvents).getServiceState());
+        ServiceStateEventVo failed = poll(serviceEvents);
+        Assertions.assertEquals(ServiceState.DEPLOY_FAILED, failed.getServiceState());
+        Assertions.assertEquals("failed", failed.getResultMessage());
+        Assertions.assertEquals(failedId, failed.getEventId());
+        Assertions.assertEquals("bob", poll(userEvents).getUserName());
+        Assertions.assertTrue(userEvents.isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> broker.subscribe(null, " ", null, event -> {
+                }));
+    }
+
+    @Test
+    void missedEventsAreSentFirst() throws InterruptedException {
+        UUID serviceId = UUID.randomUUID();
+        BlockingQueue<ServiceStateEventVo> received = new LinkedBlockingQueue<>();
+        ServiceStateEventBroker.Subscription subscription =
+                broker.subscribe(null, "bob", null, received::add);
+        publish(serviceId, "bob", ServiceState.DEPLOYING, null);
+        long lastEventId = poll(received).getEventId();
+        subscription.close();
+
+        publish(serviceId, "bob", ServiceState.DEPLOY_SUCCESS, null);
+        publish(UUID.randomUUID(), "alice", ServiceState.DEPLOYING, null);
+        publish(serviceId, "bob", ServiceState.DESTROYING, null);
+        BlockingQueue<ServiceStateEventVo> serviceEvents = new LinkedBlockingQueue<>();
+        broker.subscribe(null, "bob", lastEventId, received::add);
+        broker.subscribe(serviceId, null, lastEventId, serviceEvents::add);
+        publish(serviceId, "bob", ServiceState.DESTROY_SUCCESS, null);
+
+        for (BlockingQueue<ServiceStateEventVo> events : List.of(received, serviceEvents)) {
+            List<ServiceState> states = List.of(poll(events).getServiceState(),
+                    poll(events).getServiceState(), poll(events).getServiceState());
+            Assertions.assertEquals(List.of(ServiceState.DEPLOY_SUCCESS, ServiceState.DESTROYING,
+                    ServiceState.DESTROY_SUCCESS), states);
+            Assertions.assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void eventsRecordedByOtherNodesAreSent() throws InterruptedException {
+        broker.shutdown();
+        broker = new ServiceStateEventBroker(deployServiceStorage, 10, 0, 3);
+        UUID serviceId = UUID.randomUUID();
+        BlockingQueue<ServiceStateEventVo> received = new LinkedBlockingQueue<>();
+        broker.subscribe(serviceId, null, null, received::add);
+
+        // the transition is recorded without notifying the broker of this node.
+        record(serviceId, "bob", ServiceState.DEPLOYING, null);
+
+        Assertions.assertEquals(ServiceState.DEPLOYING, poll(received).getServiceState());
+    }
+
+    @Test
+    void eventCommittedLaterIsNotSkipped() throws InterruptedException {
+        UUID serviceId = UUID.randomUUID();
+        BlockingQueue<ServiceStateEventVo> received = new LinkedBlockingQueue<>();
+        broker.subscribe(serviceId, null, null, received::add);
+        long missingId = recordedEvents.size() + 1L;
+
+        // the transaction with the lower id is not committed yet.
+        recordedEvents.add(getEvent(missingId + 1, serviceId, ServiceState.DEPLOY_SUCCESS));
+        broker.notifyStateRecorded();
+        Assertions.assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+        recordedEvents.add(getEvent(missingId, serviceId, ServiceState.DEPLOYING));
+        broker.notifyStateRecorded();
+
+        Assertions.assertEquals(ServiceState.DEPLOYING, poll(received).getServiceState());
+        Assertions.assertEquals(ServiceState.DEPLOY_SUCCESS, poll(received).getServiceState());
+    }
+
+    @Test
+    void failingListenerIsUnsubscribed() throws InterruptedException {
+        UUID serviceId = UUID.randomUUID();
+        BlockingQueue<ServiceStateEventVo> received = new LinkedBlockingQueue<>();
+        CountDownLatch isClosed = new CountDownLatch(1);
+        broker.subscribe(serviceId, null, null, new ServiceStateListener() {
+            @Override
+            public void onEvent(ServiceStateEventVo event) {
+                throw new IllegalStateException("closed");
+            }
+
+            @Override
+            public void onClose() {
+                isClosed.countDown();
+            }
+        });
+        broker.subscribe(serviceId, null, null, received::add);
+        Assertions.assertEquals(2, broker.getSubscriptionCount());
+
+        publish(serviceId, "bob", ServiceState.DEPLOYING, null);
+        Assertions.assertTrue(isClosed.await(5, TimeUnit.SECONDS));
+        publish(serviceId, "bob", ServiceState.DEPLOY_SUCCESS, null);
+
+        Assertions.assertEquals(ServiceState.DEPLOYING, poll(received).getServiceState());
+        Assertions.assertEquals(ServiceState.DEPLOY_SUCCESS, poll(received).getServiceState());
+        Assertions.assertEquals(1, broker.getSubscriptionCount());
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWithoutDelayingOthers() throws InterruptedException {
+        UUID serviceId = UUID.randomUUID();
+        CountDownLatch isBlocked = new CountDownLatch(1);
+        CountDownLatch isClosed = new CountDownLatch(1);
+        BlockingQueue<ServiceStateEventVo> received = new LinkedBlockingQueue<>();
+        broker.subscribe(serviceId, null, null, new ServiceStateListener() {
+            @Override
+            public void onEvent(ServiceStateEventVo event) {
+                isBlocked.countDown();
+                try {
+                    // the client does not read the stream.
+                    Thread.sleep(Long.MAX_VALUE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onClose() {
+                isClosed.countDown();
+            }
+        });
+        broker.subscribe(serviceId, null, null, received::add);
+
+        publish(serviceId, "bob", ServiceState.DEPLOYING, null);
+        Assertions.assertTrue(isBlocked.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(ServiceState.DEPLOYING, poll(received).getServiceState());
+        List<ServiceState> states = List.of(ServiceState.DEPLOY_SUCCESS,
+                ServiceState.DESTROYING, ServiceState.DESTROY_FAILED, ServiceState.DESTROYING);
+        for (ServiceState state : states) {
+            publish(serviceId, "bob", state, null);
+            // the other subscriber receives each event while the slow one falls behind.
+            Assertions.assertEquals(state, poll(received).getServiceState());
+        }
+
+        Assertions.assertTrue(isClosed.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, broker.getSubscriptionCount());
+    }
+
+    private long publish(UUID serviceId, String userName, ServiceState serviceState,
+                         String resultMessage) {
+        long id = record(serviceId, userName, serviceState, resultMessage);
+        broker.notifyStateRecorded();
+        return id;
+    }
+
+    private long record(UUID serviceId, String userName, ServiceState serviceState,
+                        String resultMessage) {
+        DeployServiceEventEntity event =
+                getEvent(recordedEvents.size() + 1L, serviceId, serviceState);
+        event.setUserName(userName);
+        event.setResultMessage(resultMessage);
+        recordedEvents.add(event);
+        return event.getId();
+    }
+
+    private DeployServiceEventEntity getEvent(long id, UUID serviceId,
+                                              ServiceState serviceState) {
+        DeployServiceEventEntity event = new DeployServiceEventEntity();
+        event.setId(id);
+        event.setServiceId(serviceId);
+        event.setUserName("bob");
+        event.setServiceState(serviceState);
+        event.setCreateTime(new Date());
+        return event;
+    }
+
+    private ServiceStateEventVo poll(BlockingQueue<ServiceStateEventVo> events)
+            throws InterruptedException {
+        ServiceStateEventVo event = events.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(event);
+        return event;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.ocl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.ocl.OclVersionEntity;
+import org.eclipse.xpanse.modules.database.ocl.OclVersionStorage;
+import org.eclipse.xpanse.modules.database.register.RegisterServiceStorage;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceStorage;
+import org.eclipse.xpanse.modules.models.service.deploy.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.register.Deployment;
+import org.eclipse.xpanse.modules.models.service.register.Flavor;
+import org.eclipse.xpanse.modules.models.service.register.Ocl;
+import org.eclipse.xpanse.modules.models.service.register.enums.DeployerKind;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class OclVersionStoreTest {
+
+    private final OclVersionStorage oclVersionStorage = mock(OclVersionStorage.class);
+    private final OclVersionStore oclVersionStore = new OclVersionStore(oclVersionStorage);
+
+    @Test
+    void sameOclIsStoredOnceAndParsedOnce() {
+        String contentHash = oclVersionStore.store(getOcl());
+
+        ArgumentCaptor<OclVersionEntity> stored = ArgumentCaptor.forClass(OclVersionEntity.class);
+        verify(oclVersionStorage).storeIfAbsent(stored.capture());
+        OclVersionEntity oclVersionEntity = stored.getValue();
+        Assertions.assertEquals(contentHash, oclVersionEntity.getContentHash());
+        Assertions.assertEquals(contentHash, oclVersionStore.store(getOcl()));
+        Ocl updatedOcl = getOcl();
+        updatedOcl.setDescription("updated");
+        Assertions.assertNotEquals(contentHash, oclVersionStore.store(updatedOcl));
+
+        when(oclVersionStorage.findOclVersionByHash(contentHash)).thenReturn(oclVersionEntity);
+        Ocl ocl = oclVersionStore.get(contentHash);
+        Assertions.assertEquals(getOcl().getDeployment().getDeployer(),
+                ocl.getDeployment().getDeployer());
+        Assertions.assertSame(ocl, oclVersionStore.get(contentHash));
+        verify(oclVersionStorage, times(1)).findOclVersionByHash(contentHash);
+        Assertions.assertNull(oclVersionStore.get(null));
+        Assertions.assertNull(oclVersionStore.get("unknown"));
+    }
+
+    @Test
+    void oclIsMovedOutOfCreateRequest() {
+        RegisterServiceStorage registerServiceStorage = mock(RegisterServiceStorage.class);
+        DeployServiceStorage deployServiceStorage = mock(DeployServiceStorage.class);
+        CreateRequest createRequest = new CreateRequest();
+        createRequest.setOcl(getOcl());
+        DeployServiceEntity deployServiceEntity = new DeployServiceEntity();
+        deployServiceEntity.setId(UUID.randomUUID());
+        deployServiceEntity.setCreateRequest(createRequest);
+        when(deployServiceStorage.findDeployServiceIdsWithoutOclHash())
+                .thenReturn(List.of(deployServiceEntity.getId()));
+        when(deployServiceStorage.findDeployServiceById(deployServiceEntity.getId()))
+                .thenReturn(deployServiceEntity);
+
+        new OclVersionMigration(registerServiceStorage, deployServiceStorage, oclVersionStore)
+                .migrate();
+
+        verify(oclVersionStorage, times(1)).storeIfAbsent(any());
+        verify(deployServiceStorage).storeAndFlush(deployServiceEntity);
+        Assertions.assertEquals(oclVersionStore.store(getOcl()), deployServiceEntity.getOclHash());
+        Assertions.assertNull(createRequest.getOcl());
+    }
+
+    private Ocl getOcl() {
+        Deployment deployment = new Deployment();
+        deployment.setKind(DeployerKind.TERRAFORM);
+        deployment.setDeployer("resource \"test_instance\" \"vm\" {}");
+        deployment.setVariables(List.of());
+        Flavor flavor = new Flavor();
+        flavor.setName("small");
+        flavor.setProperties(Map.of("size", "small", "disk", "40"));
+        Ocl ocl = new Ocl();
+        ocl.setName("kafka");
+        ocl.setDeployment(deployment);
+        ocl.setFlavors(List.of(flavor));
+        return ocl;
+    }
+}
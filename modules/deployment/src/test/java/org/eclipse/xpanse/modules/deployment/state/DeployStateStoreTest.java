@@ -0,0 +1,118 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.state;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
+import org.eclipse.xpanse.modules.database.service.DeployServiceStorage;
+import org.eclipse.xpanse.modules.database.state.DeployStateEntity;
+import org.eclipse.xpanse.modules.database.state.DeployStateStorage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+class DeployStateStoreTest {
+
+    private static final String STATE = "{\"version\": 4, \"resources\": [" + "{}, ".repeat(1000)
+            + "{}]}";
+
+    private final DeployStateStorage deployStateStorage = mock(DeployStateStorage.class);
+    private final DeployStateStore deployStateStore = new DeployStateStore(deployStateStorage);
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return null;
+        }).when(deployStateStorage).storeWithReference(any(), any());
+    }
+
+    @Test
+    void storedStateIsCompressedAndReadBack() throws IOException {
+        List<String> references = new ArrayList<>();
+        String contentHash = deployStateStore.store(STATE, references::add);
+
+        ArgumentCaptor<DeployStateEntity> stored = ArgumentCaptor.forClass(DeployStateEntity.class);
+        verify(deployStateStorage).storeWithReference(stored.capture(), any());
+        DeployStateEntity deployStateEntity = stored.getValue();
+        Assertions.assertEquals(List.of(contentHash), references);
+        Assertions.assertEquals(contentHash, deployStateEntity.getContentHash());
+        Assertions.assertEquals(STATE.length(), deployStateEntity.getStateSize());
+        Assertions.assertTrue(deployStateEntity.getContent().length < STATE.length() / 10);
+        Assertions.assertEquals(contentHash, deployStateStore.store(STATE, references::add));
+        Assertions.assertNotEquals(contentHash,
+                deployStateStore.store(STATE + " ", references::add));
+
+        when(deployStateStorage.findDeployStateByHash(contentHash)).thenReturn(deployStateEntity);
+        try (InputStream tfState = deployStateStore.open(contentHash)) {
+            Assertions.assertEquals(STATE,
+                    new String(tfState.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        Assertions.assertNull(deployStateStore.open(null));
+        Assertions.assertNull(deployStateStore.open("unknown"));
+    }
+
+    @Test
+    void stateStoredConcurrentlyIsReferencedAgain() {
+        DeployStateEntity storedState = new DeployStateEntity();
+        doThrow(new DataIntegrityViolationException("duplicate"))
+                .doAnswer(invocation -> {
+                    invocation.getArgument(1, Runnable.class).run();
+                    return null;
+                }).when(deployStateStorage).storeWithReference(any(), any());
+        when(deployStateStorage.findDeployStateByHash(any())).thenReturn(storedState);
+        List<String> references = new ArrayList<>();
+
+        String contentHash = deployStateStore.store(STATE, references::add);
+
+        verify(deployStateStorage, times(2)).storeWithReference(any(), any());
+        Assertions.assertEquals(List.of(contentHash), references);
+    }
+
+    @Test
+    void stateIsMovedOutOfPrivateProperties() throws IOException {
+        DeployServiceStorage deployServiceStorage = mock(DeployServiceStorage.class);
+        DeployServiceEntity deployServiceEntity = new DeployServiceEntity();
+        deployServiceEntity.setId(UUID.randomUUID());
+        Map<String, String> privateProperties = new HashMap<>();
+        privateProperties.put(DeployStateMigration.STATE_FILE_PROPERTY, STATE);
+        privateProperties.put("plan", "{}");
+        deployServiceEntity.setPrivateProperties(privateProperties);
+        when(deployServiceStorage.findDeployServiceIdsByPrivateProperty(
+                DeployStateMigration.STATE_FILE_PROPERTY))
+                .thenReturn(List.of(deployServiceEntity.getId()));
+        when(deployServiceStorage.findDeployServiceById(deployServiceEntity.getId()))
+                .thenReturn(deployServiceEntity);
+
+        new DeployStateMigration(deployServiceStorage, deployStateStore).migrate();
+
+        verify(deployStateStorage, times(1)).storeWithReference(any(), any());
+        verify(deployServiceStorage).storeAndFlush(deployServiceEntity);
+        Assertions.assertEquals(DeployStateStore.getContentHash(
+                        new ByteArrayInputStream(STATE.getBytes(StandardCharsets.UTF_8))),
+                deployServiceEntity.getStateHash());
+        Assertions.assertEquals(Map.of("plan", "{}"), deployServiceEntity.getPrivateProperties());
+    }
+}
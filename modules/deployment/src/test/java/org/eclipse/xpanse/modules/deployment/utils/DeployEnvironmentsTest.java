@@ -0,0 +1,116 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.deployment.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.xpanse.modules.models.service.deploy.CreateRequest;
+import org.eclipse.xpanse.modules.models.service.deploy.exceptions.FlavorInvalidException;
+import org.eclipse.xpanse.modules.models.service.register.DeployVariable;
+import org.eclipse.xpanse.modules.models.service.register.Deployment;
+import org.eclipse.xpanse.modules.models.service.register.Flavor;
+import org.eclipse.xpanse.modules.models.service.register.Ocl;
+import org.eclipse.xpanse.modules.models.service.register.enums.DeployVariableKind;
+import org.eclipse.xpanse.modules.orchestrator.deployment.DeployTask;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DeployEnvironmentsTest {
+
+    private static final String PATH = "PATH";
+
+    private final DeployEnvironments deployEnvironments = new DeployEnvironments(null);
+
+    @Test
+    void variablesAreResolvedFromRequest() {
+        DeployTask task = getTask(UUID.randomUUID(), getOcl("small"),
+                Map.of("env_1", "request", "var_1", "request", "fix_var_2", "request"));
+
+        Map<String, String> env = deployEnvironments.getEnv(task);
+        Assertions.assertEquals("request", env.get("env_1"));
+        Assertions.assertEquals(System.getenv(PATH), env.get(PATH));
+        Assertions.assertEquals("fixed", env.get("fix_env_1"));
+        Assertions.assertEquals(3, env.size());
+
+        Map<String, String> variables = deployEnvironments.getVariables(task);
+        Assertions.assertEquals("request", variables.get("var_1"));
+        Assertions.assertTrue(variables.containsKey("var_2"));
+        Assertions.assertNull(variables.get("var_2"));
+        Assertions.assertFalse(variables.containsKey("fix_var_1"));
+        Assertions.assertEquals("fixed", variables.get("fix_var_2"));
+
+        Assertions.assertEquals(Map.of("size", "small"),
+                deployEnvironments.getFlavorVariables(task));
+        task.getCreateRequest().setFlavor("large");
+        Assertions.assertThrows(FlavorInvalidException.class,
+                () -> deployEnvironments.getFlavorVariables(task));
+    }
+
+    @Test
+    void planIsReusedUntilInvalidated() {
+        UUID registeredServiceId = UUID.randomUUID();
+        DeployTask task = getTask(registeredServiceId, getOcl("small"), new HashMap<>());
+        Assertions.assertEquals(Map.of("size", "small"),
+                deployEnvironments.getFlavorVariables(task));
+
+        DeployTask updatedTask = getTask(registeredServiceId, getOcl("updated"), new HashMap<>());
+        Assertions.assertEquals(Map.of("size", "small"),
+                deployEnvironments.getFlavorVariables(updatedTask));
+
+        deployEnvironments.invalidate(registeredServiceId);
+        Assertions.assertEquals(Map.of("size", "updated"),
+                deployEnvironments.getFlavorVariables(updatedTask));
+
+        // the Ocl of a destroy task is used as it is.
+        DeployTask destroyTask = getTask(null, getOcl("deployed"), new HashMap<>());
+        Assertions.assertEquals(Map.of("size", "deployed"),
+                deployEnvironments.getFlavorVariables(destroyTask));
+    }
+
+    private DeployTask getTask(UUID registeredServiceId, Ocl ocl, Map<String, String> request) {
+        CreateRequest createRequest = new CreateRequest();
+        createRequest.setFlavor("small");
+        createRequest.setServiceRequestProperties(request);
+        DeployTask task = new DeployTask();
+        task.setId(UUID.randomUUID());
+        task.setRegisteredServiceId(registeredServiceId);
+        task.setCreateRequest(createRequest);
+        task.setOcl(ocl);
+        return task;
+    }
+
+    private Ocl getOcl(String flavorSize) {
+        List<DeployVariable> variables = new ArrayList<>();
+        variables.add(getVariable("env_1", DeployVariableKind.ENV, null));
+        variables.add(getVariable(PATH, DeployVariableKind.ENV_ENV, null));
+        variables.add(getVariable("fix_env_1", DeployVariableKind.FIX_ENV, "fixed"));
+        variables.add(getVariable("var_1", DeployVariableKind.VARIABLE, null));
+        variables.add(getVariable("var_2", DeployVariableKind.VARIABLE, null));
+        variables.add(getVariable("fix_var_1", DeployVariableKind.FIX_VARIABLE, "fixed"));
+        variables.add(getVariable("fix_var_2", DeployVariableKind.FIX_VARIABLE, "fixed"));
+        Deployment deployment = new Deployment();
+        deployment.setVariables(variables);
+        Flavor flavor = new Flavor();
+        flavor.setName("small");
+        flavor.setProperties(Map.of("size", flavorSize));
+        Ocl ocl = new Ocl();
+        ocl.setDeployment(deployment);
+        ocl.setFlavors(List.of(flavor));
+        return ocl;
+    }
+
+    private DeployVariable getVariable(String name, DeployVariableKind kind, String value) {
+        DeployVariable variable = new DeployVariable();
+        variable.setName(name);
+        variable.setKind(kind);
+        variable.setValue(value);
+        return variable;
+    }
+}
@@ -37,7 +37,8 @@ public enum ResultType {
     ICON_PROCESSING_FAILED("Icon Processing Failed"),
     SERVICE_NOT_REGISTERED("Service Not Registered"),
     SERVICE_DEPLOYMENT_NOT_FOUND("Service Deployment Not Found"),
-    RESOURCE_NOT_FOUND("Resource Not Found");
+    RESOURCE_NOT_FOUND("Resource Not Found"),
+    DEPLOYMENT_QUEUE_FULL("Deployment Queue Full");
 
     private final String value;
 
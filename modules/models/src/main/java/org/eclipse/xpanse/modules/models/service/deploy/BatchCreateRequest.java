@@ -0,0 +1,46 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.models.service.deploy;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Request body for the creation of several instances of the same service.
+ */
+@Data
+public class BatchCreateRequest {
+
+    /**
+     * The request which is shared by all instances.
+     */
+    @NotNull
+    @Valid
+    @Schema(description = "The request which is shared by all instances.")
+    private CreateRequest template;
+
+    /**
+     * The overrides of the template for each instance.
+     */
+    @NotNull
+    @Size(min = 1, max = 50)
+    @Valid
+    @Schema(description = "The overrides of the template for each instance to deploy.")
+    private List<BatchInstanceRequest> instances;
+
+    /**
+     * Max number of instances deployed at the same time.
+     */
+    @Min(1)
+    @Schema(description = "Max number of instances deployed at the same time. If not provided, "
+            + "or higher than the limit of the server, the limit of the server is used.")
+    private Integer maxParallel;
+}
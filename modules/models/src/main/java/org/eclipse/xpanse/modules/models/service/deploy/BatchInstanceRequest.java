@@ -0,0 +1,38 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.models.service.deploy;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Map;
+import lombok.Data;
+
+/**
+ * Overrides of the template request for one instance of a batch deployment.
+ */
+@Data
+public class BatchInstanceRequest {
+
+    /**
+     * Customer provided name for the instance.
+     */
+    @Schema(description = "Customer's name for the instance. If not provided, this value will be "
+            + "auto-generated")
+    private String customerServiceName;
+
+    /**
+     * The flavor of the instance.
+     */
+    @Schema(description = "The flavor of the instance. If not provided, the flavor of the "
+            + "template is used.")
+    private String flavor;
+
+    /**
+     * The properties of the instance.
+     */
+    @Schema(description = "The properties of the instance, which replace the properties of the "
+            + "template with the same name.")
+    private Map<String, String> serviceRequestProperties;
+}
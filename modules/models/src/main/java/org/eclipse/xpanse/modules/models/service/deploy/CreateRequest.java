@@ -26,6 +26,9 @@ public class CreateRequest {
     @Hidden
     private UUID id;
 
+    @Hidden
+    private UUID batchId;
+
     /**
      * The user who ordered the Service.
      */
@@ -0,0 +1,45 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.models.service.deploy.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Type of the task which is queued for a deployed service.
+ */
+public enum DeployTaskType {
+    DEPLOY("deploy"),
+    DESTROY("destroy");
+
+    private final String type;
+
+    DeployTaskType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * For DeployTaskType serialize.
+     */
+    @JsonCreator
+    public DeployTaskType getByValue(String type) {
+        for (DeployTaskType deployTaskType : values()) {
+            if (deployTaskType.type.equals(StringUtils.lowerCase(type))) {
+                return deployTaskType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * For DeployTaskType deserialize.
+     */
+    @JsonValue
+    public String toValue() {
+        return this.type;
+    }
+}
@@ -19,9 +19,11 @@ public enum ServiceState {
     DEPLOYING("deploying"),
     DEPLOY_SUCCESS("deploy_success"),
     DEPLOY_FAILED("deploy_failed"),
+    DEPLOY_CANCELLED("deploy_cancelled"),
     DESTROYING("destroying"),
     DESTROY_SUCCESS("destroy_success"),
-    DESTROY_FAILED("destroy_failed");
+    DESTROY_FAILED("destroy_failed"),
+    DESTROY_CANCELLED("destroy_cancelled");
 
 
     private final String serviceState;
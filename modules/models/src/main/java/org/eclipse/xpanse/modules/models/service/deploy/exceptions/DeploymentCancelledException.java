@@ -0,0 +1,15 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.models.service.deploy.exceptions;
+
+/**
+ * Exception thrown when the deployment is stopped because it was cancelled.
+ */
+public class DeploymentCancelledException extends RuntimeException {
+    public DeploymentCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.models.service.deploy.exceptions;
+
+/**
+ * Exception thrown when the queue of the deployments to a CSP is full.
+ */
+public class DeploymentQueueFullException extends RuntimeException {
+    public DeploymentQueueFullException(String message) {
+        super(message);
+    }
+}
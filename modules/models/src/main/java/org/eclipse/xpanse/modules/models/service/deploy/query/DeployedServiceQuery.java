@@ -0,0 +1,45 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service.deploy.query;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.service.common.enums.Category;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
+
+/**
+ * The query model for search deployed services. The services are listed from the newest to the
+ * oldest, a page starts after the service given as cursor.
+ */
+@Data
+@Valid
+public class DeployedServiceQuery {
+
+    @Schema(description = "User who deployed the service.")
+    private String userName;
+
+    @Schema(description = "Name of the cloud service provider.")
+    private Csp csp;
+
+    @Schema(description = "Category of the service.")
+    private Category category;
+
+    @Schema(description = "Name of the service.")
+    private String serviceName;
+
+    @Schema(description = "State of the service.")
+    private ServiceState serviceState;
+
+    @Schema(description = "ID of the last service of the previous page.")
+    private UUID cursor;
+
+    @Schema(description = "Max number of services in the page.")
+    private int limit;
+}
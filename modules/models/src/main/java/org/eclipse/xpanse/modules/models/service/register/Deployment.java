@@ -39,4 +39,9 @@ public class Deployment {
     @Schema(description = "The real deployer, something like terraform scripts...")
     private String deployer;
 
+    @Valid
+    @Schema(description = "The timeouts of the phases of the deployment, which override the "
+            + "timeouts of the server")
+    private DeploymentTimeouts timeouts;
+
 }
@@ -0,0 +1,34 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.models.service.register;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+/**
+ * Defines the timeouts of the phases of the deployment. The phases without timeout use the
+ * timeouts of the server.
+ */
+@Data
+public class DeploymentTimeouts {
+
+    @Min(1)
+    @Schema(description = "Minutes the deployer may take to initialize the deployment")
+    private Integer initMinutes;
+
+    @Min(1)
+    @Schema(description = "Minutes the deployer may take to plan the changes")
+    private Integer planMinutes;
+
+    @Min(1)
+    @Schema(description = "Minutes the deployer may take to create the resources")
+    private Integer applyMinutes;
+
+    @Min(1)
+    @Schema(description = "Minutes the deployer may take to destroy the resources")
+    private Integer destroyMinutes;
+}
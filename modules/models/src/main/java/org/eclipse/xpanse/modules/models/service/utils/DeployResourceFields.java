@@ -0,0 +1,133 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service.utils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.xpanse.modules.models.service.deploy.DeployResource;
+
+/**
+ * Setters of the public String fields of a kind of DeployResource, like the ip of a Vm. The
+ * setters of a class are looked up once and compiled to lambdas, so that filling the fields of a
+ * resource does not use reflection.
+ */
+public final class DeployResourceFields {
+
+    private static final ClassValue<DeployResourceFields> FIELDS = new ClassValue<>() {
+        @Override
+        protected DeployResourceFields computeValue(Class<?> type) {
+            return new DeployResourceFields(type);
+        }
+    };
+
+    private final Map<String, BiConsumer<Object, String>> setters;
+
+    private DeployResourceFields(Class<?> type) {
+        Map<String, BiConsumer<Object, String>> fieldSetters = new LinkedHashMap<>();
+        for (Field field : type.getFields()) {
+            if (field.getType() == String.class && !Modifier.isStatic(field.getModifiers())) {
+                fieldSetters.put(field.getName(), getSetter(type, field));
+            }
+        }
+        this.setters = Collections.unmodifiableMap(fieldSetters);
+    }
+
+    /**
+     * Get the fields of a kind of DeployResource.
+     *
+     * @param type class of the resource.
+     * @return the fields of the class.
+     */
+    public static DeployResourceFields of(Class<? extends DeployResource> type) {
+        return FIELDS.get(type);
+    }
+
+    /**
+     * Get the names of the fields.
+     *
+     * @return names of the fields.
+     */
+    public Set<String> getFieldNames() {
+        return setters.keySet();
+    }
+
+    /**
+     * Check whether the resource has a field with the name.
+     *
+     * @param fieldName name of the field.
+     * @return true when the field exists.
+     */
+    public boolean hasField(String fieldName) {
+        return setters.containsKey(fieldName);
+    }
+
+    /**
+     * Set the value of a field of the resource.
+     *
+     * @param deployResource the resource.
+     * @param fieldName      name of the field.
+     * @param value          value of the field.
+     * @return false when the resource has no field with the name.
+     */
+    public boolean set(DeployResource deployResource, String fieldName, String value) {
+        BiConsumer<Object, String> setter = setters.get(fieldName);
+        if (Objects.isNull(setter)) {
+            return false;
+        }
+        setter.accept(deployResource, value);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, String> getSetter(Class<?> type, Field field) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type,
+                    MethodHandles.lookup());
+            Method method;
+            try {
+                method = type.getMethod("set" + StringUtils.capitalize(field.getName()),
+                        String.class);
+            } catch (NoSuchMethodException e) {
+                return getFieldSetter(lookup.unreflectSetter(field));
+            }
+            MethodHandle setter = lookup.unreflect(method);
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), setter,
+                    MethodType.methodType(void.class, type, String.class));
+            return (BiConsumer<Object, String>) callSite.getTarget().invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(String.format("Setter of the field %s of %s not"
+                    + " accessible.", field.getName(), type.getName()), e);
+        }
+    }
+
+    private static BiConsumer<Object, String> getFieldSetter(MethodHandle setter) {
+        MethodHandle fieldSetter = setter.asType(
+                MethodType.methodType(void.class, Object.class, String.class));
+        return (deployResource, value) -> {
+            try {
+                fieldSetter.invokeExact(deployResource, value);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.models.service.view;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
+
+/**
+ * Define view object for the aggregate status of a batch deployment.
+ */
+@Data
+public class BatchDeployStatusVo {
+
+    @NotNull
+    @Schema(description = "The ID of the batch")
+    private UUID batchId;
+
+    @NotNull
+    @Schema(description = "Number of instances in the batch")
+    private int totalInstances;
+
+    @NotNull
+    @Schema(description = "Number of instances which are waiting to be deployed")
+    private int queuedInstances;
+
+    @NotNull
+    @Schema(description = "Number of the started instances by state")
+    private Map<ServiceState, Integer> serviceStates;
+
+    @NotNull
+    @Schema(description = "True when no instance is waiting or deploying anymore")
+    private boolean finished;
+
+    @NotNull
+    @Schema(description = "The started instances")
+    private List<ServiceVo> services;
+}
@@ -0,0 +1,33 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.models.service.view;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Define view object for a range of the Terraform log of a deployed service.
+ */
+@Data
+public class DeployLogVo {
+
+    @NotNull
+    @Schema(description = "Byte offset of the content in the log.")
+    private long offset;
+
+    @NotNull
+    @Schema(description = "Byte offset to continue reading the log from.")
+    private long nextOffset;
+
+    @NotNull
+    @Schema(description = "Size of the log in bytes.")
+    private long size;
+
+    @NotNull
+    @Schema(description = "Content of the log in the range.")
+    private String content;
+}
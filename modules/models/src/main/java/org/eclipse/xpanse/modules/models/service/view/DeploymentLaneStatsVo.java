@@ -0,0 +1,46 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.models.service.view;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
+
+/**
+ * Define view object for the statistics of the deployment lane of a CSP.
+ */
+@Data
+public class DeploymentLaneStatsVo {
+
+    @NotNull
+    @Schema(description = "The CSP of the lane.")
+    private Csp csp;
+
+    @NotNull
+    @Schema(description = "Number of deploy and destroy tasks waiting in the lane.")
+    private int queuedTasks;
+
+    @NotNull
+    @Schema(description = "Number of deploy and destroy tasks running in the lane.")
+    private int runningTasks;
+
+    @NotNull
+    @Schema(description = "Max number of tasks running in the lane at the same time.")
+    private int maxRunningTasks;
+
+    @NotNull
+    @Schema(description = "Max number of deploy tasks waiting in the lane.")
+    private int queueCapacity;
+
+    @NotNull
+    @Schema(description = "Average time in milliseconds the started tasks waited in the lane.")
+    private long averageWaitMillis;
+
+    @NotNull
+    @Schema(description = "Time in milliseconds the oldest queued task is waiting.")
+    private long longestQueuedWaitMillis;
+}
@@ -0,0 +1,43 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service.view;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Date;
+import java.util.UUID;
+import lombok.Data;
+import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
+
+/**
+ * Define view object for a change of the state of a deployed service.
+ */
+@Data
+public class ServiceStateEventVo {
+
+    @NotNull
+    @Schema(description = "Id of the event, used to resume the stream after it.")
+    private long eventId;
+
+    @NotNull
+    @Schema(description = "ID of the deployed service.")
+    private UUID serviceId;
+
+    @Schema(description = "User who deployed the service.")
+    private String userName;
+
+    @NotNull
+    @Schema(description = "The state of the service after the change.")
+    private ServiceState serviceState;
+
+    @Schema(description = "The result message of the deployment or destroy.")
+    private String resultMessage;
+
+    @NotNull
+    @Schema(description = "Time of the change.")
+    private Date time;
+}
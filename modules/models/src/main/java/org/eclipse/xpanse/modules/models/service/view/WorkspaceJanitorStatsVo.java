@@ -0,0 +1,41 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.models.service.view;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Define view object for the disk usage of the deployment workspaces.
+ */
+@Data
+public class WorkspaceJanitorStatsVo {
+
+    @NotNull
+    @Schema(description = "Number of workspaces on disk.")
+    private int workspaces;
+
+    @NotNull
+    @Schema(description = "Number of workspaces used by running deployments.")
+    private int activeWorkspaces;
+
+    @NotNull
+    @Schema(description = "Size of all workspaces in bytes.")
+    private long footprintBytes;
+
+    @NotNull
+    @Schema(description = "Max size of all workspaces in bytes, 0 when not limited.")
+    private long quotaBytes;
+
+    @NotNull
+    @Schema(description = "Number of workspaces removed since the start.")
+    private long removedWorkspaces;
+
+    @NotNull
+    @Schema(description = "Bytes reclaimed by removing workspaces since the start.")
+    private long reclaimedBytes;
+}
@@ -0,0 +1,33 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ */
+
+package org.eclipse.xpanse.modules.models.service.view;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Define view object for the statistics of the pool of pre-initialized deployment workspaces.
+ */
+@Data
+public class WorkspacePoolStatsVo {
+
+    @NotNull
+    @Schema(description = "Number of deployments which got a pre-initialized workspace.")
+    private long hits;
+
+    @NotNull
+    @Schema(description = "Number of deployments which had to initialize their own workspace.")
+    private long misses;
+
+    @NotNull
+    @Schema(description = "Number of registered services with a workspace template.")
+    private int templates;
+
+    @NotNull
+    @Schema(description = "Number of pre-initialized workspaces ready to be checked out.")
+    private int readyWorkspaces;
+}
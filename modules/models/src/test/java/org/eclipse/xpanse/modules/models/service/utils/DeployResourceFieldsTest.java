@@ -0,0 +1,61 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.models.service.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import org.eclipse.xpanse.modules.models.service.deploy.DeployResource;
+import org.eclipse.xpanse.modules.models.service.deploy.Volume;
+import org.eclipse.xpanse.modules.models.service.deploy.Vpc;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of DeployResourceFields.
+ */
+class DeployResourceFieldsTest {
+
+    @Test
+    void fieldsOfResourceAreSet() {
+        DeployResourceFields fields = DeployResourceFields.of(Vpc.class);
+        Vpc vpc = new Vpc();
+
+        assertTrue(fields.set(vpc, "vpc", "vpc-1"));
+        assertTrue(fields.set(vpc, "subnet", "subnet-1"));
+        assertFalse(fields.set(vpc, "name", "name-1"));
+
+        assertEquals(Set.of("vpc", "subnet"), fields.getFieldNames());
+        assertEquals("vpc-1", vpc.getVpc());
+        assertEquals("subnet-1", vpc.getSubnet());
+        assertEquals(null, vpc.getName());
+        assertSame(fields, DeployResourceFields.of(Vpc.class));
+    }
+
+    @Test
+    void fieldWithoutSetterIsSet() {
+        DeployResourceFields fields = DeployResourceFields.of(TestResource.class);
+        TestResource resource = new TestResource();
+
+        assertTrue(fields.set(resource, "zone", "zone-1"));
+        assertEquals("zone-1", resource.zone);
+        assertFalse(fields.hasField("count"));
+        assertTrue(DeployResourceFields.of(Volume.class).hasField("size"));
+        assertTrue(DeployResourceFields.of(DeployResource.class).getFieldNames().isEmpty());
+    }
+
+    /**
+     * Resource with a field which has no setter.
+     */
+    public static class TestResource extends DeployResource {
+
+        public String zone;
+        public Integer count;
+    }
+}
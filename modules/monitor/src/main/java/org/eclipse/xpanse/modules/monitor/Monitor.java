@@ -6,6 +6,7 @@
 
 package org.eclipse.xpanse.modules.monitor;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -13,6 +14,7 @@ import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.xpanse.modules.database.resource.DeployResourceEntity;
 import org.eclipse.xpanse.modules.database.resource.DeployResourceStorage;
+import org.eclipse.xpanse.modules.database.resource.DeployResourceSummary;
 import org.eclipse.xpanse.modules.database.service.DeployServiceEntity;
 import org.eclipse.xpanse.modules.database.service.DeployServiceStorage;
 import org.eclipse.xpanse.modules.database.utils.EntityTransUtils;
@@ -27,7 +29,6 @@ import org.eclipse.xpanse.modules.orchestrator.OrchestratorPlugin;
 import org.eclipse.xpanse.modules.orchestrator.PluginManager;
 import org.eclipse.xpanse.modules.orchestrator.monitor.ResourceMetricRequest;
 import org.eclipse.xpanse.modules.orchestrator.monitor.ServiceMetricRequest;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
@@ -97,27 +98,28 @@ public class Monitor {
                                                Integer granularity,
                                                boolean onlyLastKnownMetric) {
         validateToAndFromValues(from, to);
-        DeployResourceEntity resourceEntity =
+        DeployResourceSummary resourceSummary =
                 deployResourceStorage.findDeployResourceByResourceId(id);
-        if (Objects.isNull(resourceEntity)) {
+        if (Objects.isNull(resourceSummary)) {
             throw new ResourceNotFoundException("Resource not found.");
         }
 
-        if (!DeployResourceKind.VM.equals(resourceEntity.getKind())) {
+        if (!DeployResourceKind.VM.equals(resourceSummary.kind())) {
             String errorMsg =
-                    String.format("Resource kind %s not support.", resourceEntity.getKind());
+                    String.format("Resource kind %s not support.", resourceSummary.kind());
             log.error(errorMsg);
             throw new ResourceNotSupportedForMonitoringException(errorMsg);
         }
         DeployResource deployResource = new DeployResource();
-        BeanUtils.copyProperties(resourceEntity, deployResource);
-        DeployServiceEntity serviceEntity = findDeployServiceEntity(
-                resourceEntity.getDeployService().getId());
+        deployResource.setResourceId(resourceSummary.resourceId());
+        deployResource.setName(resourceSummary.name());
+        deployResource.setKind(resourceSummary.kind());
+        deployResource.setProperties(new HashMap<>(resourceSummary.properties()));
         OrchestratorPlugin orchestratorPlugin =
-                pluginManager.getOrchestratorPlugin(serviceEntity.getCsp());
+                pluginManager.getOrchestratorPlugin(resourceSummary.csp());
         ResourceMetricRequest resourceMetricRequest =
                 getResourceMetricRequest(deployResource, monitorType, from,
-                        to, granularity, onlyLastKnownMetric, serviceEntity.getUserName());
+                        to, granularity, onlyLastKnownMetric, resourceSummary.userName());
         return orchestratorPlugin.getMetricsForResource(resourceMetricRequest);
     }
 
@@ -0,0 +1,60 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ * SPDX-FileCopyrightText: Huawei Inc.
+ *
+ */
+
+package org.eclipse.xpanse.modules.orchestrator.deployment;
+
+import java.util.Objects;
+
+/**
+ * Signals the cancellation of a task to the deployer which runs it.
+ */
+public class CancellationSignal {
+
+    private boolean isCancelled;
+    private Runnable listener;
+
+    /**
+     * Cancels the task and notifies the listener.
+     */
+    public void cancel() {
+        Runnable cancelListener;
+        synchronized (this) {
+            if (this.isCancelled) {
+                return;
+            }
+            this.isCancelled = true;
+            cancelListener = this.listener;
+        }
+        if (Objects.nonNull(cancelListener)) {
+            cancelListener.run();
+        }
+    }
+
+    /**
+     * Checks if the task is cancelled.
+     *
+     * @return true if the task is cancelled.
+     */
+    public synchronized boolean isCancelled() {
+        return this.isCancelled;
+    }
+
+    /**
+     * Sets the listener which stops the running work of the task. The listener is called at
+     * once when the task is already cancelled.
+     *
+     * @param listener the listener, null to remove the listener.
+     */
+    public void setListener(Runnable listener) {
+        synchronized (this) {
+            this.listener = listener;
+            if (!this.isCancelled || Objects.isNull(listener)) {
+                return;
+            }
+        }
+        listener.run();
+    }
+}
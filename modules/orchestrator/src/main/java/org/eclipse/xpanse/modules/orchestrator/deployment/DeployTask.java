@@ -8,6 +8,8 @@ package org.eclipse.xpanse.modules.orchestrator.deployment;
 
 import java.util.UUID;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.eclipse.xpanse.modules.models.service.deploy.CreateRequest;
 import org.eclipse.xpanse.modules.models.service.register.Ocl;
 
@@ -22,6 +24,11 @@ public class DeployTask {
      */
     private UUID id;
 
+    /**
+     * The id of the registered service which is deployed.
+     */
+    private UUID registeredServiceId;
+
     /**
      * The Ocl object of the DeployTask.
      */
@@ -32,9 +39,26 @@ public class DeployTask {
      */
     private Ocl ocl;
 
+    /**
+     * The hash of the stored version of the Ocl.
+     */
+    private String oclHash;
+
+    /**
+     * The hash of the stored Terraform state of the deployed service.
+     */
+    private String stateHash;
+
     /**
      * The specific xpanse resource handler for the csp.
      */
     private DeployResourceHandler deployResourceHandler;
 
+    /**
+     * Signals the cancellation of the task, each task has its own signal.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final CancellationSignal cancellation = new CancellationSignal();
+
 }
@@ -7,9 +7,12 @@
 package org.eclipse.xpanse.modules.orchestrator.deployment;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
 import org.eclipse.xpanse.modules.models.service.deploy.DeployResult;
 import org.eclipse.xpanse.modules.models.service.register.Ocl;
 import org.eclipse.xpanse.modules.models.service.register.enums.DeployerKind;
+import org.eclipse.xpanse.modules.models.service.view.DeployLogVo;
 
 /**
  * Interface to produce a service.
@@ -18,9 +21,13 @@ public interface Deployment {
 
     DeployResult deploy(DeployTask task);
 
-    DeployResult destroy(DeployTask task, String tfState) throws IOException;
+    DeployResult destroy(DeployTask task, InputStream tfState) throws IOException;
 
     DeployerKind getDeployerKind();
 
     DeployValidationResult validate(Ocl ocl);
+
+    void invalidateServiceCache(UUID registeredServiceId);
+
+    DeployLogVo getDeployLog(UUID id, Long offset, int maxBytes);
 }
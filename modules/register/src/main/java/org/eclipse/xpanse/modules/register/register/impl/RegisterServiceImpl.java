@@ -19,7 +19,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
 import org.eclipse.xpanse.modules.database.register.RegisterServiceStorage;
+import org.eclipse.xpanse.modules.database.utils.EntityTransUtils;
 import org.eclipse.xpanse.modules.deployment.DeployService;
+import org.eclipse.xpanse.modules.deployment.ocl.OclVersionStore;
 import org.eclipse.xpanse.modules.models.common.exceptions.OpenApiFileGenerationException;
 import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
 import org.eclipse.xpanse.modules.models.service.deploy.enums.ServiceState;
@@ -40,7 +42,6 @@ import org.eclipse.xpanse.modules.orchestrator.deployment.DeployValidationResult
 import org.eclipse.xpanse.modules.register.register.RegisterService;
 import org.eclipse.xpanse.modules.register.register.utils.IconProcessorUtil;
 import org.eclipse.xpanse.modules.register.register.utils.RegisteredServicesOpenApiGenerator;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
@@ -60,6 +61,8 @@ public class RegisterServiceImpl implements RegisterService {
 
     @Resource
     private DeployService deployService;
+    @Resource
+    private OclVersionStore oclVersionStore;
 
 
     /**
@@ -95,13 +98,35 @@ public class RegisterServiceImpl implements RegisterService {
         iconUpdate(existedService, ocl);
         checkParams(existedService, ocl);
         validateTerraformScript(ocl);
+        final Ocl oldOcl = existedService.getOcl();
         existedService.setOcl(ocl);
+        existedService.setOclHash(oclVersionStore.store(ocl));
         existedService.setServiceState(ServiceState.UPDATED);
         storage.store(existedService);
+        deployService.invalidateRegisteredService(existedService.getId());
+        if (isDeployerChanged(oldOcl, ocl)) {
+            invalidateServiceCache(existedService.getId(), Objects.isNull(oldOcl) ? ocl : oldOcl);
+        }
         registeredServicesOpenApiGenerator.updateServiceApi(existedService);
         return existedService;
     }
 
+    private boolean isDeployerChanged(Ocl oldOcl, Ocl newOcl) {
+        if (Objects.isNull(oldOcl) || Objects.isNull(oldOcl.getDeployment())) {
+            return true;
+        }
+        return oldOcl.getDeployment().getKind() != newOcl.getDeployment().getKind()
+                || !StringUtils.equals(oldOcl.getDeployment().getDeployer(),
+                newOcl.getDeployment().getDeployer());
+    }
+
+    private void invalidateServiceCache(UUID registeredServiceId, Ocl ocl) {
+        if (Objects.nonNull(ocl) && Objects.nonNull(ocl.getDeployment())) {
+            this.deployService.getDeployment(ocl.getDeployment().getKind())
+                    .invalidateServiceCache(registeredServiceId);
+        }
+    }
+
     private void checkParams(RegisterServiceEntity existedService, Ocl ocl) {
 
         String oldCategory = existedService.getCategory().name();
@@ -169,6 +194,7 @@ public class RegisterServiceImpl implements RegisterService {
             throw new ServiceAlreadyRegisteredException(errorMsg);
         }
         validateTerraformScript(ocl);
+        newEntity.setOclHash(oclVersionStore.store(ocl));
         storage.store(newEntity);
         registeredServicesOpenApiGenerator.generateServiceApi(newEntity);
         return newEntity;
@@ -274,7 +300,12 @@ public class RegisterServiceImpl implements RegisterService {
 
     public void unregisterService(String registeredServiceId) {
         UUID uuid = UUID.fromString(registeredServiceId);
+        RegisterServiceEntity existedService = storage.getRegisterServiceById(uuid);
         storage.removeById(uuid);
+        deployService.invalidateRegisteredService(uuid);
+        if (Objects.nonNull(existedService)) {
+            invalidateServiceCache(uuid, existedService.getOcl());
+        }
         registeredServicesOpenApiGenerator.deleteServiceApi(registeredServiceId);
     }
 
@@ -306,17 +337,7 @@ public class RegisterServiceImpl implements RegisterService {
         if (Objects.isNull(serviceEntity)) {
             return null;
         }
-        UserAvailableServiceVo userAvailableServiceVo = new UserAvailableServiceVo();
-        BeanUtils.copyProperties(serviceEntity, userAvailableServiceVo);
-        userAvailableServiceVo.setIcon(serviceEntity.getOcl().getIcon());
-        userAvailableServiceVo.setDescription(serviceEntity.getOcl().getDescription());
-        userAvailableServiceVo.setNamespace(serviceEntity.getOcl().getNamespace());
-        userAvailableServiceVo.setBilling(serviceEntity.getOcl().getBilling());
-        userAvailableServiceVo.setFlavors(serviceEntity.getOcl().getFlavors());
-        userAvailableServiceVo.setVariables(serviceEntity.getOcl().getDeployment().getVariables());
-        userAvailableServiceVo.setRegions(
-                serviceEntity.getOcl().getCloudServiceProvider().getRegions());
-        return userAvailableServiceVo;
+        return EntityTransUtils.transToUserAvailableServiceVo(serviceEntity);
     }
 
     private void validateTerraformScript(Ocl ocl) {
@@ -24,6 +24,12 @@ import org.eclipse.xpanse.modules.database.register.RegisterServiceEntity;
 import org.eclipse.xpanse.modules.database.register.RegisterServiceStorage;
 import org.eclipse.xpanse.modules.deployment.DeployService;
 import org.eclipse.xpanse.modules.deployment.deployers.terraform.TerraformDeployment;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.TerraformProviderMirror;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.TerraformTimeouts;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.TerraformValidationCache;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.TerraformWorkspaceJanitor;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.TerraformWorkspacePool;
+import org.eclipse.xpanse.modules.deployment.ocl.OclVersionStore;
 import org.eclipse.xpanse.modules.deployment.utils.DeployEnvironments;
 import org.eclipse.xpanse.modules.models.service.common.enums.Category;
 import org.eclipse.xpanse.modules.models.service.common.enums.Csp;
@@ -40,6 +46,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.StandardEnvironment;
 
 /**
  * Test for RegisterServiceImpl.
@@ -62,6 +69,8 @@ class RegisterServiceImplTest {
     @Mock
     private DeployService mockDeployService;
     @Mock
+    private OclVersionStore mockOclVersionStore;
+    @Mock
     private OpenApiUtil openApiUtil;
     @InjectMocks
     private RegisterServiceImpl registerServiceImplUnderTest;
@@ -73,6 +82,18 @@ class RegisterServiceImplTest {
         uuid = UUID.fromString("ed6248d4-2bcd-4e94-84b0-29e014c05137");
     }
 
+    private static TerraformDeployment getTerraformDeployment() {
+        return new TerraformDeployment("terraform", "test", true, "DEBUG", 64,
+                new DeployEnvironments(null),
+                new TerraformProviderMirror("terraform", "test_mirror", false, false, 4096),
+                new TerraformWorkspacePool("terraform", "test", false, 2, null),
+                new TerraformValidationCache(1000, false, null),
+                new TerraformTimeouts(new StandardEnvironment()),
+                new TerraformWorkspaceJanitor("test", 0, 0, 0),
+                event -> {
+                });
+    }
+
     @Test
     void testUpdateRegisteredServiceByUrl() throws Exception {
         Ocl ocl = oclLoader.getOcl(new URL(oclLocation));
@@ -89,9 +110,7 @@ class RegisterServiceImplTest {
 
         when(mockOclLoader.getOcl(new URL(oclLocation))).thenReturn(ocl);
         when(mockStorage.getRegisterServiceById(uuid)).thenReturn(registerServiceEntity);
-        TerraformDeployment deployment =
-                new TerraformDeployment("test", true, "DEBUG", new DeployEnvironments(null));
-        doReturn(deployment).when(mockDeployService).getDeployment(any());
+        doReturn(getTerraformDeployment()).when(mockDeployService).getDeployment(any());
 
         RegisterServiceEntity registeredServiceEntityByUrl =
                 registerServiceImplUnderTest.updateRegisteredServiceByUrl(uuid.toString(),
@@ -124,9 +143,7 @@ class RegisterServiceImplTest {
         registerServiceEntity.setOcl(oclRegister);
 
         when(mockStorage.getRegisterServiceById(uuid)).thenReturn(registerServiceEntity);
-        TerraformDeployment deployment =
-                new TerraformDeployment("test", true, "DEBUG", new DeployEnvironments(null));
-        doReturn(deployment).when(mockDeployService).getDeployment(any());
+        doReturn(getTerraformDeployment()).when(mockDeployService).getDeployment(any());
 
         RegisterServiceEntity updateRegisteredServiceEntity =
                 registerServiceImplUnderTest.updateRegisteredService(uuid.toString(), ocl);
@@ -138,9 +155,7 @@ class RegisterServiceImplTest {
 
     @Test
     void testRegisterService() {
-        TerraformDeployment deployment =
-                new TerraformDeployment("test", true, "DEBUG", new DeployEnvironments(null));
-        doReturn(deployment).when(mockDeployService).getDeployment(any());
+        doReturn(getTerraformDeployment()).when(mockDeployService).getDeployment(any());
         RegisterServiceEntity registerServiceEntity =
                 registerServiceImplUnderTest.registerService(oclRegister);
         Assertions.assertEquals(ServiceState.REGISTERED, registerServiceEntity.getServiceState());
@@ -150,9 +165,7 @@ class RegisterServiceImplTest {
     @Test
     void testRegisterServiceByUrl() throws Exception {
         when(mockOclLoader.getOcl(new URL(oclLocation))).thenReturn(oclRegister);
-        TerraformDeployment deployment =
-                new TerraformDeployment("test", true, "DEBUG", new DeployEnvironments(null));
-        doReturn(deployment).when(mockDeployService).getDeployment(any());
+        doReturn(getTerraformDeployment()).when(mockDeployService).getDeployment(any());
         RegisterServiceEntity registerServiceEntity =
                 registerServiceImplUnderTest.registerServiceByUrl(oclLocation);
         Assertions.assertEquals(ServiceState.REGISTERED, registerServiceEntity.getServiceState());
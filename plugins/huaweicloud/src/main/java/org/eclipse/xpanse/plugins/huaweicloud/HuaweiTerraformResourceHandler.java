@@ -6,26 +6,9 @@
 
 package org.eclipse.xpanse.plugins.huaweicloud;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import lombok.extern.slf4j.Slf4j;
-import org.eclipse.xpanse.modules.deployment.deployers.terraform.resource.TfOutput;
-import org.eclipse.xpanse.modules.deployment.deployers.terraform.resource.TfState;
-import org.eclipse.xpanse.modules.deployment.deployers.terraform.resource.TfStateResource;
-import org.eclipse.xpanse.modules.deployment.deployers.terraform.resource.TfStateResourceInstance;
-import org.eclipse.xpanse.modules.deployment.deployers.terraform.utils.TfResourceTransUtils;
-import org.eclipse.xpanse.modules.models.service.deploy.DeployResource;
-import org.eclipse.xpanse.modules.models.service.deploy.DeployResult;
-import org.eclipse.xpanse.modules.models.service.deploy.PublicIp;
-import org.eclipse.xpanse.modules.models.service.deploy.Vm;
-import org.eclipse.xpanse.modules.models.service.deploy.Volume;
-import org.eclipse.xpanse.modules.models.service.deploy.Vpc;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.TerraformResourceHandler;
+import org.eclipse.xpanse.modules.deployment.deployers.terraform.resource.TfResourceTable;
 import org.eclipse.xpanse.modules.models.service.deploy.enums.DeployResourceKind;
-import org.eclipse.xpanse.modules.models.service.deploy.exceptions.TerraformExecutorException;
-import org.eclipse.xpanse.modules.orchestrator.deployment.DeployResourceHandler;
 import org.eclipse.xpanse.plugins.huaweicloud.models.HuaweiResourceProperty;
 import org.springframework.stereotype.Component;
 
@@ -33,74 +16,19 @@ import org.springframework.stereotype.Component;
  * Terraform resource handler for Huawei.
  */
 @Component
-@Slf4j
-public class HuaweiTerraformResourceHandler implements DeployResourceHandler {
+public class HuaweiTerraformResourceHandler extends TerraformResourceHandler {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final TfResourceTable RESOURCE_TABLE = new TfResourceTable()
+            .register("huaweicloud_compute_instance", DeployResourceKind.VM,
+                    HuaweiResourceProperty.getProperties(DeployResourceKind.VM))
+            .register("huaweicloud_vpc_eip", DeployResourceKind.PUBLIC_IP,
+                    HuaweiResourceProperty.getProperties(DeployResourceKind.PUBLIC_IP))
+            .register("huaweicloud_vpc_subnet", DeployResourceKind.VPC,
+                    HuaweiResourceProperty.getProperties(DeployResourceKind.VPC))
+            .register("huaweicloud_evs_volume", DeployResourceKind.VOLUME,
+                    HuaweiResourceProperty.getProperties(DeployResourceKind.VOLUME));
 
-    /**
-     * Handler of HuaweiCloud for the DeployResult.
-     *
-     * @param deployResult the result of the deployment.
-     */
-    @Override
-    public void handler(DeployResult deployResult) {
-        List<DeployResource> deployResourceList = new ArrayList<>();
-        TfState tfState;
-        try {
-            var stateFile = deployResult.getPrivateProperties().get("stateFile");
-            tfState = objectMapper.readValue(stateFile, TfState.class);
-        } catch (IOException ex) {
-            log.error("Parse terraform state content failed.");
-            throw new TerraformExecutorException("Parse terraform state content failed.", ex);
-        }
-        if (Objects.nonNull(tfState)) {
-            if (Objects.nonNull(tfState.getOutputs()) && !tfState.getOutputs().isEmpty()) {
-                for (String outputKey : tfState.getOutputs().keySet()) {
-                    TfOutput tfOutput = tfState.getOutputs().get(outputKey);
-                    deployResult.getProperties().put(outputKey, tfOutput.getValue());
-                }
-            }
-            for (TfStateResource tfStateResource : tfState.getResources()) {
-                if (tfStateResource.getType().equals("huaweicloud_compute_instance")) {
-                    for (TfStateResourceInstance instance : tfStateResource.getInstances()) {
-                        DeployResource deployResource = new Vm();
-                        deployResource.setKind(DeployResourceKind.VM);
-                        TfResourceTransUtils.fillDeployResource(instance, deployResource,
-                                HuaweiResourceProperty.getProperties(DeployResourceKind.VM));
-                        deployResourceList.add(deployResource);
-                    }
-                }
-                if (tfStateResource.getType().equals("huaweicloud_vpc_eip")) {
-                    for (TfStateResourceInstance instance : tfStateResource.getInstances()) {
-                        DeployResource deployResource = new PublicIp();
-                        deployResource.setKind(DeployResourceKind.PUBLIC_IP);
-                        TfResourceTransUtils.fillDeployResource(instance, deployResource,
-                                HuaweiResourceProperty.getProperties(DeployResourceKind.PUBLIC_IP));
-                        deployResourceList.add(deployResource);
-                    }
-                }
-                if (tfStateResource.getType().equals("huaweicloud_vpc_subnet")) {
-                    for (TfStateResourceInstance instance : tfStateResource.getInstances()) {
-                        DeployResource deployResource = new Vpc();
-                        deployResource.setKind(DeployResourceKind.VPC);
-                        TfResourceTransUtils.fillDeployResource(instance, deployResource,
-                                HuaweiResourceProperty.getProperties(DeployResourceKind.VPC));
-                        deployResourceList.add(deployResource);
-                    }
-                }
-                if (tfStateResource.getType().equals("huaweicloud_evs_volume")) {
-                    for (TfStateResourceInstance instance : tfStateResource.getInstances()) {
-                        DeployResource deployResource = new Volume();
-                        deployResource.setKind(DeployResourceKind.VOLUME);
-                        TfResourceTransUtils.fillDeployResource(instance, deployResource,
-                                HuaweiResourceProperty.getProperties(DeployResourceKind.VOLUME));
-                        deployResourceList.add(deployResource);
-                    }
-                }
-            }
-        }
-        deployResult.setResources(deployResourceList);
+    public HuaweiTerraformResourceHandler() {
+        super(RESOURCE_TABLE);
     }
-
 }
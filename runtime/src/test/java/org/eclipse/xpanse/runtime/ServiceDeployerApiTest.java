@@ -155,7 +155,8 @@ public class ServiceDeployerApiTest {
         createRequest.setServiceRequestProperties(serviceRequestProperties);
 
         serviceDeployerApi.deploy(createRequest);
-        List<ServiceVo> serviceVos = serviceDeployerApi.listDeployedServices();
+        List<ServiceVo> serviceVos = serviceDeployerApi.listDeployedServices(null, null,
+                null, null, null, 100);
         log.error(serviceVos.toString());
         Assertions.assertFalse(serviceVos.isEmpty());
     }
@@ -181,7 +182,8 @@ public class ServiceDeployerApiTest {
 
         serviceDeployerApi.deploy(createRequest);
         List<ServiceVo> deployedServicesByUser =
-                serviceDeployerApi.getDeployedServicesByUser(createRequest.getUserName());
+                serviceDeployerApi.getDeployedServicesByUser(createRequest.getUserName(),
+                        null, null, null, null, null, 100);
         log.error(deployedServicesByUser.toString());
         Assertions.assertFalse(deployedServicesByUser.isEmpty());
     }